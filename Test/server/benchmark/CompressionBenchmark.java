@@ -0,0 +1,105 @@
+package server.benchmark;
+
+import shared.DTO.HorseDTO;
+import shared.DTO.RaceDTO;
+import shared.DTO.RaceState;
+import shared.DTO.RaceTrackDTO;
+import shared.Respond;
+import shared.protocol.BinaryCodec;
+import shared.protocol.FrameDeflater;
+import shared.protocol.FrameInflater;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.Deflater;
+
+/**
+ * Measures what deflating large binary frames saves and costs, for getHorseList, getRaceTracks and
+ * getRaceList responses at several catalogue sizes, with a {@link FrameDeflater} and a {@link FrameInflater}
+ * reused across messages as a connection does.
+ * <p>
+ * Reports the frame size before and after compression and the time to compress and to inflate one frame,
+ * at the fastest and the default deflate level. Run with e.g. {@code java server.benchmark.CompressionBenchmark}.
+ * </p>
+ */
+public class CompressionBenchmark {
+  private static final String[] LOCATIONS = {"Aarhus", "Horsens", "Copenhagen", "Aalborg", "Odense"};
+
+  public static void main(String[] args) throws Exception {
+    int[] sizes = {10, 100, 1_000, 10_000};
+    int[] levels = {Deflater.BEST_SPEED, Deflater.DEFAULT_COMPRESSION};
+
+    System.out.printf("%-14s %7s %6s %12s %12s %7s %12s %12s%n",
+        "response", "entries", "level", "frame bytes", "deflated", "saved", "deflate us", "inflate us");
+    for (int size : sizes) {
+      Respond[] responses = {
+          new Respond("getHorseList", horses(size), "1"),
+          new Respond("getRaceTracks", tracks(size), "2"),
+          new Respond("getRaceList", races(size / 10 + 1), "3"),
+      };
+      for (Respond respond : responses) {
+        byte[] frame = BinaryCodec.encode(respond);
+        for (int level : levels) {
+          measure(respond.type(), size, level, frame);
+        }
+      }
+    }
+  }
+
+  private static void measure(String type, int size, int level, byte[] frame) throws Exception {
+    FrameDeflater deflater = new FrameDeflater(level);
+    FrameInflater inflater = new FrameInflater();
+    int iterations = Math.max(20, 20_000_000 / frame.length);
+
+    byte[] compressed = frame;
+    long start = 0;
+    for (int i = 0; i < 2 * iterations; i++) {
+      if (i == iterations) start = System.nanoTime(); // first half warms up
+      compressed = deflater.deflate(frame);
+    }
+    long deflateNanos = (System.nanoTime() - start) / iterations;
+
+    byte[] body = Arrays.copyOfRange(compressed, BinaryCodec.HEADER_LENGTH, compressed.length);
+    long sink = 0;
+    for (int i = 0; i < 2 * iterations; i++) {
+      if (i == iterations) start = System.nanoTime();
+      sink += inflater.inflate(body).length;
+    }
+    long inflateNanos = (System.nanoTime() - start) / iterations;
+
+    System.out.printf("%-14s %7d %6s %12d %12d %6.0f%% %12.1f %12.1f%s%n", type, size,
+        level == Deflater.BEST_SPEED ? "fast" : "default", frame.length, compressed.length,
+        100.0 * (frame.length - compressed.length) / frame.length, deflateNanos / 1000.0, inflateNanos / 1000.0,
+        sink == 42 ? " " : "");
+    deflater.end();
+    inflater.end();
+  }
+
+  private static List<HorseDTO> horses(int count) {
+    List<HorseDTO> horses = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      horses.add(new HorseDTO(i + 1, "Horse " + (i + 1), 1 + i % 5, 6 + i % 7));
+    }
+    return horses;
+  }
+
+  private static List<RaceTrackDTO> tracks(int count) {
+    List<RaceTrackDTO> tracks = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      tracks.add(new RaceTrackDTO("Track " + (i + 1), 800 + 100 * (i % 12), LOCATIONS[i % LOCATIONS.length]));
+    }
+    return tracks;
+  }
+
+  private static List<RaceDTO> races(int count) {
+    List<RaceDTO> races = new ArrayList<>(count);
+    List<HorseDTO> field = horses(8);
+    for (int i = 0; i < count; i++) {
+      races.add(new RaceDTO("Race " + (i + 1), new Timestamp(1_760_000_000_000L + i * 600_000L), field,
+          new RaceTrackDTO("Track " + (i % 20), 1200, LOCATIONS[i % LOCATIONS.length]), RaceState.NOT_STARTED));
+    }
+    return races;
+  }
+}
@@ -0,0 +1,103 @@
+package server.benchmark;
+
+import server.networking.ConnectionMode;
+import server.networking.Server;
+import server.networking.ServerConfig;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares the thread-per-connection engine with the NIO selector engine.
+ * <p>
+ * For each mode the benchmark starts an in-process server, opens {@code clients} idle connections,
+ * reports live threads and used heap, and then measures how fast {@code messages} broadcasts reach
+ * every client. Run with e.g. {@code java server.benchmark.ConnectionModelBenchmark 2000 200}.
+ * </p>
+ */
+public class ConnectionModelBenchmark {
+  private static final int PORT = 2911;
+
+  public static void main(String[] args) throws Exception {
+    int clients = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+    int messages = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+
+    System.out.printf("%-22s %8s %8s %10s %14s%n", "mode", "clients", "threads", "heap MB", "msgs/s");
+    for (ConnectionMode mode : ConnectionMode.values()) {
+      run(mode, clients, messages);
+    }
+  }
+
+  private static void run(ConnectionMode mode, int clients, int messages) throws Exception {
+    ServerConfig config = new ServerConfig();
+    config.setPort(PORT);
+    config.setMode(mode);
+    Server server = new Server(config);
+
+    Thread serverThread = new Thread(() -> {
+      try {
+        server.start();
+      } catch (IOException e) {
+        e.printStackTrace();
+      }
+    });
+    serverThread.start();
+    Thread.sleep(500);
+
+    Selector selector = Selector.open();
+    List<SocketChannel> channels = new ArrayList<>();
+    for (int i = 0; i < clients; i++) {
+      SocketChannel channel = SocketChannel.open(new InetSocketAddress("localhost", PORT));
+      channel.configureBlocking(false);
+      channel.register(selector, SelectionKey.OP_READ);
+      channels.add(channel);
+    }
+    while (Server.getClientCount() < clients) Thread.sleep(10);
+    Thread.sleep(500);
+
+    System.gc();
+    int threads = ManagementFactory.getThreadMXBean().getThreadCount();
+    long heap = Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
+
+    long start = System.nanoTime();
+    Thread broadcaster = new Thread(() -> {
+      for (int i = 0; i < messages; i++) {
+        Server.broadcast("benchmark", "tick " + i);
+      }
+    });
+    broadcaster.start();
+
+    long expected = (long) clients * messages;
+    long received = 0;
+    ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+    while (received < expected) {
+      selector.select(1000);
+      for (SelectionKey key : selector.selectedKeys()) {
+        buffer.clear();
+        int read = ((SocketChannel) key.channel()).read(buffer);
+        for (int i = 0; i < read; i++) {
+          if (buffer.get(i) == '\n') received++;
+        }
+      }
+      selector.selectedKeys().clear();
+    }
+    double seconds = (System.nanoTime() - start) / 1e9;
+    broadcaster.join();
+
+    System.out.printf("%-22s %8d %8d %10.1f %14.0f%n",
+        mode, clients, threads, heap / 1024.0 / 1024.0, expected / seconds);
+
+    for (SocketChannel channel : channels) channel.close();
+    selector.close();
+    server.stop();
+    serverThread.join(5000);
+    while (Server.getClientCount() > 0) Thread.sleep(10);
+  }
+}
@@ -0,0 +1,107 @@
+package server.benchmark;
+
+import server.networking.ConnectionMode;
+import server.networking.Server;
+import server.networking.ServerConfig;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Checks connection liveness: clients that answer the heartbeat stay connected, clients that went silent
+ * are removed after the read timeout, and no more than the configured number of clients are connected at
+ * once; the rest wait until a place is free.
+ * <p>
+ * Run with e.g. {@code java server.benchmark.DeadClientBenchmark 20 20}.
+ * </p>
+ */
+public class DeadClientBenchmark {
+  private static final int PORT = 2914;
+
+  public static void main(String[] args) throws Exception {
+    int live = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+    int silent = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+
+    for (ConnectionMode mode : ConnectionMode.values()) {
+      run(mode, live, silent);
+    }
+  }
+
+  private static void run(ConnectionMode mode, int live, int silent) throws Exception {
+    ServerConfig config = new ServerConfig();
+    config.setPort(PORT);
+    config.setMode(mode);
+    config.setHeartbeatMillis(200);
+    config.setReadTimeoutMillis(1000);
+    config.setMaxConnections(live + silent);
+    Server server = new Server(config);
+    Thread serverThread = new Thread(() -> {
+      try {
+        server.start();
+      } catch (IOException e) {
+        e.printStackTrace();
+      }
+    });
+    serverThread.start();
+    Thread.sleep(500);
+    long deadBefore = Server.getDeadClientDisconnectCount();
+
+    List<Socket> sockets = new ArrayList<>();
+    for (int i = 0; i < live; i++) {
+      Socket socket = new Socket("localhost", PORT);
+      sockets.add(socket);
+      Thread.startVirtualThread(() -> answerPings(socket));
+    }
+    for (int i = 0; i < silent; i++) {
+      sockets.add(new Socket("localhost", PORT)); // never reads, never answers
+    }
+    awaitClients(live + silent, 2000);
+
+    // The server is full: this client is only accepted once the silent ones are gone
+    Socket waiting = new Socket("localhost", PORT);
+    Thread.startVirtualThread(() -> answerPings(waiting));
+    Thread.sleep(300);
+    int whileFull = Server.getClientCount();
+
+    Thread.sleep(2000);
+    int afterTimeout = Server.getClientCount();
+    long dead = Server.getDeadClientDisconnectCount() - deadBefore;
+
+    System.out.printf("%-22s connected while full: %d/%d, after timeout: %d (expected %d), silent removed: %d%n",
+        mode, whileFull, live + silent, afterTimeout, live + 1, dead);
+
+    waiting.close();
+    for (Socket socket : sockets) socket.close();
+    server.stop();
+    serverThread.join(5000);
+    Thread.sleep(200);
+  }
+
+  /** Reads JSON lines and answers every ping, like the client's receive thread. */
+  private static void answerPings(Socket socket) {
+    try {
+      BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+      OutputStream out = socket.getOutputStream();
+      String line;
+      while ((line = in.readLine()) != null) {
+        if (line.contains("\"type\":\"ping\"")) {
+          out.write("{\"handler\":\"connection\",\"action\":\"pong\",\"payload\":0}\n".getBytes(StandardCharsets.UTF_8));
+          out.flush();
+        }
+      }
+    } catch (IOException e) {
+      // closed at the end of the run
+    }
+  }
+
+  private static void awaitClients(int count, long timeoutMillis) throws InterruptedException {
+    long until = System.currentTimeMillis() + timeoutMillis;
+    while (Server.getClientCount() < count && System.currentTimeMillis() < until) Thread.sleep(10);
+  }
+}
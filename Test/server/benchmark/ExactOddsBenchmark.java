@@ -0,0 +1,56 @@
+package server.benchmark;
+
+import server.model.ExactOdds;
+import server.model.Horse;
+import server.model.MonteCarloOdds;
+import server.model.RaceTrack;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Measures how long {@link ExactOdds} takes to price a race, the first time its horses run the distance and
+ * once their finish-tick distributions are kept, and how far its probabilities lie from a large
+ * {@link MonteCarloOdds} estimate.
+ * <p>
+ * Run with e.g. {@code java server.benchmark.ExactOddsBenchmark 7 1000 1000000}
+ * (horses, track length, simulated races for the comparison).
+ * </p>
+ */
+public class ExactOddsBenchmark {
+  private static final int WARM_RACES = 100_000;
+
+  public static void main(String[] args) {
+    int horseCount = args.length > 0 ? Integer.parseInt(args[0]) : 7;
+    int trackLength = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+    long simulations = args.length > 2 ? Long.parseLong(args[2]) : 1_000_000;
+
+    List<Horse> horses = new ArrayList<>();
+    for (int i = 0; i < horseCount; i++) horses.add(new Horse(i, "Horse " + i, 3 + i % 4, 12 + i % 5));
+    RaceTrack track = new RaceTrack("Benchmark", trackLength, "Nowhere");
+
+    // Warm up the code on another distance, so the cold run below only pays for the distributions
+    ExactOdds warmUp = new ExactOdds();
+    for (int i = 0; i < 200; i++) warmUp.winProbabilities(horses, new RaceTrack("Warm-up", trackLength + 1 + i, "Nowhere"));
+
+    ExactOdds odds = new ExactOdds();
+    long start = System.nanoTime();
+    double[] exact = odds.winProbabilities(horses, track);
+    double coldMillis = (System.nanoTime() - start) / 1e6;
+
+    double checksum = 0;
+    start = System.nanoTime();
+    for (int i = 0; i < WARM_RACES; i++) checksum += odds.winProbabilities(horses, track)[i % horseCount];
+    double warmMicros = (System.nanoTime() - start) / 1e3 / WARM_RACES;
+
+    double[] simulated = new MonteCarloOdds(ForkJoinPool.commonPool(), 600_000, simulations, 1)
+        .winProbabilities(horses, track);
+    double maxDifference = 0;
+    for (int lane = 0; lane < horseCount; lane++) maxDifference = Math.max(maxDifference, Math.abs(exact[lane] - simulated[lane]));
+
+    System.out.printf("%d horses, track %d: first pricing %.2f ms (%d distributions), then %.1f us per race%n",
+        horseCount, trackLength, coldMillis, odds.getCachedDistributionCount(), warmMicros);
+    System.out.printf("max difference to %,d simulated races: %.4f (checksum %.3f)%n", simulations, maxDifference, checksum);
+  }
+}
@@ -0,0 +1,63 @@
+package server.benchmark;
+
+import server.model.Horse;
+import server.model.HorseRoster;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * Measures the time to draw the field of a race from catalogues of growing size, by shuffling a copy of the
+ * whole catalogue as races used to and by drawing from the {@link HorseRoster}. Reading the catalogue from
+ * the database, which races used to do for every field as well, is left out.
+ * <p>
+ * Run with e.g. {@code java server.benchmark.FieldSelectionBenchmark 8 100 10000 100000}
+ * (field size, then the catalogue sizes).
+ * </p>
+ */
+public class FieldSelectionBenchmark {
+  private static final int DRAWS = 20_000;
+
+  public static void main(String[] args) throws Exception {
+    int fieldSize = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+    int[] catalogues = {100, 10_000, 100_000};
+    if (args.length > 1) {
+      catalogues = new int[args.length - 1];
+      for (int i = 1; i < args.length; i++) catalogues[i - 1] = Integer.parseInt(args[i]);
+    }
+
+    for (int size : catalogues) {
+      List<Horse> horses = new ArrayList<>(size);
+      for (int i = 0; i < size; i++) horses.add(new Horse(i, "Horse " + i, 3 + i % 7, 12 + i % 9));
+      HorseRoster roster = new HorseRoster(() -> horses);
+      Set<Integer> busy = Set.of(1, 2, 3, 4, 5, 6, 7, 8);
+      SplittableRandom random = new SplittableRandom(7);
+
+      long sink = 0;
+      double[] nanos = new double[3];
+      for (int round = 0; round < 2; round++) { // the first round warms up
+        long start = System.nanoTime();
+        for (int i = 0; i < DRAWS; i++) {
+          List<Horse> all = new ArrayList<>(horses);
+          Collections.shuffle(all);
+          sink += all.subList(0, fieldSize).get(0).getId();
+        }
+        nanos[0] = (double) (System.nanoTime() - start) / DRAWS;
+
+        start = System.nanoTime();
+        for (int i = 0; i < DRAWS; i++) sink += roster.select(fieldSize, Set.of(), false, random).get(0).getId();
+        nanos[1] = (double) (System.nanoTime() - start) / DRAWS;
+
+        start = System.nanoTime();
+        for (int i = 0; i < DRAWS; i++) sink += roster.select(fieldSize, busy, true, random).get(0).getId();
+        nanos[2] = (double) (System.nanoTime() - start) / DRAWS;
+      }
+
+      System.out.printf("%,7d horses, %d per field: shuffle all %,.0f ns, roster %,.0f ns, "
+          + "roster balanced with exclusions %,.0f ns (%d)%n", size, fieldSize, nanos[0], nanos[1], nanos[2], sink % 2);
+    }
+  }
+}
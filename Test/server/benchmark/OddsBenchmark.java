@@ -0,0 +1,64 @@
+package server.benchmark;
+
+import server.model.Horse;
+import server.model.MonteCarloOdds;
+import server.model.RaceTrack;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Measures how many races {@link MonteCarloOdds} simulates within its time budget on one thread and on all
+ * cores, and how far the estimates of two runs lie apart.
+ * <p>
+ * Run with e.g. {@code java server.benchmark.OddsBenchmark 8 1000 200}
+ * (horses, track length, budget in milliseconds).
+ * </p>
+ */
+public class OddsBenchmark {
+  private static final int ROUNDS = 5;
+
+  public static void main(String[] args) {
+    int horseCount = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+    int trackLength = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+    long budgetMillis = args.length > 2 ? Long.parseLong(args[2]) : 200;
+
+    List<Horse> horses = new ArrayList<>();
+    for (int i = 0; i < horseCount; i++) horses.add(new Horse(i, "Horse " + i, 3 + i % 4, 12 + i % 5));
+    RaceTrack track = new RaceTrack("Benchmark", trackLength, "Nowhere");
+
+    int cores = Runtime.getRuntime().availableProcessors();
+    for (int threads : cores > 1 ? new int[] {1, cores} : new int[] {1}) {
+      ForkJoinPool pool = new ForkJoinPool(threads);
+      new MonteCarloOdds(pool, budgetMillis, Long.MAX_VALUE, 1).winProbabilities(horses, track); // warm up
+
+      double maxDifference = 0;
+      long totalNanos = 0;
+      double[] previous = null;
+      for (int round = 0; round < ROUNDS; round++) {
+        long start = System.nanoTime();
+        double[] probabilities =
+            new MonteCarloOdds(pool, budgetMillis, Long.MAX_VALUE, round).winProbabilities(horses, track);
+        totalNanos += System.nanoTime() - start;
+        if (previous != null) {
+          for (int lane = 0; lane < probabilities.length; lane++) {
+            maxDifference = Math.max(maxDifference, Math.abs(probabilities[lane] - previous[lane]));
+          }
+        }
+        previous = probabilities;
+      }
+
+      // Races per estimate, measured separately with a limit the budget cannot reach
+      long limit = 1_000_000;
+      long start = System.nanoTime();
+      new MonteCarloOdds(pool, 60_000, limit, 1).winProbabilities(horses, track);
+      double racesPerSecond = limit / ((System.nanoTime() - start) / 1e9);
+
+      System.out.printf("%2d threads: %.0f ms per estimate, ~%,.0f races per %d ms budget, "
+              + "max difference between estimates %.4f%n",
+          threads, totalNanos / 1e6 / ROUNDS, racesPerSecond * budgetMillis / 1000, budgetMillis, maxDifference);
+      pool.shutdown();
+    }
+  }
+}
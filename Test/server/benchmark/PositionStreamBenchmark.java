@@ -0,0 +1,77 @@
+package server.benchmark;
+
+import com.google.gson.Gson;
+import server.model.Horse;
+import server.model.RaceSimulator;
+import server.model.RaceTrack;
+import server.model.SimulationResult;
+import shared.Respond;
+import shared.protocol.BinaryCodec;
+import shared.updates.HorsePositionsUpdate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Measures the bytes sent per tick for the positions of one race, as full positions every tick against
+ * keyframes every ten ticks with deltas in between, in the JSON and the binary wire format.
+ * <p>
+ * Run with e.g. {@code java server.benchmark.PositionStreamBenchmark 1000 8 32 64}
+ * (track length, then the field sizes).
+ * </p>
+ */
+public class PositionStreamBenchmark {
+  private static final int KEYFRAME_INTERVAL = 10;
+
+  public static void main(String[] args) {
+    int trackLength = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+    int[] fields = {8, 32, 64};
+    if (args.length > 1) {
+      fields = new int[args.length - 1];
+      for (int i = 1; i < args.length; i++) fields[i - 1] = Integer.parseInt(args[i]);
+    }
+
+    Gson gson = new Gson();
+    for (int horseCount : fields) {
+      List<Horse> horses = new ArrayList<>();
+      for (int i = 0; i < horseCount; i++) horses.add(new Horse(i, "Horse " + i, 3 + i % 7, 12 + i % 9));
+      SimulationResult result = new RaceSimulator(horses, new RaceTrack("Benchmark", trackLength, "Nowhere"))
+          .simulate(new SplittableRandom(11));
+
+      long fullJson = 0, fullBinary = 0, deltaJson = 0, deltaBinary = 0;
+      int[] previous = new int[horseCount];
+      for (int tick = 1; tick <= result.getTicks(); tick++) {
+        int[] positions = result.getPositions(tick);
+        List<Integer> all = new ArrayList<>();
+        for (int position : positions) all.add(position);
+        Respond full = new Respond("horseMoveUpdate", new HorsePositionsUpdate("Derby", all, 1, tick));
+
+        Respond sent = full;
+        if ((tick - 1) % KEYFRAME_INTERVAL != 0) {
+          List<Integer> lanes = new ArrayList<>();
+          List<Integer> steps = new ArrayList<>();
+          for (int lane = 0; lane < horseCount; lane++) {
+            if (positions[lane] != previous[lane]) {
+              lanes.add(lane);
+              steps.add(positions[lane] - previous[lane]);
+            }
+          }
+          sent = new Respond("horseMoveUpdate", HorsePositionsUpdate.delta("Derby", 1, tick, lanes, steps));
+        }
+        previous = positions;
+
+        fullJson += gson.toJson(full).getBytes(StandardCharsets.UTF_8).length;
+        fullBinary += BinaryCodec.encode(full).length;
+        deltaJson += gson.toJson(sent).getBytes(StandardCharsets.UTF_8).length;
+        deltaBinary += BinaryCodec.encode(sent).length;
+      }
+
+      int ticks = result.getTicks();
+      System.out.printf("%2d horses, %d ticks: JSON %.0f -> %.0f B/tick (%.1fx), binary %.0f -> %.0f B/tick (%.1fx)%n",
+          horseCount, ticks, (double) fullJson / ticks, (double) deltaJson / ticks, (double) fullJson / deltaJson,
+          (double) fullBinary / ticks, (double) deltaBinary / ticks, (double) fullBinary / deltaBinary);
+    }
+  }
+}
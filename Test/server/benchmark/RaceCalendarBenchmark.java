@@ -0,0 +1,141 @@
+package server.benchmark;
+
+import server.model.Horse;
+import server.model.HorseList;
+import server.model.Race;
+import server.model.RaceManager;
+import server.model.RaceSchedulerConfig;
+import server.model.RaceTrack;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.sql.Timestamp;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checks the start-time scheduling of the {@link RaceManager}.
+ * <ol>
+ *   <li>Races with staggered start times: how late betting opened and the races started compared to their
+ *   schedule.</li>
+ *   <li>A calendar of n future races: the average cost of rescheduling and cancelling a race, for growing n.
+ *   With a time-ordered queue it should grow with log n, not n.</li>
+ * </ol>
+ * Races are not run to the end and not persisted.
+ * <p>
+ * Run with e.g. {@code java server.benchmark.RaceCalendarBenchmark 50}.
+ * </p>
+ */
+public class RaceCalendarBenchmark {
+  private static final long BETTING_WINDOW_MILLIS = 100;
+  private static final long SPACING_MILLIS = 40;
+
+  public static void main(String[] args) throws Exception {
+    int staggered = args.length > 0 ? Integer.parseInt(args[0]) : 50;
+
+    RaceSchedulerConfig config = new RaceSchedulerConfig();
+    config.setMaxConcurrentRaces(1000);
+    config.setBettingWindowMillis(BETTING_WINDOW_MILLIS);
+    RaceManager manager = RaceManager.getInstance();
+    manager.configure(config);
+
+    PrintStream report = System.out;
+    System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    try {
+      measureLateness(report, manager, staggered);
+      for (int size : new int[] {1_000, 10_000, 100_000}) measureCalendar(report, manager, size);
+    } finally {
+      System.setOut(report);
+    }
+  }
+
+  private static void measureLateness(PrintStream report, RaceManager manager, int races) throws InterruptedException {
+    CountDownLatch started = new CountDownLatch(races);
+    TimedRace[] timed = new TimedRace[races];
+    long first = System.currentTimeMillis() + 500;
+    for (int i = 0; i < races; i++) {
+      timed[i] = new TimedRace("timed-" + i, started);
+      timed[i].setDateTime(new Timestamp(first + i * SPACING_MILLIS));
+      manager.addRace(timed[i]);
+    }
+    if (!started.await(first - System.currentTimeMillis() + races * SPACING_MILLIS + 5000, TimeUnit.MILLISECONDS)) {
+      report.println("Not every race started");
+    }
+
+    long maxOpen = 0, maxStart = 0, sumOpen = 0, sumStart = 0;
+    for (TimedRace race : timed) {
+      long start = race.getDateTime().getTime();
+      long openLate = race.openedAt - (start - BETTING_WINDOW_MILLIS);
+      long startLate = race.startedAt - start;
+      maxOpen = Math.max(maxOpen, openLate);
+      maxStart = Math.max(maxStart, startLate);
+      sumOpen += openLate;
+      sumStart += startLate;
+    }
+    report.printf("%d staggered races: betting opened %.1f ms late on average (max %d), races started %.1f ms late (max %d)%n",
+        races, (double) sumOpen / races, maxOpen, (double) sumStart / races, maxStart);
+  }
+
+  private static void measureCalendar(PrintStream report, RaceManager manager, int size) {
+    long dayAhead = System.currentTimeMillis() + TimeUnit.DAYS.toMillis(1);
+    Random random = new Random(size);
+    for (int i = 0; i < size; i++) {
+      Race race = new TimedRace("calendar-" + size + "-" + i, null);
+      race.setDateTime(new Timestamp(dayAhead + random.nextInt(1_000_000)));
+      manager.addRace(race);
+    }
+
+    int operations = 20_000;
+    long start = System.nanoTime();
+    for (int i = 0; i < operations; i++) {
+      String name = "calendar-" + size + "-" + random.nextInt(size);
+      manager.reschedule(name, new Timestamp(dayAhead + random.nextInt(1_000_000)));
+    }
+    long rescheduleNanos = (System.nanoTime() - start) / operations;
+
+    start = System.nanoTime();
+    for (int i = 0; i < size; i++) manager.cancel("calendar-" + size + "-" + i);
+    long cancelNanos = (System.nanoTime() - start) / size;
+
+    report.printf("calendar of %,d races: reschedule %d ns, cancel %d ns%n", size, rescheduleNanos, cancelNanos);
+  }
+
+  /** A race with a one-horse field that records when betting opened and it started, and finishes at once. */
+  private static final class TimedRace extends Race {
+    private final CountDownLatch started;
+    private volatile long openedAt;
+    private volatile long startedAt;
+
+    TimedRace(String name, CountDownLatch started) {
+      super(name, field(), new RaceTrack("Benchmark", 1, "Nowhere"));
+      this.started = started;
+    }
+
+    private static HorseList field() {
+      HorseList horses = new HorseList(1);
+      horses.addToList(new Horse(1, "Horse", 1, 1));
+      return horses;
+    }
+
+    @Override
+    public void openBetting() {
+      openedAt = System.currentTimeMillis();
+    }
+
+    @Override
+    public void start() {
+      startedAt = System.currentTimeMillis();
+      if (started != null) started.countDown();
+    }
+
+    @Override
+    public boolean tick() {
+      return true;
+    }
+
+    @Override
+    public void finish() {
+    }
+  }
+}
@@ -0,0 +1,100 @@
+package server.benchmark;
+
+import server.model.Horse;
+import server.model.HorseList;
+import server.model.Race;
+import server.model.RaceManager;
+import server.model.RaceSchedulerConfig;
+import server.model.RaceTrack;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs many races through the {@link RaceManager} at once and reports how long they took compared to
+ * running them one after the other, how many were active at the same time, and how many threads were used.
+ * Races are not persisted.
+ * <p>
+ * Run with e.g. {@code java server.benchmark.RaceSchedulerBenchmark 200 50}
+ * (races, concurrent race limit).
+ * </p>
+ */
+public class RaceSchedulerBenchmark {
+  private static final int HORSES = 8;
+  private static final int TRACK_LENGTH = 200;
+  private static final long BETTING_WINDOW_MILLIS = 200;
+  private static final long TICK_MILLIS = 20;
+
+  public static void main(String[] args) throws Exception {
+    int races = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+    int maxRaces = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+
+    RaceSchedulerConfig config = new RaceSchedulerConfig();
+    config.setSchedulerThreads(2);
+    config.setMaxConcurrentRaces(maxRaces);
+    config.setBettingWindowMillis(BETTING_WINDOW_MILLIS);
+    config.setTickIntervalMillis(TICK_MILLIS);
+    config.setTickResolutionMillis(TICK_MILLIS);
+    RaceManager manager = RaceManager.getInstance();
+    manager.configure(config);
+
+    // Races print every tick; keep the report readable
+    PrintStream report = System.out;
+    System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+    CountDownLatch finished = new CountDownLatch(races);
+    long[] ticks = new long[1];
+    int threadsBefore = Thread.activeCount();
+    long start = System.nanoTime();
+    for (int i = 0; i < races; i++) {
+      manager.addRace(new UnsavedRace("race-" + i, finished, ticks));
+    }
+
+    int peakActive = 0;
+    while (!finished.await(10, TimeUnit.MILLISECONDS)) {
+      peakActive = Math.max(peakActive, manager.getActiveRaceCount());
+    }
+    long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+    int threads = Thread.activeCount() - threadsBefore;
+    System.setOut(report);
+
+    long averageTicks = ticks[0] / races;
+    long serialMillis = races * (BETTING_WINDOW_MILLIS + averageTicks * TICK_MILLIS);
+    System.out.printf("%d races, limit %d: %d ms (one after the other: ~%d ms), %d active at most, %d new threads%n",
+        races, maxRaces, elapsedMillis, serialMillis, peakActive, threads);
+    System.out.println("unfinished races listed: " + manager.getAllRaces().size());
+  }
+
+  /** A race with a generated field that counts its ticks instead of saving its results. */
+  private static final class UnsavedRace extends Race {
+    private final CountDownLatch finished;
+    private final long[] ticks;
+
+    UnsavedRace(String name, CountDownLatch finished, long[] ticks) {
+      super(name, field(), new RaceTrack("Benchmark", TRACK_LENGTH, "Nowhere"));
+      this.finished = finished;
+      this.ticks = ticks;
+    }
+
+    private static HorseList field() {
+      HorseList horses = new HorseList(HORSES);
+      for (int i = 0; i < HORSES; i++) horses.addToList(new Horse(i, "Horse " + i, 5, 15));
+      return horses;
+    }
+
+    @Override
+    public boolean tick() {
+      synchronized (ticks) {
+        ticks[0]++;
+      }
+      return super.tick();
+    }
+
+    @Override
+    public void finish() {
+      finished.countDown();
+    }
+  }
+}
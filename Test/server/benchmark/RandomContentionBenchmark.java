@@ -0,0 +1,80 @@
+package server.benchmark;
+
+import server.model.Horse;
+import server.model.RaceField;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.random.RandomGenerator;
+
+/**
+ * Compares moving many concurrent races with one generator shared by all threads, as {@code Math.random()}
+ * does, against one {@link SplittableRandom} per race seeded when the race is created.
+ * <p>
+ * Run with e.g. {@code java server.benchmark.RandomContentionBenchmark 8 1000}
+ * (threads, races per thread).
+ * </p>
+ */
+public class RandomContentionBenchmark {
+  private static final long MEASURE_NANOS = 2_000_000_000L;
+  private static final int TRACK_LENGTH = 1000;
+
+  public static void main(String[] args) throws InterruptedException {
+    int threads = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+    int racesPerThread = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+
+    List<Horse> horses = new ArrayList<>();
+    for (int i = 0; i < 7; i++) horses.add(new Horse(i, "Horse " + i, 3 + i % 4, 12 + i % 5));
+
+    Random shared = new Random(); // one atomic seed, like Math.random()
+    for (int round = 0; round < 2; round++) { // the first round warms up
+      double sharedRate = measure(threads, racesPerThread, horses, race -> shared);
+      double ownRate = measure(threads, racesPerThread, horses, race -> new SplittableRandom(race));
+      if (round == 1) {
+        System.out.printf("%d threads x %d races: shared generator %,.0f horse moves/s, "
+                + "generator per race %,.0f horse moves/s (x%.1f)%n",
+            threads, racesPerThread, sharedRate, ownRate, ownRate / sharedRate);
+      }
+    }
+  }
+
+  private interface GeneratorFactory {
+    RandomGenerator forRace(long race);
+  }
+
+  private static double measure(int threads, int racesPerThread, List<Horse> horses, GeneratorFactory generators)
+      throws InterruptedException {
+    LongAdder moves = new LongAdder();
+    CountDownLatch done = new CountDownLatch(threads);
+    long deadline = System.nanoTime() + MEASURE_NANOS;
+    long start = System.nanoTime();
+    for (int t = 0; t < threads; t++) {
+      long firstRace = (long) t * racesPerThread;
+      Thread thread = new Thread(() -> {
+        RaceField[] fields = new RaceField[racesPerThread];
+        RandomGenerator[] randoms = new RandomGenerator[racesPerThread];
+        for (int r = 0; r < racesPerThread; r++) {
+          fields[r] = new RaceField(horses, TRACK_LENGTH);
+          randoms[r] = generators.forRace(firstRace + r);
+        }
+        long count = 0;
+        while (System.nanoTime() < deadline) {
+          for (int r = 0; r < racesPerThread; r++) {
+            if (fields[r].isComplete()) fields[r].reset();
+            count += fields[r].size() - fields[r].finishedCount();
+            fields[r].advance(randoms[r]);
+          }
+        }
+        moves.add(count);
+        done.countDown();
+      });
+      thread.start();
+    }
+    done.await();
+    return moves.sum() / ((System.nanoTime() - start) / 1e9);
+  }
+}
@@ -0,0 +1,86 @@
+package server.benchmark;
+
+import com.google.gson.Gson;
+import server.model.Horse;
+import server.model.RaceSimulator;
+import server.model.RaceTrack;
+import server.model.SimulationResult;
+import server.persistence.recording.RaceRecorder;
+import server.persistence.recording.RaceRecording;
+import server.persistence.recording.RaceRecordingRepositoryImpl;
+import shared.updates.HorsePositionsUpdate;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Measures the size of race recordings against the JSON position updates sent during the same races, and how
+ * fast recordings are stored in and read back from the memory-mapped file.
+ * <p>
+ * Run with e.g. {@code java server.benchmark.RecordingBenchmark 7 1000 10000}
+ * (horses, track length, races).
+ * </p>
+ */
+public class RecordingBenchmark {
+
+  public static void main(String[] args) throws IOException {
+    int horseCount = args.length > 0 ? Integer.parseInt(args[0]) : 7;
+    int trackLength = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+    int races = args.length > 2 ? Integer.parseInt(args[2]) : 10_000;
+
+    List<Horse> horses = new ArrayList<>();
+    int[] horseIds = new int[horseCount];
+    for (int i = 0; i < horseCount; i++) {
+      horses.add(new Horse(i, "Horse " + i, 3 + i % 4, 12 + i % 5));
+      horseIds[i] = 1000 + i;
+    }
+    RaceSimulator simulator = new RaceSimulator(horses, new RaceTrack("Benchmark", trackLength, "Nowhere"));
+    SplittableRandom random = new SplittableRandom(5);
+    SimulationResult[] results = new SimulationResult[Math.min(races, 500)];
+    for (int i = 0; i < results.length; i++) results[i] = simulator.simulate(random);
+
+    // JSON the clients receive for one race, for comparison
+    Gson gson = new Gson();
+    long jsonBytes = 0;
+    for (int tick = 1; tick <= results[0].getTicks(); tick++) {
+      List<Integer> positions = Arrays.stream(results[0].getPositions(tick)).boxed().toList();
+      jsonBytes += gson.toJson(new HorsePositionsUpdate("Race 0", positions)).getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    Path file = Files.createTempFile("recordings", ".rec");
+    try {
+      RaceRecordingRepositoryImpl repository = new RaceRecordingRepositoryImpl(file, 1 << 20);
+      long start = System.nanoTime();
+      for (int i = 0; i < races; i++) {
+        SimulationResult result = results[i % results.length];
+        RaceRecorder recorder = new RaceRecorder("Race " + i, horseIds, trackLength, 2000);
+        for (int tick = 1; tick <= result.getTicks(); tick++) recorder.record(result.getPositions(tick));
+        repository.save(recorder);
+      }
+      double saveMicros = (System.nanoTime() - start) / 1e3 / races;
+
+      long checksum = 0;
+      start = System.nanoTime();
+      for (int i = 0; i < races; i++) {
+        RaceRecording recording = repository.read("Race " + i);
+        checksum += recording.getPositions(recording.getTicks())[0];
+      }
+      double readMicros = (System.nanoTime() - start) / 1e3 / races;
+
+      System.out.printf("%d horses, track %d, %d ticks: recording %.0f bytes per race on average, "
+              + "JSON updates %d bytes%n",
+          horseCount, trackLength, results[0].getTicks(), (double) repository.size() / races, jsonBytes);
+      System.out.printf("save %.1f us (flushed), read %.1f us per race, file %,d bytes for %,d races "
+              + "(checksum %d)%n", saveMicros, readMicros, repository.size(), races, checksum);
+      repository.close();
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+}
@@ -0,0 +1,78 @@
+package server.benchmark;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import server.networking.socketHandling.DecodedRequest;
+import server.networking.socketHandling.RequestDispatcher;
+import shared.DTO.HorseDTO;
+import shared.Request;
+import shared.bet.CreateBetRequest;
+import shared.horse.HorseListRequest;
+import shared.loginRegister.LoginRequest;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Compares the previous request decoding (a {@link JsonObject} check, a second parse into {@link Request}
+ * and a third conversion of the payload tree) with the single-pass streaming decoder used by
+ * {@link RequestDispatcher#parse(String)}, on a mix of login, createBet and getHorseList requests.
+ * <p>
+ * Reports allocated bytes and time per request. Run with e.g.
+ * {@code java server.benchmark.RequestDecodingBenchmark 2000000}.
+ * </p>
+ */
+public class RequestDecodingBenchmark {
+  private static final Gson gson = new Gson();
+
+  public static void main(String[] args) {
+    int requests = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+
+    String[] mix = {
+        line("auth", "login", new LoginRequest("alice", "secret-password")),
+        line("bet", "createBet", new CreateBetRequest("alice", new HorseDTO(7, "Thunder", 3, 9), 150)),
+        line("horse", "getHorseList", new HorseListRequest()),
+    };
+    Class<?>[] payloadTypes = {LoginRequest.class, CreateBetRequest.class, HorseListRequest.class};
+    RequestDispatcher dispatcher = new RequestDispatcher();
+
+    System.out.printf("%-12s %14s %12s%n", "decoder", "bytes/request", "ns/request");
+    for (int round = 0; round < 3; round++) {
+      measure("three-pass", requests, () -> {
+        long sink = 0;
+        for (int i = 0; i < requests; i++) {
+          int k = i % mix.length;
+          JsonObject json = gson.fromJson(mix[k], JsonObject.class);
+          if (json.has("handler") && json.has("action") && json.has("payload")) {
+            Request request = gson.fromJson(mix[k], Request.class);
+            sink += gson.fromJson(request.payload(), payloadTypes[k]).hashCode();
+          }
+        }
+        return sink;
+      });
+      measure("streaming", requests, () -> {
+        long sink = 0;
+        for (int i = 0; i < requests; i++) {
+          DecodedRequest request = dispatcher.parse(mix[i % mix.length]);
+          sink += request.payload().hashCode();
+        }
+        return sink;
+      });
+    }
+  }
+
+  private static String line(String handler, String action, Object payload) {
+    return gson.toJson(new Request(handler, action, gson.toJsonTree(payload)));
+  }
+
+  private static void measure(String name, int requests, java.util.function.LongSupplier run) {
+    com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    long thread = Thread.currentThread().threadId();
+    long bytesBefore = threads.getThreadAllocatedBytes(thread);
+    long start = System.nanoTime();
+    long sink = run.getAsLong();
+    long nanos = System.nanoTime() - start;
+    long bytes = threads.getThreadAllocatedBytes(thread) - bytesBefore;
+    System.out.printf("%-12s %14.0f %12.0f%s%n", name, (double) bytes / requests, (double) nanos / requests,
+        sink == 42 ? " " : "");
+  }
+}
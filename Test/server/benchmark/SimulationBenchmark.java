@@ -0,0 +1,59 @@
+package server.benchmark;
+
+import server.model.Horse;
+import server.model.RaceSimulator;
+import server.model.RaceTrack;
+import server.model.SimulationResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Measures the headless {@link RaceSimulator} on one thread: ticks per second when recording the full trace,
+ * and races per second when only the winner is needed.
+ * <p>
+ * Run with e.g. {@code java server.benchmark.SimulationBenchmark 8 1000}
+ * (horses, track length).
+ * </p>
+ */
+public class SimulationBenchmark {
+  private static final long MEASURE_NANOS = 2_000_000_000L;
+
+  public static void main(String[] args) {
+    int horseCount = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+    int trackLength = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+
+    List<Horse> horses = new ArrayList<>();
+    for (int i = 0; i < horseCount; i++) horses.add(new Horse(i, "Horse " + i, 3 + i % 4, 12 + i % 5));
+    RaceSimulator simulator = new RaceSimulator(horses, new RaceTrack("Benchmark", trackLength, "Nowhere"));
+    SplittableRandom random = new SplittableRandom(7);
+
+    // Warm up both paths
+    for (int i = 0; i < 20_000; i++) {
+      simulator.simulate(random);
+      simulator.simulateWinner(random);
+    }
+
+    long races = 0, ticks = 0, checksum = 0;
+    long start = System.nanoTime();
+    while (System.nanoTime() - start < MEASURE_NANOS) {
+      SimulationResult result = simulator.simulate(random);
+      ticks += result.getTicks();
+      checksum += result.getWinner();
+      races++;
+    }
+    double seconds = (System.nanoTime() - start) / 1e9;
+    System.out.printf("with trace: %,.0f races/s, %,.0f ticks/s (%d horses, track %d)%n",
+        races / seconds, ticks / seconds, horseCount, trackLength);
+
+    races = 0;
+    start = System.nanoTime();
+    while (System.nanoTime() - start < MEASURE_NANOS) {
+      checksum += simulator.simulateWinner(random);
+      races++;
+    }
+    seconds = (System.nanoTime() - start) / 1e9;
+    System.out.printf("winner only: %,.0f races/s (checksum %d)%n", races / seconds, checksum);
+  }
+}
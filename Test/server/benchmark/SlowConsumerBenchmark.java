@@ -0,0 +1,104 @@
+package server.benchmark;
+
+import server.networking.ConnectionMode;
+import server.networking.Server;
+import server.networking.ServerConfig;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Checks the outbound queues with one client that never reads: broadcasts must not slow down,
+ * position updates are coalesced for the stalled client, and the client is disconnected once it
+ * stays above its high-water mark.
+ * <p>
+ * Run with e.g. {@code java server.benchmark.SlowConsumerBenchmark 50 20000}.
+ * </p>
+ */
+public class SlowConsumerBenchmark {
+  private static final int PORT = 2913;
+
+  public static void main(String[] args) throws Exception {
+    int readers = args.length > 0 ? Integer.parseInt(args[0]) : 50;
+    int messages = args.length > 1 ? Integer.parseInt(args[1]) : 20_000;
+
+    for (ConnectionMode mode : ConnectionMode.values()) {
+      run(mode, readers, messages);
+    }
+  }
+
+  private static void run(ConnectionMode mode, int readers, int messages) throws Exception {
+    ServerConfig config = new ServerConfig();
+    config.setPort(PORT);
+    config.setMode(mode);
+    config.getOutboundPolicy().setMaxMillisAboveHighWater(1000);
+    Server server = new Server(config);
+    Thread serverThread = new Thread(() -> {
+      try {
+        server.start();
+      } catch (IOException e) {
+        e.printStackTrace();
+      }
+    });
+    serverThread.start();
+    Thread.sleep(500);
+
+    // The stalled client: a tiny receive buffer that is never read
+    SocketChannel stalled = SocketChannel.open();
+    stalled.setOption(StandardSocketOptions.SO_RCVBUF, 1024);
+    stalled.connect(new InetSocketAddress("localhost", PORT));
+
+    List<Thread> readerThreads = new ArrayList<>();
+    List<SocketChannel> channels = new ArrayList<>();
+    for (int i = 0; i < readers; i++) {
+      SocketChannel channel = SocketChannel.open(new InetSocketAddress("localhost", PORT));
+      channels.add(channel);
+      Thread reader = new Thread(() -> drain(channel));
+      reader.setDaemon(true);
+      reader.start();
+      readerThreads.add(reader);
+    }
+    while (Server.getClientCount() < readers + 1) Thread.sleep(10);
+
+    String filler = "x".repeat(2048); // large enough to fill the stalled client's socket buffers
+    long maxBroadcastNanos = 0;
+    long start = System.nanoTime();
+    for (int i = 0; i < messages; i++) {
+      long before = System.nanoTime();
+      if (i % 10 == 0) {
+        Server.broadcast("onHorseFinished", "horse " + i + filler);
+      } else {
+        Server.broadcast("horseMoveUpdate", "horseMoveUpdate:benchmark", "positions " + i + filler);
+      }
+      maxBroadcastNanos = Math.max(maxBroadcastNanos, System.nanoTime() - before);
+      if (i % 1000 == 0) Thread.sleep(100); // let the stalled client stay above the mark for a while
+    }
+    double seconds = (System.nanoTime() - start) / 1e9;
+
+    System.out.printf("%-22s broadcasts/s %8.0f  max broadcast %6.2f ms  dropped+coalesced %8d  slow disconnects %d  clients left %d%n",
+        mode, messages / seconds, maxBroadcastNanos / 1e6, Server.getDroppedFrameCount(),
+        Server.getSlowClientDisconnectCount(), Server.getClientCount());
+
+    stalled.close();
+    for (SocketChannel channel : channels) channel.close();
+    server.stop();
+    serverThread.join(5000);
+    while (Server.getClientCount() > 0) Thread.sleep(10);
+  }
+
+  private static void drain(SocketChannel channel) {
+    ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+    try {
+      while (channel.read(buffer.clear()) >= 0) {
+        // discard
+      }
+    } catch (IOException ignored) {
+      // closed at the end of the run
+    }
+  }
+}
@@ -0,0 +1,71 @@
+package server.benchmark;
+
+import server.model.Horse;
+import server.model.HorseList;
+import server.model.Race;
+import server.model.RaceTrack;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Measures the bytes a race allocates per tick once it is running, with the allocation counter of the
+ * calling thread. Races are ticked directly on that thread, to no subscribers, with tick logging off and
+ * then on for comparison. The track is long enough that no horse finishes while measuring.
+ * <p>
+ * Run with e.g. {@code java server.benchmark.TickAllocationBenchmark 8 1500}
+ * (horses, measured ticks). Races longer than the recorder makes room for up front (2048 ticks) grow
+ * their recording buffer now and then, so warm-up plus measured ticks stay below that.
+ * </p>
+ */
+public class TickAllocationBenchmark {
+  private static final int WARMUP_RACES = 20;
+  private static final int WARMUP_TICKS = 500;
+
+  public static void main(String[] args) {
+    int horses = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+    int ticks = args.length > 1 ? Integer.parseInt(args[1]) : 1500;
+
+    com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    long thread = Thread.currentThread().threadId();
+
+    // Logged positions go nowhere; only their allocation is of interest
+    PrintStream report = System.out;
+    System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+    // Fastest horse moves at most 15 per tick, so nobody finishes within the warm-up and measured ticks
+    RaceTrack track = new RaceTrack("Benchmark", 15 * (ticks + WARMUP_TICKS) + 1, "Nowhere");
+    for (int i = 0; i < WARMUP_RACES; i++) {
+      run(newRace("warm-up-" + i, horses, track, i % 2 == 0), ticks + WARMUP_TICKS);
+    }
+
+    double[] bytesPerTick = new double[2];
+    for (int logged = 0; logged < 2; logged++) {
+      Race race = newRace("measured-" + logged, horses, track, logged == 1);
+      run(race, WARMUP_TICKS);
+      long before = threads.getThreadAllocatedBytes(thread);
+      run(race, ticks);
+      bytesPerTick[logged] = (double) (threads.getThreadAllocatedBytes(thread) - before) / ticks;
+    }
+    System.setOut(report);
+
+    System.out.printf("%d horses, %d ticks: %.1f bytes per tick, %.1f bytes per tick with tick logging%n",
+        horses, ticks, bytesPerTick[0], bytesPerTick[1]);
+  }
+
+  private static Race newRace(String name, int horses, RaceTrack track, boolean tickLogging) {
+    HorseList field = new HorseList(horses);
+    for (int h = 0; h < horses; h++) field.addToList(new Horse(h, "Horse " + h, 5, 15));
+    Race race = new Race(name, field, track);
+    race.setTickLogging(tickLogging);
+    race.start();
+    return race;
+  }
+
+  private static void run(Race race, int ticks) {
+    for (int i = 0; i < ticks; i++) {
+      if (race.tick()) throw new IllegalStateException("A horse finished while measuring");
+    }
+  }
+}
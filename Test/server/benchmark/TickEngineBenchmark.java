@@ -0,0 +1,58 @@
+package server.benchmark;
+
+import server.model.Horse;
+import server.model.HorseList;
+import server.model.Race;
+import server.model.RaceTrack;
+import server.model.TickEngine;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+
+/**
+ * Measures how many running races the {@link TickEngine} can advance on one core. Passes are run directly on
+ * the calling thread, so the result is the cost of moving the horses and publishing one position batch per
+ * race (to no subscribers). The tracks are long enough that no race finishes while measuring.
+ * <p>
+ * Run with e.g. {@code java server.benchmark.TickEngineBenchmark 5000 8 100}
+ * (races, horses per race, tick budget in milliseconds).
+ * </p>
+ */
+public class TickEngineBenchmark {
+  private static final int WARMUP_PASSES = 300;
+  private static final int MEASURED_PASSES = 500;
+
+  public static void main(String[] args) {
+    int races = args.length > 0 ? Integer.parseInt(args[0]) : 5000;
+    int horses = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+    long budgetMillis = args.length > 2 ? Long.parseLong(args[2]) : 100;
+
+    // Races print every tick; keep the report readable
+    PrintStream report = System.out;
+    System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+    TickEngine engine = new TickEngine(budgetMillis, Runnable::run);
+    RaceTrack track = new RaceTrack("Benchmark", Integer.MAX_VALUE / 2, "Nowhere");
+    for (int i = 0; i < races; i++) {
+      HorseList field = new HorseList(horses);
+      for (int h = 0; h < horses; h++) field.addToList(new Horse(h, "Horse " + h, 5, 15));
+      Race race = new Race("race-" + i, field, track);
+      race.start();
+      engine.add(race, budgetMillis, (finished, failed) -> { });
+    }
+
+    for (int i = 0; i < WARMUP_PASSES; i++) engine.advance();
+    long start = System.nanoTime();
+    long ticks = 0;
+    for (int i = 0; i < MEASURED_PASSES; i++) ticks += engine.advance();
+    long elapsed = System.nanoTime() - start;
+    System.setOut(report);
+
+    double nanosPerPass = (double) elapsed / MEASURED_PASSES;
+    double nanosPerRace = (double) elapsed / ticks;
+    System.out.printf("%d races x %d horses: %.2f ms per pass, %.0f ns per race tick%n",
+        races, horses, nanosPerPass / 1e6, nanosPerRace);
+    System.out.printf("races per %d ms tick budget on one core: %.0f%n",
+        budgetMillis, budgetMillis * 1e6 / nanosPerRace);
+  }
+}
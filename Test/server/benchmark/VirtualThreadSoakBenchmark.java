@@ -0,0 +1,75 @@
+package server.benchmark;
+
+import server.networking.ConnectionMode;
+import server.networking.Server;
+import server.networking.ServerConfig;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Soak test for {@link ConnectionMode#VIRTUAL_THREADS}: opens {@code clients} idle connections
+ * in batches, then keeps them open for {@code idleSeconds} while sampling heap and platform threads.
+ * <p>
+ * Heap should grow roughly linearly while connecting and stay flat while idle, and the number of
+ * platform threads should not follow the number of connections.
+ * Run with e.g. {@code java -Xmx1g server.benchmark.VirtualThreadSoakBenchmark 10000 60}
+ * (the process needs about two file descriptors per connection).
+ * </p>
+ */
+public class VirtualThreadSoakBenchmark {
+  private static final int PORT = 2912;
+  private static final int BATCH = 1000;
+
+  public static void main(String[] args) throws Exception {
+    int clients = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+    int idleSeconds = args.length > 1 ? Integer.parseInt(args[1]) : 60;
+
+    ServerConfig config = new ServerConfig();
+    config.setPort(PORT);
+    config.setMode(ConnectionMode.VIRTUAL_THREADS);
+    Server server = new Server(config);
+    Thread serverThread = new Thread(() -> {
+      try {
+        server.start();
+      } catch (IOException e) {
+        e.printStackTrace();
+      }
+    });
+    serverThread.start();
+    Thread.sleep(500);
+
+    System.out.printf("%-10s %12s %18s %10s%n", "phase", "connections", "platform threads", "heap MB");
+    sample("start", 0);
+
+    List<SocketChannel> channels = new ArrayList<>();
+    while (channels.size() < clients) {
+      for (int i = 0; i < BATCH && channels.size() < clients; i++) {
+        channels.add(SocketChannel.open(new InetSocketAddress("localhost", PORT)));
+      }
+      while (Server.getClientCount() < channels.size()) Thread.sleep(10);
+      sample("connect", channels.size());
+    }
+
+    long idleUntil = System.currentTimeMillis() + idleSeconds * 1000L;
+    while (System.currentTimeMillis() < idleUntil) {
+      Thread.sleep(Math.min(10_000, Math.max(0, idleUntil - System.currentTimeMillis())));
+      sample("idle", Server.getClientCount());
+    }
+
+    for (SocketChannel channel : channels) channel.close();
+    server.stop();
+    serverThread.join(5000);
+  }
+
+  private static void sample(String phase, int connections) {
+    System.gc();
+    long heap = Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
+    int threads = ManagementFactory.getThreadMXBean().getThreadCount();
+    System.out.printf("%-10s %12d %18d %10.1f%n", phase, connections, threads, heap / 1024.0 / 1024.0);
+  }
+}
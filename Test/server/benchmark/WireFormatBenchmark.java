@@ -0,0 +1,88 @@
+package server.benchmark;
+
+import com.google.gson.Gson;
+import shared.DTO.BetResponseDTO;
+import shared.DTO.HorseDTO;
+import shared.Respond;
+import shared.bet.CreateBetResponse;
+import shared.protocol.BinaryCodec;
+import shared.protocol.WireFormat;
+import shared.updates.HorsePositionsUpdate;
+import shared.updates.OnHorseFinished;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compares the {@link WireFormat#JSON} lines with the compact {@link WireFormat#BINARY} frames for the
+ * messages sent most often: an eight-horse position update, a finished horse and a bet confirmation.
+ * <p>
+ * Reports the bytes on the wire per message and the time to encode and decode it (for JSON, the client's
+ * parse of the line into a {@link Respond} with a typed payload). Run with e.g.
+ * {@code java server.benchmark.WireFormatBenchmark 2000000}.
+ * </p>
+ */
+public class WireFormatBenchmark {
+  private static final Gson gson = new Gson();
+
+  public static void main(String[] args) throws Exception {
+    int messages = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+
+    HorseDTO horse = new HorseDTO(7, "Thunder", 3, 9);
+    Respond[] mix = {
+        new Respond("horseMoveUpdate", new HorsePositionsUpdate("Spring Derby", List.of(412, 398, 455, 401, 377, 430, 419, 388))),
+        new Respond("onHorseFinished", new OnHorseFinished("Spring Derby", horse, 3)),
+        new Respond("createBet", new CreateBetResponse(new BetResponseDTO("Spring Derby", horse, "alice", 150)), "17"),
+    };
+    Class<?>[] payloadTypes = {HorsePositionsUpdate.class, OnHorseFinished.class, CreateBetResponse.class};
+
+    System.out.printf("%-16s %12s %12s %12s%n", "message", "json bytes", "binary bytes", "saved");
+    for (Respond respond : mix) {
+      int json = gson.toJson(respond).getBytes(StandardCharsets.UTF_8).length + 1;
+      int binary = BinaryCodec.encode(respond).length;
+      System.out.printf("%-16s %12d %12d %11.0f%%%n", respond.type(), json, binary, 100.0 * (json - binary) / json);
+    }
+
+    System.out.printf("%n%-8s %18s %18s%n", "format", "encode ns/message", "decode ns/message");
+    for (int round = 0; round < 3; round++) {
+      String[] lines = new String[mix.length];
+      long start = System.nanoTime();
+      for (int i = 0; i < messages; i++) {
+        int k = i % mix.length;
+        lines[k] = gson.toJson(mix[k]);
+      }
+      long encode = System.nanoTime() - start;
+      long sink = 0;
+      start = System.nanoTime();
+      for (int i = 0; i < messages; i++) {
+        int k = i % mix.length;
+        Respond respond = gson.fromJson(lines[k], Respond.class);
+        sink += gson.fromJson(gson.toJsonTree(respond.payload()), payloadTypes[k]).hashCode();
+      }
+      long decode = System.nanoTime() - start;
+      print("json", messages, encode, decode, sink);
+
+      byte[][] frames = new byte[mix.length][];
+      start = System.nanoTime();
+      for (int i = 0; i < messages; i++) {
+        int k = i % mix.length;
+        frames[k] = BinaryCodec.encode(mix[k]);
+      }
+      encode = System.nanoTime() - start;
+      sink = 0;
+      start = System.nanoTime();
+      for (int i = 0; i < messages; i++) {
+        byte[] frame = frames[i % mix.length];
+        sink += BinaryCodec.decode(Arrays.copyOfRange(frame, BinaryCodec.HEADER_LENGTH, frame.length)).payload().hashCode();
+      }
+      decode = System.nanoTime() - start;
+      print("binary", messages, encode, decode, sink);
+    }
+  }
+
+  private static void print(String format, int messages, long encode, long decode, long sink) {
+    System.out.printf("%-8s %18.0f %18.0f%s%n", format, (double) encode / messages, (double) decode / messages,
+        sink == 42 ? " " : "");
+  }
+}
@@ -3,6 +3,11 @@ package server.model;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class HorseTest
@@ -11,7 +16,7 @@ class HorseTest
 
   @BeforeEach
   void setUp() {
-    horse = new Horse("Lightning", 5, 10);
+    horse = new Horse(1, "Lightning", 5, 10);
   }
 
   @Test
@@ -19,26 +24,18 @@ class HorseTest
     assertEquals("Lightning", horse.getName());
     assertEquals(5, horse.getSpeedMin());
     assertEquals(10, horse.getSpeedMax());
-    assertEquals(0, horse.getPosition());
     assertTrue(horse.getId() > 0);
   }
 
   @Test
-  void testReset() {
-    horse.move(); // move first to change position
-    assertTrue(horse.getPosition() > 0);
-    horse.reset();
-    assertEquals(0, horse.getPosition());
-  }
+  void testHorseStaysEqualWhileRacing() {
+    Set<Horse> finished = new HashSet<>();
+    finished.add(horse);
 
-  @Test
-  void testMoveWithinSpeedRange() {
-    for (int i = 0; i < 10; i++) {
-      int oldPosition = horse.getPosition();
-      horse.move();
-      int newPosition = horse.getPosition();
-      int step = newPosition - oldPosition;
-      assertTrue(step >= 5 && step <= 10, "Step was: " + step);
-    }
+    RaceField field = new RaceField(List.of(horse), 100);
+    field.advance(new SplittableRandom(1));
+
+    assertTrue(finished.contains(new Horse(1, "Lightning", 5, 10)), "Racing should not change the horse.");
+    assertEquals(horse.hashCode(), new Horse(1, "Lightning", 5, 10).hashCode());
   }
-}
\ No newline at end of file
+}
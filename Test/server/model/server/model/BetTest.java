@@ -0,0 +1,32 @@
+package server.model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+public class BetTest {
+
+  private static Bet betOn(Horse horse) {
+    User user = new User("punter", "punter@example.com", "secret", false, 100);
+    return new Bet(null, horse, user, 10, 2.5);
+  }
+
+  @Test
+  public void testBetOnTheWinnerWins() {
+    Horse horse = new Horse(7, "Comet", 5, 10);
+    assertTrue(betOn(horse).isWinning(new Horse(7, "Comet", 5, 10)));
+    assertFalse(betOn(horse).isWinning(new Horse(8, "Blaze", 5, 10)));
+  }
+
+  @Test
+  public void testHorseEditedDuringTheRaceStillWins() {
+    Horse edited = new Horse(7, "Comet II", 6, 12);
+    Horse racing = new Horse(7, "Comet", 5, 10);
+    assertTrue(betOn(edited).isWinning(racing));
+  }
+
+  @Test
+  public void testPayoutIsRoundedDown() {
+    assertEquals(25, betOn(new Horse(1, "A", 5, 10)).getPayout());
+  }
+}
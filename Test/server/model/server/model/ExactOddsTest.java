@@ -0,0 +1,63 @@
+package server.model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+public class ExactOddsTest {
+
+  private final RaceTrack track = new RaceTrack("Test Track", 100, "London");
+
+  @Test
+  public void testFinishDistributionOfSingleStepRange() {
+    // Steps of 1 or 2 on a track of 3: finishes in tick 2 unless it steps 1 twice (then tick 3)
+    ExactOdds.FinishDistribution distribution = ExactOdds.compute(1, 2, 3);
+
+    assertEquals(0, distribution.at(1), 1e-12);
+    assertEquals(0.75, distribution.at(2), 1e-12);
+    assertEquals(0.25, distribution.at(3), 1e-12);
+    assertEquals(0, distribution.after(3), 1e-12);
+  }
+
+  @Test
+  public void testTiesGoToTheLowerLane() {
+    List<Horse> horses = List.of(new Horse(1, "A", 20, 20), new Horse(2, "B", 20, 20), new Horse(3, "C", 10, 10));
+
+    assertArrayEquals(new double[] {1, 0, 0}, new ExactOdds().winProbabilities(horses, track), 1e-12);
+  }
+
+  @Test
+  public void testProbabilitiesSumToOneWhenHorsesCanStandStill() {
+    List<Horse> horses = List.of(new Horse(1, "A", 0, 3), new Horse(2, "B", 1, 2), new Horse(3, "C", 0, 1));
+
+    double[] probabilities = new ExactOdds().winProbabilities(horses, new RaceTrack("Short", 10, "London"));
+
+    assertEquals(1.0, probabilities[0] + probabilities[1] + probabilities[2], 1e-9);
+  }
+
+  @Test
+  public void testMatchesSimulation() {
+    List<Horse> horses = List.of(new Horse(1, "A", 3, 12), new Horse(2, "B", 5, 9), new Horse(3, "C", 1, 15),
+        new Horse(4, "D", 6, 8), new Horse(5, "E", 4, 11));
+
+    double[] exact = new ExactOdds().winProbabilities(horses, track);
+    double[] simulated = new MonteCarloOdds(new ForkJoinPool(2), 60_000, 400_000, 7).winProbabilities(horses, track);
+
+    // 400k races give a standard error of at most 0.0008 per horse
+    assertArrayEquals(simulated, exact, 0.004);
+  }
+
+  @Test
+  public void testDistributionsAreReused() {
+    ExactOdds odds = new ExactOdds();
+    List<Horse> horses = List.of(new Horse(1, "A", 3, 12), new Horse(2, "B", 3, 12), new Horse(3, "C", 5, 9));
+
+    odds.winProbabilities(horses, track);
+    odds.winProbabilities(horses, track);
+
+    assertEquals(2, odds.getCachedDistributionCount());
+  }
+}
@@ -0,0 +1,82 @@
+package server.model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class HorseRosterTest {
+
+  /** Nine horses, three per speed class: ids 1-3 slow, 4-6 medium, 7-9 fast. */
+  private static List<Horse> catalogue() {
+    List<Horse> horses = new ArrayList<>();
+    for (int id = 1; id <= 9; id++) {
+      int speed = 3 * ((id - 1) / 3) + 2;
+      horses.add(new Horse(id, "Horse " + id, speed, speed + 1));
+    }
+    return horses;
+  }
+
+  @Test
+  public void testSelectsDistinctHorses() throws Exception {
+    HorseRoster roster = new HorseRoster(HorseRosterTest::catalogue);
+    SplittableRandom random = new SplittableRandom(1);
+    for (int i = 0; i < 100; i++) {
+      List<Horse> field = roster.select(6, Set.of(), false, random);
+      assertEquals(6, field.size());
+      assertEquals(6, new HashSet<>(field).size(), "A horse was drawn twice.");
+    }
+  }
+
+  @Test
+  public void testExcludedHorsesAreNotSelected() throws Exception {
+    HorseRoster roster = new HorseRoster(HorseRosterTest::catalogue);
+    SplittableRandom random = new SplittableRandom(2);
+    for (int i = 0; i < 100; i++) {
+      for (Horse horse : roster.select(5, Set.of(1, 4, 7, 8), true, random)) {
+        assertFalse(Set.of(1, 4, 7, 8).contains(horse.getId()));
+      }
+    }
+  }
+
+  @Test
+  public void testBalancedFieldHasEverySpeedClass() throws Exception {
+    HorseRoster roster = new HorseRoster(HorseRosterTest::catalogue);
+    SplittableRandom random = new SplittableRandom(3);
+    for (int i = 0; i < 100; i++) {
+      Set<Integer> classes = new HashSet<>();
+      for (Horse horse : roster.select(3, Set.of(), true, random)) classes.add((horse.getId() - 1) / 3);
+      assertEquals(Set.of(0, 1, 2), classes);
+    }
+  }
+
+  @Test
+  public void testReturnsFewerHorsesIfNotEnoughAreFree() throws Exception {
+    HorseRoster roster = new HorseRoster(HorseRosterTest::catalogue);
+    List<Horse> field = roster.select(8, Set.of(1, 2, 3, 4), true, new SplittableRandom(4));
+    assertEquals(5, field.size());
+  }
+
+  @Test
+  public void testCatalogueIsReadAgainOnlyAfterInvalidate() throws Exception {
+    AtomicInteger loads = new AtomicInteger();
+    HorseRoster roster = new HorseRoster(() -> {
+      loads.incrementAndGet();
+      return catalogue();
+    });
+    SplittableRandom random = new SplittableRandom(5);
+    roster.select(3, Set.of(), false, random);
+    roster.select(3, Set.of(), false, random);
+    assertEquals(1, loads.get());
+
+    roster.invalidate();
+    assertEquals(9, roster.size());
+    assertEquals(2, loads.get());
+  }
+}
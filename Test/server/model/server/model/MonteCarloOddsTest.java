@@ -0,0 +1,65 @@
+package server.model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+public class MonteCarloOddsTest {
+
+  private final RaceTrack track = new RaceTrack("Test Track", 100, "London");
+  private final ForkJoinPool pool = new ForkJoinPool(4);
+
+  @Test
+  public void testFixedSpeedsGiveCertainWinner() {
+    List<Horse> horses = List.of(new Horse(1, "Slow", 10, 10), new Horse(2, "Fast", 25, 25));
+
+    double[] probabilities = new MonteCarloOdds(pool, 10_000, 1_000, 1).winProbabilities(horses, track);
+
+    assertArrayEquals(new double[] {0, 1}, probabilities);
+  }
+
+  @Test
+  public void testProbabilitiesSumToOne() {
+    List<Horse> horses = List.of(new Horse(1, "A", 3, 12), new Horse(2, "B", 5, 9), new Horse(3, "C", 1, 15));
+
+    double[] probabilities = new MonteCarloOdds(pool, 10_000, 20_000, 1).winProbabilities(horses, track);
+
+    assertEquals(1.0, probabilities[0] + probabilities[1] + probabilities[2], 1e-9);
+    for (double probability : probabilities) assertTrue(probability > 0 && probability < 1);
+  }
+
+  @Test
+  public void testSameSeedGivesSameEstimate() {
+    List<Horse> horses = List.of(new Horse(1, "A", 3, 12), new Horse(2, "B", 5, 9), new Horse(3, "C", 1, 15));
+
+    double[] first = new MonteCarloOdds(pool, 10_000, 8_000, 42).winProbabilities(horses, track);
+    double[] second = new MonteCarloOdds(pool, 10_000, 8_000, 42).winProbabilities(horses, track);
+
+    assertArrayEquals(first, second);
+  }
+
+  @Test
+  public void testOddsIncludeTheHouseMargin() {
+    List<Horse> horses = List.of(new Horse(1, "A", 3, 12), new Horse(2, "B", 5, 9), new Horse(3, "C", 1, 15));
+
+    RaceOdds odds = RaceOdds.fromProbabilities(horses, new double[] {0.5, 0.45, 0.05}, 0.1);
+
+    assertEquals(1.8, odds.getOdds(0), 1e-9);
+    assertEquals(2.0, odds.getOdds(1), 1e-9);
+    assertEquals(18.0, odds.getOdds(2), 1e-9);
+    assertEquals(2.0, odds.oddsFor(new Horse(2, "B", 5, 9)), 1e-9);
+    assertEquals(RaceOdds.MAX_ODDS, RaceOdds.fromProbabilities(horses, new double[] {1, 0, 0}, 0.1).getOdds(1));
+    assertThrows(IllegalArgumentException.class, () -> odds.oddsFor(new Horse(9, "Other", 1, 2)));
+  }
+
+  @Test
+  public void testBetPaysAtLockedOdds() {
+    Bet bet = new Bet(null, new Horse(1, "A", 3, 12), null, 150, 2.35);
+
+    assertEquals(352, bet.getPayout());
+    assertEquals(200, new Bet(null, new Horse(1, "A", 3, 12), null, 100).getPayout());
+  }
+}
@@ -0,0 +1,81 @@
+package server.model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+
+public class RaceFieldTest {
+
+  @Test
+  public void testHorsesMoveWithinTheirSpeedRange() {
+    RaceField field = new RaceField(List.of(new Horse(1, "Slow", 2, 4), new Horse(2, "Fast", 10, 10)), 1000);
+
+    field.advance(new Random(1));
+
+    assertTrue(field.position(0) >= 2 && field.position(0) <= 4, "The slow horse should move 2 to 4.");
+    assertEquals(10, field.position(1), "A horse with a fixed speed should move exactly that far.");
+  }
+
+  @Test
+  public void testHorsesFinishingInTheSameTickArePlacedInLaneOrder() {
+    RaceField field = new RaceField(List.of(
+        new Horse(1, "A", 5, 5), new Horse(2, "B", 10, 10), new Horse(3, "C", 10, 10)), 20);
+
+    assertEquals(2, field.advance(new Random(1)) + field.advance(new Random(1)));
+    assertEquals(1, field.finisher(0), "Lane 1 should win the tie.");
+    assertEquals(2, field.finisher(1));
+    assertFalse(field.isComplete());
+
+    field.advance(new Random(1));
+    field.advance(new Random(1));
+    assertTrue(field.isComplete());
+    assertEquals(0, field.finisher(2));
+    assertEquals(20, field.position(0));
+  }
+
+  @Test
+  public void testSameSeedRunsTheSameWay() {
+    List<Horse> horses = List.of(new Horse(1, "A", 5, 10), new Horse(2, "B", 3, 12));
+    RaceField field = new RaceField(horses, 1000);
+    RaceField other = new RaceField(horses, 1000);
+    SplittableRandom first = new SplittableRandom(42);
+    SplittableRandom second = new SplittableRandom(42);
+
+    for (int i = 0; i < 10; i++) {
+      field.advance(first);
+      other.advance(second);
+      assertEquals(field.position(0), other.position(0));
+      assertEquals(field.position(1), other.position(1));
+    }
+  }
+
+  @Test
+  public void testHorsesCanRunInTwoFieldsAtOnce() {
+    Horse shared = new Horse(1, "A", 10, 10);
+    RaceField field = new RaceField(List.of(shared), 100);
+    RaceField other = new RaceField(List.of(shared, new Horse(2, "B", 1, 1)), 100);
+
+    field.advance(new Random(1));
+    field.advance(new Random(1));
+    other.advance(new Random(1));
+
+    assertEquals(20, field.position(0));
+    assertEquals(10, other.position(0), "Each race should keep its own position for a shared horse.");
+  }
+
+  @Test
+  public void testFinishedHorsesStopMoving() {
+    RaceField field = new RaceField(List.of(new Horse(1, "A", 10, 10), new Horse(2, "B", 1, 1)), 10);
+
+    field.advance(new Random(1));
+    field.advance(new Random(1));
+
+    assertTrue(field.isFinished(0));
+    assertEquals(10, field.position(0), "A horse should not move after crossing the finish line.");
+    assertEquals(2, field.position(1));
+  }
+}
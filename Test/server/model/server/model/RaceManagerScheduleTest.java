@@ -0,0 +1,153 @@
+package server.model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Timestamp;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class RaceManagerScheduleTest {
+
+  private static final long WINDOW_MILLIS = 200;
+
+  private RaceManager manager;
+
+  /** A race that only records when betting opens and when it starts, and finishes on its first tick. */
+  private static class RecordingRace extends Race {
+    private final CountDownLatch opened = new CountDownLatch(1);
+    private final CountDownLatch started = new CountDownLatch(1);
+
+    RecordingRace(String name) {
+      super(name, oneHorse(), new RaceTrack("Test", 100, "Nowhere"));
+    }
+
+    private static HorseList oneHorse() {
+      HorseList horses = new HorseList(1);
+      horses.addToList(new Horse(1, "Horse", 5, 10));
+      return horses;
+    }
+
+    @Override
+    public void openBetting() {
+      opened.countDown();
+    }
+
+    @Override
+    public void start() {
+      started.countDown();
+    }
+
+    @Override
+    public boolean tick() {
+      return true;
+    }
+
+    @Override
+    public void finish() { }
+
+    boolean opensWithin(long millis) throws InterruptedException {
+      return opened.await(millis, TimeUnit.MILLISECONDS);
+    }
+
+    boolean startsWithin(long millis) throws InterruptedException {
+      return started.await(millis, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  private static Timestamp inMillis(long millis) {
+    return new Timestamp(System.currentTimeMillis() + millis);
+  }
+
+  private static RaceSchedulerConfig config(int maxConcurrentRaces) {
+    RaceSchedulerConfig config = new RaceSchedulerConfig();
+    config.setBettingWindowMillis(WINDOW_MILLIS);
+    config.setMaxConcurrentRaces(maxConcurrentRaces);
+    config.setTickResolutionMillis(10);
+    config.setTickIntervalMillis(10);
+    return config;
+  }
+
+  private RecordingRace add(String name, long startInMillis) {
+    RecordingRace race = new RecordingRace(name);
+    race.setDateTime(inMillis(startInMillis));
+    manager.addRace(race);
+    return race;
+  }
+
+  @BeforeEach
+  public void setUp() {
+    manager = new RaceManager(config(4));
+  }
+
+  @Test
+  public void testRescheduleWhileScheduledMovesTheOpening() throws InterruptedException {
+    RecordingRace race = add("later", 60_000);
+    assertFalse(race.opensWithin(300));
+
+    Timestamp start = inMillis(WINDOW_MILLIS + 100);
+    assertSame(race, manager.reschedule("later", start));
+    assertEquals(start, race.getDateTime());
+    assertTrue(race.opensWithin(2_000), "Betting should open one window before the new start.");
+    assertTrue(race.startsWithin(2_000));
+  }
+
+  @Test
+  public void testRescheduleWhileOpenMovesTheStart() throws InterruptedException {
+    RecordingRace race = add("soon", WINDOW_MILLIS + 100);
+    assertTrue(race.opensWithin(2_000));
+
+    manager.reschedule("soon", inMillis(60_000));
+    assertFalse(race.startsWithin(WINDOW_MILLIS + 500), "The race should not start at its old time.");
+    assertEquals(1, manager.getActiveRaceCount(), "Betting should stay open.");
+
+    manager.reschedule("soon", inMillis(50));
+    assertTrue(race.startsWithin(2_000));
+  }
+
+  @Test
+  public void testRescheduleAfterTheStartFails() throws InterruptedException {
+    RecordingRace race = add("running", 0);
+    assertTrue(race.startsWithin(2_000));
+    // The race finishes on its first tick, so it is either still running or gone
+    assertThrows(RuntimeException.class, () -> manager.reschedule("running", inMillis(60_000)));
+  }
+
+  @Test
+  public void testCancellingAWaitingRace() throws InterruptedException {
+    manager = new RaceManager(config(1));
+    RecordingRace blocker = add("blocker", WINDOW_MILLIS);
+    assertTrue(blocker.opensWithin(2_000));
+    manager.reschedule("blocker", inMillis(60_000)); // keeps the only slot
+
+    RecordingRace waiting = add("waiting", 0);
+    assertFalse(waiting.opensWithin(300), "The race should wait for a free slot.");
+
+    assertSame(waiting, manager.cancel("waiting"));
+    assertFalse(manager.getAllRaces().contains(waiting));
+
+    manager.configure(config(2));
+    assertFalse(waiting.opensWithin(500), "A cancelled race should not take a freed slot.");
+    assertNull(manager.getRace("waiting"));
+  }
+
+  @Test
+  public void testCancelledRaceNeverOpensBetting() throws InterruptedException {
+    RecordingRace race = add("cancelled", WINDOW_MILLIS + 200);
+    assertSame(race, manager.cancel("cancelled"));
+
+    assertFalse(race.opensWithin(800));
+    assertThrows(IllegalArgumentException.class, () -> manager.cancel("cancelled"));
+  }
+
+  @Test
+  public void testCancellingAnOpenRaceFails() throws InterruptedException {
+    RecordingRace race = add("open", WINDOW_MILLIS);
+    assertTrue(race.opensWithin(2_000));
+    manager.reschedule("open", inMillis(60_000));
+
+    assertThrows(IllegalStateException.class, () -> manager.cancel("open"));
+  }
+}
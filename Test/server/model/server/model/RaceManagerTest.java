@@ -52,9 +52,9 @@ public class RaceManagerTest {
     raceManager.addRace(race1);
     raceManager.addRace(race2);
 
-    // Verify that races are executed in sequence
-    Mockito.verify(race1, Mockito.timeout(1000).times(1)).run();
-    Mockito.verify(race2, Mockito.timeout(1000).times(1)).run();
+    // Verify that both races are opened for betting at the same time
+    Mockito.verify(race1, Mockito.timeout(1000).times(1)).openBetting();
+    Mockito.verify(race2, Mockito.timeout(1000).times(1)).openBetting();
   }
 
   @Test
@@ -86,8 +86,8 @@ public class RaceManagerTest {
     // Wait for the races to execute in the background (with a small delay)
     Thread.sleep(500);
 
-    // Verify that the races are executed in order (race1 first, race2 second)
-    Mockito.verify(race1, Mockito.times(1)).run();
-    Mockito.verify(race2, Mockito.times(1)).run();
+    // Verify that both races were opened on the scheduler threads
+    Mockito.verify(race1, Mockito.times(1)).openBetting();
+    Mockito.verify(race2, Mockito.times(1)).openBetting();
   }
 }
@@ -0,0 +1,64 @@
+package server.model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class RaceRegenerationTest {
+
+  private static HorseList field() {
+    HorseList horses = new HorseList(5);
+    for (int id = 1; id <= 5; id++) horses.addToList(new Horse(id, "Horse " + id, 2 + id, 8 + 2 * id));
+    return horses;
+  }
+
+  @Test
+  public void testFinishedRaceRunsAgainFromItsSeed() {
+    RaceTrack track = new RaceTrack("Test", 200, "Nowhere");
+    Race race = new Race("Original", field(), track, 42L);
+    race.start();
+    List<int[]> trace = new ArrayList<>();
+    boolean complete = false;
+    while (!complete) {
+      complete = race.tick();
+      trace.add(race.getSnapshot().getPositions().clone());
+    }
+
+    // As read back from the database: the horses by lane, the finish order and the seed
+    HorseList lanes = new HorseList(5);
+    for (Horse horse : race.getHorseList().getList()) {
+      lanes.addToList(new Horse(horse.getId(), horse.getName(), horse.getSpeedMin(), horse.getSpeedMax()));
+    }
+    Race finished = new Race("Original", new Timestamp(0), lanes, race.getFinalPositionlist(), track,
+        race.getSeed());
+    SimulationResult rerun = finished.rerun();
+
+    assertEquals(trace.size(), rerun.getTicks());
+    for (int tick = 1; tick <= trace.size(); tick++) {
+      assertArrayEquals(trace.get(tick - 1), rerun.getPositions(tick), "Positions differ after tick " + tick);
+    }
+    List<Horse> finishOrder = race.getFinalPositionlist().getList();
+    int[] rerunOrder = rerun.getFinishOrder();
+    for (int place = 0; place < finishOrder.size(); place++) {
+      assertEquals(finishOrder.get(place).getId(), lanes.getList().get(rerunOrder[place]).getId());
+    }
+  }
+
+  @Test
+  public void testAnotherSeedRunsDifferently() {
+    RaceTrack track = new RaceTrack("Test", 200, "Nowhere");
+    SimulationResult first = new Race("A", new Timestamp(0), field(), field(), track, 1L).rerun();
+    SimulationResult second = new Race("A", new Timestamp(0), field(), field(), track, 2L).rerun();
+
+    boolean differs = first.getTicks() != second.getTicks();
+    for (int tick = 1; !differs && tick <= first.getTicks(); tick++) {
+      differs = !Arrays.equals(first.getPositions(tick), second.getPositions(tick));
+    }
+    assertTrue(differs);
+  }
+}
@@ -0,0 +1,65 @@
+package server.model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+public class RaceSimulatorTest {
+
+  private final RaceTrack track = new RaceTrack("Test Track", 100, "London");
+
+  @Test
+  public void testFixedSpeedsGiveTheExpectedResult() {
+    RaceSimulator simulator = new RaceSimulator(List.of(
+        new Horse(1, "Slow", 10, 10), new Horse(2, "Fast", 25, 25), new Horse(3, "Middle", 20, 20)), track);
+
+    SimulationResult result = simulator.simulate(new SplittableRandom(1));
+
+    assertArrayEquals(new int[] {1, 2, 0}, result.getFinishOrder());
+    assertEquals(1, result.getWinner());
+    assertEquals(4, result.getFinishTick(1));
+    assertEquals(5, result.getFinishTick(2));
+    assertEquals(10, result.getTicks());
+    assertArrayEquals(new int[] {10, 25, 20}, result.getPositions(1));
+    assertEquals(100, result.getPosition(10, 0));
+  }
+
+  @Test
+  public void testTraceStopsMovingFinishedHorses() {
+    RaceSimulator simulator = new RaceSimulator(List.of(new Horse(1, "A", 50, 50), new Horse(2, "B", 1, 1)), track);
+
+    SimulationResult result = simulator.simulate(new SplittableRandom(1));
+
+    assertEquals(100, result.getTicks());
+    assertEquals(100, result.getPosition(2, 0));
+    assertEquals(100, result.getPosition(100, 0), "A finished horse should keep its position.");
+    assertThrows(IndexOutOfBoundsException.class, () -> result.getPosition(101, 0));
+  }
+
+  @Test
+  public void testSameSeedGivesSameRace() {
+    List<Horse> horses = List.of(new Horse(1, "A", 3, 12), new Horse(2, "B", 5, 9), new Horse(3, "C", 1, 15));
+    RaceSimulator simulator = new RaceSimulator(horses, track);
+
+    SimulationResult first = simulator.simulate(new SplittableRandom(42));
+    SimulationResult second = simulator.simulate(new SplittableRandom(42));
+
+    assertArrayEquals(first.getFinishOrder(), second.getFinishOrder());
+    assertEquals(first.getTicks(), second.getTicks());
+    for (int tick = 1; tick <= first.getTicks(); tick++) {
+      assertArrayEquals(first.getPositions(tick), second.getPositions(tick));
+    }
+    assertEquals(first.getWinner(), simulator.simulateWinner(new SplittableRandom(42)));
+  }
+
+  @Test
+  public void testInvalidSpeedRangeIsRejected() {
+    assertThrows(IllegalArgumentException.class,
+        () -> new RaceSimulator(List.of(new Horse(1, "Still", 0, 0)), track));
+    assertThrows(IllegalArgumentException.class,
+        () -> new RaceSimulator(List.of(new Horse(1, "Reversed", 9, 3)), track));
+  }
+}
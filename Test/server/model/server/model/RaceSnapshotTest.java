@@ -0,0 +1,42 @@
+package server.model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+import shared.DTO.RaceState;
+
+import java.util.List;
+
+public class RaceSnapshotTest {
+
+  @Test
+  public void testOnlyEventsAdvanceTheSequence() {
+    RaceSnapshot snapshot = RaceSnapshot.initial(RaceState.NOT_STARTED).started(2);
+    assertEquals(1, snapshot.getSequence());
+    assertEquals(RaceState.IN_PROGRESS, snapshot.getState());
+    assertArrayEquals(new int[] {0, 0}, snapshot.getPositions());
+
+    snapshot = snapshot.at(1, new int[] {4, 6}).at(2, new int[] {9, 10});
+    assertEquals(1, snapshot.getSequence(), "Position updates should not count as events.");
+    assertEquals(2, snapshot.getTick());
+
+    Horse winner = new Horse(2, "B", 5, 5);
+    snapshot = snapshot.horseFinished(winner).finished();
+    assertEquals(3, snapshot.getSequence());
+    assertEquals(RaceState.FINISHED, snapshot.getState());
+    assertEquals(List.of(winner), snapshot.getFinished());
+    assertArrayEquals(new int[] {9, 10}, snapshot.getPositions());
+  }
+
+  @Test
+  public void testEarlierSnapshotsAreNotChanged() {
+    RaceSnapshot started = RaceSnapshot.initial(RaceState.NOT_STARTED).started(1);
+    RaceSnapshot finished = started.horseFinished(new Horse(1, "A", 5, 5));
+
+    assertTrue(started.getFinished().isEmpty());
+    assertEquals(1, finished.getFinished().size());
+    assertThrows(UnsupportedOperationException.class, () -> finished.getFinished().clear());
+    started.getPositions()[0] = 99;
+    assertEquals(0, started.getPositions()[0], "The positions should be copied out.");
+  }
+}
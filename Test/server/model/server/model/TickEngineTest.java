@@ -0,0 +1,126 @@
+package server.model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+public class TickEngineTest {
+
+  /** Runs completion callbacks at once, on the calling thread. */
+  private static final Executor DIRECT = Runnable::run;
+
+  private final List<String> ticks = new ArrayList<>();
+  private final List<String> completed = new ArrayList<>();
+  private final List<RuntimeException> failures = new ArrayList<>();
+
+  /** A race that logs its ticks and finishes, or fails, after a given number of them. */
+  private class ScriptedRace extends Race {
+    private final int ticksToFinish;
+    private final boolean fails;
+    private int ticked = 0;
+
+    ScriptedRace(String name, int ticksToFinish, boolean fails) {
+      super(name, new HorseList(1), new RaceTrack("Test", 100, "Nowhere"));
+      this.ticksToFinish = ticksToFinish;
+      this.fails = fails;
+    }
+
+    @Override
+    public boolean tick() {
+      ticks.add(getName());
+      if (++ticked < ticksToFinish) return false;
+      if (fails) throw new IllegalStateException(getName() + " failed");
+      return true;
+    }
+  }
+
+  private void add(TickEngine engine, String name, int ticksToFinish, long intervalMillis) {
+    engine.add(new ScriptedRace(name, ticksToFinish, false), intervalMillis, this::done);
+  }
+
+  private void done(Race race, RuntimeException failure) {
+    completed.add(race.getName());
+    if (failure != null) failures.add(failure);
+  }
+
+  @Test
+  public void testIntervalsAreRoundedUpToWholePeriods() {
+    TickEngine engine = new TickEngine(10, DIRECT);
+    assertEquals(10, engine.tickDurationMillis(0));
+    assertEquals(10, engine.tickDurationMillis(10));
+    assertEquals(30, engine.tickDurationMillis(25));
+  }
+
+  @Test
+  public void testRaceTicksOncePerInterval() {
+    TickEngine engine = new TickEngine(10, DIRECT);
+    add(engine, "slow", 100, 25);
+    add(engine, "fast", 100, 10);
+
+    List<Integer> slowPasses = new ArrayList<>();
+    for (int pass = 1; pass <= 7; pass++) {
+      ticks.clear();
+      engine.advance();
+      if (ticks.contains("slow")) slowPasses.add(pass);
+      assertTrue(ticks.contains("fast"));
+    }
+    assertEquals(List.of(1, 4, 7), slowPasses);
+  }
+
+  @Test
+  public void testFinishedRacesLeaveAndTheOthersKeepTheirOrder() {
+    TickEngine engine = new TickEngine(10, DIRECT);
+    add(engine, "A", 1, 10);
+    add(engine, "B", 100, 10);
+    add(engine, "C", 2, 10);
+    add(engine, "D", 100, 10);
+
+    assertEquals(4, engine.advance());
+    assertEquals(List.of("A"), completed);
+    assertEquals(3, engine.advance());
+    assertEquals(List.of("A", "C"), completed);
+
+    ticks.clear();
+    assertEquals(2, engine.advance());
+    assertEquals(List.of("B", "D"), ticks);
+    assertEquals(2, engine.getRaceCount());
+  }
+
+  @Test
+  public void testFailedTickIsReportedToTheCallback() {
+    TickEngine engine = new TickEngine(10, DIRECT);
+    engine.add(new ScriptedRace("broken", 2, true), 10, this::done);
+    add(engine, "fine", 100, 10);
+
+    engine.advance();
+    assertTrue(completed.isEmpty());
+    engine.advance();
+    assertEquals(List.of("broken"), completed);
+    assertEquals("broken failed", failures.get(0).getMessage());
+    assertEquals(1, engine.getRaceCount());
+  }
+
+  @Test
+  public void testRejectedCompletionDoesNotDuplicateRaces() {
+    TickEngine engine = new TickEngine(10, runnable -> {
+      throw new RejectedExecutionException("shut down");
+    });
+    add(engine, "A", 1, 10);
+    add(engine, "B", 100, 10);
+    add(engine, "C", 1, 10);
+    add(engine, "D", 100, 10);
+
+    engine.advance();
+    assertEquals(List.of("A", "C"), completed, "Callbacks should run even if the executor rejects them.");
+    assertEquals(2, engine.getRaceCount());
+
+    ticks.clear();
+    engine.advance();
+    assertEquals(List.of("B", "D"), ticks);
+  }
+}
@@ -0,0 +1,64 @@
+package server.networking;
+
+import org.junit.jupiter.api.Test;
+import shared.Respond;
+import shared.protocol.BinaryCodec;
+import shared.protocol.FrameDeflater;
+import shared.protocol.FrameInflater;
+import shared.protocol.FrameReader;
+import shared.protocol.HelloResponse;
+import shared.protocol.WireFormat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConnectionEncodingTest {
+
+  @Test
+  public void testHandshakeAnswerIsTheLastJsonLine() throws IOException {
+    ConnectionEncoding encoding = new ConnectionEncoding(100);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    String catalogue = "horse ".repeat(200);
+
+    encoding.writeTo(OutboundFrame.encode("raceList", new Respond("raceList", "queued before the answer")), out);
+    encoding.writeTo(OutboundFrame.encode("hello", new Respond("hello",
+        new HelloResponse(WireFormat.BINARY.wireName(), FrameDeflater.DEFLATE))), out);
+    encoding.writeTo(OutboundFrame.encode("small", new Respond("small", "tiny")), out);
+    encoding.writeTo(OutboundFrame.encode("getHorseList", new Respond("getHorseList", catalogue)), out);
+    encoding.release();
+
+    assertEquals(WireFormat.BINARY, encoding.format());
+    FrameReader reader = new FrameReader(new ByteArrayInputStream(out.toByteArray()));
+    assertTrue(reader.readLine().contains("queued before the answer"));
+    assertTrue(reader.readLine().contains("binary"));
+
+    FrameInflater inflater = new FrameInflater();
+    byte[] small = reader.readFrame();
+    assertEquals(0, small[0] & BinaryCodec.COMPRESSED);
+    assertEquals("tiny", BinaryCodec.decode(small).payload());
+
+    byte[] large = reader.readFrame();
+    assertNotEquals(0, large[0] & BinaryCodec.COMPRESSED);
+    assertTrue(large.length < catalogue.length() / 4);
+    assertEquals(catalogue, BinaryCodec.decode(inflater.inflate(large)).payload());
+    inflater.end();
+  }
+
+  @Test
+  public void testNoCompressionWhenDisabled() throws IOException {
+    ConnectionEncoding encoding = new ConnectionEncoding(-1);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    encoding.writeTo(OutboundFrame.encode("hello", new Respond("hello",
+        new HelloResponse(WireFormat.BINARY.wireName(), FrameDeflater.DEFLATE))), out);
+    encoding.writeTo(OutboundFrame.encode("getHorseList", new Respond("getHorseList", List.of("horse ".repeat(500)))), out);
+
+    FrameReader reader = new FrameReader(new ByteArrayInputStream(out.toByteArray()));
+    reader.readLine();
+    assertEquals(0, reader.readFrame()[0] & BinaryCodec.COMPRESSED);
+  }
+}
@@ -0,0 +1,39 @@
+package server.networking;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConnectionModeTest {
+
+  @Test
+  public void testModesAreParsedFromTheCommandLine() {
+    assertEquals(ConnectionMode.VIRTUAL_THREADS, ConnectionMode.fromArgument("virtual"));
+    assertEquals(ConnectionMode.VIRTUAL_THREADS, ConnectionMode.fromArgument(" Virtual-Threads "));
+    assertEquals(ConnectionMode.THREAD_PER_CONNECTION, ConnectionMode.fromArgument("thread"));
+    assertEquals(ConnectionMode.NIO, ConnectionMode.fromArgument("selector"));
+    assertThrows(IllegalArgumentException.class, () -> ConnectionMode.fromArgument("fibers"));
+  }
+
+  @Test
+  public void testModeOptionSetsTheServerMode() {
+    ServerConfig config = ServerConfig.fromArgs(new String[] {"--port=3000", "--mode=virtual"});
+    assertEquals(ConnectionMode.VIRTUAL_THREADS, config.getMode());
+    assertEquals(3000, config.getPort());
+    assertEquals(ConnectionMode.THREAD_PER_CONNECTION, new ServerConfig().getMode());
+  }
+
+  @Test
+  public void testQueueLimitsDoNotDependOnTheirOrder() {
+    int defaultMaxQueue = new ServerConfig().getOutboundPolicy().getMaxQueueSize();
+    String highWater = "--high-water=" + (defaultMaxQueue + 100);
+    String maxQueue = "--max-queue=" + (defaultMaxQueue + 200);
+
+    for (String[] args : new String[][] {{highWater, maxQueue}, {maxQueue, highWater}}) {
+      OutboundPolicy policy = ServerConfig.fromArgs(args).getOutboundPolicy();
+      assertEquals(defaultMaxQueue + 100, policy.getHighWaterMark());
+      assertEquals(defaultMaxQueue + 200, policy.getMaxQueueSize());
+    }
+    assertThrows(IllegalArgumentException.class, () -> ServerConfig.fromArgs(new String[] {highWater}));
+  }
+}
@@ -0,0 +1,163 @@
+package server.networking;
+
+import org.junit.jupiter.api.Test;
+import shared.Respond;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OutboundQueueTest {
+
+  /** A policy with a small queue: above two frames the client is slow, at four it is disconnected. */
+  private static OutboundPolicy smallPolicy() {
+    OutboundPolicy policy = new OutboundPolicy();
+    policy.setMode("position", DeliveryMode.COALESCE);
+    policy.setMode("chatter", DeliveryMode.DROPPABLE);
+    policy.setHighWaterMark(2);
+    policy.setMaxQueueSize(4);
+    policy.setMaxMillisAboveHighWater(60_000);
+    return policy;
+  }
+
+  private static OutboundFrame frame(String type, String key, String text) {
+    return OutboundFrame.encode(type, key, new Respond(type, text));
+  }
+
+  private static String text(OutboundFrame frame) {
+    byte[] bytes = new byte[frame.length()];
+    frame.buffer().get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  @Test
+  public void testCoalescedFrameKeepsItsQueuePosition() {
+    OutboundQueue queue = new OutboundQueue(smallPolicy());
+    OutboundFrame result = frame("result", "result", "result");
+    OutboundFrame latest = frame("position", "race A", "latest");
+    queue.offer(frame("position", "race A", "first"));
+    queue.offer(result);
+    queue.offer(latest);
+
+    assertEquals(2, queue.depth());
+    assertEquals(1, queue.coalescedCount());
+    assertSame(latest, queue.poll());
+    assertSame(result, queue.poll());
+    assertNull(queue.poll());
+  }
+
+  @Test
+  public void testDeltaReplacingAQueuedFrameIsSentInFull() {
+    OutboundQueue queue = new OutboundQueue(smallPolicy());
+    OutboundFrame delta = OutboundFrame.encode("position", "race A", new Respond("position", "delta"),
+        () -> new Respond("position", "full"));
+    queue.offer(frame("position", "race A", "keyframe"));
+    queue.offer(delta);
+
+    OutboundFrame sent = queue.poll();
+    assertSame(delta.standalone(), sent);
+    assertTrue(text(sent).contains("full"));
+  }
+
+  @Test
+  public void testDeltaIntoAnEmptySlotIsSentAsIs() {
+    OutboundQueue queue = new OutboundQueue(smallPolicy());
+    OutboundFrame delta = OutboundFrame.encode("position", "race A", new Respond("position", "delta"),
+        () -> new Respond("position", "full"));
+    queue.offer(delta);
+
+    assertSame(delta, queue.poll());
+  }
+
+  @Test
+  public void testFramesWithOtherKeysAreNotCoalesced() {
+    OutboundQueue queue = new OutboundQueue(smallPolicy());
+    queue.offer(frame("position", "race A", "a"));
+    queue.offer(frame("position", "race B", "b"));
+
+    assertEquals(2, queue.depth());
+    assertEquals(0, queue.coalescedCount());
+  }
+
+  @Test
+  public void testDroppableFramesAreDiscardedAboveHighWater() {
+    OutboundQueue queue = new OutboundQueue(smallPolicy());
+    assertTrue(queue.offer(frame("chatter", "chatter", "1")));
+    assertTrue(queue.offer(frame("chatter", "chatter", "2")));
+    assertTrue(queue.offer(frame("chatter", "chatter", "3")));
+
+    assertEquals(2, queue.depth());
+    assertEquals(1, queue.droppedCount());
+  }
+
+  @Test
+  public void testOfferFailsAtMaxQueueSize() {
+    OutboundQueue queue = new OutboundQueue(smallPolicy());
+    for (int i = 0; i < 4; i++) assertTrue(queue.offer(frame("result", "result", "" + i)));
+    assertFalse(queue.offer(frame("result", "result", "too many")));
+  }
+
+  @Test
+  public void testOfferFailsAfterTooLongAboveHighWater() throws InterruptedException {
+    OutboundPolicy policy = smallPolicy();
+    policy.setMaxMillisAboveHighWater(10);
+    OutboundQueue queue = new OutboundQueue(policy);
+    queue.offer(frame("result", "result", "1"));
+    queue.offer(frame("result", "result", "2"));
+    assertTrue(queue.offer(frame("result", "result", "3")), "Reaching the high-water mark starts the clock.");
+
+    Thread.sleep(50);
+    assertFalse(queue.offer(frame("result", "result", "4")));
+  }
+
+  @Test
+  public void testCatchingUpResetsTheTimeAboveHighWater() throws InterruptedException {
+    OutboundPolicy policy = smallPolicy();
+    policy.setMaxMillisAboveHighWater(10);
+    OutboundQueue queue = new OutboundQueue(policy);
+    queue.offer(frame("result", "result", "1"));
+    queue.offer(frame("result", "result", "2"));
+    queue.offer(frame("result", "result", "3"));
+    queue.poll();
+    queue.poll();
+
+    Thread.sleep(50);
+    queue.offer(frame("result", "result", "4"));
+    assertTrue(queue.offer(frame("result", "result", "5")));
+  }
+
+  @Test
+  public void testFinishDrainsTheQueue() throws InterruptedException {
+    OutboundQueue queue = new OutboundQueue(smallPolicy());
+    OutboundFrame first = frame("result", "result", "1");
+    OutboundFrame second = frame("position", "race A", "2");
+    queue.offer(first);
+    queue.offer(second);
+    queue.finish();
+
+    assertTrue(queue.offer(frame("result", "result", "ignored")));
+    assertSame(first, queue.take());
+    assertSame(second, queue.take());
+    assertNull(queue.take());
+  }
+
+  @Test
+  public void testCloseDiscardsTheQueue() throws InterruptedException {
+    OutboundQueue queue = new OutboundQueue(smallPolicy());
+    queue.offer(frame("result", "result", "1"));
+    queue.close();
+
+    assertTrue(queue.isEmpty());
+    assertNull(queue.take());
+    assertTrue(queue.offer(frame("result", "result", "ignored")));
+    assertTrue(queue.isEmpty());
+  }
+
+  @Test
+  public void testDefaultsCoalescePingsAndKeepResultsReliable() {
+    OutboundPolicy policy = OutboundPolicy.defaults();
+    assertEquals(DeliveryMode.COALESCE, policy.modeOf("ping"));
+    assertEquals(DeliveryMode.RELIABLE, policy.modeOf("onRaceFinished"));
+    assertEquals(DeliveryMode.RELIABLE, policy.modeOf("some unknown type"));
+  }
+}
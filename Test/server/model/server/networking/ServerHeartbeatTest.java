@@ -0,0 +1,111 @@
+package server.networking;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ServerHeartbeatTest {
+
+  private final List<FakeConnection> connections = new ArrayList<>();
+
+  /** A connection that was last heard from a given time ago. */
+  private static class FakeConnection implements ClientConnection {
+    private final OutboundQueue queue = new OutboundQueue(OutboundPolicy.defaults());
+    private final long lastRead;
+    private final long lastRequest;
+    private final List<String> received = new ArrayList<>();
+    private boolean closed = false;
+
+    private FakeConnection(long millisSinceRead, long millisSinceRequest) {
+      long now = System.nanoTime();
+      this.lastRead = now - TimeUnit.MILLISECONDS.toNanos(millisSinceRead);
+      this.lastRequest = now - TimeUnit.MILLISECONDS.toNanos(millisSinceRequest);
+    }
+
+    @Override
+    public void sendFrame(OutboundFrame frame) {
+      received.add(frame.type());
+    }
+
+    @Override
+    public OutboundQueue outboundQueue() {
+      return queue;
+    }
+
+    @Override
+    public long lastReadNanos() {
+      return lastRead;
+    }
+
+    @Override
+    public long lastRequestNanos() {
+      return lastRequest;
+    }
+
+    @Override
+    public void close() {
+      closed = true;
+    }
+  }
+
+  private FakeConnection connect(long millisSinceRead, long millisSinceRequest) {
+    FakeConnection connection = new FakeConnection(millisSinceRead, millisSinceRequest);
+    connections.add(connection);
+    Server.addClient(connection);
+    return connection;
+  }
+
+  private static Server serverWithTimeouts(long readTimeoutMillis, long idleTimeoutMillis) {
+    ServerConfig config = new ServerConfig();
+    config.setReadTimeoutMillis(readTimeoutMillis);
+    config.setIdleTimeoutMillis(idleTimeoutMillis);
+    return new Server(config);
+  }
+
+  @AfterEach
+  public void disconnectAll() {
+    for (FakeConnection connection : connections) Server.removeClient(connection);
+  }
+
+  @Test
+  public void testSilentClientsAreDisconnectedAndTheOthersPinged() {
+    FakeConnection live = connect(0, 0);
+    FakeConnection silent = connect(60_000, 60_000);
+    int clients = Server.getClientCount();
+    long disconnects = Server.getDeadClientDisconnectCount();
+
+    serverWithTimeouts(45_000, 0).checkConnections();
+
+    assertTrue(silent.closed);
+    assertFalse(live.closed);
+    assertEquals(clients - 1, Server.getClientCount());
+    assertEquals(disconnects + 1, Server.getDeadClientDisconnectCount());
+    assertEquals(List.of("ping"), live.received);
+    assertTrue(silent.received.isEmpty(), "A disconnected client should not be pinged.");
+  }
+
+  @Test
+  public void testIdleClientsAreOnlyDisconnectedWithAnIdleTimeout() {
+    FakeConnection idle = connect(0, 60_000);
+
+    serverWithTimeouts(45_000, 0).checkConnections();
+    assertFalse(idle.closed, "Answering pings keeps a client without requests connected.");
+
+    serverWithTimeouts(45_000, 30_000).checkConnections();
+    assertTrue(idle.closed);
+  }
+
+  @Test
+  public void testNoReadTimeoutKeepsSilentClients() {
+    FakeConnection silent = connect(60_000, 60_000);
+
+    serverWithTimeouts(0, 0).checkConnections();
+
+    assertFalse(silent.closed);
+  }
+}
@@ -0,0 +1,109 @@
+package server.networking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import shared.subscription.Topics;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TopicRegistryTest {
+
+  private TopicRegistry registry;
+  private RecordingConnection alice;
+  private RecordingConnection bob;
+
+  /** A connection that keeps the frames sent to it. */
+  private static class RecordingConnection implements ClientConnection {
+    private final OutboundQueue queue = new OutboundQueue(OutboundPolicy.defaults());
+    private final List<String> received = new ArrayList<>();
+
+    @Override
+    public void sendFrame(OutboundFrame frame) {
+      byte[] bytes = new byte[frame.length()];
+      frame.buffer().get(bytes);
+      received.add(new String(bytes, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public OutboundQueue outboundQueue() {
+      return queue;
+    }
+
+    @Override
+    public void close() { }
+  }
+
+  @BeforeEach
+  public void setUp() {
+    registry = new TopicRegistry();
+    alice = new RecordingConnection();
+    bob = new RecordingConnection();
+  }
+
+  @Test
+  public void testSubscribeAndUnsubscribe() {
+    assertTrue(registry.subscribe(Topics.race("Derby"), alice));
+    assertFalse(registry.subscribe(Topics.race("Derby"), alice));
+    registry.subscribe(Topics.race("Derby"), bob);
+
+    assertEquals(2, registry.subscribers(Topics.race("Derby")).size());
+
+    assertTrue(registry.unsubscribe(Topics.race("Derby"), alice));
+    assertFalse(registry.unsubscribe(Topics.race("Derby"), alice));
+    assertEquals(1, registry.subscribers(Topics.race("Derby")).size());
+    assertTrue(registry.subscribers(Topics.race("Other")).isEmpty());
+  }
+
+  @Test
+  public void testUnsubscribeAllDropsEveryTopic() {
+    registry.subscribe(Topics.RACE_LIST, alice);
+    registry.subscribe(Topics.race("Derby"), alice);
+
+    registry.unsubscribeAll(alice);
+
+    assertTrue(registry.topicsOf(alice).isEmpty());
+    assertTrue(registry.subscribers(Topics.RACE_LIST).isEmpty());
+    assertTrue(registry.subscribers(Topics.race("Derby")).isEmpty());
+  }
+
+  @Test
+  public void testSubscriptionsPerClientAreLimited() {
+    for (int i = 0; i < TopicRegistry.MAX_TOPICS_PER_CLIENT; i++) {
+      registry.subscribe(Topics.race("race " + i), alice);
+    }
+    assertThrows(IllegalArgumentException.class, () -> registry.subscribe(Topics.race("one more"), alice));
+  }
+
+  @Test
+  public void testPublishReachesOnlySubscribersOnce() {
+    Server.addClient(alice);
+    Server.addClient(bob);
+    try {
+      Server.getTopics().subscribe(Topics.race("Derby"), alice);
+      Server.getTopics().subscribe(Topics.RACE_LIST, alice);
+
+      Server.publish("onRaceStarted", "onRaceStarted", "Derby", Topics.race("Derby"), Topics.RACE_LIST);
+
+      assertEquals(1, alice.received.size());
+      assertTrue(alice.received.get(0).contains("onRaceStarted"));
+      assertTrue(bob.received.isEmpty());
+    } finally {
+      Server.removeClient(alice);
+      Server.removeClient(bob);
+    }
+    assertTrue(Server.getTopics().topicsOf(alice).isEmpty());
+  }
+
+  @Test
+  public void testTopicNames() {
+    assertTrue(Topics.isValid(Topics.RACE_LIST));
+    assertTrue(Topics.isValid(Topics.race("Derby")));
+    assertFalse(Topics.isValid("race:"));
+    assertFalse(Topics.isValid("everything"));
+    assertFalse(Topics.isValid(null));
+  }
+}
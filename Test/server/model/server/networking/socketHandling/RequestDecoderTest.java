@@ -0,0 +1,72 @@
+package server.networking.socketHandling;
+
+import com.google.gson.JsonElement;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import shared.loginRegister.LoginRequest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RequestDecoderTest {
+
+  private RequestDecoder decoder;
+
+  @BeforeEach
+  public void setUp() {
+    decoder = new RequestDecoder((handler, action) -> switch (handler + "/" + action) {
+      case "auth/login" -> LoginRequest.class;
+      case "race/getRaceList" -> Void.class;
+      default -> null;
+    });
+  }
+
+  @Test
+  public void testKnownActionIsDecodedIntoPayloadClass() {
+    DecodedRequest request = decoder.decode(
+        "{\"handler\":\"auth\",\"action\":\"login\",\"payload\":{\"username\":\"alice\",\"password\":\"pw\"}}");
+
+    assertEquals("auth", request.handler());
+    assertEquals("login", request.action());
+    assertEquals(new LoginRequest("alice", "pw"), request.payload());
+  }
+
+  @Test
+  public void testPayloadBeforeEnvelopeIsKeptAsJson() {
+    DecodedRequest request = decoder.decode(
+        "{\"payload\":{\"username\":\"alice\",\"password\":\"pw\"},\"handler\":\"auth\",\"action\":\"login\"}");
+
+    assertInstanceOf(JsonElement.class, request.payload());
+    assertEquals("alice", ((JsonElement) request.payload()).getAsJsonObject().get("username").getAsString());
+  }
+
+  @Test
+  public void testUnknownActionIsKeptAsJson() {
+    DecodedRequest request = decoder.decode("{\"handler\":\"horse\",\"action\":\"getHorse\",\"payload\":{\"id\":3}}");
+
+    assertInstanceOf(JsonElement.class, request.payload());
+  }
+
+  @Test
+  public void testIgnoredPayloadIsSkipped() {
+    DecodedRequest request = decoder.decode("{\"handler\":\"race\",\"action\":\"getRaceList\",\"payload\":{\"any\":[1,2]}}");
+
+    assertEquals("getRaceList", request.action());
+    assertNull(request.payload());
+  }
+
+  @Test
+  public void testPayloadOfWrongShapeIsKeptForTheHandlerToReport() {
+    DecodedRequest request = decoder.decode("{\"handler\":\"auth\",\"action\":\"login\",\"payload\":[1,2,3]}");
+
+    assertNotNull(request);
+    assertInstanceOf(JsonElement.class, request.payload());
+  }
+
+  @Test
+  public void testMissingFieldsOrInvalidJsonAreRejected() {
+    assertNull(decoder.decode("{\"handler\":\"auth\",\"action\":\"login\"}"));
+    assertNull(decoder.decode("{\"handler\":\"auth\",\"payload\":{}}"));
+    assertNull(decoder.decode("not json"));
+    assertNull(decoder.decode("{\"handler\":\"auth\",\"action\":\"login\",\"payload\":{}} trailing"));
+  }
+}
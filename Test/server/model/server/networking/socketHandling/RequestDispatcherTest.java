@@ -0,0 +1,55 @@
+package server.networking.socketHandling;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import shared.ErrorResponse;
+import shared.Respond;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RequestDispatcherTest {
+
+  private RequestDispatcher dispatcher;
+  private List<Runnable> submitted;
+  private List<Respond> replies;
+
+  @BeforeEach
+  public void setUp() {
+    dispatcher = new RequestDispatcher();
+    submitted = new ArrayList<>();
+    replies = new ArrayList<>();
+  }
+
+  @Test
+  public void testRequestWithoutIdIsAnsweredOnCallingThread() {
+    dispatcher.process(new DecodedRequest("unknown", "action", null, null), null, submitted::add, replies::add);
+
+    assertTrue(submitted.isEmpty());
+    assertEquals(1, replies.size());
+    assertNull(replies.get(0).requestId());
+  }
+
+  @Test
+  public void testRequestWithIdIsExecutedConcurrentlyAndEchoesId() {
+    dispatcher.process(new DecodedRequest("unknown", "action", null, "42"), null, submitted::add, replies::add);
+
+    assertEquals(1, submitted.size());
+    assertTrue(replies.isEmpty(), "Response should only be sent once the worker ran the request");
+
+    submitted.get(0).run();
+    assertEquals(1, replies.size());
+    assertEquals("42", replies.get(0).requestId());
+  }
+
+  @Test
+  public void testErrorResponseEchoesId() {
+    Respond respond = dispatcher.dispatch(new DecodedRequest("unknown", "action", null, "7"), null);
+
+    assertEquals("error", respond.type());
+    assertInstanceOf(ErrorResponse.class, respond.payload());
+    assertEquals("7", respond.requestId());
+  }
+}
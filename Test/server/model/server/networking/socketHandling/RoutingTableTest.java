@@ -0,0 +1,50 @@
+package server.networking.socketHandling;
+
+import org.junit.jupiter.api.Test;
+import shared.DTO.HorseDTO;
+import shared.bet.CreateBetRequest;
+import shared.loginRegister.LoginRequest;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RoutingTableTest {
+
+  @Test
+  public void testDefaultTableIsShared() {
+    assertSame(RoutingTable.getDefault(), RoutingTable.getDefault());
+  }
+
+  @Test
+  public void testDefaultTableRoutesEveryAction() {
+    RoutingTable table = RoutingTable.getDefault();
+
+    assertEquals(LoginRequest.class, table.find("auth", "login").payloadType());
+    assertEquals(CreateBetRequest.class, table.find("bet", "createBet").payloadType());
+    assertEquals(HorseDTO.class, table.find("horse", "deleteHorse").payloadType());
+    assertEquals(Void.class, table.find("race", "getRaceList").payloadType());
+    assertNull(table.find("race", "unknownAction"));
+    assertNull(table.find("unknown", "login"));
+    assertTrue(table.hasHandler("race"));
+    assertFalse(table.hasHandler("unknown"));
+  }
+
+  @Test
+  public void testRouteInvokesBoundMethod() {
+    RequestHandler handler = () -> List.of(new Route("echo", String.class, (payload, connection) -> "echo: " + payload));
+    RoutingTable table = new RoutingTable(Map.of("test", handler));
+
+    assertEquals("echo: hi", table.find("test", "echo").invoke("hi", null));
+  }
+
+  @Test
+  public void testDuplicateActionIsRejected() {
+    RequestHandler handler = () -> List.of(
+        new Route("same", Void.class, (payload, connection) -> null),
+        new Route("same", Void.class, (payload, connection) -> null));
+
+    assertThrows(IllegalStateException.class, () -> new RoutingTable(Map.of("test", handler)));
+  }
+}
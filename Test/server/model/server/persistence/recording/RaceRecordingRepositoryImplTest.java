@@ -0,0 +1,93 @@
+package server.persistence.recording;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import server.model.Horse;
+import server.model.RaceSimulator;
+import server.model.RaceTrack;
+import server.model.SimulationResult;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+public class RaceRecordingRepositoryImplTest {
+
+  private Path file;
+
+  @BeforeEach
+  public void setUp() throws IOException {
+    file = Files.createTempFile("races", ".rec");
+  }
+
+  @AfterEach
+  public void tearDown() throws IOException {
+    Files.deleteIfExists(file);
+  }
+
+  @Test
+  public void testRecordingReadsBackTickByTick() throws IOException {
+    SimulationResult race = simulate(7, 1000, 1);
+    RaceRecordingRepositoryImpl repository = new RaceRecordingRepositoryImpl(file, 4096);
+
+    repository.save(record("Derby", new int[] {1, 2, 3, 4, 5, 6, -7}, 1000, race));
+    RaceRecording recording = repository.read("Derby");
+
+    assertEquals("Derby", recording.getRaceName());
+    assertEquals(1000, recording.getTrackLength());
+    assertEquals(2000, recording.getTickIntervalMillis());
+    assertArrayEquals(new int[] {1, 2, 3, 4, 5, 6, -7}, recording.getHorseIds());
+    assertEquals(race.getTicks(), recording.getTicks());
+    for (int tick = 1; tick <= race.getTicks(); tick++) {
+      assertArrayEquals(race.getPositions(tick), recording.getPositions(tick));
+    }
+    assertNull(repository.read("Oaks"));
+    repository.close();
+  }
+
+  @Test
+  public void testRecordingsSurviveReopening() throws IOException {
+    RaceRecordingRepositoryImpl repository = new RaceRecordingRepositoryImpl(file, 64);
+    for (int i = 0; i < 20; i++) repository.save(record("Race " + (i % 5), new int[] {1, 2, 3}, 100, simulate(3, 100, i)));
+    long size = repository.size();
+    repository.close();
+
+    RaceRecordingRepositoryImpl reopened = new RaceRecordingRepositoryImpl(file, 64);
+
+    assertEquals(size, reopened.size());
+    SimulationResult latest = simulate(3, 100, 19);
+    RaceRecording recording = reopened.read("Race 4");
+    assertEquals(latest.getTicks(), recording.getTicks(), "The latest recording of a race should win.");
+    assertArrayEquals(latest.getPositions(latest.getTicks()), recording.getPositions(recording.getTicks()));
+    reopened.close();
+  }
+
+  @Test
+  public void testRecordingStaysInLowKilobytes() {
+    SimulationResult race = simulate(7, 1000, 3);
+
+    byte[] bytes = record("Derby", new int[] {11, 12, 13, 14, 15, 16, 17}, 1000, race).toBytes();
+
+    // one byte per horse and tick, plus a small header
+    assertTrue(bytes.length <= race.getTicks() * 7 + 32, "Recording took " + bytes.length + " bytes");
+  }
+
+  private SimulationResult simulate(int horseCount, int trackLength, long seed) {
+    List<Horse> horses = new ArrayList<>();
+    for (int i = 0; i < horseCount; i++) horses.add(new Horse(i, "Horse " + i, 3 + i % 4, 12 + i % 5));
+    return new RaceSimulator(horses, new RaceTrack("Test Track", trackLength, "London"))
+        .simulate(new SplittableRandom(seed));
+  }
+
+  private RaceRecorder record(String name, int[] horseIds, int trackLength, SimulationResult race) {
+    RaceRecorder recorder = new RaceRecorder(name, horseIds, trackLength, 2000);
+    for (int tick = 1; tick <= race.getTicks(); tick++) recorder.record(race.getPositions(tick));
+    return recorder;
+  }
+}
@@ -0,0 +1,126 @@
+package shared.protocol;
+
+import com.google.gson.Gson;
+import org.junit.jupiter.api.Test;
+import shared.DTO.BetResponseDTO;
+import shared.DTO.HorseDTO;
+import shared.Respond;
+import shared.bet.CreateBetResponse;
+import shared.updates.HorsePositionsUpdate;
+import shared.updates.OnHorseFinished;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BinaryCodecTest {
+
+  private final Gson gson = new Gson();
+
+  @Test
+  public void testHorsePositionsRoundTrip() throws IOException {
+    Respond respond = new Respond("horseMoveUpdate", new HorsePositionsUpdate("Derby", List.of(0, 17, 250, 1_000_000, -3), 5_000_000_000L, 42)
+        .timed(1_700_000_000_000L, 2000));
+
+    Respond decoded = roundTrip(respond);
+
+    assertEquals(respond, decoded);
+  }
+
+  @Test
+  public void testHorsePositionsDeltaRoundTrip() throws IOException {
+    Respond respond = new Respond("horseMoveUpdate",
+        HorsePositionsUpdate.delta("Derby", 3, 17, List.of(0, 2, 9, 15, 16), List.of(4, 12, 1, 7, 9))
+            .timed(1_700_000_000_000L, 500));
+
+    Respond decoded = roundTrip(respond);
+
+    assertEquals(respond, decoded);
+    assertTrue(((HorsePositionsUpdate) decoded.payload()).isDelta());
+  }
+
+  @Test
+  public void testDeltaWithUnorderedLanesIsSentAsJson() {
+    Respond respond = new Respond("horseMoveUpdate",
+        HorsePositionsUpdate.delta("Derby", 3, 17, List.of(2, 0), List.of(4, 12)));
+
+    assertNull(BinaryCodec.encodeCompact(respond));
+  }
+
+  @Test
+  public void testHorseFinishedRoundTrip() throws IOException {
+    Respond respond = new Respond("onHorseFinished", new OnHorseFinished("Derby", new HorseDTO(7, "Blitz", 3, 12), 2, 9));
+
+    assertEquals(respond, roundTrip(respond));
+  }
+
+  @Test
+  public void testBetConfirmationKeepsRequestId() throws IOException {
+    BetResponseDTO bet = new BetResponseDTO("Derby", new HorseDTO(7, "Blitzø", 3, 12), "alice", 150);
+    Respond respond = new Respond("createBet", new CreateBetResponse(bet), "42");
+
+    assertEquals(respond, roundTrip(respond));
+  }
+
+  @Test
+  public void testCompactFramesAreSmallerThanJson() {
+    Respond respond = new Respond("horseMoveUpdate", new HorsePositionsUpdate("Derby", List.of(120, 133, 98, 141, 127, 110)));
+
+    int json = gson.toJson(respond).getBytes(StandardCharsets.UTF_8).length + 1;
+    int binary = BinaryCodec.encode(respond).length;
+
+    assertTrue(binary * 3 < json, binary + " bytes should be well below " + json);
+  }
+
+  @Test
+  public void testOtherMessagesAreCarriedAsJson() throws IOException {
+    Respond respond = new Respond("getRaceList", Map.of("races", List.of("Derby")), "3");
+
+    assertNull(BinaryCodec.encodeCompact(respond));
+    Respond decoded = roundTrip(respond);
+
+    assertEquals("getRaceList", decoded.type());
+    assertEquals("3", decoded.requestId());
+    assertEquals(gson.toJsonTree(respond.payload()), gson.toJsonTree(decoded.payload()));
+  }
+
+  @Test
+  public void testReaderSwitchesFromLinesToFrames() throws IOException {
+    ByteArrayOutputStream stream = new ByteArrayOutputStream();
+    stream.write("{\"type\":\"hello\",\"payload\":{\"format\":\"binary\"}}\n".getBytes(StandardCharsets.UTF_8));
+    Respond positions = new Respond("horseMoveUpdate", new HorsePositionsUpdate("Derby", List.of(1, 2, 3)));
+    stream.write(BinaryCodec.encode(positions));
+    stream.write(BinaryCodec.encode(positions));
+
+    FrameReader reader = new FrameReader(new ByteArrayInputStream(stream.toByteArray()));
+
+    assertTrue(reader.readLine().contains("hello"));
+    assertEquals(positions, BinaryCodec.decode(reader.readFrame()));
+    assertEquals(positions, BinaryCodec.decode(reader.readFrame()));
+    assertNull(reader.readFrame());
+  }
+
+  @Test
+  public void testTruncatedFramesAreRejected() {
+    byte[] frame = BinaryCodec.encode(new Respond("onHorseFinished",
+        new OnHorseFinished("Derby", new HorseDTO(7, "Blitz", 3, 12), 2)));
+
+    FrameReader reader = new FrameReader(new ByteArrayInputStream(Arrays.copyOf(frame, frame.length - 1)));
+    assertThrows(IOException.class, reader::readFrame);
+
+    byte[] body = Arrays.copyOfRange(frame, BinaryCodec.HEADER_LENGTH, frame.length - 3);
+    assertThrows(IOException.class, () -> BinaryCodec.decode(body));
+    assertThrows(IOException.class, () -> BinaryCodec.decode(new byte[] {99}));
+  }
+
+  private Respond roundTrip(Respond respond) throws IOException {
+    byte[] frame = BinaryCodec.encode(respond);
+    return BinaryCodec.decode(new FrameReader(new ByteArrayInputStream(frame)).readFrame());
+  }
+}
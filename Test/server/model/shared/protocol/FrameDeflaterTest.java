@@ -0,0 +1,73 @@
+package shared.protocol;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import shared.DTO.HorseDTO;
+import shared.Respond;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.Deflater;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FrameDeflaterTest {
+
+  private FrameDeflater deflater;
+  private FrameInflater inflater;
+
+  @BeforeEach
+  public void setUp() {
+    deflater = new FrameDeflater(Deflater.BEST_SPEED);
+    inflater = new FrameInflater();
+  }
+
+  @AfterEach
+  public void tearDown() {
+    deflater.end();
+    inflater.end();
+  }
+
+  @Test
+  public void testLargeFramesShrinkAndRoundTrip() throws IOException {
+    List<HorseDTO> horses = new ArrayList<>();
+    for (int i = 0; i < 500; i++) horses.add(new HorseDTO(i, "Horse " + i, 3, 9));
+    byte[] frame = BinaryCodec.encode(new Respond("getHorseList", horses, "5"));
+
+    // The same deflater is used for several frames in a row
+    for (int round = 0; round < 3; round++) {
+      byte[] compressed = deflater.deflate(frame);
+      assertTrue(compressed.length * 4 < frame.length, compressed.length + " should be well below " + frame.length);
+
+      byte[] body = inflater.inflate(Arrays.copyOfRange(compressed, BinaryCodec.HEADER_LENGTH, compressed.length));
+      assertArrayEquals(Arrays.copyOfRange(frame, BinaryCodec.HEADER_LENGTH, frame.length), body);
+      assertEquals("getHorseList", BinaryCodec.decode(body).type());
+    }
+  }
+
+  @Test
+  public void testIncompressibleFramesAreLeftAlone() throws IOException {
+    byte[] random = new byte[2000];
+    new Random(1).nextBytes(random);
+    byte[] frame = BinaryCodec.wrapJson(random, 0, random.length);
+
+    assertSame(frame, deflater.deflate(frame));
+
+    byte[] body = Arrays.copyOfRange(frame, BinaryCodec.HEADER_LENGTH, frame.length);
+    assertSame(body, inflater.inflate(body));
+  }
+
+  @Test
+  public void testCorruptDataIsRejected() {
+    byte[] frame = BinaryCodec.encode(new Respond("getRaceList", "x".repeat(5000)));
+    byte[] compressed = deflater.deflate(frame);
+    byte[] body = Arrays.copyOfRange(compressed, BinaryCodec.HEADER_LENGTH, compressed.length - 4);
+
+    assertThrows(IOException.class, () -> inflater.inflate(body));
+    assertThrows(IOException.class, () -> BinaryCodec.decode(body));
+  }
+}
@@ -25,10 +25,11 @@ CREATE TABLE sep2.horse(
 );
 
 CREATE TABLE sep2.race(
-    id INT PRIMARY KEY,
+    id SERIAL PRIMARY KEY,
     racetrack_id INT REFERENCES sep2.raceTrack(id),
     name VARCHAR,
-    startTime TIMESTAMP
+    startTime TIMESTAMP,
+    seed BIGINT
 );
 
 CREATE TABLE sep2.raceObserver(
@@ -40,6 +41,7 @@ CREATE TABLE sep2.raceObserver(
 CREATE TABLE sep2.participant(
     race_id INT REFERENCES sep2.race(id),
     horse_id INT REFERENCES sep2.horse(id),
+    lane INT,
     rank INT,
     PRIMARY KEY (race_id, horse_id)
 );
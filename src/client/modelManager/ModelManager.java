@@ -2,11 +2,14 @@ package client.modelManager;
 
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.IntegerProperty;
+import javafx.beans.property.LongProperty;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.StringProperty;
 import javafx.collections.ObservableList;
 import shared.DTO.*;
 
+import java.sql.Timestamp;
+
 /**
  * The ModelManager interface defines all properties and methods
  * that the ViewModel layer uses to interact with the underlying application state.
@@ -124,6 +127,31 @@ public interface ModelManager {
      */
     void createRace(String name, RaceTrackDTO raceTrack, Integer capacity);
 
+    /**
+     * Sends a request to create a race starting at a given time.
+     *
+     * @param name name of the race
+     * @param raceTrack the race track to use
+     * @param capacity the maximum number of horses
+     * @param startTime when the race starts
+     */
+    void createRace(String name, RaceTrackDTO raceTrack, Integer capacity, Timestamp startTime);
+
+    /**
+     * Sends a request to move the start of a race that has not started yet.
+     *
+     * @param name name of the race
+     * @param startTime the new start time
+     */
+    void rescheduleRace(String name, Timestamp startTime);
+
+    /**
+     * Sends a request to remove a race from the calendar before betting opens for it.
+     *
+     * @param name name of the race
+     */
+    void cancelRace(String name);
+
     /**
      * Sends a bet creation request.
      *
@@ -173,6 +201,15 @@ public interface ModelManager {
     /** @return observable list of horse positions during a race */
     ObservableList<Integer> getHorsePositions();
 
+    /**
+     * @return property holding when the server took the current horse positions, in milliseconds since the
+     *         epoch; 0 if unknown. It is set before the positions change.
+     */
+    LongProperty horsePositionsTimeProperty();
+
+    /** @return property holding the time between two position updates of the race in milliseconds, 0 if unknown */
+    LongProperty tickMillisProperty();
+
     /**
      * Handles incoming messages from the server and routes them appropriately.
      *
@@ -22,14 +22,19 @@ import shared.loginRegister.LoginRespond;
 import shared.loginRegister.RegisterRequest;
 import shared.loginRegister.RegisterRespond;
 import shared.race.*;
+import shared.subscription.SubscriptionResponse;
+import shared.subscription.Topics;
 import shared.updates.HorsePositionsUpdate;
+import shared.updates.OnHorseFinished;
 import shared.updates.OnRaceFinished;
 import shared.updates.OnRaceStarted;
 import shared.user.UserRequest;
 import shared.user.UserResponse;
 
+import java.sql.Timestamp;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
 
 public class ModelManagerImpl implements ModelManager, MessageListener {
 
@@ -58,6 +63,10 @@ public class ModelManagerImpl implements ModelManager, MessageListener {
     private final ObjectProperty<RaceDTO>      nextRace = new SimpleObjectProperty<RaceDTO>(null);
     private final ObjectProperty<RaceState>    raceState = new SimpleObjectProperty<>(null);
     private final ObservableList<HorseDTO>     raceRank = FXCollections.observableArrayList();
+    // last event and tick of the next race applied; only touched on the FX thread
+    private long raceSequence = -1;
+    private int  raceTick = 0;
+    private boolean resyncPending = false;
 
     // —— Horse data ——
     private final ObservableList<HorseDTO> horseList       = FXCollections.observableArrayList();
@@ -73,6 +82,8 @@ public class ModelManagerImpl implements ModelManager, MessageListener {
 
     // —— Game data ——
     private final ObservableList<Integer> horsePositions = FXCollections.observableArrayList();
+    private final LongProperty horsePositionsTime = new SimpleLongProperty(0);
+    private final LongProperty tickMillis = new SimpleLongProperty(0);
     private final IntegerProperty userBalance = new SimpleIntegerProperty(0);
     // —— User data ——
     private UserDTO currentUser;
@@ -103,6 +114,9 @@ public class ModelManagerImpl implements ModelManager, MessageListener {
 
         // subscribe once for all incoming socket messages
         this.socketService.addListener(this);
+
+        // race state changes of every race; updates of a single race are subscribed with the next race
+        this.raceClient.subscribe(Topics.RACE_LIST);
     }
 
 
@@ -166,6 +180,12 @@ public class ModelManagerImpl implements ModelManager, MessageListener {
     /** @return observable list of current horse positions during race */
     public ObservableList<Integer> getHorsePositions() { return horsePositions; }
 
+    /** @return property holding when the server took the current horse positions, 0 if unknown */
+    public LongProperty horsePositionsTimeProperty() { return horsePositionsTime; }
+
+    /** @return property holding the time between two position updates of the race in milliseconds, 0 if unknown */
+    public LongProperty tickMillisProperty() { return tickMillis; }
+
     /** @return observable list of horses in the system */
     public ObservableList<HorseDTO> getHorseList() { return horseList; }
 
@@ -236,6 +256,40 @@ public class ModelManagerImpl implements ModelManager, MessageListener {
         raceClient.createRace(raceRequest);
     }
 
+    /**
+     * Sends a request to create a race starting at a given time.
+     *
+     * @param name the name of the race
+     * @param raceTrack the selected race track
+     * @param capacity number of horses allowed in the race
+     * @param startTime when the race starts
+     */
+    @Override
+    public void createRace(String name, RaceTrackDTO raceTrack, Integer capacity, Timestamp startTime) {
+        raceClient.createRace(new CreateRaceRequest(name, raceTrack, capacity, startTime, null));
+    }
+
+    /**
+     * Sends a request to move the start of a race that has not started yet.
+     *
+     * @param name the name of the race
+     * @param startTime the new start time
+     */
+    @Override
+    public void rescheduleRace(String name, Timestamp startTime) {
+        raceClient.rescheduleRace(new RescheduleRaceRequest(name, startTime));
+    }
+
+    /**
+     * Sends a request to remove a race from the calendar before betting opens for it.
+     *
+     * @param name the name of the race
+     */
+    @Override
+    public void cancelRace(String name) {
+        raceClient.cancelRace(new CancelRaceRequest(name));
+    }
+
     /**
      * Places a bet on the specified horse for a given amount.
      * Validates the bet before sending it to the server.
@@ -258,7 +312,9 @@ public class ModelManagerImpl implements ModelManager, MessageListener {
         }
 
         // Create request
-        CreateBetRequest request = new CreateBetRequest(currentUser.username(), horseDTO, amount);
+        RaceDTO race = nextRace.get();
+        CreateBetRequest request = new CreateBetRequest(currentUser.username(), horseDTO, amount,
+                race != null ? race.name() : null);
 
         // Send to server
         betClient.createBet(request);
@@ -331,6 +387,8 @@ public class ModelManagerImpl implements ModelManager, MessageListener {
             case "getRaceTracks":    handleGetRaceTracks(payload);   break;
             case "getRaceList":      handleGetRaceList(payload);     break;
             case "createRace":       handleCreateRace(payload);      break;
+            case "rescheduleRace":
+            case "cancelRace":       getAllRaces();                  break;
             case "horseMoveUpdate":  handleHorseMove(payload);       break;
             case "onHorseFinished":  handleOnHorseFinished(payload); break;
             case "onRaceStarted":    handleOnRaceStarted(payload);   break;
@@ -341,6 +399,7 @@ public class ModelManagerImpl implements ModelManager, MessageListener {
             case "deleteHorse":      handleDeleteHorse(payload);     break;
             case "getUser":          handleGetUser(payload);         break;
             case "createBet":        handleCreateBet(payload);       break;
+            case "subscribe":        handleSubscribe(payload);       break;
         }
     }
 
@@ -413,13 +472,102 @@ public class ModelManagerImpl implements ModelManager, MessageListener {
             raceList.setAll(respond.races());
 
             if (!raceList.isEmpty()) {
-                nextRace.set(raceList.get(0));
+                setNextRace(raceList.get(0));
             } else {
-                nextRace.set(null);
+                setNextRace(null);
             }
         });
     }
 
+    /**
+     * Sets the next race and moves the race topic subscription to it,
+     * so position and finish updates of that race are pushed to this client.
+     *
+     * @param race the next race, or null if no race is scheduled
+     */
+    private void setNextRace(RaceDTO race) {
+        RaceDTO previous = nextRace.get();
+        String previousName = previous == null ? null : previous.name();
+        String newName = race == null ? null : race.name();
+
+        if (!Objects.equals(previousName, newName)) {
+            if (previousName != null) raceClient.unsubscribe(Topics.race(previousName));
+            raceSequence = -1;
+            raceTick = 0;
+            resyncPending = false;
+            raceRank.clear();
+            horsePositions.clear();
+            if (newName != null) raceClient.subscribe(Topics.race(newName));
+        }
+        nextRace.set(race);
+    }
+
+    /**
+     * Handles the answer to a subscription. For the next race it carries a snapshot of the race,
+     * which replaces the local race state unless updates newer than the snapshot were applied already.
+     *
+     * @param payload the JSON payload containing the subscription response
+     */
+    private void handleSubscribe(String payload) {
+        SubscriptionResponse respond = gson.fromJson(payload, SubscriptionResponse.class);
+        RaceSnapshotDTO snapshot = respond.snapshot();
+        if (snapshot == null) return;
+
+        Platform.runLater(() -> {
+            resyncPending = false;
+            if (!isNextRace(snapshot.raceName()) || snapshot.sequence() < raceSequence) return;
+            if (snapshot.sequence() == raceSequence && snapshot.tick() <= raceTick) return;
+
+            raceSequence = snapshot.sequence();
+            raceTick = snapshot.tick();
+            raceRank.setAll(snapshot.finished());
+            horsePositionsTime.set(0);
+            horsePositions.setAll(snapshot.positions());
+            raceState.set(snapshot.state());
+            boolean running = snapshot.state() == RaceState.IN_PROGRESS;
+            raceStarted.set(running);
+            currentRaceName.set(running ? snapshot.raceName() : "");
+        });
+    }
+
+    /**
+     * Checks where an event of the next race falls in its sequence. Events the snapshot or an earlier
+     * update already covered are skipped; after a gap, the race is subscribed again to get a new snapshot.
+     *
+     * @param raceName the race the event is about
+     * @param sequence the sequence number of the event
+     * @return true if the event is the next one and should be applied
+     */
+    private boolean acceptEvent(String raceName, long sequence) {
+        if (!isNextRace(raceName)) return false;
+        if (raceSequence < 0 || sequence == raceSequence + 1) {
+            raceSequence = sequence;
+            return true;
+        }
+        if (sequence > raceSequence) resync(raceName);
+        return false;
+    }
+
+    /**
+     * Asks the server for a new snapshot of a race after updates of it were missed.
+     *
+     * @param raceName the race's name
+     */
+    private void resync(String raceName) {
+        if (resyncPending) return;
+        resyncPending = true;
+        raceClient.subscribe(Topics.race(raceName));
+    }
+
+    /**
+     * @param raceName the name of a race
+     * @return true if it is the race this client follows
+     */
+    private boolean isNextRace(String raceName) {
+        RaceDTO race = nextRace.get();
+        return race != null && race.name().equals(raceName);
+    }
+
     /**
      * Handles the response after attempting to create a race.
      * Updates the created race and its status, and refreshes the race list if successful.
@@ -453,7 +601,9 @@ public class ModelManagerImpl implements ModelManager, MessageListener {
     private void handleOnRaceStarted(String payload) {
         OnRaceStarted raceStarted = gson.fromJson(payload, OnRaceStarted.class);
         Platform.runLater(() -> {
-            if (raceStarted.raceName().equals(nextRace.get().name())) {
+            if (acceptEvent(raceStarted.raceName(), raceStarted.sequence())) {
+                raceTick = 0;
+                raceRank.clear();
                 this.currentRaceName.set(raceStarted.raceName());
                 this.raceStarted.set(true);
                 raceState.set(RaceState.IN_PROGRESS);
@@ -468,13 +618,11 @@ public class ModelManagerImpl implements ModelManager, MessageListener {
      * @param payload the JSON payload containing race finish info
      */
     private void handleOnRaceFinished(String payload) {
+        OnRaceFinished respond = gson.fromJson(payload, OnRaceFinished.class);
         Platform.runLater(() -> {
-            raceStarted.set(false);
-            currentRaceName.set("");
-
-            OnRaceFinished respond = gson.fromJson(payload, OnRaceFinished.class);
-
-            if (respond.raceName().equals(nextRace.get().name())) {
+            if (acceptEvent(respond.raceName(), respond.sequence())) {
+                raceStarted.set(false);
+                currentRaceName.set("");
                 raceState.set(RaceState.FINISHED);
             }
         });
@@ -483,18 +631,28 @@ public class ModelManagerImpl implements ModelManager, MessageListener {
 
 
     /**
-     * Placeholder for handling a horse finish event.
-     * This method is currently not implemented.
+     * Handles a horse crossing the finish line.
+     * Adds the horse to the race ranking if the event is the next one of the race.
      *
-     * @param payload the JSON payload (not used yet)
+     * @param payload the JSON payload containing the finished horse and its place
      */
     private void handleOnHorseFinished(String payload) {
-        // TODO: Implement this when horse finish logic is defined
+        OnHorseFinished finished = gson.fromJson(payload, OnHorseFinished.class);
+        Platform.runLater(() -> {
+            if (acceptEvent(finished.raceName(), finished.sequence())) {
+                raceRank.add(finished.horseDTO());
+            }
+        });
     }
 
     /**
      * Handles updates to horse positions during a race.
-     * Parses the update and refreshes the horsePositions list.
+     * Parses the update and refreshes the horsePositions list unless a later tick was shown already:
+     * a keyframe replaces every position, a delta adds the steps of the horses that moved.
+     * An update following an event this client has not seen, or a delta after a missed tick, triggers a resync;
+     * the next keyframe brings the positions up to date as well.
+     * The server time and tick length of the update are set before the positions, so views moving the horses
+     * smoothly between updates read the timing of the new positions.
      *
      * @param payload the JSON payload containing updated horse positions
      */
@@ -504,10 +662,55 @@ public class ModelManagerImpl implements ModelManager, MessageListener {
 
         // Update property
         Platform.runLater(() -> {
-            horsePositions.setAll(update.positions());
+            if (!isNextRace(update.raceName())) return;
+            if (raceSequence >= 0 && update.sequence() > raceSequence) {
+                resync(update.raceName());
+                return;
+            }
+            if (update.isDelta()) {
+                if (update.tick() <= raceTick) return;
+                if (update.tick() != raceTick + 1 || !applyDelta(update)) {
+                    resync(update.raceName());
+                    return;
+                }
+            } else {
+                if (update.tick() != 0 && update.tick() <= raceTick) return;
+                setPositionTiming(update);
+                horsePositions.setAll(update.positions());
+            }
+            raceTick = update.tick();
         });
     }
 
+    /**
+     * Adds the steps of a delta to the current horse positions.
+     *
+     * @param update the delta
+     * @return false if the delta names a lane the current positions do not have
+     */
+    private boolean applyDelta(HorsePositionsUpdate update) {
+        Integer[] positions = horsePositions.toArray(new Integer[0]);
+        List<Integer> lanes = update.movedLanes();
+        for (int i = 0; i < lanes.size(); i++) {
+            int lane = lanes.get(i);
+            if (lane >= positions.length) return false;
+            positions[lane] += update.steps().get(i);
+        }
+        setPositionTiming(update);
+        horsePositions.setAll(positions);
+        return true;
+    }
+
+    /**
+     * Sets the server time and tick length of the positions about to be shown.
+     *
+     * @param update the update holding the positions
+     */
+    private void setPositionTiming(HorsePositionsUpdate update) {
+        horsePositionsTime.set(update.serverTime());
+        tickMillis.set(update.tickMillis());
+    }
+
     /**
      * Handles the response containing the list of horses.
      * Updates the local horse list observable.
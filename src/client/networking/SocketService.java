@@ -7,23 +7,35 @@ import com.google.gson.Gson;
 import server.networking.exceptions.InvalidMessageException;
 import shared.Request;
 import shared.Respond;
+import shared.protocol.FrameDeflater;
+import shared.protocol.FrameReader;
+import shared.protocol.HelloRequest;
+import shared.protocol.HelloResponse;
+import shared.protocol.WireFormat;
 
 import java.io.*;
 import java.net.Socket;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Provides communication services for socket-based interactions with the server.
- * The class sends and receives JSON-encoded requests and responses using a socket connection.
+ * The class sends JSON-encoded requests and receives responses using a socket connection.
+ * Right after connecting it asks the server for the compact {@link WireFormat#BINARY} format, with large
+ * frames deflated; until the server answers (and with servers that do not know the handshake) responses
+ * arrive as JSON lines.
  * It also supports registering and notifying listeners for events triggered by server responses.
  */
 public class SocketService implements SocketSubject {
   private final Socket socket;
   private final BufferedWriter out;
-  private final BufferedReader in;
+  private final FrameReader in;
+  private volatile WireFormat wireFormat = WireFormat.JSON;
   private boolean running = true;
   private final Gson gson = new Gson();
   private final ArrayList<MessageListener> listeners = new ArrayList<>();
+  private final AtomicLong nextRequestId = new AtomicLong();
   private ErrorHandler errorHandler;
   private Thread receiveThread;
 
@@ -37,11 +49,15 @@ public class SocketService implements SocketSubject {
   public SocketService(String host, int port) throws IOException {
     this.socket = new Socket(host, port);
     this.out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream()));
-    this.in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
+    this.in = new FrameReader(socket.getInputStream());
 
 //  Initiate an error handler
     errorHandler = new ErrorHandler(this);
 
+    // Ask for the binary format, with compression of large frames, before anything else is sent
+    sendRequest(new Request("connection", "hello", gson.toJsonTree(new HelloRequest(
+        List.of(WireFormat.BINARY.wireName(), WireFormat.JSON.wireName()), List.of(FrameDeflater.DEFLATE)))));
+
     // Start a new thread to handle incoming messages from the server
     this.receiveThread = new Thread(new SocketServiceReceive(this, in));
     receiveThread.start();
@@ -60,10 +76,11 @@ public class SocketService implements SocketSubject {
 
   /**
    * Sends a request to the server. The request is serialized as a JSON string and sent over the socket connection.
+   * Synchronized, because the receiving thread answers heartbeats while other threads send requests.
    *
    * @param request the request to send
    */
-  public void sendRequest(Request request) {
+  public synchronized void sendRequest(Request request) {
     try {
       String json = gson.toJson(request);
       out.write(json);
@@ -75,8 +92,24 @@ public class SocketService implements SocketSubject {
   }
 
   /**
-   * Receives a JSON-encoded response from the server, decodes it into a {@link Respond} object,
-   * and notifies the listeners with the response's type and payload.
+   * Creates a new request id. A request sent with an id may be processed by the server concurrently
+   * with the client's other requests, so its response can arrive before responses to earlier requests.
+   *
+   * @return an id unique for this connection
+   */
+  public String nextRequestId() {
+    return Long.toString(nextRequestId.incrementAndGet());
+  }
+
+  /**
+   * @return the format the server currently uses for the messages it sends on this connection
+   */
+  public WireFormat getWireFormat() {
+    return wireFormat;
+  }
+
+  /**
+   * Receives a JSON-encoded response from the server and decodes it into a {@link Respond} object.
    *
    * @param jsonResponse the raw JSON response from the server
    */
@@ -87,7 +120,31 @@ public class SocketService implements SocketSubject {
         System.err.println("Received invalid JSON: " + jsonResponse);
         return;
       }
-      Respond respond = gson.fromJson(jsonResponse, Respond.class);
+      receive(gson.fromJson(jsonResponse, Respond.class));
+    } catch (Exception e) {
+      System.err.println("Error processing response: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Handles a response from the server, however it was encoded, and notifies the listeners with the
+   * response's type and payload. The answer to the handshake switches the format of the following messages,
+   * and heartbeat pings are answered with a pong; neither is passed on to the listeners.
+   *
+   * @param respond the decoded response
+   */
+  public void receive(Respond respond) {
+    try {
+      if ("ping".equals(respond.type())) {
+        sendRequest(new Request("connection", "pong", gson.toJsonTree(respond.payload())));
+        return;
+      }
+      if ("hello".equals(respond.type())) {
+        HelloResponse hello = gson.fromJson(gson.toJsonTree(respond.payload()), HelloResponse.class);
+        WireFormat format = WireFormat.fromName(hello.format());
+        if (format != null) wireFormat = format;
+        return;
+      }
 
       try{
       Respond respondDecoded = RespondValidate.decode(respond);
@@ -1,44 +1,56 @@
 package client.networking;
 
 import client.ui.util.ErrorHandler;
+import shared.protocol.BinaryCodec;
+import shared.protocol.FrameInflater;
+import shared.protocol.FrameReader;
+import shared.protocol.WireFormat;
 
-import java.io.BufferedReader;
 import java.io.IOException;
 
 /**
  * This class is responsible for receiving data from the server through a socket connection.
  * It runs in a separate thread and continuously listens for incoming messages.
- * When a new message is received, it forwards the raw JSON string to the {@link SocketService} for processing.
+ * JSON lines are forwarded as raw strings to the {@link SocketService} for processing; once the server has
+ * switched the connection to {@link WireFormat#BINARY}, each frame is inflated if it was compressed, decoded
+ * here and forwarded as a message.
  */
 public class SocketServiceReceive implements Runnable {
-  private final BufferedReader in;
+  private final FrameReader in;
   private final SocketService socketService;
+  private final FrameInflater inflater = new FrameInflater();
 
   /**
    * Constructs a new {@code SocketServiceReceive} instance.
    *
    * @param socketService the {@link SocketService} that will process the received messages
-   * @param in the {@link BufferedReader} used to read incoming data from the socket
+   * @param in the {@link FrameReader} used to read incoming data from the socket
    */
-  public SocketServiceReceive(SocketService socketService, BufferedReader in) {
+  public SocketServiceReceive(SocketService socketService, FrameReader in) {
     this.socketService = socketService;
     this.in = in;
   }
 
   /**
-   * Continuously reads lines of JSON data from the server and forwards them to the {@link SocketService}.
+   * Continuously reads messages from the server and forwards them to the {@link SocketService}.
+   * The format of each message is checked before reading it, because the answer to the handshake,
+   * processed on this thread, changes the format of everything after it.
    * This method runs in a separate thread to avoid blocking the main thread of the application.
-   *
-   * @throws IOException if an error occurs while reading from the socket
    */
   @Override
   public void run() {
     try {
-      String jsonLine;
-      // Continuously read lines of JSON data from the server
-      while ( socketService.isRunning() && (jsonLine = in.readLine()) != null) {
-        // Forward the raw JSON string to the SocketService for further processing
-        socketService.receive(jsonLine);
+      while (socketService.isRunning()) {
+        if (socketService.getWireFormat() == WireFormat.BINARY) {
+          byte[] frame = in.readFrame();
+          if (frame == null) break;
+          socketService.receive(BinaryCodec.decode(inflater.inflate(frame)));
+        } else {
+          String jsonLine = in.readLine();
+          if (jsonLine == null) break;
+          // Forward the raw JSON string to the SocketService for further processing
+          socketService.receive(jsonLine);
+        }
       }
     } catch (IOException e) {
       // Handle any IO exceptions (e.g., if the connection is lost)
@@ -47,6 +59,8 @@ public class SocketServiceReceive implements Runnable {
       }else{
         ErrorHandler.handleError(e, "SocketServiceReceive");
       }
+    } finally {
+      inflater.end();
     }
   }
 }
@@ -29,7 +29,8 @@ public class SocketBetClient implements BetClient {
     @Override
     public void createBet(CreateBetRequest request) {
         JsonElement payload = gson.toJsonTree(request);
-        Request req = new Request("bet", "createBet", payload);
+        // Sent with an id, so placing a bet is not held up by a slow request sent before it
+        Request req = new Request("bet", "createBet", payload, socketService.nextRequestId());
         socketService.sendRequest(req);
     }
 
@@ -41,7 +42,7 @@ public class SocketBetClient implements BetClient {
     @Override
     public void getBetListByUser(GetBetHistoryOfUserRequest request) {
         JsonElement payload = gson.toJsonTree(request);
-        Request req = new Request("bet", "getBetListByUser", payload);
+        Request req = new Request("bet", "getBetListByUser", payload, socketService.nextRequestId());
         socketService.sendRequest(req);
     }
 }
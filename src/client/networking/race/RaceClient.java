@@ -1,8 +1,11 @@
 package client.networking.race;
 
+import shared.race.CancelRaceRequest;
 import shared.race.CreateRaceRequest;
 import shared.race.GetRaceListRequest;
 import shared.race.GetRaceTracksRequest;
+import shared.race.ReplayRaceRequest;
+import shared.race.RescheduleRaceRequest;
 
 /**
  * Interface for interacting with race-related requests in the system.
@@ -24,6 +27,27 @@ public interface RaceClient {
     */
    void createRace(CreateRaceRequest createRaceRequest);
 
+   /**
+    * Sends a request to move the start of a race that has not started yet.
+    *
+    * @param rescheduleRaceRequest the race and its new start time
+    */
+   void rescheduleRace(RescheduleRaceRequest rescheduleRaceRequest);
+
+   /**
+    * Sends a request to remove a race from the calendar before betting opens for it.
+    *
+    * @param cancelRaceRequest the race to cancel
+    */
+   void cancelRace(CancelRaceRequest cancelRaceRequest);
+
+   /**
+    * Sends a request to replay a finished race. Its positions arrive as position updates for the race.
+    *
+    * @param replayRaceRequest the race to replay and how fast
+    */
+   void replayRace(ReplayRaceRequest replayRaceRequest);
+
    /**
     * Sends a request to retrieve a list of available race tracks based on the provided {@link GetRaceTracksRequest}.
     * These race tracks can be used when creating new races.
@@ -31,4 +55,19 @@ public interface RaceClient {
     * @param getRaceTracksRequest the request containing the criteria for retrieving race tracks
     */
    void getRaceTracks(GetRaceTracksRequest getRaceTracksRequest);
+
+   /**
+    * Subscribes to a topic, such as one race or the race list (see {@link shared.subscription.Topics}).
+    * The server only pushes race updates to clients subscribed to their topic.
+    *
+    * @param topic the topic to subscribe to
+    */
+   void subscribe(String topic);
+
+   /**
+    * Unsubscribes from a topic, so its updates are no longer pushed to this client.
+    *
+    * @param topic the topic to unsubscribe from
+    */
+   void unsubscribe(String topic);
 }
\ No newline at end of file
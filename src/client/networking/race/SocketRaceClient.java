@@ -3,10 +3,14 @@ package client.networking.race;
 import client.networking.SocketService;
 import com.google.gson.Gson;
 import com.google.gson.JsonElement;
+import shared.race.CancelRaceRequest;
 import shared.race.CreateRaceRequest;
 import shared.race.GetRaceListRequest;
 import shared.race.GetRaceTracksRequest;
+import shared.race.ReplayRaceRequest;
+import shared.race.RescheduleRaceRequest;
 import shared.Request;
+import shared.subscription.SubscriptionRequest;
 
 /**
  * Implementation of the {@link RaceClient} interface that communicates with the server for race-related requests.
@@ -37,7 +41,8 @@ public class SocketRaceClient implements RaceClient {
   {
     GetRaceListRequest getRaceList = new GetRaceListRequest();
     JsonElement payload = gson.toJsonTree(getRaceList);
-    Request request = new Request("race", "getRaceList", payload);
+    // Sent with an id, so the server can answer other requests while it loads the races
+    Request request = new Request("race", "getRaceList", payload, socketService.nextRequestId());
     socketService.sendRequest(request);
   }
 
@@ -53,6 +58,42 @@ public class SocketRaceClient implements RaceClient {
     socketService.sendRequest(request);
   }
 
+  /**
+   * Sends a request to move the start of a race on the server.
+   *
+   * @param rescheduleRaceRequest the race and its new start time
+   */
+  @Override
+  public void rescheduleRace(RescheduleRaceRequest rescheduleRaceRequest) {
+    JsonElement payload = gson.toJsonTree(rescheduleRaceRequest);
+    Request request = new Request("race", "rescheduleRace", payload);
+    socketService.sendRequest(request);
+  }
+
+  /**
+   * Sends a request to cancel a race on the server.
+   *
+   * @param cancelRaceRequest the race to cancel
+   */
+  @Override
+  public void cancelRace(CancelRaceRequest cancelRaceRequest) {
+    JsonElement payload = gson.toJsonTree(cancelRaceRequest);
+    Request request = new Request("race", "cancelRace", payload);
+    socketService.sendRequest(request);
+  }
+
+  /**
+   * Sends a request to replay a finished race on the server.
+   *
+   * @param replayRaceRequest the race to replay and how fast
+   */
+  @Override
+  public void replayRace(ReplayRaceRequest replayRaceRequest) {
+    JsonElement payload = gson.toJsonTree(replayRaceRequest);
+    Request request = new Request("race", "replayRace", payload);
+    socketService.sendRequest(request);
+  }
+
   /**
    * Sends a request to retrieve a list of available race tracks from the server.
    *
@@ -64,4 +105,28 @@ public class SocketRaceClient implements RaceClient {
     Request request = new Request("race", "getRaceTracks", payload);
     socketService.sendRequest(request);
   }
+
+  /**
+   * Sends a request to subscribe to the given topic.
+   *
+   * @param topic the topic to subscribe to
+   */
+  @Override
+  public void subscribe(String topic) {
+    JsonElement payload = gson.toJsonTree(new SubscriptionRequest(topic));
+    Request request = new Request("subscription", "subscribe", payload);
+    socketService.sendRequest(request);
+  }
+
+  /**
+   * Sends a request to unsubscribe from the given topic.
+   *
+   * @param topic the topic to unsubscribe from
+   */
+  @Override
+  public void unsubscribe(String topic) {
+    JsonElement payload = gson.toJsonTree(new SubscriptionRequest(topic));
+    Request request = new Request("subscription", "unsubscribe", payload);
+    socketService.sendRequest(request);
+  }
 }
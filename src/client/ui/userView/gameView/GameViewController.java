@@ -68,19 +68,21 @@ public class GameViewController implements Controller {
     }
 
     /**
-     * Creates an animation timer that continuously redraws the race canvas.
+     * Creates an animation timer that continuously redraws the race canvas,
+     * moving the horses smoothly between the position updates of the server.
      */
     private void setupAnimationTimer() {
         animationTimer = new AnimationTimer() {
             @Override
             public void handle(long now) {
+                viewModel.updateDisplayedPositions(System.currentTimeMillis());
                 drawRaceTrack();
             }
         };
     }
 
     /**
-     * Draws the race track and all horses based on their current positions.
+     * Draws the race track and all horses based on their displayed positions.
      * Uses ViewModel data for horse positions and race state.
      */
     private void drawRaceTrack() {
@@ -89,7 +91,6 @@ public class GameViewController implements Controller {
         int trackLength = viewModel.getTrackLength();
 
         List<HorseDTO> horses = viewModel.getHorses();
-        Map<Integer, Integer> horsePositions = viewModel.getHorsePositions();
 
         graphicsContext.clearRect(0, 0, canvasWidth, canvasHeight);
 
@@ -112,8 +113,8 @@ public class GameViewController implements Controller {
             graphicsContext.setFill(Color.web("#f0f0f0"));
             graphicsContext.fillRect(0, y, canvasWidth, laneHeight);
 
-            int position = horsePositions.getOrDefault(horse.id(), 0);
-            double xPos = (position / (double) trackLength) * (canvasWidth - 50);
+            double position = viewModel.getDisplayedPosition(i);
+            double xPos = (position / trackLength) * (canvasWidth - 50);
 
             graphicsContext.setFill(horseColors.get(horse.id()));
             graphicsContext.fillOval(xPos, y + 5, 40, laneHeight - 10);
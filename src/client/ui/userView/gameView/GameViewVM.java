@@ -11,6 +11,8 @@ import javafx.collections.ObservableList;
 import shared.DTO.HorseDTO;
 import shared.DTO.RaceDTO;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -20,15 +22,26 @@ import java.util.Map;
  *
  * Manages the horses, their positions, and status messages for a running race.
  * Binds to model properties and listens to race and horse position updates.
+ *
+ * The server only sends positions once per tick, stamped with its time and the tick length. To move the
+ * horses smoothly, the last few updates are kept and the horses are drawn where they were one tick ago in
+ * server time, in between the two updates around that moment. Updates without timing are shown as they are.
  */
 public class GameViewVM implements ViewModel {
 
+    /** Number of position updates kept to move the horses between. */
+    private static final int MAX_SAMPLES = 4;
+
     private final ModelManager model;
     private final RaceDTO selectedRace;
 
     private final StringProperty statusText = new SimpleStringProperty("Race will start soon...");
     private final ObservableList<HorseDTO> horses = FXCollections.observableArrayList();
     private final Map<Integer, Integer> horsePositions = new HashMap<>();
+    private final Deque<Sample> samples = new ArrayDeque<>();
+    private long clockOffset = Long.MIN_VALUE; // server time minus local time, from the quickest update seen
+    private long tickMillis = 0;
+    private double[] displayedPositions = new double[0];
 
     /**
      * Constructs a GameViewVM.
@@ -48,6 +61,7 @@ public class GameViewVM implements ViewModel {
                 horsePositions.put(horse.id(), 0); // Start at position 0
             }
         }
+        displayedPositions = new double[horses.size()];
 
         // Update horse positions based on model updates
         model.getHorsePositions().addListener((ListChangeListener<Integer>) this::handlePositionUpdate);
@@ -84,6 +98,64 @@ public class GameViewVM implements ViewModel {
         return horsePositions;
     }
 
+    /**
+     * @param lane the index of the horse in {@link #getHorses()}
+     * @return where to draw the horse, as set by the last call to {@link #updateDisplayedPositions(long)}
+     */
+    public double getDisplayedPosition(int lane) {
+        return lane < displayedPositions.length ? displayedPositions[lane] : 0;
+    }
+
+    /**
+     * Moves every horse to where it was one tick ago in server time, in between the two position updates
+     * around that moment. Called once per frame; allocates nothing.
+     *
+     * @param nowMillis the current local time, in milliseconds since the epoch
+     */
+    public void updateDisplayedPositions(long nowMillis) {
+        if (samples.isEmpty()) return;
+        Sample newest = samples.peekLast();
+        if (newest.serverTime() <= 0 || clockOffset == Long.MIN_VALUE) {
+            show(newest, newest, 0);
+            return;
+        }
+
+        long renderTime = nowMillis + clockOffset - tickMillis;
+        Sample before = samples.peekFirst();
+        Sample after = null;
+        for (Sample sample : samples) {
+            if (sample.serverTime() <= renderTime) {
+                before = sample;
+            } else {
+                after = sample;
+                break;
+            }
+        }
+        if (after == null || before.serverTime() > renderTime) {
+            show(before, before, 0); // no newer update yet, or the render time is before the oldest one
+        } else {
+            double fraction = (double) (renderTime - before.serverTime()) / (after.serverTime() - before.serverTime());
+            show(before, after, fraction);
+        }
+        while (samples.peekFirst() != before) samples.removeFirst(); // older updates are not needed anymore
+    }
+
+    /**
+     * Sets the displayed positions between two updates.
+     *
+     * @param from     the earlier update
+     * @param to       the later update
+     * @param fraction how far between the two, from 0 to 1
+     */
+    private void show(Sample from, Sample to, double fraction) {
+        int lanes = Math.min(displayedPositions.length, Math.min(from.positions().length, to.positions().length));
+        int[] start = from.positions();
+        int[] end = to.positions();
+        for (int lane = 0; lane < lanes; lane++) {
+            displayedPositions[lane] = start[lane] + (end[lane] - start[lane]) * fraction;
+        }
+    }
+
     /**
      * @return The length of the track for this race.
      * Returns 500 by default if track length is not defined.
@@ -96,7 +168,8 @@ public class GameViewVM implements ViewModel {
     }
 
     /**
-     * Updates local horse position map with values from the model.
+     * Updates local horse position map with values from the model and keeps the positions with their
+     * server time to move the horses between them.
      * This method ensures all updates happen on the JavaFX thread.
      *
      * @param change the change event from the observed horse position list
@@ -104,10 +177,50 @@ public class GameViewVM implements ViewModel {
     private void handlePositionUpdate(ListChangeListener.Change<? extends Integer> change) {
         Platform.runLater(() -> {
             List<Integer> positions = model.getHorsePositions();
+            int[] latest = new int[horses.size()];
             for (int i = 0; i < positions.size() && i < horses.size(); i++) {
                 HorseDTO horse = horses.get(i);
                 horsePositions.put(horse.id(), positions.get(i));
+                latest[i] = positions.get(i);
             }
+            addSample(model.horsePositionsTimeProperty().get(), model.tickMillisProperty().get(), latest);
         });
     }
+
+    /**
+     * Keeps the positions of one update to move the horses between.
+     *
+     * @param serverTime when the server took the positions, or 0 if unknown
+     * @param tick       the time between two updates in milliseconds, or 0 if unknown
+     * @param positions  the positions, by lane
+     */
+    private void addSample(long serverTime, long tick, int[] positions) {
+        if (serverTime <= 0 || tick <= 0) {
+            // Without timing, e.g. after a snapshot, the horses jump to the positions
+            samples.clear();
+            samples.add(new Sample(0, positions));
+            return;
+        }
+        clockOffset = Math.max(clockOffset, serverTime - System.currentTimeMillis());
+        tickMillis = tick;
+
+        Sample last = samples.peekLast();
+        if (last != null && last.serverTime() <= 0) {
+            // Move from untimed positions over one tick
+            samples.clear();
+            samples.add(new Sample(serverTime - tick, last.positions()));
+        } else if (last != null && last.serverTime() >= serverTime) {
+            samples.clear();
+        }
+        samples.addLast(new Sample(serverTime, positions));
+        while (samples.size() > MAX_SAMPLES) samples.removeFirst();
+    }
+
+    /**
+     * The positions of one update.
+     *
+     * @param serverTime when the server took them, or 0 if unknown
+     * @param positions  the positions, by lane
+     */
+    private record Sample(long serverTime, int[] positions) { }
 }
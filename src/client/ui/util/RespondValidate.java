@@ -61,6 +61,6 @@ public class RespondValidate
     }
 
     // Return the Respond object with the decoded payload
-    return new Respond(respond.type(), decodedPayload);
+    return new Respond(respond.type(), decodedPayload, respond.requestId());
   }
 }
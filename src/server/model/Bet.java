@@ -10,10 +10,11 @@ public class Bet {
     private Horse horse;
     private User user;
     private int betAmount;
+    private double odds;
     private boolean isWinningBet;
 
     /**
-     * Constructs a Bet instance.
+     * Constructs a Bet instance paid at {@link RaceOdds#DEFAULT_ODDS}.
      *
      * @param race      the race the bet is placed on
      * @param horse     the horse the user is betting on
@@ -21,11 +22,26 @@ public class Bet {
      * @param betAmount the amount of the bet
      */
     public Bet(Race race, Horse horse,User user, int betAmount)
+    {
+        this(race, horse, user, betAmount, RaceOdds.DEFAULT_ODDS);
+    }
+
+    /**
+     * Constructs a Bet instance.
+     *
+     * @param race      the race the bet is placed on
+     * @param horse     the horse the user is betting on
+     * @param user      the user placing the bet
+     * @param betAmount the amount of the bet
+     * @param odds      the decimal odds the bet is paid at if the horse wins
+     */
+    public Bet(Race race, Horse horse, User user, int betAmount, double odds)
     {
         this.race=race;
         this.horse=horse;
         this.user=user;
         this.betAmount=betAmount;
+        this.odds=odds;
     }
 
     /**
@@ -64,15 +80,35 @@ public class Bet {
         return betAmount;
     }
 
+    /**
+     * Returns the decimal odds locked in when the bet was placed.
+     *
+     * @return the odds
+     */
+    public double getOdds() {
+        return odds;
+    }
+
+    /**
+     * Returns what a winning bet pays: the bet amount times the odds, rounded down, stake included.
+     *
+     * @return the payout
+     */
+    public int getPayout() {
+        return (int) Math.floor(betAmount * odds);
+    }
+
 
     /**
-     * Checks if this bet is winning by comparing the chosen horse to the actual winner.
+     * Checks if this bet is winning by comparing the chosen horse to the actual winner. Horses are compared
+     * by id, as the horse of the bet is read from the database and may have been edited since the race took
+     * its copy.
      *
      * @param actualWinner the horse that actually won the race
      * @return true if this bet is on the winning horse, false otherwise
      */
     public boolean isWinning(Horse actualWinner) {
-        return this.horse.equals(actualWinner);
+        return actualWinner != null && horse.getId() == actualWinner.getId();
     }
 
     /**
@@ -122,6 +158,7 @@ public class Bet {
                 ", horse=" + horse +
                 ", user=" + user +
                 ", betAmount=" + betAmount +
+                ", odds=" + odds +
                 '}';
     }
 }
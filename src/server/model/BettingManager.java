@@ -16,12 +16,21 @@ import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Singleton manager class for handling bets during a race.
  * Responsible for accepting bets, processing payouts when a race finishes,
  * and managing user balances.
+ * <p>
+ * Several races can be open for betting at the same time, so every race has its own book of bets,
+ * opened when betting opens, closed when the race starts and settled when it finishes.
+ * </p>
+ * <p>
+ * A bet is paid at the odds offered on its horse when it was placed, see {@link RaceOdds}.
+ * </p>
  *
  * Implements {@link RaceListener} to receive callbacks from the race lifecycle.
  */
@@ -32,9 +41,7 @@ public class BettingManager implements RaceListener {
     private final BetRepository betRepository = BetRepositoryImpl.getInstance();
     private final UserRepository userRepository = UserRepositoryImpl.getInstance();
 
-    private final List<Bet> openBets = new ArrayList<>();
-    private Race currentRace;
-    private boolean bettingOpen = false;
+    private final Map<Race, RaceBook> books = new ConcurrentHashMap<>();
 
     /** Private constructor to enforce singleton pattern. */
     private BettingManager() { }
@@ -63,9 +70,7 @@ public class BettingManager implements RaceListener {
      */
     @Override
     public void bettingOpen(Race race) {
-        this.currentRace = Objects.requireNonNull(race);
-        this.bettingOpen = true;
-        openBets.clear();
+        books.put(Objects.requireNonNull(race), new RaceBook(race));
     }
 
     /**
@@ -73,7 +78,7 @@ public class BettingManager implements RaceListener {
      * This implementation does nothing, as settlement happens when the race ends.
      */
     @Override
-    public void onHorseFinished(Horse horse, int position) {
+    public void onHorseFinished(Race race, Horse horse, int position) {
         // no-op
     }
 
@@ -84,38 +89,33 @@ public class BettingManager implements RaceListener {
      */
     @Override
     public void onRaceStarted(Race race) {
-        if (!race.equals(currentRace)) return;
-        this.bettingOpen = false;
+        RaceBook book = books.get(race);
+        if (book == null) return;
+        book.close();
         System.out.println("Race " + race.getName() + " has started — no more bets!");
     }
 
     /**
      * Called when the race finishes.
-     * Processes all open bets, pays out winners, and resets manager state.
+     * Processes all bets placed on the race, pays out winners, and drops the race's book.
      *
      * @param race           the completed race
      * @param finalPosition  list of horses in their final placement order
      */
     @Override
     public void onRaceFinished(Race race, HorseList finalPosition) {
-        if (!race.equals(currentRace)) return;
+        RaceBook book = books.remove(race);
+        if (book == null) return;
+        book.close();
 
         Horse winner = finalPosition.getList().get(0);
 
-        for (Bet bet : openBets) {
+        for (Bet bet : book.bets) {
             boolean won = bet.isWinning(winner);
             bet.setWinningBet(won);
 
             if (won) {
-                int payout = bet.getBetAmount() * 2;
-                User user = bet.getUser();
-                int newBal = user.getBalance().getAmount() + payout;
-                user.getBalance().setAmount(newBal);
-                try {
-                    userRepository.updateBalance(user.getUsername(), newBal);
-                } catch (SQLException e) {
-                    throw new RuntimeException("Failed to update balance for user " + user.getUsername(), e);
-                }
+                addToBalance(bet.getUser(), bet.getPayout());
             }
 
             try {
@@ -126,36 +126,67 @@ public class BettingManager implements RaceListener {
             }
         }
 
-        openBets.clear();
-        currentRace = null;
-        System.out.println("Race " + race.getName() + " settled; manager reset.");
+        System.out.println("Race " + race.getName() + " settled.");
     }
 
     /**
-     * Places a new bet for a user.
-     * Deducts the amount from user's balance and stores the bet.
+     * Called when a race was stopped because one of its steps failed. Its book is closed and dropped,
+     * and every bet placed on the race is refunded, as the race will not be settled.
      *
+     * @param race the stopped race
+     */
+    public void raceAborted(Race race) {
+        RaceBook book = books.remove(race);
+        if (book == null) return;
+        book.close();
+
+        for (Bet bet : book.bets) {
+            try {
+                addToBalance(bet.getUser(), bet.getBetAmount());
+            } catch (RuntimeException e) {
+                ErrorHandler.handleError(e, getClass().getName());
+            }
+        }
+        System.out.println("Race " + race.getName() + " stopped, " + book.bets.size() + " bets refunded.");
+    }
+
+    /**
+     * Places a new bet for a user on a race.
+     * Deducts the amount from user's balance and stores the bet, locking in the odds currently offered
+     * on the horse. The balance is changed in the database itself, not from the balance the user was
+     * read with, as other bets of the same user may be placed or settled at the same time.
+     *
+     * @param race   the race the bet is placed on
      * @param user   the user placing the bet
      * @param horse  the horse being bet on
      * @param amount the amount wagered
      * @return the created Bet object
-     * @throws IllegalStateException if betting is closed
+     * @throws IllegalStateException    if betting is closed for the race
+     * @throws IllegalArgumentException if the horse does not run in the race or the user cannot afford the bet
      */
-    public Bet placeBet(User user, Horse horse, int amount) {
-        if (!bettingOpen) {
+    public Bet placeBet(Race race, User user, Horse horse, int amount) {
+        RaceBook book = books.get(race);
+        if (book == null || !book.isOpen()) {
             throw new IllegalStateException("Betting is closed");
         }
+        if (!runsIn(race, horse)) {
+            throw new IllegalArgumentException("Horse " + horse.getName() + " does not run in race " + race.getName());
+        }
 
-        int newBal = user.getBalance().getAmount() - amount;
-        user.getBalance().setAmount(newBal);
-        try {
-            userRepository.updateBalance(user.getUsername(), newBal);
-        } catch (SQLException e) {
-            throw new RuntimeException("Failed to update balance for user " + user.getUsername(), e);
+        if (amount <= 0) {
+            throw new IllegalArgumentException("The amount must be positive");
+        }
+        if (addToBalance(user, -amount) < 0) {
+            throw new IllegalArgumentException("Insufficient balance");
         }
 
-        Bet bet = new Bet(currentRace, horse, user, amount);
-        openBets.add(bet);
+        RaceOdds odds = race.getOdds();
+        Bet bet = new Bet(race, horse, user, amount, odds != null ? odds.oddsFor(horse) : RaceOdds.DEFAULT_ODDS);
+        if (!book.add(bet)) {
+            // The race started while the balance was updated; give the money back
+            addToBalance(user, amount);
+            throw new IllegalStateException("Betting is closed");
+        }
 
         try {
             betRepository.save(bet);
@@ -168,11 +199,89 @@ public class BettingManager implements RaceListener {
     }
 
     /**
-     * Returns the race currently open for betting.
+     * Adds an amount to a user's balance in the database and updates the user object with the new balance.
+     *
+     * @param user   the user
+     * @param amount the amount to add, negative to withdraw
+     * @return the new balance, or -1 if the balance is too low for the withdrawal
+     */
+    private int addToBalance(User user, int amount) {
+        try {
+            int balance = userRepository.addToBalance(user.getUsername(), amount);
+            if (balance >= 0) user.getBalance().setAmount(balance);
+            return balance;
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to update balance for user " + user.getUsername(), e);
+        }
+    }
+
+    /**
+     * Returns the races currently open for betting.
      *
-     * @return the current race if betting is open; otherwise null
+     * @return a snapshot of the races whose betting window is open
      */
-    public Race getCurrentRace() {
-        return bettingOpen ? currentRace : null;
+    public List<Race> getOpenRaces() {
+        List<Race> open = new ArrayList<>();
+        for (RaceBook book : books.values()) {
+            if (book.isOpen()) open.add(book.race);
+        }
+        return open;
+    }
+
+    /**
+     * Returns the race with the given name if it is open for betting.
+     *
+     * @param raceName the name of the race
+     * @return the race if betting is open for it; otherwise null
+     */
+    public Race getOpenRace(String raceName) {
+        for (RaceBook book : books.values()) {
+            if (book.isOpen() && Objects.equals(book.race.getName(), raceName)) return book.race;
+        }
+        return null;
+    }
+
+    /**
+     * Tells whether a horse runs in a race. Horses are compared by id, as the race keeps the copy it was
+     * created with while the horse may have been edited since.
+     *
+     * @param race  the race
+     * @param horse the horse
+     * @return true if the horse is in the race's field
+     */
+    public static boolean runsIn(Race race, Horse horse) {
+        for (Horse entrant : race.getHorseList().getList()) {
+            if (entrant.getId() == horse.getId()) return true;
+        }
+        return false;
+    }
+
+    /**
+     * The bets placed on one race. Bets can only be added while the book is open.
+     */
+    private static final class RaceBook {
+        private final Race race;
+        private final List<Bet> bets = new ArrayList<>();
+        private boolean open = true;
+
+        RaceBook(Race race) {
+            this.race = race;
+        }
+
+        synchronized boolean isOpen() {
+            return open;
+        }
+
+        /** @return false if the book was closed before the bet could be added */
+        synchronized boolean add(Bet bet) {
+            if (!open) return false;
+            bets.add(bet);
+            return true;
+        }
+
+        /** Closes the book; the bets no longer change afterwards. */
+        synchronized void close() {
+            open = false;
+        }
     }
 }
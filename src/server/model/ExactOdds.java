@@ -0,0 +1,170 @@
+package server.model;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@code ExactOdds} computes win probabilities exactly instead of sampling them.
+ * <p>
+ * A horse moves independently of the others, by a uniform whole step within its speed range per tick. The
+ * chance that it crosses the finish line in a given tick therefore depends only on its speed range and the
+ * track length, and follows from the distribution of its position tick by tick. That distribution is the
+ * previous one spread over the step range, which prefix sums turn into one pass over the track per tick.
+ * </p>
+ * <p>
+ * A horse wins if it finishes in tick {@code t} while every horse in a lower lane finishes after {@code t} and
+ * every horse in a higher lane finishes in {@code t} or later, as horses finishing together are placed in lane
+ * order. Summing that over all ticks gives its win probability.
+ * </p>
+ * <p>
+ * Finish-tick distributions are kept per speed range and track length, so pricing a race whose horses have
+ * run that distance before only combines them, in well under a millisecond. A calculator is thread-safe.
+ * </p>
+ */
+public class ExactOdds implements OddsCalculator {
+  /** Chance of a horse still running below which its distribution is cut off, for horses that can stand still. */
+  private static final double EPSILON = 1e-12;
+
+  private final Map<SpeedKey, FinishDistribution> distributions = new ConcurrentHashMap<>();
+
+  /**
+   * Computes the exact win probability of every horse.
+   *
+   * @param horses the horses, in lane order
+   * @param track  the track the race is run on
+   * @return the win probability of each horse, by lane
+   */
+  @Override
+  public double[] winProbabilities(List<Horse> horses, RaceTrack track) {
+    RaceSimulator.checkField(horses);
+    int lanes = horses.size();
+    FinishDistribution[] finish = new FinishDistribution[lanes];
+    int lastTick = 0;
+    for (int lane = 0; lane < lanes; lane++) {
+      finish[lane] = distribution(horses.get(lane), track.getLength());
+      lastTick = Math.max(lastTick, finish[lane].lastTick());
+    }
+
+    double[] wins = new double[lanes];
+    double[] before = new double[lanes + 1]; // before[i]: all lanes below i finish after the tick
+    for (int tick = 1; tick <= lastTick; tick++) {
+      before[0] = 1;
+      for (int lane = 0; lane < lanes; lane++) before[lane + 1] = before[lane] * finish[lane].after(tick);
+      double after = 1; // all lanes above the current one finish in the tick or later
+      for (int lane = lanes - 1; lane >= 0; lane--) {
+        wins[lane] += finish[lane].at(tick) * before[lane] * after;
+        after *= finish[lane].after(tick - 1);
+      }
+    }
+
+    double total = 0;
+    for (double win : wins) total += win;
+    for (int lane = 0; lane < lanes; lane++) wins[lane] /= total; // only off by the cut-off tails
+    return wins;
+  }
+
+  /** @return the number of finish-tick distributions kept */
+  public int getCachedDistributionCount() {
+    return distributions.size();
+  }
+
+  private FinishDistribution distribution(Horse horse, int trackLength) {
+    SpeedKey key = new SpeedKey(horse.getSpeedMin(), horse.getSpeedMax(), trackLength);
+    FinishDistribution distribution = distributions.get(key);
+    if (distribution == null) {
+      distribution = distributions.computeIfAbsent(key, k -> compute(k.speedMin(), k.speedMax(), k.trackLength()));
+    }
+    return distribution;
+  }
+
+  /**
+   * Computes in which tick a horse crosses the finish line, by following the chances of it being at each
+   * position of the track after every tick.
+   */
+  static FinishDistribution compute(int speedMin, int speedMax, int trackLength) {
+    double[] atTick = new double[16];
+    if (trackLength <= 0) {
+      atTick[1] = 1; // the first step always reaches the line
+      return FinishDistribution.of(atTick, 1);
+    }
+
+    int span = speedMax - speedMin + 1;
+    double[] position = new double[trackLength];
+    double[] next = new double[trackLength];
+    double[] prefix = new double[trackLength + 1];
+    position[0] = 1;
+    double running = 1;
+    int tick = 0;
+
+    while (running > EPSILON) {
+      tick++;
+      for (int x = 0; x < trackLength; x++) prefix[x + 1] = prefix[x] + position[x];
+
+      // Steps from x that reach the line: s >= trackLength - x within [speedMin, speedMax]
+      double finished = 0;
+      for (int x = Math.max(0, trackLength - speedMax); x < trackLength; x++) {
+        int steps = speedMax - Math.max(speedMin, trackLength - x) + 1;
+        finished += position[x] * steps;
+      }
+      finished /= span;
+
+      // A horse is at y after the tick if it was within [y - speedMax, y - speedMin] before
+      for (int y = 0; y < trackLength; y++) {
+        int high = y - speedMin;
+        next[y] = high < 0 ? 0 : (prefix[high + 1] - prefix[Math.max(0, y - speedMax)]) / span;
+      }
+      double[] swap = position;
+      position = next;
+      next = swap;
+
+      if (tick >= atTick.length) atTick = Arrays.copyOf(atTick, atTick.length * 2);
+      atTick[tick] = finished;
+      running -= finished;
+    }
+    return FinishDistribution.of(atTick, tick);
+  }
+
+  /** The speed range of a horse and the distance it runs. */
+  private record SpeedKey(int speedMin, int speedMax, int trackLength) { }
+
+  /**
+   * The chance of a horse crossing the finish line in each tick, and of it still running after each tick.
+   */
+  static final class FinishDistribution {
+    private final double[] atTick;
+    private final double[] afterTick;
+
+    private FinishDistribution(double[] atTick, double[] afterTick) {
+      this.atTick = atTick;
+      this.afterTick = afterTick;
+    }
+
+    static FinishDistribution of(double[] atTick, int lastTick) {
+      double[] at = Arrays.copyOf(atTick, lastTick + 1);
+      double[] after = new double[lastTick + 1];
+      double running = 1;
+      for (int tick = 0; tick <= lastTick; tick++) {
+        running -= at[tick];
+        after[tick] = Math.max(0, running);
+      }
+      return new FinishDistribution(at, after);
+    }
+
+    /** @return the last tick in which the horse may finish */
+    int lastTick() {
+      return atTick.length - 1;
+    }
+
+    /** @return the chance that the horse crosses the line in the tick */
+    double at(int tick) {
+      return tick < atTick.length ? atTick[tick] : 0;
+    }
+
+    /** @return the chance that the horse is still running after the tick */
+    double after(int tick) {
+      return tick < afterTick.length ? afterTick[tick] : 0;
+    }
+  }
+}
@@ -3,17 +3,19 @@ package server.model;
 import java.util.Objects;
 
 /**
- * Represents a horse that participates in a race. Holds information about the horse's
- * identity, speed range, current position, and whether it is active in a race.
+ * Represents a horse that can participate in races. Holds the horse's identity and speed range.
+ * <p>
+ * A horse is immutable, so the same object can be shared by the horse catalogue and by any number of races
+ * running at once. What changes during a race, such as how far each horse has run and whether it has
+ * finished, is kept by the race in its {@link RaceField}, by lane.
+ * </p>
  */
 public class Horse {
 
-  private int id;
-  private String name;
-  private int speedMin;
-  private int speedMax;
-  private int position;
-  private boolean inRace = false;
+  private final int id;
+  private final String name;
+  private final int speedMin;
+  private final int speedMax;
 
   /**
    * Constructs a new {@code Horse}.
@@ -28,7 +30,6 @@ public class Horse {
     this.name = name;
     this.speedMin = speedMin;
     this.speedMax = speedMax;
-    this.position = 0;
   }
 
   /** @return the horse's ID */
@@ -37,39 +38,14 @@ public class Horse {
   /** @return the horse's name */
   public String getName() { return name; }
 
-  /** @param s the new name to set */
-  public void setName(String s) { this.name = s; }
-
   /** @return the horse's minimum speed */
   public int getSpeedMin() { return speedMin; }
 
-  /** @param i the new minimum speed to set */
-  public void setSpeedMin(int i) { this.speedMin = i; }
-
   /** @return the horse's maximum speed */
   public int getSpeedMax() { return speedMax; }
 
-  /** @param i the new maximum speed to set */
-  public void setSpeedMax(int i) { this.speedMax = i; }
-
-  /** @return the current position of the horse in the race */
-  public int getPosition() { return position; }
-
   /**
-   * Moves the horse forward by a random step within its speed range.
-   */
-  public void move() {
-    int step = (int) (Math.random() * (speedMax - speedMin + 1)) + speedMin;
-    position += step;
-  }
-
-  /** Resets the horse's position back to the start (0). */
-  public void reset() {
-    position = 0;
-  }
-
-  /**
-   * @return a string representation including id, name, speeds, and position
+   * @return a string representation including id, name and speeds
    */
   @Override
   public String toString() {
@@ -78,12 +54,11 @@ public class Horse {
         ", name='" + name + '\'' +
         ", speedMin=" + speedMin +
         ", speedMax=" + speedMax +
-        ", position=" + position +
         '}';
   }
 
   /**
-   * Two horses are equal if they share id, name, speed range, and position.
+   * Two horses are equal if they share id, name and speed range.
    */
   @Override
   public boolean equals(Object o) {
@@ -92,7 +67,17 @@ public class Horse {
     return id == horse.id &&
         speedMin == horse.speedMin &&
         speedMax == horse.speedMax &&
-        position == horse.position &&
         Objects.equals(name, horse.name);
   }
+
+  /**
+   * Hash code consistent with {@link #equals(Object)}.
+   */
+  @Override
+  public int hashCode() {
+    int result = id;
+    result = 31 * result + Objects.hashCode(name);
+    result = 31 * result + speedMin;
+    return 31 * result + speedMax;
+  }
 }
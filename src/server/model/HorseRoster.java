@@ -0,0 +1,207 @@
+package server.model;
+
+import server.persistence.horses.HorseRepositoryImpl;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.random.RandomGenerator;
+
+/**
+ * Keeps the horse catalogue in memory and draws the fields of new races from it.
+ * <p>
+ * The catalogue is read from the database the first time a field is drawn and kept until
+ * {@link #invalidate()} is called, which the {@link server.services.horseList.HorseListServiceImpl horse
+ * service} does whenever a horse is created, changed or deleted. A catalogue that was being read while it
+ * was invalidated is not kept.
+ * </p>
+ * <p>
+ * Drawing a field of k horses is a partial Fisher–Yates shuffle over the indices of the catalogue that only
+ * remembers the indices it swapped, so it takes time in the order of k, plus the horses skipped because they
+ * are excluded, however many horses there are. The catalogue is split into {@link #SPEED_CLASSES} classes by
+ * average speed, so a field can be drawn with each class represented about equally.
+ * </p>
+ */
+public class HorseRoster {
+  /** Number of classes the catalogue is split into by average speed, slowest first. */
+  static final int SPEED_CLASSES = 3;
+
+  private static volatile HorseRoster instance;
+
+  /**
+   * Reads the horse catalogue.
+   */
+  @FunctionalInterface
+  public interface Loader {
+    /**
+     * @return every horse in the catalogue
+     * @throws SQLException if reading the catalogue fails
+     */
+    List<Horse> load() throws SQLException;
+  }
+
+  private final Loader loader;
+  private volatile Catalogue catalogue;
+  private long generation = 0; // guarded by this
+
+  /**
+   * Creates a roster reading its catalogue with the given loader.
+   *
+   * @param loader reads the horse catalogue whenever the roster has none
+   */
+  public HorseRoster(Loader loader) {
+    this.loader = loader;
+  }
+
+  /**
+   * Returns the roster of the horses in the database.
+   *
+   * @return the singleton instance
+   */
+  public static HorseRoster getInstance() {
+    if (instance == null) {
+      synchronized (HorseRoster.class) {
+        if (instance == null) {
+          instance = new HorseRoster(() -> HorseRepositoryImpl.getInstance().readAll());
+        }
+      }
+    }
+    return instance;
+  }
+
+  /**
+   * Drops the catalogue, so the next field is drawn from a catalogue read again.
+   */
+  public synchronized void invalidate() {
+    generation++;
+    catalogue = null;
+  }
+
+  /**
+   * @return the number of horses in the catalogue
+   * @throws SQLException if reading the catalogue fails
+   */
+  public int size() throws SQLException {
+    return catalogue().horses.length;
+  }
+
+  /**
+   * Draws a field of distinct horses at random.
+   *
+   * @param count    the number of horses to draw
+   * @param excluded ids of horses that must not be drawn, e.g. because they run in another race
+   * @param balanced true to draw about as many horses from every speed class
+   * @param random   the generator to draw from
+   * @return the horses drawn, in random order; fewer than {@code count} if there are not enough horses
+   * @throws SQLException if reading the catalogue fails
+   */
+  public List<Horse> select(int count, Set<Integer> excluded, boolean balanced, RandomGenerator random)
+      throws SQLException {
+    Catalogue catalogue = catalogue();
+    int[][] pools = balanced ? catalogue.speedClasses : new int[][] {catalogue.all};
+    Draw[] draws = new Draw[pools.length];
+    for (int i = 0; i < pools.length; i++) draws[i] = new Draw(pools[i]);
+
+    // Take turns over the classes from a random one, until enough are drawn or every class has run out
+    List<Horse> field = new ArrayList<>(count);
+    int open = draws.length;
+    int next = random.nextInt(draws.length);
+    while (field.size() < count && open > 0) {
+      Draw draw = draws[next];
+      if (draw != null) {
+        int index = draw.next(random);
+        while (index >= 0 && excluded.contains(catalogue.horses[index].getId())) index = draw.next(random);
+        if (index < 0) {
+          draws[next] = null;
+          open--;
+        } else {
+          field.add(catalogue.horses[index]);
+        }
+      }
+      next = (next + 1) % draws.length;
+    }
+    // Taking turns puts the classes in a fixed order, so the lanes are shuffled too
+    Collections.shuffle(field, random);
+    return field;
+  }
+
+  /**
+   * Returns the catalogue, reading it if there is none.
+   */
+  private Catalogue catalogue() throws SQLException {
+    Catalogue current = catalogue;
+    if (current != null) return current;
+    long readGeneration;
+    synchronized (this) {
+      if (catalogue != null) return catalogue;
+      readGeneration = generation;
+    }
+    Catalogue loaded = new Catalogue(loader.load());
+    synchronized (this) {
+      if (generation == readGeneration) catalogue = loaded;
+    }
+    return loaded;
+  }
+
+  /**
+   * The horses read from the database with their indices by speed class.
+   */
+  private static final class Catalogue {
+    private final Horse[] horses;
+    private final int[] all;
+    private final int[][] speedClasses;
+
+    private Catalogue(List<Horse> loaded) {
+      horses = loaded.toArray(new Horse[0]);
+      Integer[] bySpeed = new Integer[horses.length];
+      for (int i = 0; i < horses.length; i++) bySpeed[i] = i;
+      Arrays.sort(bySpeed, Comparator.comparingInt(i -> horses[i].getSpeedMin() + horses[i].getSpeedMax()));
+
+      all = new int[horses.length];
+      speedClasses = new int[SPEED_CLASSES][];
+      int from = 0;
+      for (int c = 0; c < SPEED_CLASSES; c++) {
+        int to = (int) ((long) horses.length * (c + 1) / SPEED_CLASSES);
+        speedClasses[c] = new int[to - from];
+        for (int i = from; i < to; i++) {
+          all[i] = bySpeed[i];
+          speedClasses[c][i - from] = bySpeed[i];
+        }
+        from = to;
+      }
+    }
+  }
+
+  /**
+   * A partial Fisher–Yates shuffle of a pool of indices that leaves the pool as it is and keeps the
+   * indices it moved in a map instead.
+   */
+  private static final class Draw {
+    private final int[] pool;
+    private final Map<Integer, Integer> moved = new HashMap<>();
+    private int remaining;
+
+    private Draw(int[] pool) {
+      this.pool = pool;
+      this.remaining = pool.length;
+    }
+
+    /**
+     * @return the next index drawn, or -1 once the pool is used up
+     */
+    private int next(RandomGenerator random) {
+      if (remaining == 0) return -1;
+      int slot = random.nextInt(remaining);
+      int last = --remaining;
+      int drawn = moved.getOrDefault(slot, pool[slot]);
+      moved.put(slot, moved.getOrDefault(last, pool[last]));
+      return drawn;
+    }
+  }
+}
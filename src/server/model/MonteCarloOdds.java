@@ -0,0 +1,128 @@
+package server.model;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * {@code MonteCarloOdds} estimates win probabilities by simulating the race many times with the
+ * {@link RaceSimulator} and counting how often each horse wins.
+ * <p>
+ * The simulations are spread over a {@link ForkJoinPool}, one task per worker, each with its own simulator and
+ * random generator split from a common one. Every task keeps simulating until the time budget is used up or
+ * its share of the simulation limit is reached, so the estimate takes about the same time whatever the size
+ * of the race, and gets more precise on more cores.
+ * </p>
+ */
+public class MonteCarloOdds implements OddsCalculator {
+  /** Simulations run between two checks of the clock. */
+  private static final int BATCH = 256;
+
+  private final ForkJoinPool pool;
+  private final long budgetNanos;
+  private final long maxSimulations;
+  private final long seed;
+
+  /**
+   * Creates a calculator that uses all cores of the common pool.
+   *
+   * @param budgetMillis how long an estimate may take, in milliseconds
+   */
+  public MonteCarloOdds(long budgetMillis) {
+    this(ForkJoinPool.commonPool(), budgetMillis, Long.MAX_VALUE, System.nanoTime());
+  }
+
+  /**
+   * Creates a calculator.
+   *
+   * @param pool           the pool running the simulations
+   * @param budgetMillis   how long an estimate may take, in milliseconds; at least 1
+   * @param maxSimulations the most races simulated for one estimate; at least 1
+   * @param seed           the seed of the random generators, so estimates limited by simulations are repeatable
+   */
+  public MonteCarloOdds(ForkJoinPool pool, long budgetMillis, long maxSimulations, long seed) {
+    if (budgetMillis < 1) throw new IllegalArgumentException("The odds time budget must be at least 1 ms");
+    if (maxSimulations < 1) throw new IllegalArgumentException("At least one simulation is needed");
+    this.pool = pool;
+    this.budgetNanos = budgetMillis * 1_000_000;
+    this.maxSimulations = maxSimulations;
+    this.seed = seed;
+  }
+
+  /**
+   * Estimates the win probability of every horse from as many simulated races as the budget allows.
+   *
+   * @param horses the horses, in lane order
+   * @param track  the track the race is run on
+   * @return the share of simulated races each horse won, by lane
+   */
+  @Override
+  public double[] winProbabilities(List<Horse> horses, RaceTrack track) {
+    RaceSimulator.checkField(horses); // before any task starts
+    int tasks = pool.getParallelism();
+    long deadline = System.nanoTime() + budgetNanos;
+    long perTask = Math.max(1, maxSimulations / tasks);
+    long[] wins = pool.invoke(new SimulationTask(horses, track, deadline, perTask, 0, tasks, new SplittableRandom(seed)));
+
+    long total = wins[horses.size()];
+    double[] probabilities = new double[horses.size()];
+    for (int lane = 0; lane < probabilities.length; lane++) probabilities[lane] = (double) wins[lane] / total;
+    return probabilities;
+  }
+
+  /**
+   * Simulates races for a range of workers, splitting the range until each task covers one worker.
+   * The result holds the wins per lane followed by the number of races simulated.
+   * Tasks only run inside the pool and are never serialized.
+   */
+  @SuppressWarnings("serial")
+  private static final class SimulationTask extends RecursiveTask<long[]> {
+    private final List<Horse> horses;
+    private final RaceTrack track;
+    private final long deadline;
+    private final long limit;
+    private final int from;
+    private final int to;
+    private final SplittableRandom random;
+
+    SimulationTask(List<Horse> horses, RaceTrack track, long deadline, long limit, int from, int to,
+                   SplittableRandom random) {
+      this.horses = horses;
+      this.track = track;
+      this.deadline = deadline;
+      this.limit = limit;
+      this.from = from;
+      this.to = to;
+      this.random = random;
+    }
+
+    @Override
+    protected long[] compute() {
+      if (to - from > 1) {
+        int middle = (from + to) >>> 1;
+        SimulationTask left = new SimulationTask(horses, track, deadline, limit, from, middle, random.split());
+        left.fork();
+        long[] right = new SimulationTask(horses, track, deadline, limit, middle, to, random).compute();
+        long[] merged = left.join();
+        for (int i = 0; i < merged.length; i++) merged[i] += right[i];
+        return merged;
+      }
+      return simulate();
+    }
+
+    /** Runs batches of races until the deadline or the limit, always at least one batch. */
+    private long[] simulate() {
+      RaceSimulator simulator = new RaceSimulator(horses, track);
+      long[] wins = new long[horses.size() + 1];
+      long races = 0;
+      do {
+        int batch = (int) Math.min(BATCH, limit - races);
+        for (int i = 0; i < batch; i++) wins[simulator.simulateWinner(random)]++;
+        races += batch;
+      } while (races < limit && System.nanoTime() < deadline);
+      wins[horses.size()] = races;
+      return wins;
+    }
+  }
+}
@@ -0,0 +1,20 @@
+package server.model;
+
+import java.util.List;
+
+/**
+ * An {@code OddsCalculator} estimates how likely each horse in a race is to win, from the horses' speed
+ * ranges and the length of the track.
+ */
+public interface OddsCalculator {
+
+  /**
+   * Computes the win probability of every horse.
+   *
+   * @param horses the horses, in lane order
+   * @param track  the track the race is run on
+   * @return the win probability of each horse, by lane; they add up to 1
+   * @throws IllegalArgumentException if a horse's speed range is invalid
+   */
+  double[] winProbabilities(List<Horse> horses, RaceTrack track);
+}
@@ -2,30 +2,89 @@ package server.model;
 
 import client.ui.util.ErrorHandler;
 import server.networking.Server;
-import server.persistence.horses.HorseRepositoryImpl;
 import server.persistence.raceRepository.RaceRepositoryImpl;
+import server.persistence.recording.RaceRecorder;
+import server.persistence.recording.RaceRecordingRepositoryImpl;
 import shared.DTO.RaceState;
 import shared.race.RaceUpdate;
+import shared.subscription.Topics;
 import shared.updates.HorsePositionsUpdate;
 
+import java.io.IOException;
 import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.sql.Timestamp;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
  * Represents a horse race. Manages participants, start time, status, and notifies listeners
  * when the race begins.
+ * <p>
+ * A race goes through its steps one at a time: {@link #openBetting()}, {@link #start()}, {@link #tick()} until
+ * every horse has finished, and {@link #finish()}. The {@link RaceManager} schedules these steps, so many races
+ * can run at once without each of them holding a thread; {@link #run()} runs all of them on the calling thread.
+ * Steps of one race must not run at the same time.
+ * </p>
+ * <p>
+ * Every race owns a random generator, seeded when the race is created. The horses' steps are drawn only from
+ * it, so concurrent races do not share a generator, and a race with the same seed and horses runs exactly
+ * the same way again. The seed is saved with the race.
+ * </p>
+ * <p>
+ * The positions after every tick are recorded and, once the race has finished, stored in the
+ * {@link RaceRecordingRepositoryImpl recording file}, from which the race can be replayed.
+ * </p>
+ * <p>
+ * The race keeps a {@link RaceSnapshot} of its current state, replaced after every step, so a client that
+ * subscribes mid-race can be brought up to date at once. Updates sent to clients carry the snapshot's
+ * sequence number.
+ * </p>
+ * <p>
+ * Positions are sent as a keyframe holding every horse on the first tick and every {@link #KEYFRAME_INTERVAL}
+ * ticks after it, and in between as deltas holding only the steps of the horses that moved. Horses that have
+ * finished are left out of deltas.
+ * </p>
+ * <p>
+ * A tick allocates nothing while nobody is subscribed to the race: positions are kept in arrays reused from
+ * tick to tick, the snapshot only copies them when it is asked for, and the positions are only written to
+ * the console when tick logging is on. With subscribers, a tick builds one update, encoded once for all of them,
+ * and a delta keeps a copy of the positions in case a slow subscriber has to be sent a keyframe instead.
+ * </p>
  */
 public class Race implements Runnable {
+  /** Betting window used by {@link #run()}. */
+  private static final long BETTING_WINDOW_MILLIS = 60_000;
+  /** Time between two moves of the horses used by {@link #run()} if the race has no tick interval. */
+  private static final long TICK_MILLIS = 2_000;
+  /** Number of ticks from one keyframe of the positions to the next. */
+  static final int KEYFRAME_INTERVAL = 10;
+
   private String name;
-  private RaceState status;
-  private Timestamp dateTime;
+  private volatile RaceState status;
+  private volatile Timestamp dateTime;
   private HorseList horseList;
   private HorseList finalpositionlist;
-  private List<RaceListener> listeners = new ArrayList<>();
+  private final List<RaceListener> listeners = new CopyOnWriteArrayList<>();
   private RaceTrack raceTrack;
+  private volatile long tickIntervalMillis = 0;
+  private volatile long tickDurationMillis = TICK_MILLIS;
+  private final long seed;
+  private RaceField field; // only used by the step that is running
+  private SplittableRandom random; // only used by the step that is running
+  private RaceRecorder recorder; // only used by the step that is running
+  private int[] sentPositions; // only used by the step that is running
+  private String positionsTopic; // only used by the step that is running
+  private String positionsKey; // only used by the step that is running
+  private volatile boolean tickLogging = false;
+  private final Object snapshotLock = new Object();
+  private int[] positions; // written by the step that is running, under the snapshot lock
+  private int tick = 0; // written by the step that is running, under the snapshot lock
+  private volatile RaceOdds odds;
+  private volatile RaceSnapshot snapshot = RaceSnapshot.initial(RaceState.NOT_STARTED);
 
   /**
    * Constructs a new {@code Race}.
@@ -35,24 +94,90 @@ public class Race implements Runnable {
    * @throws SQLException if assigning horses from the DB fails
    */
   public Race(String name, RaceTrack raceTrack, Integer raceCapacity) throws SQLException {
+    this(name, raceTrack, raceCapacity, Set.of());
+  }
+
+  /**
+   * Constructs a new {@code Race} with horses that are not running in other races where possible.
+   *
+   * @param name         the name of the race
+   * @param raceTrack    the track on which the race is run
+   * @param raceCapacity the number of horses in the race
+   * @param busyHorseIds ids of the horses in other unfinished races
+   * @throws SQLException if assigning horses from the DB fails
+   */
+  public Race(String name, RaceTrack raceTrack, Integer raceCapacity, Set<Integer> busyHorseIds)
+      throws SQLException {
+    this.seed = newSeed();
     this.raceTrack = raceTrack;
     this.name = name;
     this.dateTime = null;
     this.horseList = new HorseList(raceCapacity);
     this.finalpositionlist = new HorseList(raceCapacity);
     this.status = RaceState.NOT_STARTED;
-    assignRandomHorsesFromDatabase();
+    assignRandomHorsesFromDatabase(busyHorseIds);
+  }
+
+  /**
+   * Constructs a new {@code Race} with a given field of horses.
+   *
+   * @param name      the name of the race
+   * @param horses    the horses running in the race
+   * @param raceTrack the track on which the race is run
+   */
+  public Race(String name, HorseList horses, RaceTrack raceTrack) {
+    this(name, horses, raceTrack, newSeed());
+  }
+
+  /**
+   * Constructs a new {@code Race} with a given field of horses and seed, e.g. to run a saved race again.
+   *
+   * @param name      the name of the race
+   * @param horses    the horses running in the race
+   * @param raceTrack the track on which the race is run
+   * @param seed      the seed of the generator the horses' steps are drawn from
+   */
+  public Race(String name, HorseList horses, RaceTrack raceTrack, long seed) {
+    this.seed = seed;
+    this.raceTrack = raceTrack;
+    this.name = name;
+    this.dateTime = null;
+    this.horseList = horses;
+    this.finalpositionlist = new HorseList(horses.getCapacity());
+    this.status = RaceState.NOT_STARTED;
   }
 
   public Race(String name, Timestamp timestamp, HorseList finalpositionlist, RaceTrack raceTrack) {
+    this(name, timestamp, finalpositionlist, finalpositionlist, raceTrack, 0);
+  }
+
+  /**
+   * Constructs a finished {@code Race} read back from the database, which can be {@link #rerun() run again}
+   * from its seed.
+   *
+   * @param name              the name of the race
+   * @param timestamp         when the race started
+   * @param horses            the horses that ran, in lane order
+   * @param finalpositionlist the horses in the order they finished
+   * @param raceTrack         the track the race was run on
+   * @param seed              the seed of the generator the horses' steps were drawn from
+   */
+  public Race(String name, Timestamp timestamp, HorseList horses, HorseList finalpositionlist, RaceTrack raceTrack,
+              long seed) {
+    this.seed = seed;
     this.name = name;
     this.status = RaceState.FINISHED;
+    this.snapshot = RaceSnapshot.initial(RaceState.FINISHED);
     this.dateTime = timestamp;
-    this.horseList = finalpositionlist;
+    this.horseList = horses;
     this.finalpositionlist = finalpositionlist;
     this.raceTrack = raceTrack;
   }
 
+  private static long newSeed() {
+    return ThreadLocalRandom.current().nextLong();
+  }
+
   /**
    * @return the race's name
    */
@@ -78,6 +203,15 @@ public class Race implements Runnable {
     return dateTime;
   }
 
+  /**
+   * Sets when the race starts. Betting closes at that time.
+   *
+   * @param dateTime the scheduled start time of the race
+   */
+  public void setDateTime(Timestamp dateTime) {
+    this.dateTime = dateTime;
+  }
+
   /**
    * @return the list of participating horses
    */
@@ -99,6 +233,105 @@ public class Race implements Runnable {
     return raceTrack;
   }
 
+  /**
+   * @return the time between two moves of the horses in milliseconds, or 0 to use the scheduler's default
+   */
+  public long getTickIntervalMillis() {
+    return tickIntervalMillis;
+  }
+
+  /**
+   * @param tickIntervalMillis the time between two moves of the horses in milliseconds, or 0 to use the
+   *                           scheduler's default
+   * @throws IllegalArgumentException if the interval is negative
+   */
+  public void setTickIntervalMillis(long tickIntervalMillis) {
+    if (tickIntervalMillis < 0) throw new IllegalArgumentException("The tick interval cannot be negative");
+    this.tickIntervalMillis = tickIntervalMillis;
+  }
+
+  /**
+   * @return the time between two ticks as the race is actually run, in milliseconds
+   */
+  public long getTickDurationMillis() {
+    return tickDurationMillis;
+  }
+
+  /**
+   * Sets the time between two ticks as the race is actually run. It is sent with the positions, so clients
+   * can move the horses smoothly between two ticks.
+   *
+   * @param tickDurationMillis the time between two ticks in milliseconds
+   * @throws IllegalArgumentException if the duration is not positive
+   */
+  public void setTickDurationMillis(long tickDurationMillis) {
+    if (tickDurationMillis <= 0) throw new IllegalArgumentException("The tick duration must be positive");
+    this.tickDurationMillis = tickDurationMillis;
+  }
+
+  /**
+   * @return the seed of the generator the horses' steps are drawn from
+   */
+  public long getSeed() {
+    return seed;
+  }
+
+  /**
+   * Runs the race again from its seed, without waiting, broadcasting or saving anything. With the same
+   * horses in the same lanes, it moves exactly as the race did when it was run.
+   *
+   * @return the finish order and the positions after every tick
+   */
+  public SimulationResult rerun() {
+    return new RaceSimulator(horseList.getList(), raceTrack).simulate(new SplittableRandom(seed));
+  }
+
+  /**
+   * @return whether the positions of the horses are written to the console after every tick
+   */
+  public boolean isTickLogging() {
+    return tickLogging;
+  }
+
+  /**
+   * @param tickLogging whether to write the positions of the horses to the console after every tick
+   */
+  public void setTickLogging(boolean tickLogging) {
+    this.tickLogging = tickLogging;
+  }
+
+  /**
+   * @return the sequence number of the last event published about the race, see {@link RaceSnapshot}
+   */
+  public long getSequence() {
+    return snapshot.getSequence();
+  }
+
+  /**
+   * @return the state of the race after its last step, with the sequence number of the last event published
+   */
+  public RaceSnapshot getSnapshot() {
+    synchronized (snapshotLock) {
+      return positions == null ? snapshot : snapshot.at(tick, positions.clone());
+    }
+  }
+
+  /**
+   * @return the odds offered on the horses, or {@code null} if the race has not been priced yet
+   */
+  public RaceOdds getOdds() {
+    return odds;
+  }
+
+  /**
+   * Sets the odds offered on the horses. Bets placed from then on are paid at these odds.
+   *
+   * @param odds the odds, by lane
+   */
+  public void setOdds(RaceOdds odds) {
+    this.odds = odds;
+  }
+
   /**
    * Registers a listener to be notified when the race starts.
    *
@@ -115,14 +348,31 @@ public class Race implements Runnable {
    * @throws IllegalArgumentException if there aren’t enough horses in the DB
    */
   public void assignRandomHorsesFromDatabase() throws SQLException {
-    ArrayList<Horse> allHorses = HorseRepositoryImpl.getInstance().readAll();
-    if (allHorses.size() < horseList.getCapacity()) {
+    assignRandomHorsesFromDatabase(Set.of());
+  }
+
+  /**
+   * Assigns a random selection of horses from the {@link HorseRoster} up to the race capacity, with the
+   * speed classes about equally represented. Busy horses are only assigned if there are not enough others.
+   *
+   * @param busyHorseIds ids of the horses in other unfinished races
+   * @throws SQLException             on DB errors
+   * @throws IllegalArgumentException if there aren’t enough horses in the DB
+   */
+  public void assignRandomHorsesFromDatabase(Set<Integer> busyHorseIds) throws SQLException {
+    HorseRoster roster = HorseRoster.getInstance();
+    int capacity = horseList.getCapacity();
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    List<Horse> selected = roster.select(capacity, busyHorseIds, true, random);
+    if (selected.size() < capacity && !busyHorseIds.isEmpty()) {
+      selected = roster.select(capacity, Set.of(), true, random);
+    }
+    if (selected.size() < capacity) {
       throw new IllegalArgumentException(
               "Not enough horses available in database to start the race.");
     }
-    Collections.shuffle(allHorses);
-    for (int i = 0; i < horseList.getCapacity(); i++) {
-      horseList.addToList(allHorses.get(i));
+    for (Horse horse : selected) {
+      horseList.addToList(horse);
     }
   }
 
@@ -145,15 +395,52 @@ public class Race implements Runnable {
   {
     for (RaceListener listener: listeners)
     {
-      listener.onHorseFinished(horse,position);
+      listener.onHorseFinished(this, horse, position);
     }
   }
 
-  private void broadcastHorsePositions(int[] positions)
+  /**
+   * Sends the positions after a tick to the race's subscribers, as a keyframe or as a delta to the
+   * positions sent before. Nothing is built while nobody is subscribed. A delta comes with the keyframe it
+   * turns into if it replaces positions still queued for a slow subscriber.
+   */
+  private void broadcastHorsePositions()
   {
-    List<Integer> positionsList = Arrays.stream(positions).boxed().toList();
-    HorsePositionsUpdate payload = new HorsePositionsUpdate(name, positionsList);
-    Server.broadcast("horseMoveUpdate", payload);
+    if (Server.getTopics().subscribers(positionsTopic).isEmpty()) {
+      System.arraycopy(positions, 0, sentPositions, 0, positions.length);
+      return;
+    }
+    long sequence = snapshot.getSequence();
+    long now = System.currentTimeMillis();
+    HorsePositionsUpdate payload;
+    Supplier<HorsePositionsUpdate> keyframe = null;
+    if ((tick - 1) % KEYFRAME_INTERVAL == 0) {
+      payload = keyframe(positions, sequence, tick, now);
+    } else {
+      List<Integer> movedLanes = new ArrayList<>(positions.length);
+      List<Integer> steps = new ArrayList<>(positions.length);
+      for (int lane = 0; lane < positions.length; lane++) {
+        if (positions[lane] != sentPositions[lane]) {
+          movedLanes.add(lane);
+          steps.add(positions[lane] - sentPositions[lane]);
+        }
+      }
+      payload = new HorsePositionsUpdate(name, null, sequence, tick, movedLanes, steps, now, tickDurationMillis);
+      int[] current = positions.clone();
+      int currentTick = tick;
+      keyframe = () -> keyframe(current, sequence, currentTick, now);
+    }
+    System.arraycopy(positions, 0, sentPositions, 0, positions.length);
+    Server.publish("horseMoveUpdate", positionsKey, payload, keyframe, positionsTopic);
+  }
+
+  /**
+   * Builds a keyframe holding the position of every horse.
+   */
+  private HorsePositionsUpdate keyframe(int[] positions, long sequence, int tick, long now) {
+    List<Integer> positionsList = new ArrayList<>(positions.length);
+    for (int position : positions) positionsList.add(position);
+    return new HorsePositionsUpdate(name, positionsList, sequence, tick, null, null, now, tickDurationMillis);
   }
 
   private void notifyRaceFinished()
@@ -165,96 +452,138 @@ public class Race implements Runnable {
   }
 
   /**
-   * Runs the race in its own thread. Sets the start time, waits for the scheduled delay,
-   * updates status, and notifies listeners.
+   * Opens betting and notifies listeners.
    */
+  public void openBetting() {
+    updateListenersOnBettingOpen();
+    System.out.println("Betting window opened for race " + name);
+  }
 
-  @Override
-  public void run() {
-    try {
-      // Set race start time to now
-      dateTime = Timestamp.valueOf(LocalDateTime.now());
-
-      // Notify listeners that betting is now open
-      updateListenersOnBettingOpen();
-      System.out.println("Betting window opened");
-
-      // Simulate a 60-second betting window
-      Thread.sleep(60000);
-      System.out.println("Betting window closed");
-
-    } catch (InterruptedException e) {
-      // Stop race if thread is interrupted
-      e.printStackTrace();
-      return;
+  /**
+   * Closes betting and starts the race: sets the status to {@link RaceState#IN_PROGRESS} and notifies listeners.
+   */
+  public void start() {
+    System.out.println("Betting window closed for race " + name);
+    field = new RaceField(horseList.getList(), raceTrack.getLength());
+    random = new SplittableRandom(seed);
+    int[] horseIds = new int[field.size()];
+    int slowest = Integer.MAX_VALUE;
+    for (int lane = 0; lane < horseIds.length; lane++) {
+      Horse horse = horseList.getList().get(lane);
+      horseIds[lane] = horse.getId();
+      slowest = Math.min(slowest, horse.getSpeedMin());
     }
-
-    // Set status to IN_PROGRESS and notify listeners
+    int expectedTicks = raceTrack.getLength() / Math.max(1, slowest) + 1;
+    recorder = new RaceRecorder(name, horseIds, raceTrack.getLength(), tickDurationMillis, expectedTicks);
+    sentPositions = new int[field.size()];
+    positionsTopic = Topics.race(name);
+    positionsKey = "horseMoveUpdate:" + name;
     status = RaceState.IN_PROGRESS;
+    synchronized (snapshotLock) {
+      snapshot = snapshot.started(field.size());
+      positions = new int[field.size()];
+      tick = 0;
+    }
     System.out.println("Race " + name + " Started!");
     updateListenersOnRaceStarted();
+  }
 
-    // Initializing variables - to keep track of horses that crossed the finish line
+  /**
+   * Moves every horse that has not finished yet, sends the new positions to the clients and notifies
+   * listeners of the horses that crossed the finish line.
+   *
+   * @return {@code true} once every horse has finished
+   */
+  public boolean tick() {
     List<Horse> horses = horseList.getList();
-    int trackLength = raceTrack.getLength();
-    Set<Horse> finished = new HashSet<>();
-
-    // Main loop: update horse positions until all finish
-    while (finished.size() < horses.size()) {
-      StringBuilder horsePositionsText = new StringBuilder();
-      int[] positions = new int[horses.size()];
-
-      for (int i = 0; i < horses.size(); i++) {
-        Horse horse = horses.get(i);
+    int finishedBefore = field.finishedCount();
+    field.advance(random);
 
-        // Move horse if not finished yet
-        if (!finished.contains(horse)) {
-          horse.move();
-        }
+    synchronized (snapshotLock) {
+      field.copyPositions(positions);
+      tick++;
+    }
+    recorder.record(positions);
 
-        // Collect positions for UI update
-        horsePositionsText.append("\n").append(horse.getName()).append(": ").append(horse.getPosition());
-        positions[i] = horse.getPosition();
+    // Print positions to console for logging
+    if (tickLogging) {
+      StringBuilder horsePositionsText = new StringBuilder();
+      for (int lane = 0; lane < positions.length; lane++) {
+        horsePositionsText.append("\n").append(horses.get(lane).getName()).append(": ").append(positions[lane]);
       }
-
-      // Print positions to console for logging
       System.out.println("\nHorse positions in race " + name + ": " + horsePositionsText);
+    }
 
-      // Send updated positions to clients
-      broadcastHorsePositions(positions);
-
-      // Check if any horses have finished the race
-      for (int i = 0; i < horses.size(); i++) {
-        Horse horse = horses.get(i);
-
-        if (!finished.contains(horse) && horse.getPosition() >= trackLength) {
-          finished.add(horse); // Mark horse as finished
-          finalpositionlist.addToList(horse); // Add to final placement
-
-          System.out.println("Horse " + horse.getName() + " finished in place " + finished.size());
+    // Send updated positions to clients
+    broadcastHorsePositions();
 
-          // Notify listeners of this horse's finish
-          notifyHorseFinished(horse, finished.size());
-        }
+    // Place the horses that crossed the finish line in this tick
+    for (int place = finishedBefore; place < field.finishedCount(); place++) {
+      Horse horse = horses.get(field.finisher(place));
+      finalpositionlist.addToList(horse); // Add to final placement
+      synchronized (snapshotLock) {
+        snapshot = snapshot.horseFinished(horse);
       }
 
-      try {
-        // Delay next update for realism (2 seconds per "tick")
-        Thread.sleep(2000);
-      } catch (InterruptedException e) {
-        // Stop if thread is interrupted
-        e.printStackTrace();
-        break;
-      }
+      System.out.println("Horse " + horse.getName() + " finished in place " + (place + 1));
+
+      // Notify listeners of this horse's finish
+      notifyHorseFinished(horse, place + 1);
     }
+    return field.isComplete();
+  }
 
-    // Race is finished
+  /**
+   * Ends the race: sets the status to {@link RaceState#FINISHED}, notifies listeners and persists the results.
+   */
+  public void finish() {
     status = RaceState.FINISHED;
+    synchronized (snapshotLock) {
+      snapshot = snapshot.finished();
+    }
     System.out.println("Race " + name + " finished");
 
     // Notify listeners and persist race results
     notifyRaceFinished();
     persistAndPrintResults();
+    saveRecording();
+  }
+
+  /**
+   * Stores the positions recorded during the race, so it can be replayed.
+   */
+  private void saveRecording() {
+    if (recorder == null) return; // never started
+    try {
+      RaceRecordingRepositoryImpl.getInstance().save(recorder);
+    } catch (IOException e) {
+      System.err.println("Could not save the recording of race " + name + ": " + e.getMessage());
+    }
+  }
+
+  /**
+   * Runs the whole race on the calling thread, starting one betting window from now: opens betting, waits
+   * for the betting window to close, then moves the horses once per tick interval (two seconds unless set)
+   * until all of them have finished.
+   */
+  @Override
+  public void run() {
+    try {
+      dateTime = Timestamp.valueOf(LocalDateTime.now().plusNanos(BETTING_WINDOW_MILLIS * 1_000_000));
+      openBetting();
+      Thread.sleep(BETTING_WINDOW_MILLIS);
+      setTickDurationMillis(tickIntervalMillis > 0 ? tickIntervalMillis : TICK_MILLIS);
+      start();
+      while (!tick()) {
+        // Delay next update for realism
+        Thread.sleep(tickDurationMillis);
+      }
+    } catch (InterruptedException e) {
+      // Stop race if thread is interrupted
+      Thread.currentThread().interrupt();
+      return;
+    }
+    finish();
   }
 
   /**
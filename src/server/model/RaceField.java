@@ -0,0 +1,131 @@
+package server.model;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * {@code RaceField} holds the moving state of the horses in one race: their positions, their speed ranges
+ * in primitive arrays indexed by lane (the horse's index in the race's horse list), and which of them have
+ * crossed the finish line, as a bitset over the lanes. Advancing the field does not allocate, so a single
+ * thread can move the horses of thousands of races per tick.
+ * <p>
+ * Horses that cross the line in the same tick are placed in lane order.
+ * A field is not thread-safe; it is advanced by one thread at a time.
+ * </p>
+ */
+public class RaceField {
+  private final int trackLength;
+  private final int[] speedMin;
+  private final int[] speedSpan;
+  private final int[] positions;
+  private final long[] finished; // bit (lane % 64) of word (lane / 64)
+  private final int[] finishOrder;
+  private int finishedCount = 0;
+
+  /**
+   * Creates a field with every horse at the start.
+   *
+   * @param horses      the horses, in lane order
+   * @param trackLength the distance to the finish line
+   */
+  public RaceField(List<Horse> horses, int trackLength) {
+    int size = horses.size();
+    this.trackLength = trackLength;
+    this.speedMin = new int[size];
+    this.speedSpan = new int[size];
+    this.positions = new int[size];
+    this.finished = new long[(size + 63) >>> 6];
+    this.finishOrder = new int[size];
+    for (int lane = 0; lane < size; lane++) {
+      Horse horse = horses.get(lane);
+      speedMin[lane] = horse.getSpeedMin();
+      speedSpan[lane] = horse.getSpeedMax() - horse.getSpeedMin() + 1;
+    }
+  }
+
+  /**
+   * Puts every horse back at the start, so the field can be raced again.
+   */
+  public void reset() {
+    Arrays.fill(positions, 0);
+    Arrays.fill(finished, 0);
+    finishedCount = 0;
+  }
+
+  /**
+   * Moves every horse that has not finished by a random step within its speed range, then records the
+   * horses that reached the finish line.
+   *
+   * @param random the source of the steps
+   * @return the number of horses that finished in this tick; they are the last ones in the finish order
+   */
+  public int advance(RandomGenerator random) {
+    int lanes = positions.length;
+    for (int lane = 0; lane < lanes; lane++) {
+      if (!isFinished(lane)) positions[lane] += speedMin[lane] + random.nextInt(speedSpan[lane]);
+    }
+    int before = finishedCount;
+    for (int lane = 0; lane < lanes; lane++) {
+      if (!isFinished(lane) && positions[lane] >= trackLength) {
+        finished[lane >>> 6] |= 1L << lane;
+        finishOrder[finishedCount++] = lane;
+      }
+    }
+    return finishedCount - before;
+  }
+
+  /** @return the number of horses in the field */
+  public int size() {
+    return positions.length;
+  }
+
+  /** @return the distance to the finish line */
+  public int trackLength() {
+    return trackLength;
+  }
+
+  /**
+   * @param lane the horse's lane
+   * @return the distance the horse has covered
+   */
+  public int position(int lane) {
+    return positions[lane];
+  }
+
+  /**
+   * Copies the positions of all horses.
+   *
+   * @param target the array to fill, at least {@link #size()} long
+   */
+  public void copyPositions(int[] target) {
+    System.arraycopy(positions, 0, target, 0, positions.length);
+  }
+
+  /**
+   * @param lane the horse's lane
+   * @return true if the horse has crossed the finish line
+   */
+  public boolean isFinished(int lane) {
+    return (finished[lane >>> 6] & (1L << lane)) != 0;
+  }
+
+  /** @return the number of horses that have crossed the finish line */
+  public int finishedCount() {
+    return finishedCount;
+  }
+
+  /**
+   * @param place the finishing place, starting at 0 for the winner
+   * @return the lane of the horse that finished in that place
+   */
+  public int finisher(int place) {
+    if (place >= finishedCount) throw new IndexOutOfBoundsException("Place " + place + " has not finished");
+    return finishOrder[place];
+  }
+
+  /** @return true once every horse has crossed the finish line */
+  public boolean isComplete() {
+    return finishedCount == positions.length;
+  }
+}
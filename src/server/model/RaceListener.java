@@ -16,10 +16,11 @@ public interface RaceListener {
   /**
    * This method is called when a horse finishes the race.
    *
+   * @param race The race the horse finished in.
    * @param horse The horse that finished.
    * @param position The finishing position of the horse.
    */
-  void onHorseFinished(Horse horse, int position);
+  void onHorseFinished(Race race, Horse horse, int position);
 
   /**
    * This method is called when the race starts.
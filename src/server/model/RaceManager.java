@@ -1,97 +1,497 @@
 package server.model;
 
-import client.ui.util.ErrorHandler;
 import server.networking.listener.RaceListenerImpl;
-import server.persistence.raceRepository.RaceRepositoryImpl;
 
-import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * {@code RaceManager} is a singleton class that manages the execution of races.
- * It holds a queue of races and ensures that each race is executed sequentially in a separate thread.
  * <p>
- * The class implements the {@link Runnable} interface, allowing it to be run in a separate thread.
- * This ensures that race executions happen asynchronously without blocking other processes.
+ * Every race has a scheduled start time (its {@link Race#getDateTime() date and time}), so admins can set up a
+ * whole calendar of future races. Betting for a race opens one betting window before its start and closes when
+ * it starts; the race is then handed to the {@link TickEngine}, which moves the horses of all running races
+ * from one timer thread until all of them have finished. A race added without a start time starts one betting
+ * window from now.
+ * </p>
+ * <p>
+ * The next step of every race is a task on a shared {@link ScheduledThreadPoolExecutor}, whose queue is ordered
+ * by due time: its threads sleep until exactly the next due step instead of polling. Cancelled tasks are removed
+ * from the queue right away, so rescheduling or cancelling a race takes O(log n) in the number of scheduled races.
+ * </p>
+ * <p>
+ * At most {@link RaceSchedulerConfig#getMaxConcurrentRaces()} races are open for betting or running at the same
+ * time. A race whose betting should open while the limit is reached waits, earliest start first, until a running
+ * race has finished. If its start time has passed by then, it starts one betting window after betting opens.
+ * </p>
+ * <p>
+ * Just before betting opens, the race is priced, by default exactly with {@link ExactOdds}, or by simulating it
+ * for up to {@link RaceSchedulerConfig#getOddsBudgetMillis()} on all cores with {@link MonteCarloOdds}. The
+ * resulting odds are sent out with the betting update and locked into every bet placed.
  * </p>
  */
-public class RaceManager implements Runnable {
+public class RaceManager {
 
   /**
    * The singleton instance of {@code RaceManager}.
    */
-  private static RaceManager instance;
+  private static volatile RaceManager instance;
+
+  /** Orders races by start time, then by the order they were added. */
+  private static final Comparator<Entry> BY_START =
+      Comparator.comparingLong((Entry entry) -> entry.startMillis).thenComparingLong(entry -> entry.sequence);
+
+  /**
+   * Every race that has been added and not yet finished, guarded by {@code this}.
+   */
+  private final Map<Race, Entry> entries = new IdentityHashMap<>();
 
   /**
-   * A blocking queue to hold races awaiting execution.
+   * The same races by name, guarded by {@code this}.
    */
-  private final BlockingQueue<Race> raceQueue = new LinkedBlockingQueue<>();
+  private final Map<String, Entry> entriesByName = new HashMap<>();
 
   /**
-   * Private constructor to enforce the singleton pattern.
+   * Races whose betting is due to open but that wait for a free slot, earliest start first, guarded by {@code this}.
    */
-  private RaceManager() {}
+  private final NavigableSet<Entry> waiting = new TreeSet<>(BY_START);
+
+  /**
+   * Number of races open for betting or running, guarded by {@code this}.
+   */
+  private int active = 0;
+  private long nextSequence = 0;
+
+  private final ScheduledThreadPoolExecutor scheduler;
+  private volatile TickEngine tickEngine;
+  private volatile RaceSchedulerConfig config;
+  private final ExactOdds exactOdds = new ExactOdds();
 
   /**
-   * Returns the singleton instance of {@code RaceManager}.
-   * If the instance does not exist, it is created and started in a new thread.
+   * Creates a manager with its own scheduler threads. The server uses the singleton; only tests create
+   * further managers.
+   *
+   * @param config the scheduler settings
+   */
+  RaceManager(RaceSchedulerConfig config) {
+    this.config = config;
+    AtomicInteger counter = new AtomicInteger();
+    this.scheduler = new ScheduledThreadPoolExecutor(config.getSchedulerThreads(), runnable -> {
+      Thread thread = new Thread(runnable, "race-scheduler-" + counter.getAndIncrement());
+      thread.setDaemon(true);
+      return thread;
+    });
+    scheduler.setRemoveOnCancelPolicy(true);
+    this.tickEngine = new TickEngine(config.getTickResolutionMillis(), scheduler);
+    tickEngine.start();
+  }
+
+  /**
+   * Returns the singleton instance of {@code RaceManager}, creating it with the default settings.
+   * Uses double-checked locking, so the lock is only taken while the instance is created.
    *
    * @return The singleton instance of {@code RaceManager}.
    */
-  public static synchronized RaceManager getInstance() {
+  public static RaceManager getInstance() {
     if (instance == null) {
-      instance = new RaceManager();
-      // If we use a start, don't we also need a stop?
-      new Thread(instance).start();
+      synchronized (RaceManager.class) {
+        if (instance == null) {
+          instance = new RaceManager(new RaceSchedulerConfig());
+        }
+      }
     }
     return instance;
   }
 
   /**
-   * Adds a new race to the queue for execution.
+   * Applies new scheduler settings. Races already open or running keep the betting window and tick
+   * interval they started with; a higher race limit lets waiting races open right away. A new tick
+   * resolution only takes effect while no race is running.
    *
-   * @param race The race to be added to the queue.
+   * @param config the new settings
+   */
+  public void configure(RaceSchedulerConfig config) {
+    synchronized (this) {
+      this.config = config;
+      if (config.getTickResolutionMillis() != tickEngine.getResolutionMillis() && tickEngine.getRaceCount() == 0) {
+        tickEngine.stop();
+        tickEngine = new TickEngine(config.getTickResolutionMillis(), scheduler);
+        tickEngine.start();
+      }
+    }
+    scheduler.setCorePoolSize(config.getSchedulerThreads());
+    startWaitingRaces();
+  }
+
+  /**
+   * @return the scheduler settings in use
    */
-  public void addRace(Race race) {
-    raceQueue.add(race);
+  public RaceSchedulerConfig getConfig() {
+    return config;
+  }
+
+  /**
+   * Adds a new race to the calendar. A race without a start time is given one betting window from now.
+   *
+   * @param race The race to be added.
+   * @throws IllegalArgumentException if the race was already added or another unfinished race has its name
+   */
+  public synchronized void addRace(Race race) {
+    if (entries.containsKey(race)) throw new IllegalArgumentException("Race " + race.getName() + " was already added");
+    if (race.getName() != null && entriesByName.containsKey(race.getName())) {
+      throw new IllegalArgumentException("A race named " + race.getName() + " is already scheduled");
+    }
+
+    Timestamp start = race.getDateTime();
+    Entry entry = new Entry(race, nextSequence++);
+    entry.startMillis = start != null ? start.getTime() : System.currentTimeMillis() + config.getBettingWindowMillis();
+    race.setDateTime(new Timestamp(entry.startMillis));
+
+    entries.put(race, entry);
+    if (race.getName() != null) entriesByName.put(race.getName(), entry);
+    scheduleOpening(entry);
   }
 
   /**
-   * Returns a list of all races in the queue. The list is a snapshot of the current state of the race queue.
+   * Moves the start of a race that has not started yet. If betting is already open, it stays open until the
+   * new start time.
    *
-   * @return A list containing all races in the queue.
+   * @param raceName  the name of the race
+   * @param startTime the new start time
+   * @return the rescheduled race
+   * @throws IllegalArgumentException if there is no unfinished race with that name
+   * @throws IllegalStateException    if the race has already started
+   */
+  public synchronized Race reschedule(String raceName, Timestamp startTime) {
+    Entry entry = find(raceName);
+    switch (entry.phase) {
+      case RUNNING -> throw new IllegalStateException("Race " + raceName + " has already started");
+      case SCHEDULED, WAITING -> {
+        cancelStep(entry);
+        setStart(entry, startTime.getTime());
+        scheduleOpening(entry);
+      }
+      case OPEN -> {
+        if (entry.step == null) {
+          setStart(entry, startTime.getTime()); // betting is opening; the start is scheduled once it is open
+        } else {
+          cancelStep(entry);
+          setStart(entry, startTime.getTime());
+          scheduleStart(entry);
+        }
+      }
+    }
+    return entry.race;
+  }
+
+  /**
+   * Removes a race that betting has not opened for yet.
+   *
+   * @param raceName the name of the race
+   * @return the cancelled race
+   * @throws IllegalArgumentException if there is no unfinished race with that name
+   * @throws IllegalStateException    if betting is already open for the race or it has started
+   */
+  public synchronized Race cancel(String raceName) {
+    Entry entry = find(raceName);
+    if (entry.phase == Phase.OPEN || entry.phase == Phase.RUNNING) {
+      throw new IllegalStateException("Betting is already open for race " + raceName);
+    }
+    cancelStep(entry);
+    entries.remove(entry.race);
+    entriesByName.remove(raceName);
+    return entry.race;
+  }
+
+  /**
+   * Looks up a race that has not finished yet by its name.
+   *
+   * @param raceName the name of the race
+   * @return the race, or null if no unfinished race has that name
+   */
+  public synchronized Race getRace(String raceName) {
+    Entry entry = entriesByName.get(raceName);
+    return entry == null ? null : entry.race;
+  }
+
+  /**
+   * Returns every race that has not finished yet: races scheduled for later, waiting for a slot, open for
+   * betting, running, and finishing. The list is a snapshot.
+   *
+   * @return A list containing all unfinished races, earliest start first.
    */
   public List<Race> getAllRaces() {
-    return new ArrayList<>(raceQueue); // creates a snapshot
+    List<Entry> snapshot;
+    synchronized (this) {
+      snapshot = new ArrayList<>(entries.values());
+    }
+    snapshot.sort(BY_START);
+    List<Race> races = new ArrayList<>(snapshot.size());
+    for (Entry entry : snapshot) races.add(entry.race);
+    return races;
   }
 
   /**
-   * Continuously takes races from the queue and executes them.
-   * This method is run in a separate thread and processes each race sequentially.
+   * @return the ids of the horses in every race that has not finished yet
    */
-  @Override
-  public synchronized void run() {
-    while (true) {
-      try {
-        Race race;
+  public synchronized Set<Integer> getHorseIdsInRaces() {
+    Set<Integer> ids = new HashSet<>();
+    for (Race race : entries.keySet()) {
+      for (Horse horse : race.getHorseList().getList()) ids.add(horse.getId());
+    }
+    return ids;
+  }
 
-        // Wait until there's something in the queue
-        while ((race = raceQueue.peek()) == null) {
-          Thread.sleep(3000); // small delay to avoid busy waiting
-        }
-        race.addListener(BettingManager.getInstance());
-        race.addListener(RaceListenerImpl.getInstance());
-        race.run(); // Run the race
-        raceQueue.take();   // Now remove it from the queue
-
-      } catch (InterruptedException e) {
-        Thread.currentThread().interrupt();
-        break;
+  /**
+   * @return the number of races currently open for betting or running
+   */
+  public synchronized int getActiveRaceCount() {
+    return active;
+  }
+
+  /**
+   * Looks up an unfinished race by name.
+   *
+   * @param raceName the name of the race
+   * @return its entry
+   * @throws IllegalArgumentException if there is no such race
+   */
+  private Entry find(String raceName) {
+    Entry entry = entriesByName.get(raceName);
+    if (entry == null) throw new IllegalArgumentException("No scheduled race named " + raceName);
+    return entry;
+  }
+
+  /**
+   * Cancels the pending step of a race and takes it out of the waiting races. Steps that already run see
+   * that they are stale and do nothing. Must hold the lock.
+   *
+   * @param entry the race
+   */
+  private void cancelStep(Entry entry) {
+    entry.generation++;
+    if (entry.step != null) entry.step.cancel(false);
+    entry.step = null;
+    if (entry.phase == Phase.WAITING) waiting.remove(entry);
+  }
+
+  /**
+   * Sets the start time of a race. Must hold the lock, with the race not in the waiting set.
+   *
+   * @param entry       the race
+   * @param startMillis the new start time
+   */
+  private void setStart(Entry entry, long startMillis) {
+    entry.startMillis = startMillis;
+    entry.race.setDateTime(new Timestamp(startMillis));
+  }
+
+  /**
+   * Schedules betting to open one betting window before the start. Must hold the lock.
+   *
+   * @param entry the race
+   */
+  private void scheduleOpening(Entry entry) {
+    entry.phase = Phase.SCHEDULED;
+    int generation = entry.generation;
+    long delay = entry.startMillis - config.getBettingWindowMillis() - System.currentTimeMillis();
+    entry.step = scheduler.schedule(() -> due(entry, generation), Math.max(0, delay), TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Schedules the start of a race that is open for betting. Must hold the lock.
+   *
+   * @param entry the race
+   */
+  private void scheduleStart(Entry entry) {
+    int generation = entry.generation;
+    long delay = entry.startMillis - System.currentTimeMillis();
+    entry.step = scheduler.schedule(() -> start(entry, generation), Math.max(0, delay), TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Called when betting for a race is due to open: queues it for a free slot.
+   *
+   * @param entry      the race
+   * @param generation the generation the step was scheduled for
+   */
+  private void due(Entry entry, int generation) {
+    synchronized (this) {
+      if (entry.generation != generation || entry.phase != Phase.SCHEDULED) return;
+      entry.step = null;
+      entry.phase = Phase.WAITING;
+      waiting.add(entry);
+    }
+    startWaitingRaces();
+  }
+
+  /**
+   * Opens betting for waiting races while the limit allows.
+   */
+  private synchronized void startWaitingRaces() {
+    while (active < config.getMaxConcurrentRaces() && !waiting.isEmpty()) {
+      Entry entry = waiting.pollFirst();
+      active++;
+      entry.phase = Phase.OPEN;
+      int generation = ++entry.generation;
+      scheduler.execute(() -> openBetting(entry, generation));
+    }
+  }
+
+  /**
+   * Opens betting for a race and schedules its start. If the start time has already passed, the race starts
+   * one betting window from now instead.
+   *
+   * @param entry      the race
+   * @param generation the generation the step was scheduled for
+   */
+  private void openBetting(Entry entry, int generation) {
+    Race race = entry.race;
+    try {
+      race.addListener(BettingManager.getInstance());
+      race.addListener(RaceListenerImpl.getInstance());
+      price(race);
+      race.openBetting();
+      synchronized (this) {
+        if (entry.generation != generation) return; // rescheduled meanwhile, the start is already scheduled
+        long now = System.currentTimeMillis();
+        if (entry.startMillis < now) setStart(entry, now + config.getBettingWindowMillis());
+        scheduleStart(entry);
       }
+    } catch (RuntimeException e) {
+      abort(race, e);
     }
   }
 
+  /**
+   * Computes the odds of a race with the configured method. If that fails, the race is offered
+   * at {@link RaceOdds#DEFAULT_ODDS} on every horse, so betting can open anyway.
+   *
+   * @param race the race to price
+   */
+  private void price(Race race) {
+    HorseList horseList = race.getHorseList();
+    if (horseList == null || horseList.getList().isEmpty()) return;
+    List<Horse> horses = horseList.getList();
+    try {
+      OddsCalculator calculator = config.getOddsMethod() == RaceSchedulerConfig.OddsMethod.EXACT
+          ? exactOdds : new MonteCarloOdds(config.getOddsBudgetMillis());
+      double[] probabilities = calculator.winProbabilities(horses, race.getRaceTrack());
+      race.setOdds(RaceOdds.fromProbabilities(horses, probabilities, config.getHouseMargin()));
+    } catch (RuntimeException e) {
+      System.err.println("Could not compute the odds of race " + race.getName() + ": " + e.getMessage());
+      race.setOdds(RaceOdds.flat(horses, RaceOdds.DEFAULT_ODDS));
+    }
+  }
+
+  /**
+   * Starts a race and hands it to the tick engine, with its own tick interval or the default one.
+   *
+   * @param entry      the race
+   * @param generation the generation the step was scheduled for
+   */
+  private void start(Entry entry, int generation) {
+    Race race = entry.race;
+    try {
+      synchronized (this) {
+        if (entry.generation != generation || entry.phase != Phase.OPEN) return;
+        entry.step = null;
+        entry.phase = Phase.RUNNING;
+      }
+      long tickInterval = race.getTickIntervalMillis() > 0 ? race.getTickIntervalMillis() : config.getTickIntervalMillis();
+      race.setTickDurationMillis(tickEngine.tickDurationMillis(tickInterval));
+      race.setTickLogging(config.isTickLogging());
+      race.start();
+      tickEngine.add(race, tickInterval, this::finish);
+    } catch (RuntimeException e) {
+      abort(race, e);
+    }
+  }
+
+  /**
+   * Finishes a race that left the tick engine.
+   *
+   * @param race   the race
+   * @param failed the exception if a tick failed, or {@code null} if every horse finished
+   */
+  private void finish(Race race, RuntimeException failed) {
+    if (failed != null) {
+      abort(race, failed);
+      return;
+    }
+    try {
+      race.finish();
+      release(race);
+    } catch (RuntimeException e) {
+      abort(race, e);
+    }
+  }
+
+  /**
+   * Drops a race whose step failed, so that it does not hold its slot forever, and refunds its bets.
+   *
+   * @param race the race
+   * @param e    the failure
+   */
+  private void abort(Race race, RuntimeException e) {
+    System.err.println("Race " + race.getName() + " stopped: " + e.getMessage());
+    e.printStackTrace();
+    BettingManager.getInstance().raceAborted(race);
+    release(race);
+  }
+
+  /**
+   * Removes a finished race and frees its slot for a waiting race.
+   *
+   * @param race the race
+   */
+  private void release(Race race) {
+    synchronized (this) {
+      Entry entry = entries.remove(race);
+      if (entry == null) return;
+      if (race.getName() != null) entriesByName.remove(race.getName());
+      active--;
+    }
+    startWaitingRaces();
+  }
+
+  /** Where a race is in its lifecycle. */
+  private enum Phase {
+    /** Betting opens at a later time. */
+    SCHEDULED,
+    /** Betting is due to open, waiting for a free slot. */
+    WAITING,
+    /** Betting is open. */
+    OPEN,
+    /** The race has started. */
+    RUNNING
+  }
+
+  /** A race on the calendar; all fields are guarded by the manager. */
+  private static final class Entry {
+    private final Race race;
+    private final long sequence;
+    private long startMillis;
+    private Phase phase;
+    private ScheduledFuture<?> step;
+    private int generation = 0;
+
+    Entry(Race race, long sequence) {
+      this.race = race;
+      this.sequence = sequence;
+    }
+  }
 }
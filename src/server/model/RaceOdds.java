@@ -0,0 +1,118 @@
+package server.model;
+
+import java.util.List;
+
+/**
+ * {@code RaceOdds} holds the odds offered on the horses of a race, by lane.
+ * <p>
+ * Odds are decimal: a winning bet pays the stake times the odds, stake included. They are derived from each
+ * horse's win probability minus the house margin, rounded down to hundredths, and kept between
+ * {@link #MIN_ODDS} and {@link #MAX_ODDS}. A bet keeps the odds of the moment it was placed.
+ * </p>
+ */
+public class RaceOdds {
+  /** Lowest odds offered, so that a winning bet always pays more than its stake. */
+  public static final double MIN_ODDS = 1.01;
+  /** Highest odds offered, for horses that hardly ever win. */
+  public static final double MAX_ODDS = 1000;
+  /** Odds of a race that could not be priced: a winning bet pays double its stake. */
+  public static final double DEFAULT_ODDS = 2;
+
+  private final int[] horseIds;
+  private final double[] probabilities;
+  private final double[] odds;
+
+  private RaceOdds(int[] horseIds, double[] probabilities, double[] odds) {
+    this.horseIds = horseIds;
+    this.probabilities = probabilities;
+    this.odds = odds;
+  }
+
+  /**
+   * Prices a race from the win probabilities of its horses.
+   *
+   * @param horses        the horses, in lane order
+   * @param probabilities the win probability of each horse, by lane
+   * @param margin        the share of the stakes the house keeps, from 0 (fair odds) to below 1
+   * @return the odds
+   * @throws IllegalArgumentException if the margin is out of range or the arrays do not match the horses
+   */
+  public static RaceOdds fromProbabilities(List<Horse> horses, double[] probabilities, double margin) {
+    if (margin < 0 || margin >= 1) throw new IllegalArgumentException("The house margin must be in [0, 1)");
+    if (probabilities.length != horses.size()) {
+      throw new IllegalArgumentException("Expected " + horses.size() + " probabilities, got " + probabilities.length);
+    }
+    double[] odds = new double[probabilities.length];
+    for (int lane = 0; lane < odds.length; lane++) {
+      double fair = probabilities[lane] > 0 ? (1 - margin) / probabilities[lane] : MAX_ODDS;
+      odds[lane] = Math.max(MIN_ODDS, Math.min(MAX_ODDS, Math.floor(fair * 100) / 100));
+    }
+    return new RaceOdds(ids(horses), probabilities.clone(), odds);
+  }
+
+  /**
+   * Offers the same odds on every horse, e.g. while no estimate is available.
+   *
+   * @param horses the horses, in lane order
+   * @param odds   the odds offered on each of them
+   * @return the odds
+   */
+  public static RaceOdds flat(List<Horse> horses, double odds) {
+    double[] probabilities = new double[horses.size()];
+    double[] flat = new double[horses.size()];
+    for (int lane = 0; lane < flat.length; lane++) {
+      probabilities[lane] = 1.0 / flat.length;
+      flat[lane] = odds;
+    }
+    return new RaceOdds(ids(horses), probabilities, flat);
+  }
+
+  private static int[] ids(List<Horse> horses) {
+    int[] ids = new int[horses.size()];
+    for (int lane = 0; lane < ids.length; lane++) ids[lane] = horses.get(lane).getId();
+    return ids;
+  }
+
+  /** @return the number of horses priced */
+  public int size() {
+    return odds.length;
+  }
+
+  /**
+   * @param lane the horse's lane
+   * @return the id of the horse in that lane
+   */
+  public int getHorseId(int lane) {
+    return horseIds[lane];
+  }
+
+  /**
+   * @param lane the horse's lane
+   * @return the horse's estimated win probability
+   */
+  public double getProbability(int lane) {
+    return probabilities[lane];
+  }
+
+  /**
+   * @param lane the horse's lane
+   * @return the decimal odds offered on the horse
+   */
+  public double getOdds(int lane) {
+    return odds[lane];
+  }
+
+  /**
+   * Looks up the odds of a horse by its id.
+   *
+   * @param horse the horse
+   * @return the decimal odds offered on the horse
+   * @throws IllegalArgumentException if the horse is not in the race
+   */
+  public double oddsFor(Horse horse) {
+    for (int lane = 0; lane < horseIds.length; lane++) {
+      if (horseIds[lane] == horse.getId()) return odds[lane];
+    }
+    throw new IllegalArgumentException("Horse " + horse.getName() + " is not priced in this race");
+  }
+}
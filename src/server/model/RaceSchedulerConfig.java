@@ -0,0 +1,170 @@
+package server.model;
+
+/**
+ * {@code RaceSchedulerConfig} holds the settings of the {@link RaceManager}: how many threads run the races,
+ * how many races may be open for betting or running at the same time, how long betting stays open, how
+ * long a race waits between two moves of its horses unless it has its own interval, how often the
+ * {@link TickEngine} checks for races whose tick is due, how the odds of a race are computed when
+ * betting opens, and whether the positions of the horses are logged after every tick.
+ * <p>
+ * Values can be read from command-line arguments in the form {@code --name=value},
+ * e.g. {@code --race-threads=4 --max-races=16 --betting-window=60000 --race-tick=2000 --tick-resolution=100
+ * --odds=exact --odds-budget=200 --house-margin=0.1 --log-ticks=false}.
+ * </p>
+ */
+public class RaceSchedulerConfig {
+  /** How the win probabilities of a race are computed. */
+  public enum OddsMethod {
+    /** Exactly, from the finish-tick distribution of every horse, see {@link ExactOdds}. */
+    EXACT,
+    /** By simulating the race within the odds budget, see {@link MonteCarloOdds}. */
+    SIMULATION
+  }
+
+  private int schedulerThreads = Math.max(2, Runtime.getRuntime().availableProcessors());
+  private int maxConcurrentRaces = 16;
+  private long bettingWindowMillis = 60_000;
+  private long tickIntervalMillis = 2_000;
+  private long tickResolutionMillis = 100;
+  private OddsMethod oddsMethod = OddsMethod.EXACT;
+  private long oddsBudgetMillis = 200;
+  private double houseMargin = 0.1;
+  private boolean tickLogging = false;
+
+  /**
+   * Builds a configuration from command-line arguments. Arguments that are not race options are ignored,
+   * as the same arguments are also read by the server.
+   *
+   * @param args the arguments passed to the server
+   * @return the resulting configuration, with defaults for every value not given
+   * @throws IllegalArgumentException if a value cannot be parsed
+   */
+  public static RaceSchedulerConfig fromArgs(String[] args) {
+    RaceSchedulerConfig config = new RaceSchedulerConfig();
+    for (String arg : args) {
+      int separator = arg.indexOf('=');
+      if (!arg.startsWith("--") || separator < 0) continue;
+
+      String name = arg.substring(2, separator);
+      String value = arg.substring(separator + 1);
+      switch (name) {
+        case "race-threads" -> config.setSchedulerThreads(Integer.parseInt(value));
+        case "max-races" -> config.setMaxConcurrentRaces(Integer.parseInt(value));
+        case "betting-window" -> config.setBettingWindowMillis(Long.parseLong(value));
+        case "race-tick" -> config.setTickIntervalMillis(Long.parseLong(value));
+        case "tick-resolution" -> config.setTickResolutionMillis(Long.parseLong(value));
+        case "odds" -> config.setOddsMethod(OddsMethod.valueOf(value.toUpperCase()));
+        case "odds-budget" -> config.setOddsBudgetMillis(Long.parseLong(value));
+        case "house-margin" -> config.setHouseMargin(Double.parseDouble(value));
+        case "log-ticks" -> config.setTickLogging(Boolean.parseBoolean(value));
+        default -> { }
+      }
+    }
+    return config;
+  }
+
+  /**
+   * Tells whether an option is read by this configuration, so that other readers of the same
+   * arguments can skip it.
+   *
+   * @param name the option name, without the leading {@code --}
+   * @return {@code true} if it is a race option
+   */
+  public static boolean isRaceOption(String name) {
+    return switch (name) {
+      case "race-threads", "max-races", "betting-window", "race-tick", "tick-resolution", "odds",
+           "odds-budget", "house-margin", "log-ticks" -> true;
+      default -> false;
+    };
+  }
+
+  /** @return the number of threads opening, starting and finishing races */
+  public int getSchedulerThreads() { return schedulerThreads; }
+
+  /** @param schedulerThreads the number of threads opening, starting and finishing races; at least 1 */
+  public void setSchedulerThreads(int schedulerThreads) {
+    if (schedulerThreads < 1) throw new IllegalArgumentException("At least one race thread is needed");
+    this.schedulerThreads = schedulerThreads;
+  }
+
+  /** @return how many races may be open for betting or running at the same time */
+  public int getMaxConcurrentRaces() { return maxConcurrentRaces; }
+
+  /**
+   * @param maxConcurrentRaces how many races may be open for betting or running at the same time; at least 1.
+   *                           Further races wait until one of them has finished.
+   */
+  public void setMaxConcurrentRaces(int maxConcurrentRaces) {
+    if (maxConcurrentRaces < 1) throw new IllegalArgumentException("At least one race must be allowed to run");
+    this.maxConcurrentRaces = maxConcurrentRaces;
+  }
+
+  /** @return how long, in milliseconds, betting stays open before a race starts */
+  public long getBettingWindowMillis() { return bettingWindowMillis; }
+
+  /** @param bettingWindowMillis how long, in milliseconds, betting stays open before a race starts; not negative */
+  public void setBettingWindowMillis(long bettingWindowMillis) {
+    if (bettingWindowMillis < 0) throw new IllegalArgumentException("The betting window cannot be negative");
+    this.bettingWindowMillis = bettingWindowMillis;
+  }
+
+  /** @return the time, in milliseconds, between two moves of the horses of a race without its own interval */
+  public long getTickIntervalMillis() { return tickIntervalMillis; }
+
+  /**
+   * @param tickIntervalMillis the time, in milliseconds, between two moves of the horses of a race without
+   *                           its own interval; positive
+   */
+  public void setTickIntervalMillis(long tickIntervalMillis) {
+    if (tickIntervalMillis < 1) throw new IllegalArgumentException("The race tick must be at least 1 ms");
+    this.tickIntervalMillis = tickIntervalMillis;
+  }
+
+  /** @return the period, in milliseconds, at which the tick engine checks for races whose tick is due */
+  public long getTickResolutionMillis() { return tickResolutionMillis; }
+
+  /**
+   * @param tickResolutionMillis the period, in milliseconds, at which the tick engine checks for races whose
+   *                             tick is due; positive. Tick intervals are rounded up to a multiple of it.
+   */
+  public void setTickResolutionMillis(long tickResolutionMillis) {
+    if (tickResolutionMillis < 1) throw new IllegalArgumentException("The tick resolution must be at least 1 ms");
+    this.tickResolutionMillis = tickResolutionMillis;
+  }
+
+  /** @return how the win probabilities of a race are computed when betting opens */
+  public OddsMethod getOddsMethod() { return oddsMethod; }
+
+  /** @param oddsMethod how the win probabilities of a race are computed when betting opens */
+  public void setOddsMethod(OddsMethod oddsMethod) {
+    if (oddsMethod == null) throw new IllegalArgumentException("An odds method is needed");
+    this.oddsMethod = oddsMethod;
+  }
+
+  /** @return how long, in milliseconds, simulating a race for its odds may take when betting opens */
+  public long getOddsBudgetMillis() { return oddsBudgetMillis; }
+
+  /**
+   * @param oddsBudgetMillis how long, in milliseconds, simulating a race for its odds may take when betting
+   *                         opens; positive. A longer budget gives more precise odds.
+   */
+  public void setOddsBudgetMillis(long oddsBudgetMillis) {
+    if (oddsBudgetMillis < 1) throw new IllegalArgumentException("The odds budget must be at least 1 ms");
+    this.oddsBudgetMillis = oddsBudgetMillis;
+  }
+
+  /** @return the share of the stakes the house keeps when pricing a race */
+  public double getHouseMargin() { return houseMargin; }
+
+  /** @param houseMargin the share of the stakes the house keeps when pricing a race; from 0 to below 1 */
+  public void setHouseMargin(double houseMargin) {
+    if (houseMargin < 0 || houseMargin >= 1) throw new IllegalArgumentException("The house margin must be in [0, 1)");
+    this.houseMargin = houseMargin;
+  }
+
+  /** @return whether races write the positions of their horses to the console after every tick */
+  public boolean isTickLogging() { return tickLogging; }
+
+  /** @param tickLogging whether races write the positions of their horses to the console after every tick */
+  public void setTickLogging(boolean tickLogging) { this.tickLogging = tickLogging; }
+}
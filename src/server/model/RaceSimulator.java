@@ -0,0 +1,98 @@
+package server.model;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * {@code RaceSimulator} runs a race to completion without waiting, printing, broadcasting or saving anything.
+ * It moves the horses with the same {@link RaceField} as a live race, so a simulated race follows the same
+ * rules: one random step within each horse's speed range per tick, horses crossing the line in the same tick
+ * placed in lane order.
+ * <p>
+ * {@link #simulate(RandomGenerator)} returns the finish order and the positions after every tick;
+ * {@link #simulateWinner(RandomGenerator)} only finds the winner and does not allocate, for running many
+ * races in a row, e.g. to estimate odds. A simulator reuses its field and is not thread-safe; use one per
+ * thread.
+ * </p>
+ */
+public class RaceSimulator {
+  private final RaceField field;
+
+  /**
+   * Creates a simulator for a field of horses on a track.
+   *
+   * @param horses the horses, in lane order
+   * @param track  the track
+   * @throws IllegalArgumentException if there are no horses, a horse cannot move or its speed range is reversed
+   */
+  public RaceSimulator(List<Horse> horses, RaceTrack track) {
+    checkField(horses);
+    this.field = new RaceField(horses, track.getLength());
+  }
+
+  /**
+   * Checks that a field of horses can finish a race.
+   *
+   * @param horses the horses, in lane order
+   * @throws IllegalArgumentException if there are no horses, a horse cannot move or its speed range is reversed
+   */
+  static void checkField(List<Horse> horses) {
+    if (horses.isEmpty()) throw new IllegalArgumentException("A race needs at least one horse");
+    for (Horse horse : horses) {
+      if (horse.getSpeedMax() < horse.getSpeedMin() || horse.getSpeedMax() < 1 || horse.getSpeedMin() < 0) {
+        throw new IllegalArgumentException("Horse " + horse.getName() + " has an invalid speed range "
+            + horse.getSpeedMin() + "-" + horse.getSpeedMax());
+      }
+    }
+  }
+
+  /**
+   * Runs the race to completion and records the positions after every tick.
+   *
+   * @param random the source of the steps
+   * @return the finish order, the tick each horse finished in and the positions after every tick
+   */
+  public SimulationResult simulate(RandomGenerator random) {
+    field.reset();
+    int lanes = field.size();
+    int[] finishTicks = new int[lanes];
+    int[] trace = new int[lanes * 16];
+    int ticks = 0;
+
+    while (!field.isComplete()) {
+      int finishedBefore = field.finishedCount();
+      field.advance(random);
+      ticks++;
+
+      if (trace.length < ticks * lanes) trace = Arrays.copyOf(trace, trace.length * 2);
+      for (int lane = 0; lane < lanes; lane++) trace[(ticks - 1) * lanes + lane] = field.position(lane);
+      for (int place = finishedBefore; place < field.finishedCount(); place++) {
+        finishTicks[field.finisher(place)] = ticks;
+      }
+    }
+
+    int[] finishOrder = new int[lanes];
+    for (int place = 0; place < lanes; place++) finishOrder[place] = field.finisher(place);
+    return new SimulationResult(lanes, ticks, finishOrder, finishTicks, Arrays.copyOf(trace, ticks * lanes));
+  }
+
+  /**
+   * Runs the race until the first horse crosses the finish line.
+   *
+   * @param random the source of the steps
+   * @return the lane of the winner
+   */
+  public int simulateWinner(RandomGenerator random) {
+    field.reset();
+    while (field.advance(random) == 0) {
+      // keep moving until someone finishes
+    }
+    return field.finisher(0);
+  }
+
+  /** @return the number of horses in the race */
+  public int size() {
+    return field.size();
+  }
+}
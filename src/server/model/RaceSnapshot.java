@@ -0,0 +1,104 @@
+package server.model;
+
+import shared.DTO.RaceState;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * {@code RaceSnapshot} is the state of a race at one moment: its status, the last tick, the positions after
+ * it and the horses that have finished so far. A client joining a running race starts from a snapshot and
+ * then applies the updates that follow it.
+ * <p>
+ * The sequence number counts the events published about the race (start, each horse finishing, end); position
+ * updates carry the sequence number of the last event before them. A client that sees an event whose number is
+ * not one more than the last it applied has missed something and asks for a new snapshot.
+ * </p>
+ * Snapshots are immutable; the race replaces its snapshot as it runs.
+ */
+public final class RaceSnapshot {
+  private static final int[] NO_POSITIONS = new int[0];
+
+  private final long sequence;
+  private final RaceState state;
+  private final int tick;
+  private final int[] positions;
+  private final List<Horse> finished;
+
+  private RaceSnapshot(long sequence, RaceState state, int tick, int[] positions, List<Horse> finished) {
+    this.sequence = sequence;
+    this.state = state;
+    this.tick = tick;
+    this.positions = positions;
+    this.finished = finished;
+  }
+
+  /**
+   * @param state the status of a race that has not started yet
+   * @return the snapshot of a race before any event
+   */
+  static RaceSnapshot initial(RaceState state) {
+    return new RaceSnapshot(0, state, 0, NO_POSITIONS, List.of());
+  }
+
+  /**
+   * @param lanes the number of horses
+   * @return the snapshot after the race has started, with every horse at the start
+   */
+  RaceSnapshot started(int lanes) {
+    return new RaceSnapshot(sequence + 1, RaceState.IN_PROGRESS, 0, new int[lanes], List.of());
+  }
+
+  /**
+   * @param tick      the number of ticks run so far
+   * @param positions the positions after that tick; kept as it is, so it must not be changed afterwards
+   * @return this snapshot with the positions after the given tick
+   */
+  RaceSnapshot at(int tick, int[] positions) {
+    return new RaceSnapshot(sequence, state, tick, positions, finished);
+  }
+
+  /**
+   * @param horse the horse that crossed the finish line
+   * @return the snapshot after the horse finished
+   */
+  RaceSnapshot horseFinished(Horse horse) {
+    List<Horse> withHorse = new ArrayList<>(finished.size() + 1);
+    withHorse.addAll(finished);
+    withHorse.add(horse);
+    return new RaceSnapshot(sequence + 1, state, tick, positions, Collections.unmodifiableList(withHorse));
+  }
+
+  /**
+   * @return the snapshot after the race has ended
+   */
+  RaceSnapshot finished() {
+    return new RaceSnapshot(sequence + 1, RaceState.FINISHED, tick, positions, finished);
+  }
+
+  /** @return the number of events published about the race so far */
+  public long getSequence() {
+    return sequence;
+  }
+
+  /** @return the status of the race */
+  public RaceState getState() {
+    return state;
+  }
+
+  /** @return the number of ticks run so far */
+  public int getTick() {
+    return tick;
+  }
+
+  /** @return the positions after the last tick, by lane; empty before the race has started */
+  public int[] getPositions() {
+    return positions.clone();
+  }
+
+  /** @return the horses that have finished so far, winner first */
+  public List<Horse> getFinished() {
+    return finished;
+  }
+}
@@ -0,0 +1,73 @@
+package server.model;
+
+import java.util.Arrays;
+
+/**
+ * {@code SimulationResult} is the outcome of a race run by the {@link RaceSimulator}: the finish order, the
+ * tick in which each horse finished and the positions of all horses after every tick. Horses are identified
+ * by their lane, their index in the race's horse list; ticks are counted from 1.
+ */
+public class SimulationResult {
+  private final int lanes;
+  private final int ticks;
+  private final int[] finishOrder;
+  private final int[] finishTicks;
+  private final int[] trace;
+
+  /**
+   * @param lanes       the number of horses
+   * @param ticks       the number of ticks until the last horse finished
+   * @param finishOrder the lanes of the horses, winner first
+   * @param finishTicks the tick each horse finished in, by lane
+   * @param trace       the positions after every tick, {@code lanes} values per tick
+   */
+  SimulationResult(int lanes, int ticks, int[] finishOrder, int[] finishTicks, int[] trace) {
+    this.lanes = lanes;
+    this.ticks = ticks;
+    this.finishOrder = finishOrder;
+    this.finishTicks = finishTicks;
+    this.trace = trace;
+  }
+
+  /** @return the number of ticks until the last horse finished */
+  public int getTicks() {
+    return ticks;
+  }
+
+  /** @return the lane of the winner */
+  public int getWinner() {
+    return finishOrder[0];
+  }
+
+  /** @return the lanes of the horses in finishing order, winner first */
+  public int[] getFinishOrder() {
+    return finishOrder.clone();
+  }
+
+  /**
+   * @param lane the horse's lane
+   * @return the tick in which the horse crossed the finish line
+   */
+  public int getFinishTick(int lane) {
+    return finishTicks[lane];
+  }
+
+  /**
+   * @param tick the tick, from 1 to {@link #getTicks()}
+   * @param lane the horse's lane
+   * @return the horse's position after that tick
+   */
+  public int getPosition(int tick, int lane) {
+    if (tick < 1 || tick > ticks) throw new IndexOutOfBoundsException("No tick " + tick + " in " + ticks + " ticks");
+    return trace[(tick - 1) * lanes + lane];
+  }
+
+  /**
+   * @param tick the tick, from 1 to {@link #getTicks()}
+   * @return the positions of all horses after that tick, by lane
+   */
+  public int[] getPositions(int tick) {
+    if (tick < 1 || tick > ticks) throw new IndexOutOfBoundsException("No tick " + tick + " in " + ticks + " ticks");
+    return Arrays.copyOfRange(trace, (tick - 1) * lanes, tick * lanes);
+  }
+}
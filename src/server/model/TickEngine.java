@@ -0,0 +1,188 @@
+package server.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+/**
+ * {@code TickEngine} moves the horses of every running race from a single timer thread.
+ * <p>
+ * The timer fires once per resolution period and advances, in one pass, every race whose tick is due.
+ * A race's tick interval is rounded up to a whole number of periods, so races with the same interval
+ * tick in the same pass. Each tick of a race sends one batch with the positions of all its horses.
+ * When a race has finished, or its tick failed, it leaves the engine and its completion callback runs on
+ * the completion executor, so saving results never holds up the ticks of the other races.
+ * </p>
+ */
+public class TickEngine {
+  private final long resolutionMillis;
+  private final Executor completions;
+  private final Queue<Entry> added = new ConcurrentLinkedQueue<>();
+  private final List<Entry> running = new ArrayList<>(); // only used by the timer thread
+  private volatile int runningCount = 0;
+  private ScheduledExecutorService timer;
+  private ScheduledFuture<?> pass;
+
+  /**
+   * Creates a stopped engine.
+   *
+   * @param resolutionMillis the period of the timer, in milliseconds; at least 1
+   * @param completions      runs the completion callbacks of races that left the engine
+   */
+  public TickEngine(long resolutionMillis, Executor completions) {
+    if (resolutionMillis < 1) throw new IllegalArgumentException("The tick resolution must be at least 1 ms");
+    this.resolutionMillis = resolutionMillis;
+    this.completions = completions;
+  }
+
+  /**
+   * Starts the timer thread. Does nothing if the engine is already running.
+   */
+  public synchronized void start() {
+    if (timer != null) return;
+    ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+      Thread thread = new Thread(runnable, "race-ticks");
+      thread.setDaemon(true);
+      return thread;
+    });
+    timer = executor;
+    pass = executor.scheduleAtFixedRate(this::safeAdvance, resolutionMillis, resolutionMillis, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Stops the timer thread. Races that are running stay in the engine and continue if it is started again.
+   */
+  public synchronized void stop() {
+    if (timer == null) return;
+    pass.cancel(false);
+    timer.shutdown();
+    timer = null;
+  }
+
+  /**
+   * Adds a started race. Its first tick is in the next pass.
+   *
+   * @param race               the race; its horses must be at the start
+   * @param tickIntervalMillis the time between two ticks of the race, in milliseconds
+   * @param done               called with the race once it has left the engine, and with the exception
+   *                           if a tick failed or {@code null} if every horse finished
+   */
+  public void add(Race race, long tickIntervalMillis, BiConsumer<Race, RuntimeException> done) {
+    added.add(new Entry(race, periods(tickIntervalMillis), done));
+  }
+
+  /**
+   * @param tickIntervalMillis the time between two ticks a race asks for, in milliseconds
+   * @return the time between two ticks the race gets, the interval rounded up to whole timer periods
+   */
+  public long tickDurationMillis(long tickIntervalMillis) {
+    return periods(tickIntervalMillis) * resolutionMillis;
+  }
+
+  private int periods(long tickIntervalMillis) {
+    return (int) Math.max(1, Math.min(Integer.MAX_VALUE, (tickIntervalMillis + resolutionMillis - 1) / resolutionMillis));
+  }
+
+  /** @return the number of races in the engine, including those added since the last pass */
+  public int getRaceCount() {
+    return runningCount + added.size();
+  }
+
+  /** @return the period of the timer, in milliseconds */
+  public long getResolutionMillis() {
+    return resolutionMillis;
+  }
+
+  /**
+   * Runs one pass: takes in the races added since the last pass and ticks every race that is due.
+   * Called by the timer thread; may be called directly while the engine is stopped.
+   *
+   * @return the number of races that ticked
+   */
+  public int advance() {
+    Entry entry;
+    while ((entry = added.poll()) != null) running.add(entry);
+
+    int ticked = 0;
+    int kept = 0;
+    int next = 0;
+    try {
+      while (next < running.size()) {
+        Entry current = running.get(next++);
+        if (--current.countdown > 0) {
+          running.set(kept++, current);
+          continue;
+        }
+        current.countdown = current.periods;
+        ticked++;
+        RuntimeException failure = null;
+        try {
+          if (!current.race.tick()) {
+            running.set(kept++, current);
+            continue;
+          }
+        } catch (RuntimeException e) {
+          failure = e;
+        }
+        complete(current, failure);
+      }
+    } finally {
+      // Keep the races a failed pass did not reach, then drop the races that left, keeping the order of the others
+      while (next < running.size()) running.set(kept++, running.get(next++));
+      running.subList(kept, running.size()).clear();
+      runningCount = kept;
+    }
+    return ticked;
+  }
+
+  /**
+   * Hands a race that left the engine to the completion executor. If the executor does not take it,
+   * e.g. because it was shut down, the callback runs on the calling thread instead.
+   *
+   * @param entry   the race
+   * @param failure the exception if its tick failed, or {@code null} if every horse finished
+   */
+  private void complete(Entry entry, RuntimeException failure) {
+    Runnable callback = () -> entry.done.accept(entry.race, failure);
+    try {
+      completions.execute(callback);
+    } catch (RuntimeException e) {
+      System.err.println("Completing race " + entry.race.getName() + " on the tick thread: " + e.getMessage());
+      try {
+        callback.run();
+      } catch (RuntimeException callbackFailure) {
+        System.err.println("Completing race " + entry.race.getName() + " failed: " + callbackFailure.getMessage());
+      }
+    }
+  }
+
+  /** Runs a pass from the timer; an exception would cancel the timer. */
+  private void safeAdvance() {
+    try {
+      advance();
+    } catch (RuntimeException e) {
+      System.err.println("Race tick pass failed: " + e.getMessage());
+    }
+  }
+
+  /** A race in the engine. */
+  private static final class Entry {
+    private final Race race;
+    private final int periods;
+    private final BiConsumer<Race, RuntimeException> done;
+    private int countdown = 1; // tick in the first pass
+
+    Entry(Race race, int periods, BiConsumer<Race, RuntimeException> done) {
+      this.race = race;
+      this.periods = periods;
+      this.done = done;
+    }
+  }
+}
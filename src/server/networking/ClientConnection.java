@@ -0,0 +1,63 @@
+package server.networking;
+
+import shared.Respond;
+
+import java.io.IOException;
+
+/**
+ * {@code ClientConnection} represents a single connected client, independent of how the
+ * server accepts it and reads from it (a dedicated thread per socket or a shared selector loop).
+ * The {@link Server} only talks to connected clients through this interface.
+ */
+public interface ClientConnection {
+
+  /**
+   * Sends a message to the client, encoded in the connection's wire format.
+   *
+   * @param message the object to be serialized and sent
+   * @throws IOException if the message cannot be written to the client
+   */
+  default void send(Object message) throws IOException {
+    String type = message instanceof Respond respond ? respond.type() : message.getClass().getSimpleName();
+    sendFrame(OutboundFrame.encode(type, message));
+  }
+
+  /**
+   * Sends an already encoded frame to the client. The frame's bytes are written as they are,
+   * so the same frame can be sent to many clients without serializing it again.
+   *
+   * @param frame the encoded frame
+   * @throws IOException if the frame cannot be written to the client
+   */
+  void sendFrame(OutboundFrame frame) throws IOException;
+
+  /**
+   * @return the queue of frames waiting to be written to this client
+   */
+  OutboundQueue outboundQueue();
+
+  /**
+   * Returns when bytes were last received from the client, heartbeat answers included.
+   * Connections that do not track this are never considered dead.
+   *
+   * @return a {@link System#nanoTime()} value
+   */
+  default long lastReadNanos() {
+    return System.nanoTime();
+  }
+
+  /**
+   * Returns when the client last sent a request other than a heartbeat answer.
+   * Connections that do not track this are never considered idle.
+   *
+   * @return a {@link System#nanoTime()} value
+   */
+  default long lastRequestNanos() {
+    return System.nanoTime();
+  }
+
+  /**
+   * Closes the connection and releases the resources held for this client.
+   */
+  void close();
+}
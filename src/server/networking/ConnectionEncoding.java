@@ -0,0 +1,99 @@
+package server.networking;
+
+import shared.protocol.FrameDeflater;
+import shared.protocol.HelloResponse;
+import shared.protocol.WireFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.zip.Deflater;
+
+/**
+ * {@code ConnectionEncoding} turns queued {@link OutboundFrame}s into the bytes written to one client:
+ * JSON lines until the client's handshake asks for something else, then binary frames, deflated when they
+ * are larger than the configured threshold and the client accepts compression.
+ * <p>
+ * The state changes when the answer to the handshake has been encoded, so everything queued before it
+ * still reaches the client in the encoding the client expects. An instance is used only by the thread
+ * writing to its connection and keeps one {@link FrameDeflater} for the whole connection.
+ * </p>
+ */
+public class ConnectionEncoding {
+  private final int compressionThreshold;
+  private WireFormat format = WireFormat.JSON;
+  private FrameDeflater deflater;
+
+  /**
+   * @param compressionThreshold the size in bytes above which binary frames are compressed;
+   *                             negative to never compress
+   */
+  public ConnectionEncoding(int compressionThreshold) {
+    this.compressionThreshold = compressionThreshold;
+  }
+
+  /**
+   * Encodes a frame for writing with a selector.
+   *
+   * @param frame the queued frame
+   * @return a read-only buffer with the bytes to write
+   */
+  public ByteBuffer encode(OutboundFrame frame) {
+    return ByteBuffer.wrap(bytes(frame)).asReadOnlyBuffer();
+  }
+
+  /**
+   * Encodes a frame and writes it to the stream.
+   *
+   * @param frame the queued frame
+   * @param out   the stream to write to
+   * @throws IOException if writing fails
+   */
+  public void writeTo(OutboundFrame frame, OutputStream out) throws IOException {
+    out.write(bytes(frame));
+  }
+
+  /** @return the format frames are currently written in */
+  public WireFormat format() {
+    return format;
+  }
+
+  /**
+   * @param frame the queued frame
+   * @return the bytes to write; shared with other connections unless the frame was compressed
+   */
+  private byte[] bytes(OutboundFrame frame) {
+    byte[] bytes = frame.bytes(format);
+    if (deflater != null && bytes.length > compressionThreshold) {
+      bytes = deflater.deflate(bytes);
+    }
+    if (frame.handshake() != null) apply(frame.handshake());
+    return bytes;
+  }
+
+  /**
+   * Switches to the encoding negotiated in the handshake.
+   *
+   * @param hello the server's answer to the handshake
+   */
+  private void apply(HelloResponse hello) {
+    WireFormat negotiated = WireFormat.fromName(hello.format());
+    if (negotiated != null) format = negotiated;
+
+    boolean compress = format == WireFormat.BINARY && compressionThreshold >= 0
+        && FrameDeflater.DEFLATE.equals(hello.compression());
+    if (compress && deflater == null) {
+      deflater = new FrameDeflater(Deflater.BEST_SPEED);
+    } else if (!compress && deflater != null) {
+      release();
+    }
+  }
+
+  /** Releases the compressor. Called once the connection is closed. */
+  public void release() {
+    if (deflater != null) {
+      deflater.end();
+      deflater = null;
+    }
+  }
+}
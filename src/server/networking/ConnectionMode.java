@@ -0,0 +1,38 @@
+package server.networking;
+
+/**
+ * {@code ConnectionMode} selects how the {@link Server} accepts and serves client connections.
+ * <ul>
+ *   <li>{@code THREAD_PER_CONNECTION} - every accepted socket is served by its own blocking thread.</li>
+ *   <li>{@code VIRTUAL_THREADS} - every accepted socket is served by its own virtual thread, so blocking
+ *   reads and JDBC calls park the virtual thread instead of holding a platform thread.</li>
+ *   <li>{@code NIO} - a non-blocking acceptor hands sockets to a small pool of selector event loops.</li>
+ * </ul>
+ */
+public enum ConnectionMode {
+  THREAD_PER_CONNECTION,
+  VIRTUAL_THREADS,
+  NIO;
+
+  /**
+   * Resolves a mode from a command-line value such as {@code "nio"}, {@code "virtual"} or {@code "thread"}.
+   *
+   * @param value the value given on the command line
+   * @return the matching connection mode
+   * @throws IllegalArgumentException if the value does not name a known mode
+   */
+  public static ConnectionMode fromArgument(String value) {
+    switch (value.trim().toLowerCase()) {
+      case "thread", "threads", "thread-per-connection" -> {
+        return THREAD_PER_CONNECTION;
+      }
+      case "virtual", "virtual-threads" -> {
+        return VIRTUAL_THREADS;
+      }
+      case "nio", "selector" -> {
+        return NIO;
+      }
+      default -> throw new IllegalArgumentException("Unknown connection mode: " + value);
+    }
+  }
+}
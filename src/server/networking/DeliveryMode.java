@@ -0,0 +1,16 @@
+package server.networking;
+
+/**
+ * {@code DeliveryMode} decides what happens to an outbound message while a client cannot keep up.
+ */
+public enum DeliveryMode {
+  /** The message is always queued, however far behind the client is. */
+  RELIABLE,
+  /**
+   * Only the latest message with the same key is kept; an older, still queued one is replaced. A message
+   * that depends on the ones before it, such as a delta, replaces them with its {@link OutboundFrame#standalone()} form.
+   */
+  COALESCE,
+  /** The message is dropped when the client's queue is above its high-water mark. */
+  DROPPABLE
+}
@@ -0,0 +1,164 @@
+package server.networking;
+
+import com.google.gson.Gson;
+import shared.Respond;
+import shared.protocol.BinaryCodec;
+import shared.protocol.HelloRequest;
+import shared.protocol.HelloResponse;
+import shared.protocol.WireFormat;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * {@code OutboundFrame} is a message that has already been encoded for the wire: the JSON document
+ * followed by the terminating newline, and, once a connection needs it, the length-prefixed
+ * {@link BinaryCodec} frame.
+ * Frames are immutable, so a broadcast is serialized once per format and the same bytes are written to
+ * every connection using that format.
+ * <p>
+ * A frame answering a {@link HelloRequest} changes how its connection encodes frames: it is written
+ * the way the connection currently encodes, and every frame after it as negotiated (see {@link ConnectionEncoding}).
+ * </p>
+ */
+public final class OutboundFrame {
+  private static final Gson gson = new Gson();
+
+  private final String type;
+  private final String key;
+  private final Respond message;
+  private final byte[] json;
+  private final HelloResponse handshake;
+  private final Supplier<?> standaloneMessage;
+  private volatile byte[] binary;
+  private volatile OutboundFrame standalone;
+
+  private OutboundFrame(String type, String key, Respond message, byte[] json, HelloResponse handshake,
+                        Supplier<?> standaloneMessage) {
+    this.type = type;
+    this.key = key;
+    this.message = message;
+    this.json = json;
+    this.handshake = handshake;
+    this.standaloneMessage = standaloneMessage;
+  }
+
+  /**
+   * Serializes a message into a frame whose key is its type.
+   *
+   * @param type    the message type, used for logging and delivery decisions
+   * @param message the object to serialize (usually a {@link shared.Respond})
+   * @return the encoded frame
+   */
+  public static OutboundFrame encode(String type, Object message) {
+    return encode(type, type, message);
+  }
+
+  /**
+   * Serializes a message into a frame. The JSON line is encoded right away; the binary frame is encoded
+   * the first time a connection using {@link WireFormat#BINARY} needs it, from the JSON bytes unless the
+   * message has a compact binary form.
+   *
+   * @param type    the message type, used for logging and delivery decisions
+   * @param key     identifies what the message is about; a queued frame may be replaced by a newer
+   *                frame with the same key (see {@link DeliveryMode#COALESCE})
+   * @param message the object to serialize (usually a {@link shared.Respond})
+   * @return the encoded frame
+   */
+  public static OutboundFrame encode(String type, String key, Object message) {
+    return encode(type, key, message, null);
+  }
+
+  /**
+   * Serializes a message that only makes sense after the message before it with the same key, such as a
+   * delta of positions. If the frame replaces a queued frame, the message built by {@code standaloneMessage},
+   * such as the full positions, is sent instead; it is only built and encoded when that happens.
+   *
+   * @param type              the message type, used for logging and delivery decisions
+   * @param key               identifies what the message is about
+   * @param message           the object to serialize (usually a {@link shared.Respond})
+   * @param standaloneMessage builds the message to send in place of this one and the frames before it,
+   *                          or {@code null} if the message stands on its own
+   * @return the encoded frame
+   */
+  public static OutboundFrame encode(String type, String key, Object message, Supplier<?> standaloneMessage) {
+    byte[] utf8 = gson.toJson(message).getBytes(StandardCharsets.UTF_8);
+    byte[] line = Arrays.copyOf(utf8, utf8.length + 1);
+    line[utf8.length] = '\n';
+
+    Respond respond = message instanceof Respond r ? r : null;
+    HelloResponse handshake = respond != null && respond.payload() instanceof HelloResponse hello ? hello : null;
+    return new OutboundFrame(type, key, respond, line, handshake, standaloneMessage);
+  }
+
+  /**
+   * Returns the frame to queue when this frame replaces a queued frame with the same key. Two threads may
+   * both encode it; either result can be kept.
+   *
+   * @return this frame, or for a frame that depends on the frames before it, the frame standing on its own
+   */
+  public OutboundFrame standalone() {
+    if (standaloneMessage == null) return this;
+    OutboundFrame frame = standalone;
+    if (frame == null) {
+      frame = encode(type, key, standaloneMessage.get());
+      standalone = frame;
+    }
+    return frame;
+  }
+
+  /** @return the type of the encoded message */
+  public String type() {
+    return type;
+  }
+
+  /** @return the key used to coalesce frames about the same subject */
+  public String key() {
+    return key;
+  }
+
+  /**
+   * @return the negotiated encoding the connection uses after writing this frame, or {@code null} if this
+   *         frame does not answer a handshake
+   */
+  public HelloResponse handshake() {
+    return handshake;
+  }
+
+  /** @return the number of bytes of the JSON line, including the newline */
+  public int length() {
+    return json.length;
+  }
+
+  /**
+   * Returns a read-only view of the JSON line. Each call returns a buffer with its own position,
+   * so every connection can write the shared bytes at its own pace.
+   *
+   * @return a read-only buffer positioned at the start of the frame
+   */
+  public ByteBuffer buffer() {
+    return ByteBuffer.wrap(json).asReadOnlyBuffer();
+  }
+
+  /**
+   * Returns the encoded bytes in the given format. The array is shared by every connection and must not
+   * be modified. Two threads may both encode the binary frame; they produce equal bytes, so either
+   * result can be kept.
+   *
+   * @param format the wire format
+   * @return the encoded bytes
+   */
+  byte[] bytes(WireFormat format) {
+    if (format != WireFormat.BINARY) return json;
+
+    byte[] encoded = binary;
+    if (encoded == null) {
+      encoded = message == null ? null : BinaryCodec.encodeCompact(message);
+      if (encoded == null) encoded = BinaryCodec.wrapJson(json, 0, json.length - 1);
+      binary = encoded;
+    }
+    return encoded;
+  }
+}
@@ -0,0 +1,102 @@
+package server.networking;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * {@code OutboundPolicy} configures the outbound queue of every client connection: the
+ * {@link DeliveryMode} of each message type, the high-water mark of the queue and how long a
+ * client may stay above it before it is disconnected.
+ * <p>
+ * The queue is bounded twice: above the high-water mark droppable messages are discarded and
+ * the client is given {@link #getMaxMillisAboveHighWater()} to catch up, and a client whose queue
+ * reaches {@link #getMaxQueueSize()} is disconnected at once.
+ * </p>
+ */
+public class OutboundPolicy {
+  private final Map<String, DeliveryMode> modes = new HashMap<>();
+  private DeliveryMode defaultMode = DeliveryMode.RELIABLE;
+  private int highWaterMark = 256;
+  private int maxQueueSize = 4096;
+  private long maxMillisAboveHighWater = 5000;
+
+  /**
+   * Creates the policy used by the server: position updates and heartbeats are coalesced to the latest value,
+   * everything else (race results, bet responses, ...) is delivered reliably. A delta of positions that
+   * replaces queued positions is sent as the full positions, so a slow client never misses a tick.
+   *
+   * @return the default policy
+   */
+  public static OutboundPolicy defaults() {
+    OutboundPolicy policy = new OutboundPolicy();
+    policy.setMode("horseMoveUpdate", DeliveryMode.COALESCE);
+    policy.setMode("ping", DeliveryMode.COALESCE);
+    policy.setMode("onRaceFinished", DeliveryMode.RELIABLE);
+    policy.setMode("createBet", DeliveryMode.RELIABLE);
+    policy.setMode("getBetListByUser", DeliveryMode.RELIABLE);
+    return policy;
+  }
+
+  /**
+   * @param type the message type
+   * @return the delivery mode configured for the type, or the default mode
+   */
+  public DeliveryMode modeOf(String type) {
+    return modes.getOrDefault(type, defaultMode);
+  }
+
+  /**
+   * @param type the message type
+   * @param mode the delivery mode to use for messages of this type
+   */
+  public void setMode(String type, DeliveryMode mode) {
+    modes.put(type, mode);
+  }
+
+  /** @return the delivery mode of message types without an explicit mode */
+  public DeliveryMode getDefaultMode() { return defaultMode; }
+
+  /** @param defaultMode the delivery mode of message types without an explicit mode */
+  public void setDefaultMode(DeliveryMode defaultMode) { this.defaultMode = defaultMode; }
+
+  /** @return the queue depth above which a client counts as slow */
+  public int getHighWaterMark() { return highWaterMark; }
+
+  /** @param highWaterMark the queue depth above which a client counts as slow, at least one */
+  public void setHighWaterMark(int highWaterMark) {
+    if (highWaterMark < 1) throw new IllegalArgumentException("The high-water mark must be at least one");
+    this.highWaterMark = highWaterMark;
+  }
+
+  /** @return the queue depth at which a client is disconnected immediately */
+  public int getMaxQueueSize() { return maxQueueSize; }
+
+  /** @param maxQueueSize the queue depth at which a client is disconnected, at least the high-water mark */
+  public void setMaxQueueSize(int maxQueueSize) {
+    if (maxQueueSize < highWaterMark) throw new IllegalArgumentException("The queue size must not be below the high-water mark");
+    this.maxQueueSize = maxQueueSize;
+  }
+
+  /**
+   * Sets the high-water mark and the queue size together, so they are checked against each other and not
+   * against the value they replace.
+   *
+   * @param highWaterMark the queue depth above which a client counts as slow, at least one
+   * @param maxQueueSize  the queue depth at which a client is disconnected, at least the high-water mark
+   */
+  public void setQueueLimits(int highWaterMark, int maxQueueSize) {
+    if (highWaterMark < 1) throw new IllegalArgumentException("The high-water mark must be at least one");
+    if (maxQueueSize < highWaterMark) throw new IllegalArgumentException("The queue size must not be below the high-water mark");
+    this.highWaterMark = highWaterMark;
+    this.maxQueueSize = maxQueueSize;
+  }
+
+  /** @return how long a client may stay above the high-water mark before it is disconnected */
+  public long getMaxMillisAboveHighWater() { return maxMillisAboveHighWater; }
+
+  /** @param maxMillisAboveHighWater how long a client may stay above the high-water mark, in milliseconds */
+  public void setMaxMillisAboveHighWater(long maxMillisAboveHighWater) {
+    if (maxMillisAboveHighWater < 0) throw new IllegalArgumentException("The time above the high-water mark must not be negative");
+    this.maxMillisAboveHighWater = maxMillisAboveHighWater;
+  }
+}
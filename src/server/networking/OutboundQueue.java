@@ -0,0 +1,191 @@
+package server.networking;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * {@code OutboundQueue} holds the frames waiting to be written to one client.
+ * <p>
+ * Producers (the race thread, request workers) never block on it: {@link #offer(OutboundFrame)}
+ * applies the {@link OutboundPolicy} and returns at once, so a stalled client cannot hold up a
+ * broadcast. The connection's writer takes frames off the queue in order.
+ * </p>
+ */
+public class OutboundQueue {
+  private final OutboundPolicy policy;
+
+  // Lock and condition instead of a monitor, so waiting virtual threads do not pin their carrier thread
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition notEmpty = lock.newCondition();
+  private final ArrayDeque<Slot> slots = new ArrayDeque<>();
+  private final Map<String, Slot> pendingByKey = new HashMap<>();
+  private long aboveHighWaterSince = -1;
+  private boolean finishing = false;
+  private boolean closed = false;
+
+  private final AtomicLong dropped = new AtomicLong();
+  private final AtomicLong coalesced = new AtomicLong();
+
+  /** A queue position whose frame can be replaced by a newer one with the same key. */
+  private static final class Slot {
+    private OutboundFrame frame;
+
+    private Slot(OutboundFrame frame) {
+      this.frame = frame;
+    }
+  }
+
+  /**
+   * Creates an empty queue.
+   *
+   * @param policy the delivery modes and limits to apply
+   */
+  public OutboundQueue(OutboundPolicy policy) {
+    this.policy = policy;
+  }
+
+  /**
+   * Adds a frame according to its delivery mode.
+   *
+   * @param frame the frame to send
+   * @return {@code false} if the client is too slow and should be disconnected, {@code true} otherwise
+   *         (also when the frame was dropped or merged into a queued one)
+   */
+  public boolean offer(OutboundFrame frame) {
+    DeliveryMode mode = policy.modeOf(frame.type());
+    lock.lock();
+    try {
+      if (closed || finishing) return true;
+
+      if (mode == DeliveryMode.COALESCE) {
+        Slot pending = pendingByKey.get(frame.key());
+        if (pending != null) {
+          pending.frame = frame.standalone(); // keep the queue position, send only the latest value
+          coalesced.incrementAndGet();
+          return true;
+        }
+      }
+
+      if (slots.size() >= policy.getHighWaterMark()) {
+        long now = System.currentTimeMillis();
+        if (aboveHighWaterSince < 0) aboveHighWaterSince = now;
+        if (slots.size() >= policy.getMaxQueueSize()
+            || now - aboveHighWaterSince > policy.getMaxMillisAboveHighWater()) {
+          return false;
+        }
+        if (mode == DeliveryMode.DROPPABLE) {
+          dropped.incrementAndGet();
+          return true;
+        }
+      }
+
+      Slot slot = new Slot(frame);
+      slots.addLast(slot);
+      if (mode == DeliveryMode.COALESCE) pendingByKey.put(frame.key(), slot);
+      notEmpty.signal();
+      return true;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Removes the next frame without waiting.
+   *
+   * @return the next frame, or {@code null} if the queue is empty
+   */
+  public OutboundFrame poll() {
+    lock.lock();
+    try {
+      return next();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Removes the next frame, waiting until one is available.
+   *
+   * @return the next frame, or {@code null} once the queue was closed or finished and drained
+   * @throws InterruptedException if the waiting thread is interrupted
+   */
+  public OutboundFrame take() throws InterruptedException {
+    lock.lock();
+    try {
+      while (slots.isEmpty() && !closed && !finishing) {
+        notEmpty.await();
+      }
+      return closed ? null : next();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** Takes the head of the queue. Must be called while holding the lock. */
+  private OutboundFrame next() {
+    Slot slot = slots.pollFirst();
+    if (slot == null) return null;
+
+    if (pendingByKey.get(slot.frame.key()) == slot) pendingByKey.remove(slot.frame.key());
+    if (slots.size() < policy.getHighWaterMark()) aboveHighWaterSince = -1;
+    return slot.frame;
+  }
+
+  /**
+   * Stops accepting frames. Frames already queued are still handed out; after that
+   * {@link #take()} returns {@code null}.
+   */
+  public void finish() {
+    lock.lock();
+    try {
+      finishing = true;
+      notEmpty.signalAll();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Closes the queue: pending frames are discarded and a waiting writer is released.
+   */
+  public void close() {
+    lock.lock();
+    try {
+      closed = true;
+      slots.clear();
+      pendingByKey.clear();
+      notEmpty.signalAll();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** @return {@code true} if no frame is waiting */
+  public boolean isEmpty() {
+    return depth() == 0;
+  }
+
+  /** @return the number of frames waiting to be written */
+  public int depth() {
+    lock.lock();
+    try {
+      return slots.size();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** @return the number of droppable frames discarded because the client was above the high-water mark */
+  public long droppedCount() {
+    return dropped.get();
+  }
+
+  /** @return the number of frames replaced by a newer frame with the same key before they were written */
+  public long coalescedCount() {
+    return coalesced.get();
+  }
+}
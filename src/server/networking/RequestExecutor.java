@@ -0,0 +1,65 @@
+package server.networking;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@code RequestExecutor} is the bounded worker pool of a {@link Server} that executes client requests
+ * carrying a request id, so several requests of the same client can be in flight at once.
+ * <p>
+ * The pool has a fixed number of threads and a bounded queue. When the queue is full the request runs on
+ * the thread that submitted it (the connection's reader), which slows that client down instead of letting
+ * the backlog grow without limit.
+ * </p>
+ */
+public class RequestExecutor implements Executor {
+  private final ThreadPoolExecutor pool;
+
+  /**
+   * Creates the pool.
+   *
+   * @param threads       the number of worker threads
+   * @param queueCapacity the number of requests that may wait for a worker
+   */
+  public RequestExecutor(int threads, int queueCapacity) {
+    AtomicInteger counter = new AtomicInteger();
+    this.pool = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(queueCapacity),
+        runnable -> {
+          Thread thread = new Thread(runnable, "request-worker-" + counter.getAndIncrement());
+          thread.setDaemon(true);
+          return thread;
+        },
+        new ThreadPoolExecutor.CallerRunsPolicy());
+  }
+
+  /**
+   * Runs a request on a worker thread, or on the calling thread if the queue is full.
+   *
+   * @param command the request to run
+   */
+  @Override
+  public void execute(Runnable command) {
+    pool.execute(command);
+  }
+
+  /** @return the number of requests waiting for a worker */
+  public int getQueuedRequestCount() {
+    return pool.getQueue().size();
+  }
+
+  /** @return the number of requests currently being executed */
+  public int getActiveRequestCount() {
+    return pool.getActiveCount();
+  }
+
+  /**
+   * Stops the workers once the queued requests are done.
+   */
+  public void shutdown() {
+    pool.shutdown();
+  }
+}
@@ -1,95 +1,424 @@
 package server.networking;
 
-import com.google.gson.Gson;
+import server.networking.nio.NioServer;
 import server.networking.socketHandling.ClientHandler;
+import server.networking.socketHandling.RequestDispatcher;
+import server.networking.socketHandling.RoutingTable;
 import shared.Respond;
 
 import java.io.IOException;
 import java.net.ServerSocket;
 import java.net.Socket;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 
 /**
  * The {@code Server} class represents a multi-client server that listens for client connections,
- * processes requests, and supports broadcasting messages to all connected clients.
+ * processes requests, and supports broadcasting messages to all connected clients or publishing
+ * them to the clients subscribed to a topic.
+ * <p>
+ * Connections are served by one platform thread per socket, one virtual thread per socket or by the
+ * selector-based {@link NioServer}, depending on the {@link ConnectionMode} in the {@link ServerConfig}.
+ * </p>
+ * <p>
+ * Every heartbeat interval the server pings all clients and disconnects those that have sent nothing for
+ * longer than the read timeout (or no request for longer than the idle timeout), so clients that vanished
+ * without saying goodbye do not stay in the client list. At most {@link ServerConfig#getMaxConnections()}
+ * clients are connected at once; further clients are only accepted once others have left.
+ * </p>
  */
 public class Server {
 
   // Thread-safe list to store the connected clients.
-  private static final List<ClientHandler> clients = new CopyOnWriteArrayList<>();
+  private static final List<ClientConnection> clients = new CopyOnWriteArrayList<>();
+  private static final TopicRegistry topics = new TopicRegistry();
+  private static final AtomicLong slowClientDisconnects = new AtomicLong();
+  private static final AtomicLong deadClientDisconnects = new AtomicLong();
+  // One permit per client that may connect; null until a server is started
+  private static volatile Semaphore connectionPermits;
+
+  private final ServerConfig config;
+  private final RequestDispatcher dispatcher;
+  private volatile boolean running = false;
+  private ServerSocket serverSocket;
+  private NioServer nioServer;
+  private RequestExecutor requestExecutor;
+  private ScheduledExecutorService heartbeat;
+
+  /**
+   * Creates a server with the default configuration (thread per connection on port 2910).
+   */
+  public Server() {
+    this(new ServerConfig());
+  }
+
+  /**
+   * Creates a server with the given configuration. The routing table of all request handlers
+   * is built here, once, and shared by every connection.
+   *
+   * @param config the port, connection mode and pool sizes to use
+   */
+  public Server(ServerConfig config) {
+    this.config = config;
+    this.dispatcher = new RequestDispatcher(RoutingTable.getDefault());
+  }
 
   /**
    * Broadcasts a message to all connected clients.
    * <p>
-   * This method wraps the given type and payload into a {@link Respond} object,
-   * serializes it to JSON, and sends it to each client using their {@link ClientHandler}.
+   * This method wraps the given type and payload into a {@link Respond} object and serializes it
+   * to JSON once. The same encoded {@link OutboundFrame} is then queued for each client, so the cost
+   * of serialization does not grow with the number of connected clients and a slow client does not
+   * hold up the others. A client that fails is removed; the broadcast continues with the rest.
    * </p>
    *
    * @param type    the type of the message (e.g., "race_finished", "error", "broadcast")
    * @param payload the data to be sent as the message payload (must be serializable by Gson)
-   * @throws RuntimeException if an {@link IOException} occurs while sending to any client
    */
   public static void broadcast(String type, Object payload) {
-    Respond response = new Respond(type, payload);
+    broadcast(type, type, payload);
+  }
+
+  /**
+   * Broadcasts a message to all connected clients, using {@code key} to coalesce it with queued
+   * messages about the same subject (e.g. the positions of one race).
+   *
+   * @param type    the type of the message
+   * @param key     the subject of the message, see {@link OutboundFrame#key()}
+   * @param payload the data to be sent as the message payload (must be serializable by Gson)
+   */
+  public static void broadcast(String type, String key, Object payload) {
+    OutboundFrame frame = OutboundFrame.encode(type, key, new Respond(type, payload));
 
-//    Line for debugging purposes:
-    System.out.println("Server sends: " + response.type() + ", payload: " + response.payload());
+    for (ClientConnection client : clients) {
+      sendFrame(client, frame);
+    }
+  }
 
-    for (ClientHandler client : clients) {
-      try {
-        client.send(response); // send JSON-formatted response
-      } catch (IOException e) {
-        throw new RuntimeException("Error broadcasting message: " + e.getMessage(), e);
-      }
+  /**
+   * Sends a message only to the clients subscribed to at least one of the given topics.
+   * A client subscribed to several of the topics receives the message once.
+   *
+   * @param type    the type of the message
+   * @param key     the subject of the message, see {@link OutboundFrame#key()}
+   * @param payload the data to be sent as the message payload (must be serializable by Gson)
+   * @param topics  the topics the message belongs to
+   */
+  public static void publish(String type, String key, Object payload, String... topics) {
+    publish(type, key, payload, null, topics);
+  }
+
+  /**
+   * Sends a message that only makes sense after the one before it with the same key, such as a delta of
+   * positions, to the clients subscribed to at least one of the given topics. A client whose queue still
+   * holds a message with the same key is sent the standalone payload in its place.
+   *
+   * @param type              the type of the message
+   * @param key               the subject of the message, see {@link OutboundFrame#key()}
+   * @param payload           the data to be sent as the message payload (must be serializable by Gson)
+   * @param standalonePayload builds the payload replacing this one and the queued one, or {@code null}
+   * @param topics            the topics the message belongs to
+   */
+  public static void publish(String type, String key, Object payload, Supplier<?> standalonePayload,
+                             String... topics) {
+    Supplier<Respond> standalone = standalonePayload == null ? null : () -> new Respond(type, standalonePayload.get());
+    OutboundFrame frame = null;
+    Set<ClientConnection> targets;
+    if (topics.length == 1) {
+      targets = Server.topics.subscribers(topics[0]);
+    } else {
+      targets = new HashSet<>();
+      for (String topic : topics) targets.addAll(Server.topics.subscribers(topic));
+    }
+
+    for (ClientConnection client : targets) {
+      if (frame == null) frame = OutboundFrame.encode(type, key, new Respond(type, payload), standalone); // only if anyone listens
+      sendFrame(client, frame);
     }
   }
 
+  /**
+   * Queues a frame for one client, removing the client if that fails.
+   *
+   * @param client the receiving client
+   * @param frame  the encoded frame
+   */
+  private static void sendFrame(ClientConnection client, OutboundFrame frame) {
+    try {
+      client.sendFrame(frame); // queue the shared JSON-encoded frame
+    } catch (IOException e) {
+      System.err.println("Error sending message, removing client: " + e.getMessage());
+      removeClient(client);
+      client.close();
+    }
+  }
+
+  /**
+   * Disconnects a client whose outbound queue stayed above its high-water mark for too long.
+   *
+   * @param client the client that cannot keep up
+   */
+  public static void disconnectSlowClient(ClientConnection client) {
+    if (!removeConnected(client)) return; // already removed
+    slowClientDisconnects.incrementAndGet();
+    System.err.println("Disconnecting slow client (" + client.outboundQueue().depth() + " queued frames)");
+    client.close();
+  }
+
+  /**
+   * Disconnects a client that stopped answering or stopped using the connection.
+   *
+   * @param client the client to disconnect
+   * @param reason why it is disconnected, for the log
+   */
+  public static void disconnectDeadClient(ClientConnection client, String reason) {
+    if (!removeConnected(client)) return; // already removed
+    deadClientDisconnects.incrementAndGet();
+    System.err.println("Disconnecting client: " + reason);
+    client.close();
+  }
+
   /**
    * Adds a client to the list of connected clients.
    *
-   * @param clientHandler The {@code ClientHandler} instance representing the client to be added.
+   * @param client The {@code ClientConnection} instance representing the client to be added.
+   */
+  public static void addClient(ClientConnection client) {
+    clients.add(client);
+  }
+
+  /**
+   * Removes a client from the list of connected clients and drops its topic subscriptions.
+   * Safe to call more than once for the same client.
+   *
+   * @param client The {@code ClientConnection} instance representing the client to be removed.
    */
-  public static void addClient(ClientHandler clientHandler) {
-    clients.add(clientHandler);
+  public static void removeClient(ClientConnection client) {
+    removeConnected(client);
   }
 
   /**
-   * Removes a client from the list of connected clients.
+   * Removes a client, drops its subscriptions and frees its connection permit.
    *
-   * @param clientHandler The {@code ClientHandler} instance representing the client to be removed.
+   * @param client the client to remove
+   * @return {@code true} if the client was still connected
    */
-  public static void removeClient(ClientHandler clientHandler) {
-    clients.remove(clientHandler);
+  private static boolean removeConnected(ClientConnection client) {
+    boolean removed = clients.remove(client);
+    topics.unsubscribeAll(client);
+    Semaphore permits = connectionPermits;
+    if (removed && permits != null) permits.release();
+    return removed;
   }
 
   /**
-   * Starts the server and begins accepting client connections.
-   * Each new connection is handled by a {@code ClientHandler} in a separate thread.
+   * Takes a permit for a new connection without waiting.
+   *
+   * @return {@code true} if the client may be accepted, {@code false} if the server is full
+   */
+  public static boolean tryAcquireConnection() {
+    Semaphore permits = connectionPermits;
+    return permits == null || permits.tryAcquire();
+  }
+
+  /**
+   * @return {@code true} if another client could be accepted now
+   */
+  public static boolean hasFreeConnection() {
+    Semaphore permits = connectionPermits;
+    return permits == null || permits.availablePermits() > 0;
+  }
+
+  /**
+   * Gives back a permit taken for a connection that was never added as a client.
+   */
+  public static void releaseConnection() {
+    Semaphore permits = connectionPermits;
+    if (permits != null) permits.release();
+  }
+
+  /**
+   * @return the index of topic subscriptions of the connected clients
+   */
+  public static TopicRegistry getTopics() {
+    return topics;
+  }
+
+  /**
+   * @param client a client
+   * @return {@code true} if the client is connected and has not been removed
+   */
+  public static boolean isConnected(ClientConnection client) {
+    return clients.contains(client);
+  }
+
+  /**
+   * @return the number of currently connected clients
+   */
+  public static int getClientCount() {
+    return clients.size();
+  }
+
+  /**
+   * @return the number of frames currently queued for all connected clients
+   */
+  public static long getQueuedFrameCount() {
+    long depth = 0;
+    for (ClientConnection client : clients) depth += client.outboundQueue().depth();
+    return depth;
+  }
+
+  /**
+   * @return the number of frames dropped or coalesced for the connected clients
+   */
+  public static long getDroppedFrameCount() {
+    long dropped = 0;
+    for (ClientConnection client : clients) {
+      dropped += client.outboundQueue().droppedCount() + client.outboundQueue().coalescedCount();
+    }
+    return dropped;
+  }
+
+  /**
+   * @return the number of clients disconnected because they could not keep up
+   */
+  public static long getSlowClientDisconnectCount() {
+    return slowClientDisconnects.get();
+  }
+
+  /**
+   * @return the number of clients disconnected because they were silent or idle for too long
+   */
+  public static long getDeadClientDisconnectCount() {
+    return deadClientDisconnects.get();
+  }
+
+  /**
+   * Starts the server and begins accepting client connections. This call blocks until the server is stopped.
    *
    * @throws IOException If an I/O error occurs while setting up or accepting connections.
    */
   public void start() throws IOException {
-    try (ServerSocket serverSocket = new ServerSocket(2910)) {
+    if (config.getReadTimeoutMillis() > 0 && config.getReadTimeoutMillis() <= config.getHeartbeatMillis()) {
+      throw new IllegalArgumentException("The read timeout must be longer than the heartbeat interval");
+    }
+    running = true;
+    connectionPermits = new Semaphore(config.getMaxConnections());
+    requestExecutor = new RequestExecutor(config.getRequestThreads(), config.getRequestQueueCapacity());
+    heartbeat = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "heartbeat");
+      thread.setDaemon(true);
+      return thread;
+    });
+    heartbeat.scheduleWithFixedDelay(this::checkConnections, config.getHeartbeatMillis(),
+        config.getHeartbeatMillis(), TimeUnit.MILLISECONDS);
+    switch (config.getMode()) {
+      case THREAD_PER_CONNECTION -> acceptConnections(runnable -> new Thread(runnable).start());
+      case VIRTUAL_THREADS -> {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+          acceptConnections(executor);
+        }
+      }
+      case NIO -> {
+        nioServer = new NioServer(config, dispatcher, requestExecutor);
+        nioServer.start();
+      }
+    }
+  }
+
+  /**
+   * Stops accepting connections and closes the listening socket.
+   */
+  public void stop() {
+    running = false;
+    try {
+      if (serverSocket != null) serverSocket.close();
+    } catch (IOException e) {
+      System.err.println("Error closing the server socket: " + e.getMessage());
+    }
+    if (nioServer != null) nioServer.stop();
+    if (requestExecutor != null) requestExecutor.shutdown();
+    if (heartbeat != null) heartbeat.shutdownNow();
+    for (ClientConnection client : clients) client.close();
+    clients.clear();
+    topics.clear();
+  }
+
+  /**
+   * Disconnects the clients that were silent or idle for too long, then pings the others.
+   * The ping is encoded once and coalesced in the queues of clients that have not read the previous one.
+   */
+  void checkConnections() {
+    try {
+      long now = System.nanoTime();
+      long readTimeout = TimeUnit.MILLISECONDS.toNanos(config.getReadTimeoutMillis());
+      long idleTimeout = TimeUnit.MILLISECONDS.toNanos(config.getIdleTimeoutMillis());
+      for (ClientConnection client : clients) {
+        if (readTimeout > 0 && now - client.lastReadNanos() > readTimeout) {
+          disconnectDeadClient(client, "nothing received for " + config.getReadTimeoutMillis() + " ms");
+        } else if (idleTimeout > 0 && now - client.lastRequestNanos() > idleTimeout) {
+          disconnectDeadClient(client, "no request for " + config.getIdleTimeoutMillis() + " ms");
+        }
+      }
+      broadcast("ping", System.currentTimeMillis());
+    } catch (RuntimeException e) {
+      // Keep the heartbeat running whatever happens to a single check
+      System.err.println("Heartbeat failed: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Accepts client connections and handles each one by a {@code ClientHandler} in a separate thread.
+   * A connection is only accepted once a connection permit is free, so while the server is full new
+   * clients wait in the listen backlog.
+   *
+   * @param connectionExecutor starts the threads (platform or virtual) that read from and write to a single client
+   * @throws IOException If an I/O error occurs while setting up or accepting connections.
+   */
+  private void acceptConnections(Executor connectionExecutor) throws IOException {
+    try (ServerSocket serverSocket = new ServerSocket(config.getPort())) {
+      this.serverSocket = serverSocket;
       System.out.println("Server started, listening for connections...");
 
-      while (true) {
+      while (running) {
+        // Wait until another client may connect
+        if (!connectionPermits.tryAcquire(100, TimeUnit.MILLISECONDS)) continue;
+
         // Accept a new client connection
-        Socket socket = serverSocket.accept();
+        Socket socket;
+        try {
+          socket = serverSocket.accept();
+        } catch (IOException e) {
+          releaseConnection();
+          throw e;
+        }
 
         // Create a new handler for the client
-        ClientHandler socketHandler = new ClientHandler(socket);
+        ClientHandler socketHandler = new ClientHandler(socket, dispatcher, config, requestExecutor);
 
         // Add the new client to the list of connected clients
         addClient(socketHandler);
 
-        // Start a new thread to handle this client
-        Thread socketThread = new Thread(socketHandler);
-        socketThread.start();
+        // Start a new thread to handle this client and one draining its outbound queue
+        connectionExecutor.execute(socketHandler);
+        connectionExecutor.execute(socketHandler::writeOutbound);
       }
     } catch (IOException e) {
+      if (!running) return; // closed by stop()
       System.err.println("Error starting the server: " + e.getMessage());
       throw e;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
     }
   }
 }
@@ -0,0 +1,175 @@
+package server.networking;
+
+import server.model.RaceSchedulerConfig;
+
+/**
+ * {@code ServerConfig} holds the startup settings of the {@link Server}: the port it listens on,
+ * the connection mode, the sizes of the thread pools used by the NIO engine and by the
+ * {@link RequestExecutor}, the {@link OutboundPolicy} of the client outbound queues, the size above
+ * which binary frames are compressed, and the limits on connections: how many may be open, how often
+ * they are sent a heartbeat and how long they may stay silent.
+ * <p>
+ * Values can be read from command-line arguments in the form {@code --name=value},
+ * e.g. {@code --mode=nio --port=2910 --selectors=4 --workers=8 --request-workers=16 --request-queue=1024
+ * --high-water=256 --max-queue=4096 --compress-above=1024 --max-connections=10000 --heartbeat=15000
+ * --read-timeout=45000 --idle-timeout=0}.
+ * </p>
+ */
+public class ServerConfig {
+  public static final int DEFAULT_PORT = 2910;
+
+  private int port = DEFAULT_PORT;
+  private ConnectionMode mode = ConnectionMode.THREAD_PER_CONNECTION;
+  private int selectorThreads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+  private int workerThreads = Math.max(2, Runtime.getRuntime().availableProcessors());
+  private int requestThreads = Math.max(4, 2 * Runtime.getRuntime().availableProcessors());
+  private int requestQueueCapacity = 1024;
+  private OutboundPolicy outboundPolicy = OutboundPolicy.defaults();
+  private int compressionThreshold = 1024;
+  private int maxConnections = 10_000;
+  private long heartbeatMillis = 15_000;
+  private long readTimeoutMillis = 45_000;
+  private long idleTimeoutMillis = 0;
+
+  /**
+   * Builds a configuration from command-line arguments. Unknown arguments are ignored; race options
+   * are left to {@link RaceSchedulerConfig}.
+   *
+   * @param args the arguments passed to the server
+   * @return the resulting configuration, with defaults for every value not given
+   * @throws IllegalArgumentException if a value cannot be parsed, or the queue size is below the high-water mark
+   */
+  public static ServerConfig fromArgs(String[] args) {
+    ServerConfig config = new ServerConfig();
+    OutboundPolicy policy = config.getOutboundPolicy();
+    int highWaterMark = policy.getHighWaterMark();
+    int maxQueueSize = policy.getMaxQueueSize();
+    for (String arg : args) {
+      int separator = arg.indexOf('=');
+      if (!arg.startsWith("--") || separator < 0) continue;
+
+      String name = arg.substring(2, separator);
+      String value = arg.substring(separator + 1);
+      switch (name) {
+        case "mode" -> config.setMode(ConnectionMode.fromArgument(value));
+        case "port" -> config.setPort(Integer.parseInt(value));
+        case "selectors" -> config.setSelectorThreads(Integer.parseInt(value));
+        case "workers" -> config.setWorkerThreads(Integer.parseInt(value));
+        case "request-workers" -> config.setRequestThreads(Integer.parseInt(value));
+        case "request-queue" -> config.setRequestQueueCapacity(Integer.parseInt(value));
+        case "high-water" -> highWaterMark = Integer.parseInt(value);
+        case "max-queue" -> maxQueueSize = Integer.parseInt(value);
+        case "compress-above" -> config.setCompressionThreshold(Integer.parseInt(value));
+        case "max-connections" -> config.setMaxConnections(Integer.parseInt(value));
+        case "heartbeat" -> config.setHeartbeatMillis(Long.parseLong(value));
+        case "read-timeout" -> config.setReadTimeoutMillis(Long.parseLong(value));
+        case "idle-timeout" -> config.setIdleTimeoutMillis(Long.parseLong(value));
+        default -> {
+          if (!RaceSchedulerConfig.isRaceOption(name)) System.err.println("Ignoring unknown server option: " + arg);
+        }
+      }
+    }
+    // Checked once both are known, whichever order they were given in
+    policy.setQueueLimits(highWaterMark, maxQueueSize);
+    return config;
+  }
+
+  /** @return the TCP port the server listens on */
+  public int getPort() { return port; }
+
+  /** @param port the TCP port the server listens on */
+  public void setPort(int port) { this.port = port; }
+
+  /** @return how client connections are accepted and served */
+  public ConnectionMode getMode() { return mode; }
+
+  /** @param mode how client connections are accepted and served */
+  public void setMode(ConnectionMode mode) { this.mode = mode; }
+
+  /** @return the number of selector event-loop threads used in {@link ConnectionMode#NIO} */
+  public int getSelectorThreads() { return selectorThreads; }
+
+  /** @param selectorThreads the number of selector event-loop threads, at least one */
+  public void setSelectorThreads(int selectorThreads) {
+    if (selectorThreads < 1) throw new IllegalArgumentException("At least one selector thread is required");
+    this.selectorThreads = selectorThreads;
+  }
+
+  /** @return the number of threads executing requests read by the selector loops */
+  public int getWorkerThreads() { return workerThreads; }
+
+  /** @param workerThreads the number of request worker threads, at least one */
+  public void setWorkerThreads(int workerThreads) {
+    if (workerThreads < 1) throw new IllegalArgumentException("At least one worker thread is required");
+    this.workerThreads = workerThreads;
+  }
+
+  /** @return the number of threads executing requests that carry a request id */
+  public int getRequestThreads() { return requestThreads; }
+
+  /** @param requestThreads the number of threads executing requests that carry a request id, at least one */
+  public void setRequestThreads(int requestThreads) {
+    if (requestThreads < 1) throw new IllegalArgumentException("At least one request thread is required");
+    this.requestThreads = requestThreads;
+  }
+
+  /** @return the number of requests that may wait for a request thread */
+  public int getRequestQueueCapacity() { return requestQueueCapacity; }
+
+  /** @param requestQueueCapacity the number of requests that may wait for a request thread, at least one */
+  public void setRequestQueueCapacity(int requestQueueCapacity) {
+    if (requestQueueCapacity < 1) throw new IllegalArgumentException("The request queue must hold at least one request");
+    this.requestQueueCapacity = requestQueueCapacity;
+  }
+
+  /** @return the delivery modes and limits of the client outbound queues */
+  public OutboundPolicy getOutboundPolicy() { return outboundPolicy; }
+
+  /** @param outboundPolicy the delivery modes and limits of the client outbound queues */
+  public void setOutboundPolicy(OutboundPolicy outboundPolicy) { this.outboundPolicy = outboundPolicy; }
+
+  /** @return the size in bytes above which binary frames are compressed for clients accepting it, negative for never */
+  public int getCompressionThreshold() { return compressionThreshold; }
+
+  /** @param compressionThreshold the size in bytes above which binary frames are compressed, negative for never */
+  public void setCompressionThreshold(int compressionThreshold) { this.compressionThreshold = compressionThreshold; }
+
+  /** @return the number of connections the server keeps open at once; further clients wait to be accepted */
+  public int getMaxConnections() { return maxConnections; }
+
+  /** @param maxConnections the number of connections the server keeps open at once, at least one */
+  public void setMaxConnections(int maxConnections) {
+    if (maxConnections < 1) throw new IllegalArgumentException("At least one connection must be allowed");
+    this.maxConnections = maxConnections;
+  }
+
+  /** @return the interval between the pings sent to every client */
+  public long getHeartbeatMillis() { return heartbeatMillis; }
+
+  /** @param heartbeatMillis the interval between the pings sent to every client, positive */
+  public void setHeartbeatMillis(long heartbeatMillis) {
+    if (heartbeatMillis < 1) throw new IllegalArgumentException("The heartbeat interval must be positive");
+    this.heartbeatMillis = heartbeatMillis;
+  }
+
+  /** @return how long a client may send nothing at all, not even a pong, before it is disconnected; 0 for no limit */
+  public long getReadTimeoutMillis() { return readTimeoutMillis; }
+
+  /**
+   * @param readTimeoutMillis how long a client may send nothing at all before it is disconnected, 0 for no limit;
+   *                          otherwise longer than the heartbeat interval, so live clients have time to answer
+   */
+  public void setReadTimeoutMillis(long readTimeoutMillis) {
+    if (readTimeoutMillis < 0) throw new IllegalArgumentException("The read timeout cannot be negative");
+    this.readTimeoutMillis = readTimeoutMillis;
+  }
+
+  /** @return how long a client may send no request (pongs do not count) before it is disconnected; 0 for no limit */
+  public long getIdleTimeoutMillis() { return idleTimeoutMillis; }
+
+  /** @param idleTimeoutMillis how long a client may send no request before it is disconnected, 0 for no limit */
+  public void setIdleTimeoutMillis(long idleTimeoutMillis) {
+    if (idleTimeoutMillis < 0) throw new IllegalArgumentException("The idle timeout cannot be negative");
+    this.idleTimeoutMillis = idleTimeoutMillis;
+  }
+}
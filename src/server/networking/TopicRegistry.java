@@ -0,0 +1,103 @@
+package server.networking;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@code TopicRegistry} is the index from topics (see {@link shared.subscription.Topics}) to the
+ * connections subscribed to them, so push messages are only sent to clients that watch them.
+ * <p>
+ * It also keeps the topics of every connection, so all subscriptions of a client can be dropped
+ * when it disconnects.
+ * </p>
+ */
+public class TopicRegistry {
+  public static final int MAX_TOPICS_PER_CLIENT = 32;
+
+  private final ConcurrentHashMap<String, Set<ClientConnection>> subscribers = new ConcurrentHashMap<>();
+  private final ConcurrentHashMap<ClientConnection, Set<String>> topicsByClient = new ConcurrentHashMap<>();
+
+  /**
+   * Subscribes a connection to a topic.
+   *
+   * @param topic  the topic
+   * @param client the subscribing connection
+   * @return {@code true} if the connection was not subscribed yet
+   * @throws IllegalArgumentException if the connection already has {@link #MAX_TOPICS_PER_CLIENT} topics
+   */
+  public boolean subscribe(String topic, ClientConnection client) {
+    Set<String> topics = topicsByClient.computeIfAbsent(client, key -> ConcurrentHashMap.newKeySet());
+    if (!topics.contains(topic) && topics.size() >= MAX_TOPICS_PER_CLIENT) {
+      throw new IllegalArgumentException("Too many subscriptions, at most " + MAX_TOPICS_PER_CLIENT + " are allowed");
+    }
+    if (!topics.add(topic)) return false;
+
+    subscribers.compute(topic, (key, set) -> {
+      if (set == null) set = ConcurrentHashMap.newKeySet();
+      set.add(client);
+      return set;
+    });
+    return true;
+  }
+
+  /**
+   * Unsubscribes a connection from a topic.
+   *
+   * @param topic  the topic
+   * @param client the connection
+   * @return {@code true} if the connection was subscribed
+   */
+  public boolean unsubscribe(String topic, ClientConnection client) {
+    Set<String> topics = topicsByClient.get(client);
+    if (topics == null || !topics.remove(topic)) return false;
+
+    removeSubscriber(topic, client);
+    return true;
+  }
+
+  /**
+   * Drops every subscription of a connection.
+   *
+   * @param client the disconnected connection
+   */
+  public void unsubscribeAll(ClientConnection client) {
+    Set<String> topics = topicsByClient.remove(client);
+    if (topics == null) return;
+    for (String topic : topics) removeSubscriber(topic, client);
+  }
+
+  /**
+   * @param topic the topic
+   * @return the connections subscribed to the topic, empty if there are none
+   */
+  public Set<ClientConnection> subscribers(String topic) {
+    Set<ClientConnection> set = subscribers.get(topic);
+    return set == null ? Collections.emptySet() : set;
+  }
+
+  /**
+   * @param client a connection
+   * @return the topics the connection is subscribed to
+   */
+  public Set<String> topicsOf(ClientConnection client) {
+    Set<String> topics = topicsByClient.get(client);
+    return topics == null ? Collections.emptySet() : Collections.unmodifiableSet(topics);
+  }
+
+  /** Removes every subscription. */
+  public void clear() {
+    subscribers.clear();
+    topicsByClient.clear();
+  }
+
+  /**
+   * Removes a connection from a topic's subscribers, dropping the topic once nobody watches it.
+   */
+  private void removeSubscriber(String topic, ClientConnection client) {
+    subscribers.computeIfPresent(topic, (key, set) -> {
+      set.remove(client);
+      return set.isEmpty() ? null : set;
+    });
+  }
+}
@@ -5,16 +5,20 @@ import server.networking.Server;
 import server.networking.socketHandling.ClientHandler;
 import server.util.DTOMapper;
 import shared.DTO.HorseDTO;
+import shared.DTO.HorseOddsDTO;
+import shared.subscription.Topics;
 import shared.updates.BettingOpenUpdate;
 import shared.updates.OnHorseFinished;
 import shared.updates.OnRaceFinished;
 import shared.updates.OnRaceStarted;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
  * Singleton implementation of the {@link RaceListener} interface.
- * Responsible for handling race-related events and broadcasting them to all clients.
+ * Responsible for handling race-related events and publishing them to the clients subscribed to the
+ * race's topic. Changes of a race's state are also published to the {@link Topics#RACE_LIST} topic.
  */
 public class RaceListenerImpl implements RaceListener {
 
@@ -43,50 +47,60 @@ public class RaceListenerImpl implements RaceListener {
 
     /**
      * Called when betting opens for a race.
-     * Broadcasts a {@link BettingOpenUpdate} to all connected clients.
+     * Publishes a {@link BettingOpenUpdate} with the odds of every horse to the race's subscribers and the
+     * race list subscribers.
      *
      * @param race the race for which betting has opened
      */
     @Override
     public void bettingOpen(Race race) {
-        BettingOpenUpdate payload = new BettingOpenUpdate(race.getName());
-        Server.broadcast("bettingOpen", payload);
+        List<HorseOddsDTO> odds = new ArrayList<>();
+        RaceOdds raceOdds = race.getOdds();
+        if (raceOdds != null) {
+            for (int lane = 0; lane < raceOdds.size(); lane++) {
+                odds.add(new HorseOddsDTO(raceOdds.getHorseId(lane), raceOdds.getProbability(lane), raceOdds.getOdds(lane)));
+            }
+        }
+        BettingOpenUpdate payload = new BettingOpenUpdate(race.getName(), odds);
+        Server.publish("bettingOpen", "bettingOpen", payload, Topics.race(race.getName()), Topics.RACE_LIST);
 
     }
 
 
     /**
      * Called when a horse finishes the race.
-     * Broadcasts an {@link OnHorseFinished} update to all clients with the horse and its position.
+     * Publishes an {@link OnHorseFinished} update with the horse and its position to the race's subscribers.
      *
+     * @param race     the race the horse finished in
      * @param horse    the horse that finished
      * @param position the position the horse finished in
      */
     @Override
-    public void onHorseFinished(Horse  horse, int position)
+    public void onHorseFinished(Race race, Horse  horse, int position)
     {
         HorseDTO horseDTO = DTOMapper.horseToDTO(horse);
-        OnHorseFinished payload = new OnHorseFinished(horseDTO,position);
-        Server.broadcast("onHorseFinished",payload);
+        OnHorseFinished payload = new OnHorseFinished(race.getName(), horseDTO, position, race.getSequence());
+        Server.publish("onHorseFinished", "onHorseFinished", payload, Topics.race(race.getName()));
     }
 
     /**
      * Called when the race starts.
-     * Broadcasts an {@link OnRaceStarted} update to all clients.
+     * Publishes an {@link OnRaceStarted} update to the race's subscribers and the race list subscribers.
      *
      * @param race the race that has started
      */
     @Override
     public void onRaceStarted(Race race)
     {
-        OnRaceStarted payload = new OnRaceStarted(race.getName());
-        Server.broadcast("onRaceStarted",payload);
+        OnRaceStarted payload = new OnRaceStarted(race.getName(), race.getSequence());
+        Server.publish("onRaceStarted", "onRaceStarted", payload, Topics.race(race.getName()), Topics.RACE_LIST);
         System.out.println("on race started sent");
     }
 
     /**
      * Called when the race finishes.
-     * Broadcasts an {@link OnRaceFinished} update with the final order of horses.
+     * Publishes an {@link OnRaceFinished} update with the final order of horses to the race's
+     * subscribers and the race list subscribers.
      *
      * @param race           the race that finished
      * @param finalPositions the list of horses in their final order
@@ -95,7 +109,7 @@ public class RaceListenerImpl implements RaceListener {
     public void onRaceFinished(Race race, HorseList finalPositions)
     {
         List<HorseDTO> finalPositionsDTO = DTOMapper.horseListToDTO(finalPositions);
-        OnRaceFinished payload = new OnRaceFinished(race.getName(),finalPositionsDTO);
-        Server.broadcast("onRaceFinished",payload);
+        OnRaceFinished payload = new OnRaceFinished(race.getName(), finalPositionsDTO, race.getSequence());
+        Server.publish("onRaceFinished", "onRaceFinished", payload, Topics.race(race.getName()), Topics.RACE_LIST);
     }
 }
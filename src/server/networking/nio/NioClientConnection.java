@@ -0,0 +1,300 @@
+package server.networking.nio;
+
+import server.networking.ClientConnection;
+import server.networking.ConnectionEncoding;
+import server.networking.OutboundFrame;
+import server.networking.OutboundQueue;
+import server.networking.Server;
+import server.networking.ServerConfig;
+import server.networking.socketHandling.DecodedRequest;
+import server.networking.socketHandling.RequestDispatcher;
+import shared.Respond;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * {@code NioClientConnection} is a non-blocking client connection served by a {@link SelectorLoop}.
+ * <p>
+ * Incoming bytes are framed into newline-delimited JSON requests on the loop thread. Complete
+ * requests are executed on the shared worker pool, one at a time per connection, so a client still
+ * receives its responses in the order it sent the requests. Requests carrying a request id are passed
+ * on to the server's request pool and answered as they complete. Outgoing messages are put on an
+ * {@link OutboundQueue} and written by the loop thread whenever the socket is writable, encoded as the
+ * client negotiated (see {@link ConnectionEncoding}).
+ * </p>
+ */
+class NioClientConnection implements ClientConnection {
+  private static final int READ_BUFFER_SIZE = 8 * 1024;
+  private static final int MAX_LINE_LENGTH = 1024 * 1024;
+
+  private final SocketChannel channel;
+  private final SelectorLoop loop;
+  private final Executor workers;
+  private final Executor requestExecutor;
+  private final RequestDispatcher dispatcher;
+
+  private final ByteBuffer readBuffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+  private final ByteArrayOutputStream partialLine = new ByteArrayOutputStream();
+
+  private final Queue<String> inbox = new ConcurrentLinkedQueue<>();
+  private final AtomicBoolean processing = new AtomicBoolean(false);
+
+  private final OutboundQueue outbound;
+  private ByteBuffer pendingWrite; // partly written frame, only used on the loop thread
+  private final ConnectionEncoding encoding; // only used on the loop thread
+  private final AtomicBoolean writeRequested = new AtomicBoolean(false);
+  private final AtomicBoolean closed = new AtomicBoolean(false);
+  private volatile boolean closeWhenFlushed = false;
+  private volatile long lastReadNanos = System.nanoTime();
+  private volatile long lastRequestNanos = lastReadNanos;
+
+  private SelectionKey key;
+
+  /**
+   * Creates a connection for an accepted channel.
+   *
+   * @param channel the accepted socket channel
+   * @param loop    the selector loop that will serve this connection
+   * @param workers the pool executing complete requests
+   * @param dispatcher the server-wide dispatcher routing requests to the handlers
+   * @param requestExecutor the pool executing requests that carry a request id
+   * @param config the outbound policy and compression threshold to use
+   */
+  NioClientConnection(SocketChannel channel, SelectorLoop loop, Executor workers, RequestDispatcher dispatcher,
+                      Executor requestExecutor, ServerConfig config) {
+    this.channel = channel;
+    this.loop = loop;
+    this.workers = workers;
+    this.requestExecutor = requestExecutor;
+    this.dispatcher = dispatcher;
+    this.outbound = new OutboundQueue(config.getOutboundPolicy());
+    this.encoding = new ConnectionEncoding(config.getCompressionThreshold());
+  }
+
+  /** @return the socket channel of this connection */
+  SocketChannel channel() {
+    return channel;
+  }
+
+  /**
+   * Stores the selection key once the channel was registered on the loop thread.
+   *
+   * @param key the key of this connection's channel
+   */
+  void attach(SelectionKey key) {
+    this.key = key;
+    // A message may have been queued before the channel was registered
+    if (!outbound.isEmpty()) {
+      key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+    }
+  }
+
+  /**
+   * Reads whatever is available and splits it into request lines. Called on the loop thread.
+   */
+  void onReadable() {
+    try {
+      int read = channel.read(readBuffer);
+      if (read < 0) {
+        closeNow();
+        return;
+      }
+      lastReadNanos = System.nanoTime();
+      readBuffer.flip();
+      frameLines();
+      readBuffer.clear();
+    } catch (IOException e) {
+      System.err.println("Client disconnected or error: " + e.getMessage());
+      closeNow();
+    }
+  }
+
+  /**
+   * Splits the bytes in the read buffer on newlines. Bytes after the last newline are kept
+   * until the rest of the line arrives.
+   */
+  private void frameLines() {
+    byte[] bytes = readBuffer.array();
+    int start = readBuffer.position();
+    int end = readBuffer.limit();
+
+    for (int i = start; i < end; i++) {
+      if (bytes[i] != '\n') continue;
+
+      partialLine.write(bytes, start, i - start);
+      String line = partialLine.toString(StandardCharsets.UTF_8).stripTrailing();
+      partialLine.reset();
+      start = i + 1;
+
+      if (!line.isEmpty()) enqueueLine(line);
+    }
+    partialLine.write(bytes, start, end - start);
+
+    if (partialLine.size() > MAX_LINE_LENGTH) {
+      System.err.println("Request line too long, closing connection");
+      closeNow();
+    }
+  }
+
+  /**
+   * Queues a complete line and makes sure a worker is processing this connection's inbox.
+   *
+   * @param line the complete request line
+   */
+  private void enqueueLine(String line) {
+    inbox.add(line);
+    if (processing.compareAndSet(false, true)) {
+      workers.execute(this::processInbox);
+    }
+  }
+
+  /**
+   * Processes queued request lines in arrival order. Runs on a worker thread; only one worker
+   * processes a given connection at a time.
+   */
+  private void processInbox() {
+    do {
+      String line;
+      while ((line = inbox.poll()) != null && !closed.get()) {
+        DecodedRequest request = dispatcher.parse(line);
+        if (request == null || dispatcher.isHeartbeat(request)) continue;
+        lastRequestNanos = System.nanoTime();
+
+        if (dispatcher.isDisconnect(request)) {
+          // Set first, or the loop could flush the goodbye and stop writing before it sees the flag
+          closeWhenFlushed = true;
+          sendResponse(new Respond("disconnect", "Goodbye!"));
+          return;
+        }
+        dispatcher.process(request, this, requestExecutor, this::sendResponse);
+      }
+      processing.set(false);
+      // A line may have arrived between the last poll and releasing the flag
+    } while (!inbox.isEmpty() && processing.compareAndSet(false, true));
+  }
+
+  /**
+   * Encodes a response and queues it for writing.
+   *
+   * @param response the response to send
+   */
+  private void sendResponse(Respond response) {
+    sendFrame(OutboundFrame.encode(response.type(), response));
+  }
+
+  /**
+   * Queues an encoded frame for writing. The selector loop writes it as soon as the socket is writable.
+   * Disconnects the client if it has fallen too far behind.
+   *
+   * @param frame the encoded frame
+   */
+  @Override
+  public void sendFrame(OutboundFrame frame) {
+    if (closed.get()) return;
+
+    if (!outbound.offer(frame)) {
+      Server.disconnectSlowClient(this);
+      return;
+    }
+    requestWrite();
+  }
+
+  /**
+   * @return the queue of frames waiting to be written to this client
+   */
+  @Override
+  public OutboundQueue outboundQueue() {
+    return outbound;
+  }
+
+  /**
+   * @return when bytes were last read from the channel
+   */
+  @Override
+  public long lastReadNanos() {
+    return lastReadNanos;
+  }
+
+  /**
+   * @return when the last request other than a heartbeat answer was read
+   */
+  @Override
+  public long lastRequestNanos() {
+    return lastRequestNanos;
+  }
+
+  /** Asks the loop thread to watch for writability, unless a request is already pending. */
+  private void requestWrite() {
+    if (writeRequested.compareAndSet(false, true)) {
+      loop.execute(() -> {
+        if (key != null && key.isValid()) {
+          key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+        }
+      });
+    }
+  }
+
+  /**
+   * Writes as much of the queued output as the socket accepts. Called on the loop thread.
+   */
+  void onWritable() {
+    try {
+      while (true) {
+        if (pendingWrite == null) {
+          OutboundFrame frame = outbound.poll();
+          if (frame == null) break;
+          pendingWrite = encoding.encode(frame); // usually shared bytes, with this connection's own position
+        }
+        channel.write(pendingWrite);
+        if (pendingWrite.hasRemaining()) return; // socket buffer full, wait for the next write event
+        pendingWrite = null;
+      }
+
+      key.interestOps(key.interestOps() & ~SelectionKey.OP_WRITE);
+      writeRequested.set(false);
+
+      if (closeWhenFlushed) {
+        closeNow();
+      } else if (!outbound.isEmpty()) {
+        requestWrite();
+      }
+    } catch (IOException e) {
+      System.err.println("Failed to write to client: " + e.getMessage());
+      closeNow();
+    }
+  }
+
+  /**
+   * Closes the connection from any thread. The channel itself is closed on the loop thread.
+   */
+  @Override
+  public void close() {
+    loop.execute(this::closeNow);
+  }
+
+  /**
+   * Closes the channel and removes the client from the server. Must run on the loop thread.
+   */
+  void closeNow() {
+    if (!closed.compareAndSet(false, true)) return;
+
+    outbound.close();
+    encoding.release();
+    Server.removeClient(this);
+    if (key != null) key.cancel();
+    try {
+      channel.close();
+    } catch (IOException e) {
+      System.err.println("Failed to close client channel: " + e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,174 @@
+package server.networking.nio;
+
+import server.networking.RequestExecutor;
+import server.networking.Server;
+import server.networking.ServerConfig;
+import server.networking.socketHandling.RequestDispatcher;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@code NioServer} is the selector-based connection engine of the {@link Server}.
+ * <p>
+ * A non-blocking acceptor hands every accepted socket to one of a small, fixed number of
+ * {@link SelectorLoop}s (round robin). The loops frame newline-delimited JSON requests and pass
+ * complete requests to a shared worker pool, so the number of threads no longer grows with the
+ * number of connected clients.
+ * </p>
+ * <p>
+ * While the server has no free connection permit, the acceptor stops watching for new connections, so
+ * further clients wait in the listen backlog until others have left.
+ * </p>
+ */
+public class NioServer {
+  private static final long ACCEPT_RETRY_MILLIS = 100;
+
+  private final ServerConfig config;
+  private final SelectorLoop[] loops;
+  private final ExecutorService workers;
+  private final RequestDispatcher dispatcher;
+  private final RequestExecutor requestExecutor;
+  private volatile boolean running = false;
+  private Selector acceptSelector;
+  private ServerSocketChannel serverChannel;
+  private SelectionKey acceptKey;
+  private int nextLoop = 0;
+
+  /**
+   * Creates the engine with the selector and worker pool sizes taken from the configuration.
+   *
+   * @param config          the server configuration
+   * @param dispatcher      the server-wide dispatcher shared by all connections
+   * @param requestExecutor the server's pool for requests that carry a request id
+   * @throws IOException if a selector cannot be opened
+   */
+  public NioServer(ServerConfig config, RequestDispatcher dispatcher, RequestExecutor requestExecutor) throws IOException {
+    this.config = config;
+    this.dispatcher = dispatcher;
+    this.requestExecutor = requestExecutor;
+    this.loops = new SelectorLoop[config.getSelectorThreads()];
+    for (int i = 0; i < loops.length; i++) {
+      loops[i] = new SelectorLoop("nio-selector-" + i);
+    }
+    this.workers = Executors.newFixedThreadPool(config.getWorkerThreads(), namedThreads("nio-worker-"));
+  }
+
+  /**
+   * Starts the selector loops and accepts connections on the calling thread until {@link #stop()} is called.
+   *
+   * @throws IOException if the server socket cannot be opened or bound
+   */
+  public void start() throws IOException {
+    acceptSelector = Selector.open();
+    serverChannel = ServerSocketChannel.open();
+    serverChannel.bind(new InetSocketAddress(config.getPort()), 1024);
+    serverChannel.configureBlocking(false);
+    acceptKey = serverChannel.register(acceptSelector, SelectionKey.OP_ACCEPT);
+
+    for (SelectorLoop loop : loops) loop.start();
+    running = true;
+    System.out.println("Server started (NIO, " + loops.length + " selector threads), listening for connections...");
+
+    try {
+      while (running) {
+        boolean paused = acceptKey.interestOps() == 0;
+        acceptSelector.select(paused ? ACCEPT_RETRY_MILLIS : 0);
+        Iterator<SelectionKey> keys = acceptSelector.selectedKeys().iterator();
+        while (keys.hasNext()) {
+          SelectionKey key = keys.next();
+          keys.remove();
+          if (key.isValid() && key.isAcceptable()) acceptAll();
+        }
+        if (paused && Server.hasFreeConnection()) {
+          acceptKey.interestOps(SelectionKey.OP_ACCEPT);
+        }
+      }
+    } catch (ClosedSelectorException e) {
+      // stop() closed the selector while we were waiting
+    } finally {
+      shutdown();
+    }
+  }
+
+  /**
+   * Accepts every pending connection and assigns it to the next selector loop. Stops watching for
+   * new connections when the server is full.
+   *
+   * @throws IOException if accepting fails
+   */
+  private void acceptAll() throws IOException {
+    while (true) {
+      if (!Server.tryAcquireConnection()) {
+        acceptKey.interestOps(0);
+        return;
+      }
+      SocketChannel channel;
+      try {
+        channel = serverChannel.accept();
+      } catch (IOException e) {
+        Server.releaseConnection();
+        throw e;
+      }
+      if (channel == null) {
+        Server.releaseConnection();
+        return;
+      }
+      channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+
+      SelectorLoop loop = loops[nextLoop];
+      nextLoop = (nextLoop + 1) % loops.length;
+
+      NioClientConnection connection = new NioClientConnection(channel, loop, workers, dispatcher, requestExecutor,
+          config);
+      Server.addClient(connection);
+      loop.register(connection);
+    }
+  }
+
+  /**
+   * Stops accepting connections and closes every connection served by this engine.
+   */
+  public void stop() {
+    running = false;
+    if (acceptSelector != null) acceptSelector.wakeup();
+  }
+
+  /** Releases the server socket, the selector loops and the worker pool. */
+  private void shutdown() {
+    try {
+      if (serverChannel != null) serverChannel.close();
+      if (acceptSelector != null) acceptSelector.close();
+    } catch (IOException e) {
+      System.err.println("Error closing the server socket: " + e.getMessage());
+    }
+    for (SelectorLoop loop : loops) loop.stop();
+    workers.shutdown();
+  }
+
+  /**
+   * Creates a thread factory producing daemon threads named with the given prefix.
+   *
+   * @param prefix the thread name prefix
+   * @return the thread factory
+   */
+  private static ThreadFactory namedThreads(String prefix) {
+    AtomicInteger counter = new AtomicInteger();
+    return runnable -> {
+      Thread thread = new Thread(runnable, prefix + counter.getAndIncrement());
+      thread.setDaemon(true);
+      return thread;
+    };
+  }
+}
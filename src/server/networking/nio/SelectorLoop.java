@@ -0,0 +1,124 @@
+package server.networking.nio;
+
+import java.io.IOException;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * {@code SelectorLoop} is a single event-loop thread that owns a {@link Selector} and serves
+ * the readiness events of every connection registered with it.
+ * <p>
+ * All changes to the selector (registering channels, changing interest sets, closing keys)
+ * are posted as tasks and executed on the loop thread, so the selector is never touched concurrently.
+ * </p>
+ */
+class SelectorLoop implements Runnable {
+  private final Selector selector;
+  private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+  private final Thread thread;
+  private volatile boolean running = true;
+
+  /**
+   * Opens the selector and creates (but does not start) the loop thread.
+   *
+   * @param name the name of the loop thread
+   * @throws IOException if the selector cannot be opened
+   */
+  SelectorLoop(String name) throws IOException {
+    this.selector = Selector.open();
+    this.thread = new Thread(this, name);
+  }
+
+  /** Starts the loop thread. */
+  void start() {
+    thread.start();
+  }
+
+  /**
+   * Registers an accepted connection with this loop. The connection starts receiving
+   * read events once the registration task has run on the loop thread.
+   *
+   * @param connection the connection to register
+   */
+  void register(NioClientConnection connection) {
+    execute(() -> {
+      try {
+        SocketChannel channel = connection.channel();
+        channel.configureBlocking(false);
+        SelectionKey key = channel.register(selector, SelectionKey.OP_READ, connection);
+        connection.attach(key);
+      } catch (IOException e) {
+        System.err.println("Failed to register client channel: " + e.getMessage());
+        connection.close();
+      }
+    });
+  }
+
+  /**
+   * Runs the task on the loop thread and wakes the selector up so that it is picked up immediately.
+   *
+   * @param task the task to run
+   */
+  void execute(Runnable task) {
+    tasks.add(task);
+    selector.wakeup();
+  }
+
+  /** Stops the loop and closes the selector together with all channels still registered. */
+  void stop() {
+    running = false;
+    selector.wakeup();
+  }
+
+  /**
+   * Waits for readiness events and dispatches them to the connections attached to the keys.
+   */
+  @Override
+  public void run() {
+    try {
+      while (running) {
+        selector.select();
+        runTasks();
+
+        Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+        while (keys.hasNext()) {
+          SelectionKey key = keys.next();
+          keys.remove();
+
+          NioClientConnection connection = (NioClientConnection) key.attachment();
+          if (key.isValid() && key.isReadable()) connection.onReadable();
+          if (key.isValid() && key.isWritable()) connection.onWritable();
+        }
+      }
+    } catch (IOException | ClosedSelectorException e) {
+      System.err.println("Selector loop stopped: " + e.getMessage());
+    } finally {
+      closeAll();
+    }
+  }
+
+  /** Runs every task posted since the last wake-up. */
+  private void runTasks() {
+    Runnable task;
+    while ((task = tasks.poll()) != null) {
+      task.run();
+    }
+  }
+
+  /** Closes every connection still registered with the selector, then the selector itself. */
+  private void closeAll() {
+    try {
+      for (SelectionKey key : selector.keys().toArray(new SelectionKey[0])) {
+        ((NioClientConnection) key.attachment()).closeNow();
+      }
+      selector.close();
+    } catch (IOException | ClosedSelectorException e) {
+      System.err.println("Failed to close selector: " + e.getMessage());
+    }
+  }
+}
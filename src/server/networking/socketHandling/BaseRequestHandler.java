@@ -3,64 +3,93 @@ package server.networking.socketHandling;
 import com.google.gson.Gson;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonSyntaxException;
+import server.networking.ClientConnection;
 
 import java.sql.SQLException;
 
 /**
  * {@code BaseRequestHandler} is an abstract class that implements common functionality for handling requests.
- * It provides a method for safely processing incoming requests with proper error handling.
+ * It provides a method for creating routes that process incoming requests with proper error handling.
  */
 public abstract class BaseRequestHandler implements RequestHandler {
   protected final Gson gson = new Gson();
 
   /**
-   * Handles the request action by parsing the payload and passing it to the {@code safeHandle} method.
+   * Processes the typed payload of one action.
    *
-   * @param action The action to be processed.
-   * @param payload The payload associated with the request.
-   * @return The response object generated by processing the request.
-   * @throws IllegalArgumentException if there are errors in the payload or missing required fields.
-   * @throws RuntimeException if an unexpected error occurs during the request handling.
+   * @param <T> The payload type.
    */
-  @Override
-  public final Object handle(String action, JsonElement payload) {
-    try {
-      return safeHandle(action, payload);
-    } catch (JsonSyntaxException e) {
-      throw new IllegalArgumentException("Malformed JSON payload: " + e.getMessage(), e);
-    } catch (NullPointerException e) {
-      throw new IllegalArgumentException("Missing required fields in payload: " + e.getMessage(), e);
-    } catch (IllegalArgumentException e) {
-      // Pass through IllegalArgumentException with action-related issues
-      throw e;
-    } catch (Exception e) {
-      throw new RuntimeException("Unexpected error handling request: " + e.getMessage(), e);
-    }
+  @FunctionalInterface
+  protected interface Action<T> {
+    Object handle(T payload) throws SQLException;
   }
 
   /**
-   * Parses the payload into a Java object of the specified class.
+   * Processes the typed payload of one action that needs to know the connection it came from.
    *
-   * @param payload The JSON payload to be parsed.
+   * @param <T> The payload type.
+   */
+  @FunctionalInterface
+  protected interface ConnectionAction<T> {
+    Object handle(T payload, ClientConnection connection) throws SQLException;
+  }
+
+  /**
+   * Creates a route for an action. The route parses the payload into {@code payloadType} and passes it to
+   * {@code action}, translating failures into the exceptions the dispatcher reports to the client.
+   *
+   * @param name The action name.
+   * @param payloadType The class of the payload, or {@link Void} if the action ignores it.
+   * @param action The method processing the payload.
+   * @param <T> The payload type.
+   * @return The route.
+   */
+  protected <T> Route route(String name, Class<T> payloadType, Action<T> action) {
+    return route(name, payloadType, (payload, connection) -> action.handle(payload));
+  }
+
+  /**
+   * Creates a route for an action that is passed the requesting connection along with the payload.
+   *
+   * @param name The action name.
+   * @param payloadType The class of the payload, or {@link Void} if the action ignores it.
+   * @param action The method processing the payload.
+   * @param <T> The payload type.
+   * @return The route.
+   */
+  protected <T> Route route(String name, Class<T> payloadType, ConnectionAction<T> action) {
+    return new Route(name, payloadType, (payload, connection) -> {
+      try {
+        return action.handle(payloadType == Void.class ? null : parsePayload(payload, payloadType), connection);
+      } catch (JsonSyntaxException e) {
+        throw new IllegalArgumentException("Malformed JSON payload: " + e.getMessage(), e);
+      } catch (NullPointerException e) {
+        throw new IllegalArgumentException("Missing required fields in payload: " + e.getMessage(), e);
+      } catch (IllegalArgumentException e) {
+        // Pass through IllegalArgumentException with action-related issues
+        throw e;
+      } catch (Exception e) {
+        throw new RuntimeException("Unexpected error handling request: " + e.getMessage(), e);
+      }
+    });
+  }
+
+  /**
+   * Parses the payload into a Java object of the specified class. A payload the decoder already
+   * read into that class is returned as it is.
+   *
+   * @param payload The decoded payload or the JSON payload to be parsed.
    * @param clazz The class type to which the payload should be converted.
    * @param <T> The type of the object.
    * @return The parsed object.
    * @throws IllegalArgumentException if the payload structure does not match the specified class.
    */
-  protected <T> T parsePayload(JsonElement payload, Class<T> clazz) {
+  protected <T> T parsePayload(Object payload, Class<T> clazz) {
+    if (clazz.isInstance(payload)) return clazz.cast(payload);
     try {
-      return gson.fromJson(payload, clazz);
-    } catch (JsonSyntaxException | NullPointerException e) {
+      return gson.fromJson((JsonElement) payload, clazz);
+    } catch (JsonSyntaxException | NullPointerException | ClassCastException e) {
       throw new IllegalArgumentException("Invalid payload structure for " + clazz.getSimpleName(), e);
     }
   }
-
-  /**
-   * This method should be implemented by subclasses to handle the request with the given action and payload.
-   *
-   * @param action The action to be processed.
-   * @param payload The payload associated with the request.
-   * @return The response object generated by processing the request.
-   */
-  protected abstract Object safeHandle(String action, JsonElement payload) throws SQLException;
 }
@@ -1,8 +1,6 @@
 package server.networking.socketHandling;
 
 import client.ui.util.ErrorHandler;
-import com.google.gson.Gson;
-import com.google.gson.JsonElement;
 import server.model.Bet;
 import server.services.bet.BetService;
 import server.services.bet.BetServiceImpl;
@@ -17,43 +15,28 @@ import shared.bet.GetBetHistoryOfUserRequest;
 
 import java.io.IOException;
 import java.sql.SQLException;
+import java.util.List;
 
 public class BetHandler extends BaseRequestHandler {
     private final BetService betService;
-    private final Gson gson;
 
     public BetHandler()
     {
         this.betService = BetServiceImpl.getInstance();
-        this.gson= new Gson();
     }
 
     /**
-     * This method handles various actions related to bet based on the provided action string.
-     * Each action corresponds to a specific bet-related operation, which is delegated
-     * to the appropriate method for processing.
+     * Declares the bet-related actions. Each action corresponds to a specific bet-related
+     * operation, which is delegated to the appropriate method for processing.
      *
-     * @param action The action to be performed (e.g., "createBet").
-     * @param payload The payload containing necessary data for the action.
-     * @return The response generated after processing the request.
-     * @throws IllegalArgumentException If the action is invalid.
+     * @return the routes for "createBet" and "getBetListByUser"
      */
     @Override
-    public Object safeHandle(String action , JsonElement payload) throws SQLException
+    public List<Route> routes()
     {
-        switch(action){
-            case "createBet"->{
-                CreateBetRequest request = parsePayload(payload,CreateBetRequest.class);
-                return handleCreateBetRequest(request);
-            }
-            case "getBetListByUser" ->{
-                GetBetHistoryOfUserRequest request = parsePayload(payload,GetBetHistoryOfUserRequest.class);
-                return handleGetBetHistoryOfUser(request);
-
-            }
-            default -> throw new IllegalArgumentException("Invalid action "+action);
-        }
-
+        return List.of(
+                route("createBet", CreateBetRequest.class, this::handleCreateBetRequest),
+                route("getBetListByUser", GetBetHistoryOfUserRequest.class, this::handleGetBetHistoryOfUser));
     }
 
     /**
@@ -65,6 +48,7 @@ public class BetHandler extends BaseRequestHandler {
         // Get the bet from the service
         Bet bet = betService.createBet(
                 request.username(),
+                request.raceName(),
                 request.horseDTO(),
                 request.amount()
         );
@@ -1,42 +1,65 @@
 package server.networking.socketHandling;
 
-import client.ui.util.ErrorHandler;
-import com.google.gson.Gson;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonSyntaxException;
-
 import java.io.*;
 import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.Executor;
 
+import server.networking.ClientConnection;
+import server.networking.ConnectionEncoding;
+import server.networking.OutboundFrame;
+import server.networking.OutboundQueue;
 import server.networking.Server;
+import server.networking.ServerConfig;
 import shared.*;
 
 /**
  * {@code ClientHandler} is responsible for handling communication with a connected client.
  * It processes incoming requests, delegates actions to the appropriate handlers, and sends responses back to the client.
+ * Each {@code ClientHandler} runs on its own thread and blocks while waiting for the next request line.
+ * Outgoing messages are put on an {@link OutboundQueue} and written by a separate writer thread
+ * ({@link #writeOutbound()}), so a client that reads slowly never blocks the thread sending to it.
+ * Requests carrying a request id are executed on the server's request pool and answered as they
+ * complete; requests without an id are executed on the reading thread, in order.
+ * If nothing arrives within the read timeout, or reading or writing fails, the connection is closed and the
+ * client removed from the server right away.
  */
-public class ClientHandler implements Runnable {
+public class ClientHandler implements Runnable, ClientConnection {
   private final Socket socket;
-  private final Gson gson = new Gson();
-  private final RequestHandler authRequestHandler;
-  private final RequestHandler horseRequestHandler;
-  private final RequestHandler raceRequestHandler;
-  private final RequestHandler betRequestHandler;
+  private final RequestDispatcher dispatcher;
+  private final OutboundQueue outbound;
+  private final Executor requestExecutor;
+  private final ConnectionEncoding encoding;
+  private final long readTimeoutMillis;
+  private volatile long lastReadNanos = System.nanoTime();
+  private volatile long lastRequestNanos = lastReadNanos;
   private BufferedReader in;
-  private BufferedWriter out;
 
   /**
-   * Constructor to initialize the {@code ClientHandler} with the client socket.
-   * Sets up request handlers for authentication, horse-related actions, and race-related actions.
+   * Constructor to initialize the {@code ClientHandler} with the client socket, the default routing table
+   * and the default configuration. Every request is executed on the reading thread.
    *
    * @param socket The client socket for communication.
    */
   public ClientHandler(Socket socket) {
+    this(socket, new RequestDispatcher(), new ServerConfig(), Runnable::run);
+  }
+
+  /**
+   * Constructor to initialize the {@code ClientHandler} with the client socket.
+   *
+   * @param socket The client socket for communication.
+   * @param dispatcher The server-wide dispatcher routing requests to the handlers.
+   * @param config The outbound policy, compression threshold and read timeout to use.
+   * @param requestExecutor The pool executing requests that carry a request id.
+   */
+  public ClientHandler(Socket socket, RequestDispatcher dispatcher, ServerConfig config, Executor requestExecutor) {
     this.socket = socket;
-    this.authRequestHandler = new RegisterAndLoginHandler();
-    this.horseRequestHandler = new HorseHandler();
-    this.raceRequestHandler = new RaceHandler();
-    this.betRequestHandler = new BetHandler();
+    this.dispatcher = dispatcher;
+    this.outbound = new OutboundQueue(config.getOutboundPolicy());
+    this.requestExecutor = requestExecutor;
+    this.encoding = new ConnectionEncoding(config.getCompressionThreshold());
+    this.readTimeoutMillis = config.getReadTimeoutMillis();
   }
 
   /**
@@ -46,107 +69,101 @@ public class ClientHandler implements Runnable {
   @Override
   public void run() {
     try {
+      socket.setSoTimeout((int) Math.min(readTimeoutMillis, Integer.MAX_VALUE));
       in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
-      out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream()));
 
       System.out.println("Client connected: " + socket.getInetAddress());
 
       String line;
       while ((line = in.readLine()) != null) {
-        try {
-          JsonObject json = gson.fromJson(line, JsonObject.class);
-          if (json.has("handler") && json.has("action") && json.has("payload")) {
-
-            //Line for debugging purposes:
-            //System.out.println(line);
-
-            Request request = gson.fromJson(line, Request.class);
-            handleClientRequest(request);
-          } else {
-            System.err.println("Malformed request: " + line);
-          }
-        } catch (JsonSyntaxException e) {
-          System.err.println("Failed to parse JSON: " + line);
-          e.printStackTrace();
-        }
+        //Line for debugging purposes:
+        //System.out.println(line);
+        lastReadNanos = System.nanoTime();
+
+        DecodedRequest request = dispatcher.parse(line);
+        if (request == null || dispatcher.isHeartbeat(request)) continue;
+
+        lastRequestNanos = lastReadNanos;
+        handleClientRequest(request);
       }
+    } catch (SocketTimeoutException e) {
+      Server.disconnectDeadClient(this, "nothing received for " + readTimeoutMillis + " ms");
     } catch (IOException e) {
       System.err.println("Client disconnected or error: " + e.getMessage());
+      disconnectNow();
+    } finally {
+      outbound.finish();
     }
   }
 
   /**
-   * Handles the incoming request from the client. It processes the request based on its handler and action.
-   * The corresponding request handler is called, and a response is generated.
-   *
-   * @param request The client request to be processed.
-   * @throws IOException if an I/O error occurs during response sending.
+   * Removes the client from the server and closes the socket without sending what is still queued,
+   * because the connection is broken or the client stopped answering.
    */
-  private void handleClientRequest(Request request) throws IOException {
-    Respond response = null;
-    String responseType = request.action();
-    Object responsePayload = null;
+  private void disconnectNow() {
+    Server.removeClient(this);
+    close();
+  }
 
+  /**
+   * Writes queued frames to the client until the connection is finished or closed. Runs on its own thread;
+   * the stream is only flushed once the queue is drained, so bursts are sent in few packets.
+   * Frames are encoded by this connection's {@link ConnectionEncoding}. When the writer stops, the client
+   * is removed from the server and its socket is closed.
+   */
+  public void writeOutbound() {
     try {
-      // Deserialize the payload based on handler and action
-      switch (request.handler()) {
-        case "auth" -> {
-          responsePayload = authRequestHandler.handle(request.action(), request.payload());
-        }
-        case "horse" -> {
-          responsePayload = horseRequestHandler.handle(request.action(), request.payload());
-        }
-        case "race" -> {
-          responsePayload = raceRequestHandler.handle(request.action(), request.payload());
-        }
-        case "bet" -> {
-          responsePayload = betRequestHandler.handle(request.action(), request.payload());
-        }
-        case "disconnect" -> {
-          handleClientDisconnect();
-          Server.removeClient(this);
-          return;
-        }
-        default -> throw new IllegalArgumentException("Unknown handler: " + request.handler());
+      OutputStream out = new BufferedOutputStream(socket.getOutputStream());
+      OutboundFrame frame;
+      while ((frame = outbound.take()) != null) {
+        encoding.writeTo(frame, out);
+        if (outbound.isEmpty()) out.flush();
       }
-    } catch (Exception e) {
-      e.printStackTrace();
-      // If error occurs, send the "Error" response
-      response = wrapResponse("error", new ErrorResponse("Server processing error", e.getMessage()));
-      send(response);
+      out.flush();
+    } catch (IOException e) {
+      System.err.println("Failed to write to client: " + e.getMessage());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      encoding.release();
+      Server.removeClient(this);
+      close();
     }
-    // Send back the response
-    response = wrapResponse(responseType, responsePayload);
-    send(response);
   }
 
   /**
-   * Properly close connection with client socket.
+   * Handles the incoming request from the client. It processes the request based on its handler and action.
+   * The corresponding request handler is called, and a response is generated.
+   *
+   * @param request The client request to be processed.
+   * @throws IOException if an I/O error occurs during response sending.
    */
-  private void handleClientDisconnect(){
-    try {
-      System.out.println("Client requested disconnect: " + socket.getInetAddress());
-      send(new Respond("disconnect", "Goodbye!"));
-      if (!socket.isClosed()) socket.close();
-      System.out.println("Closed socket for: " + socket.getInetAddress());
-    } catch (IOException e) {
-      e.printStackTrace();
+  private void handleClientRequest(DecodedRequest request) throws IOException {
+    if (dispatcher.isDisconnect(request)) {
+      handleClientDisconnect();
+      return;
     }
+    // Send back the response, right away or once a worker has processed the request
+    dispatcher.process(request, this, requestExecutor, this::sendResponse);
   }
 
   /**
-   * Wraps the response payload into a {@code Respond} object, including the response type.
+   * Encodes a response and queues it for the writer thread.
    *
-   * @param responseType The type of the response (e.g., "auth", "horse", "race").
-   * @param responsePayload The payload to be sent in the response.
-   * @return The wrapped {@code Respond} object.
+   * @param response The response to send.
    */
-  private Respond wrapResponse(String responseType, Object responsePayload) {
-//   Log if data for response are incomplete - handle it as an error
-    if ((responseType == null || responseType.isEmpty()) || responsePayload == null) {
-      ErrorHandler.handleError(new Exception("Cannot wrap a response. Data set is incomplete"), this.getClass().getName());
-    }
-    return new Respond(responseType, responsePayload);
+  private void sendResponse(Respond response) {
+    sendFrame(OutboundFrame.encode(response.type(), response));
+  }
+
+  /**
+   * Properly close connection with client socket. The goodbye message is queued after anything
+   * still waiting for the client, and the writer closes the socket once it has sent them.
+   */
+  private void handleClientDisconnect() throws IOException {
+    System.out.println("Client requested disconnect: " + socket.getInetAddress());
+    send(new Respond("disconnect", "Goodbye!"));
+    outbound.finish();
   }
 
   /**
@@ -155,14 +172,62 @@ public class ClientHandler implements Runnable {
    * @param message The response message object to be sent to the client.
    * @throws IOException if an I/O error occurs while sending the message.
    */
-  public synchronized void send(Object message) throws IOException {
+  @Override
+  public void send(Object message) throws IOException {
     if(message.equals("")) {
       System.out.println("Empty message");
       return;
     }
-    String json = gson.toJson(message); // Convert the response object to JSON string
-    out.write(json); // Write the JSON to output stream
-    out.newLine();   // Send a newline to signal the end of the message
-    out.flush();     // Flush the output stream to ensure data is sent immediately
+    ClientConnection.super.send(message);
+  }
+
+  /**
+   * Queues an encoded frame for the writer thread.
+   * Disconnects the client if it has fallen too far behind.
+   *
+   * @param frame The encoded frame to be sent to the client.
+   */
+  @Override
+  public void sendFrame(OutboundFrame frame) {
+    if (!outbound.offer(frame)) {
+      Server.disconnectSlowClient(this);
+    }
+  }
+
+  /**
+   * @return the queue of frames waiting to be written to this client
+   */
+  @Override
+  public OutboundQueue outboundQueue() {
+    return outbound;
+  }
+
+  /**
+   * @return when the last line was received from the client
+   */
+  @Override
+  public long lastReadNanos() {
+    return lastReadNanos;
+  }
+
+  /**
+   * @return when the last request other than a heartbeat answer was received from the client
+   */
+  @Override
+  public long lastRequestNanos() {
+    return lastRequestNanos;
+  }
+
+  /**
+   * Closes the client socket. The reading and writing threads stop on their next operation.
+   */
+  @Override
+  public void close() {
+    outbound.close();
+    try {
+      if (!socket.isClosed()) socket.close();
+    } catch (IOException e) {
+      System.err.println("Failed to close client socket: " + e.getMessage());
+    }
   }
 }
@@ -0,0 +1,50 @@
+package server.networking.socketHandling;
+
+import shared.protocol.FrameDeflater;
+import shared.protocol.HelloRequest;
+import shared.protocol.HelloResponse;
+import shared.protocol.WireFormat;
+
+import java.util.List;
+
+/**
+ * {@code ConnectionHandler} negotiates how the server encodes the messages it sends on a connection.
+ * A client that never says hello keeps receiving one JSON document per line. Answers to the server's
+ * heartbeat pings are not routed here; the connections handle them (see {@link RequestDispatcher#isHeartbeat}).
+ */
+public class ConnectionHandler extends BaseRequestHandler {
+
+  /**
+   * Declares the connection actions.
+   *
+   * @return the route for "hello"
+   */
+  @Override
+  public List<Route> routes() {
+    return List.of(route("hello", HelloRequest.class, this::handleHello));
+  }
+
+  /**
+   * Picks the first format in the client's list that the server supports, and deflate compression if the
+   * client reads it and the format is binary. The response is written the way the connection currently
+   * encodes and everything after it as chosen (see {@link server.networking.ConnectionEncoding}).
+   *
+   * @param request the formats and compressions the client can read
+   * @return the chosen format, {@code json} if the client listed none the server knows
+   */
+  private HelloResponse handleHello(HelloRequest request) {
+    WireFormat format = WireFormat.JSON;
+    if (request.formats() != null) {
+      for (String name : request.formats()) {
+        WireFormat known = WireFormat.fromName(name);
+        if (known != null) {
+          format = known;
+          break;
+        }
+      }
+    }
+    boolean deflate = format == WireFormat.BINARY && request.compression() != null
+        && request.compression().contains(FrameDeflater.DEFLATE);
+    return new HelloResponse(format.wireName(), deflate ? FrameDeflater.DEFLATE : null);
+  }
+}
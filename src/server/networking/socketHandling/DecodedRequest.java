@@ -0,0 +1,16 @@
+package server.networking.socketHandling;
+
+/**
+ * {@code DecodedRequest} is a client request as read by the {@link RequestDecoder}.
+ * <p>
+ * For actions with a known payload type the payload is already the typed request object
+ * (e.g. a {@link shared.loginRegister.LoginRequest}); otherwise it is the raw
+ * {@link com.google.gson.JsonElement}, which the handler converts itself.
+ * </p>
+ *
+ * @param handler   the handler the request is addressed to (e.g. "auth", "horse")
+ * @param action    the action to perform (e.g. "login", "getHorseList")
+ * @param payload   the decoded payload, the raw JSON payload, or {@code null}
+ * @param requestId the id to echo in the response, or {@code null} if the client sent none
+ */
+public record DecodedRequest(String handler, String action, Object payload, String requestId) {}
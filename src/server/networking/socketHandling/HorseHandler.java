@@ -1,7 +1,6 @@
 package server.networking.socketHandling;
 
 import com.google.gson.Gson;
-import com.google.gson.JsonElement;
 
 
 import server.services.horseList.HorseListServiceImpl;
@@ -9,6 +8,8 @@ import server.services.horseList.HorseListService;
 import shared.DTO.HorseDTO;
 import shared.horse.*;
 
+import java.util.List;
+
 /**
  * {@code HorseHandler} is responsible for processing horse-related requests from clients.
  * It interacts with the {@code HorseListService} to handle actions such as retrieving,
@@ -26,40 +27,19 @@ public class HorseHandler extends BaseRequestHandler {
   }
 
   /**
-   * This method handles various actions related to horses based on the provided action string.
-   * Each action corresponds to a specific horse-related operation, which is delegated
-   * to the appropriate method for processing.
+   * Declares the horse-related actions. Each action corresponds to a specific horse-related
+   * operation, which is delegated to the appropriate method for processing.
    *
-   * @param action The action to be performed (e.g., "getHorseList", "createHorse").
-   * @param payload The payload containing necessary data for the action.
-   * @return The response generated after processing the request.
-   * @throws IllegalArgumentException If the action is invalid.
+   * @return the routes for "getHorseList", "getHorse", "createHorse", "updateHorse" and "deleteHorse"
    */
   @Override
-  public Object safeHandle(String action, JsonElement payload) {
-    switch (action) {
-      case "getHorseList" -> {
-        HorseListRequest request = parsePayload(payload, HorseListRequest.class);
-        return handleHorseListRequest(request);
-      }
-      case "getHorse" -> {
-        HorseRequest request = parsePayload(payload, HorseRequest.class);
-        return handleGetHorseRequest(request);
-      }
-      case "createHorse" -> {
-        CreateHorseRequest request = parsePayload(payload, CreateHorseRequest.class);
-        return createHorserRequest(request);
-      }
-      case "updateHorse" -> {
-        HorseDTO horseToUpdate = parsePayload(payload, HorseDTO.class);
-        return handleUpdateHorse(horseToUpdate);
-      }
-      case "deleteHorse" -> {
-        HorseDTO horseToRemove = parsePayload(payload, HorseDTO.class);
-        return handleRemoveHorse(horseToRemove);
-      }
-      default -> throw new IllegalArgumentException("Invalid action: " + action);
-    }
+  public List<Route> routes() {
+    return List.of(
+        route("getHorseList", HorseListRequest.class, this::handleHorseListRequest),
+        route("getHorse", HorseRequest.class, this::handleGetHorseRequest),
+        route("createHorse", CreateHorseRequest.class, this::createHorserRequest),
+        route("updateHorse", HorseDTO.class, this::handleUpdateHorse),
+        route("deleteHorse", HorseDTO.class, this::handleRemoveHorse));
   }
 
   /**
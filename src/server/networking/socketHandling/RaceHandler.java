@@ -1,18 +1,25 @@
 package server.networking.socketHandling;
 
 import com.google.gson.Gson;
-import com.google.gson.JsonElement;
+import server.networking.ClientConnection;
+import server.networking.OutboundFrame;
+import server.networking.Server;
 import server.services.races.RaceServiceImpl;
 
 import server.services.races.RacesService;
 import shared.DTO.RaceDTO;
 import shared.DTO.RaceTrackDTO;
+import shared.race.CancelRaceRequest;
 import shared.race.CreateRaceRequest;
 import shared.race.GetRaceListResponse;
 import shared.race.GetRaceTrackResponse;
 import shared.race.RaceResponse;
+import shared.race.ReplayRaceRequest;
+import shared.race.RescheduleRaceRequest;
+import shared.Respond;
 
 
+import java.io.IOException;
 import java.sql.SQLException;
 import java.util.List;
 
@@ -33,30 +40,23 @@ public class RaceHandler extends BaseRequestHandler {
   }
 
   /**
-   * This method handles various actions related to races based on the provided action string.
-   * Each action corresponds to a specific race-related operation, which is delegated
-   * to the appropriate method for processing.
+   * Declares the race-related actions. Each action corresponds to a specific race-related
+   * operation, which is delegated to the appropriate method for processing.
    *
-   * @param action The action to be performed (e.g., "createRace", "getRaceList").
-   * @param payload The payload containing necessary data for the action.
-   * @return The response generated after processing the request.
-   * @throws IllegalArgumentException If the action is invalid.
+   * @return the routes for "createRace", "rescheduleRace", "cancelRace", "replayRace", "getRaceList" and
+   *         "getRaceTracks"
    */
   @Override
-  public Object safeHandle(String action, JsonElement payload) throws SQLException {
-    switch (action) {
-      case "createRace" -> {
-        CreateRaceRequest request = parsePayload(payload, CreateRaceRequest.class);
-        return handleCreateRaceRequest(request);
-      }
-      case "getRaceList" -> {
-        return handleGetRace();
-      }
-      case "getRaceTracks" -> {
-        return handleGetRaceTracks();
-      }
-      default -> throw new IllegalArgumentException("Invalid action " + action);
-    }
+  public List<Route> routes() {
+    return List.of(
+        route("createRace", CreateRaceRequest.class, this::handleCreateRaceRequest),
+        route("rescheduleRace", RescheduleRaceRequest.class,
+            request -> new RaceResponse(racesService.rescheduleRace(request.name(), request.startTime()))),
+        route("cancelRace", CancelRaceRequest.class,
+            request -> new RaceResponse(racesService.cancelRace(request.name()))),
+        route("replayRace", ReplayRaceRequest.class, this::handleReplayRace),
+        route("getRaceList", Void.class, payload -> handleGetRace()),
+        route("getRaceTracks", Void.class, payload -> handleGetRaceTracks()));
   }
 
   /**
@@ -70,11 +70,34 @@ public class RaceHandler extends BaseRequestHandler {
     RaceTrackDTO raceTrackDTO = request.raceTrack();
     Integer capacity = request.capacity();
 
-    RaceDTO createdRace = racesService.createRace(name, raceTrackDTO, capacity);
+    RaceDTO createdRace = racesService.createRace(name, raceTrackDTO, capacity, request.startTime(),
+        request.tickIntervalMillis());
     return new RaceResponse(createdRace);
   }
 
 
+  /**
+   * Handles the request to replay a finished race. The positions are sent to the requesting connection only,
+   * as the same "horseMoveUpdate" messages a live race sends, until the replay ends, the connection asks for
+   * another replay or it disconnects.
+   *
+   * @param request    the race to replay and how fast
+   * @param connection the connection that asked for the replay
+   * @return the response describing the replay that follows
+   */
+  private Object handleReplayRace(ReplayRaceRequest request, ClientConnection connection) {
+    String type = "horseMoveUpdate";
+    return racesService.replayRace(request.name(), request.speed(), connection, update -> {
+      if (!Server.isConnected(connection)) return false;
+      try {
+        connection.sendFrame(OutboundFrame.encode(type, type + ":" + update.raceName(), new Respond(type, update)));
+        return true;
+      } catch (IOException e) {
+        return false;
+      }
+    });
+  }
+
   /**
    * Handles the request to retrieve a list of all races.
    *
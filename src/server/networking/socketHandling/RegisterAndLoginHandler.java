@@ -1,7 +1,6 @@
 package server.networking.socketHandling;
 
 import com.google.gson.Gson;
-import com.google.gson.JsonElement;
 import server.services.authentication.AuthServiceImpl;
 import server.services.authentication.AuthenticationService;
 import shared.loginRegister.LoginRequest;
@@ -13,6 +12,8 @@ import shared.user.BalanceUpdateResponse;
 import shared.user.UserRequest;
 import shared.user.UserResponse;
 
+import java.util.List;
+
 /**
  * {@code RegisterAndLoginHandler} processes user authentication-related requests such as
  * login and registration. It interacts with the {@code AuthentificationService} to
@@ -30,36 +31,18 @@ public class RegisterAndLoginHandler extends BaseRequestHandler {
   }
 
   /**
-   * This method handles various authentication-related actions based on the provided action string.
-   * Each action corresponds to a specific user authentication operation, which is delegated
-   * to the appropriate method for processing.
+   * Declares the authentication-related actions. Each action corresponds to a specific user
+   * authentication operation, which is delegated to the appropriate method for processing.
    *
-   * @param action The action to be performed (e.g., "login", "register").
-   * @param payload The payload containing necessary data for the action.
-   * @return The response generated after processing the request.
-   * @throws IllegalArgumentException If the action is invalid.
+   * @return the routes for "login", "register", "updateBalance" and "getUser"
    */
   @Override
-  public Object safeHandle(String action, JsonElement payload) {
-    switch (action) {
-      case "login" -> {
-        LoginRequest loginRequest = parsePayload(payload, LoginRequest.class);
-        return handleLogin(loginRequest);
-      }
-      case "register" -> {
-        RegisterRequest registerRequest = parsePayload(payload, RegisterRequest.class);
-        return handleRegister(registerRequest);
-      }
-      case "updateBalance" -> {
-        BalanceUpdateRequest balanceUpdateRequest = parsePayload(payload, BalanceUpdateRequest.class);
-        return handleBalanceUpdate(balanceUpdateRequest);
-      }
-      case "getUser" -> {
-        UserRequest userRequest = parsePayload(payload, UserRequest.class);
-        return handleGetUser(userRequest);
-      }
-      default -> throw new IllegalArgumentException("Invalid action: " + action);
-    }
+  public List<Route> routes() {
+    return List.of(
+        route("login", LoginRequest.class, this::handleLogin),
+        route("register", RegisterRequest.class, this::handleRegister),
+        route("updateBalance", BalanceUpdateRequest.class, this::handleBalanceUpdate),
+        route("getUser", UserRequest.class, this::handleGetUser));
   }
 
   /**
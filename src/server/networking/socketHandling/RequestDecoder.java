@@ -0,0 +1,122 @@
+package server.networking.socketHandling;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.function.BiFunction;
+
+/**
+ * {@code RequestDecoder} reads a request line in a single streaming pass.
+ * <p>
+ * The envelope fields ({@code handler}, {@code action} and the optional {@code requestId}) are read with a {@link JsonReader}. Once both are
+ * known, the payload is handed straight to the type adapter of the action's payload class, so no
+ * intermediate {@link JsonElement} tree is built. Clients write the envelope in that order; if the payload
+ * comes first, or the action has no registered payload type, the payload is kept as a {@link JsonElement}.
+ * </p>
+ */
+public class RequestDecoder {
+  private final Gson gson = new Gson();
+  private final TypeAdapter<JsonElement> treeAdapter = gson.getAdapter(JsonElement.class);
+  private final BiFunction<String, String, Class<?>> payloadTypes;
+
+  /**
+   * Creates a decoder.
+   *
+   * @param payloadTypes returns the payload class for a handler and action, {@code null} if unknown,
+   *                     or {@link Void} if the action ignores its payload
+   */
+  public RequestDecoder(BiFunction<String, String, Class<?>> payloadTypes) {
+    this.payloadTypes = payloadTypes;
+  }
+
+  /**
+   * Decodes one request line.
+   *
+   * @param line the raw JSON line
+   * @return the decoded request, or {@code null} if the line is not a well-formed request
+   */
+  public DecodedRequest decode(String line) {
+    try {
+      return read(line, true);
+    } catch (IOException | JsonParseException | IllegalStateException e) {
+      // The typed payload did not match; decode again keeping the raw payload, so the handler
+      // reports the invalid payload to the client instead of the request being dropped
+    }
+    try {
+      return read(line, false);
+    } catch (IOException | JsonParseException | IllegalStateException e) {
+      System.err.println("Failed to parse JSON: " + line);
+      return null;
+    }
+  }
+
+  /**
+   * Reads the envelope and payload of a request.
+   *
+   * @param line  the raw JSON line
+   * @param typed whether payloads of known actions are decoded into their classes
+   * @return the request, or {@code null} if a required field is missing
+   */
+  private DecodedRequest read(String line, boolean typed) throws IOException {
+    JsonReader reader = new JsonReader(new StringReader(line));
+    String handler = null;
+    String action = null;
+    String requestId = null;
+    Object payload = null;
+    boolean hasPayload = false;
+
+    reader.beginObject();
+    while (reader.hasNext()) {
+      switch (reader.nextName()) {
+        case "handler" -> handler = nextString(reader);
+        case "action" -> action = nextString(reader);
+        case "requestId" -> requestId = nextString(reader);
+        case "payload" -> {
+          hasPayload = true;
+          payload = readPayload(reader, typed && handler != null && action != null
+              ? payloadTypes.apply(handler, action) : null);
+        }
+        default -> reader.skipValue();
+      }
+    }
+    reader.endObject();
+    if (reader.peek() != JsonToken.END_DOCUMENT) {
+      throw new JsonParseException("Unexpected data after the request");
+    }
+
+    if (handler == null || action == null || !hasPayload) {
+      System.err.println("Malformed request: " + line);
+      return null;
+    }
+    return new DecodedRequest(handler, action, payload, requestId);
+  }
+
+  /**
+   * Reads the payload with the adapter of its class, or as a tree if the class is unknown.
+   */
+  private Object readPayload(JsonReader reader, Class<?> type) throws IOException {
+    if (type == null) return treeAdapter.read(reader);
+    if (type == Void.class) {
+      reader.skipValue();
+      return null;
+    }
+    return gson.getAdapter(type).read(reader);
+  }
+
+  /**
+   * Reads a string value, accepting {@code null}.
+   */
+  private static String nextString(JsonReader reader) throws IOException {
+    if (reader.peek() == JsonToken.NULL) {
+      reader.nextNull();
+      return null;
+    }
+    return reader.nextString();
+  }
+}
@@ -0,0 +1,147 @@
+package server.networking.socketHandling;
+
+import client.ui.util.ErrorHandler;
+import server.networking.ClientConnection;
+import shared.ErrorResponse;
+import shared.Respond;
+
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+/**
+ * {@code RequestDispatcher} turns raw request lines into {@link DecodedRequest} objects and routes them
+ * through the {@link RoutingTable} to the matching handler action. It is shared by every connection and
+ * connection engine, so a request is processed the same way whether it was read by a blocking
+ * {@link ClientHandler} or by a selector loop.
+ */
+public class RequestDispatcher {
+  private final RoutingTable routes;
+  private final RequestDecoder decoder;
+
+  /**
+   * Creates a dispatcher using the server's default {@link RoutingTable}.
+   */
+  public RequestDispatcher() {
+    this(RoutingTable.getDefault());
+  }
+
+  /**
+   * Creates a dispatcher for the given routing table. A dispatcher holds no per-connection state,
+   * so one instance is shared by every connection.
+   *
+   * @param routes the routes of all handler actions
+   */
+  public RequestDispatcher(RoutingTable routes) {
+    this.routes = routes;
+    this.decoder = new RequestDecoder(this::payloadType);
+  }
+
+  /**
+   * Parses a single line received from a client in one streaming pass. Payloads of known actions
+   * are decoded directly into their request classes.
+   *
+   * @param line the raw JSON line
+   * @return the parsed request, or {@code null} if the line is not a well-formed request
+   */
+  public DecodedRequest parse(String line) {
+    return decoder.decode(line);
+  }
+
+  /**
+   * Looks up the payload class of an action.
+   *
+   * @param handler the handler name of the request
+   * @param action  the action of the request
+   * @return the payload class, or {@code null} if the handler or action is unknown
+   */
+  private Class<?> payloadType(String handler, String action) {
+    Route route = routes.find(handler, action);
+    return route == null ? null : route.payloadType();
+  }
+
+  /**
+   * Checks whether the request asks the server to close the connection.
+   *
+   * @param request the client request
+   * @return {@code true} if this is a disconnect request
+   */
+  public boolean isDisconnect(DecodedRequest request) {
+    return "disconnect".equals(request.handler());
+  }
+
+  /**
+   * Checks whether the request answers a heartbeat ping. Such requests only show that the client is alive
+   * and are not answered.
+   *
+   * @param request the client request
+   * @return {@code true} if this is a pong
+   */
+  public boolean isHeartbeat(DecodedRequest request) {
+    return "connection".equals(request.handler()) && "pong".equals(request.action());
+  }
+
+  /**
+   * Processes a request and passes the response to {@code reply}.
+   * <p>
+   * A request with a request id is executed on {@code concurrent} and may be answered after requests
+   * the client sent later. A request without an id is executed on the calling thread, so such requests
+   * are answered in the order they were sent.
+   * </p>
+   *
+   * @param request    the client request to be processed
+   * @param connection the connection that sent the request
+   * @param concurrent the pool executing requests that carry a request id
+   * @param reply      receives the response
+   */
+  public void process(DecodedRequest request, ClientConnection connection, Executor concurrent,
+                      Consumer<Respond> reply) {
+    if (request.requestId() == null) {
+      reply.accept(dispatch(request, connection));
+    } else {
+      concurrent.execute(() -> reply.accept(dispatch(request, connection)));
+    }
+  }
+
+  /**
+   * Processes the request based on its handler and action and wraps the result into a response.
+   * The response echoes the request id. If processing fails, an "error" response is returned instead.
+   *
+   * @param request    the client request to be processed
+   * @param connection the connection that sent the request
+   * @return the response to send back to the client
+   */
+  public Respond dispatch(DecodedRequest request, ClientConnection connection) {
+    String responseType = request.action();
+    Object responsePayload;
+
+    try {
+      Route route = routes.find(request.handler(), request.action());
+      if (route == null) {
+        throw new IllegalArgumentException(routes.hasHandler(request.handler())
+            ? "Invalid action: " + request.action() : "Unknown handler: " + request.handler());
+      }
+      responsePayload = route.invoke(request.payload(), connection);
+    } catch (Exception e) {
+      e.printStackTrace();
+      // If error occurs, send the "Error" response
+      return new Respond("error", new ErrorResponse("Server processing error", e.getMessage()), request.requestId());
+    }
+    return wrapResponse(responseType, responsePayload, request.requestId());
+  }
+
+  /**
+   * Wraps the response payload into a {@code Respond} object, including the response type.
+   *
+   * @param responseType The type of the response (e.g., "auth", "horse", "race").
+   * @param responsePayload The payload to be sent in the response.
+   * @param requestId The id of the request being answered, or {@code null}.
+   * @return The wrapped {@code Respond} object.
+   */
+  private Respond wrapResponse(String responseType, Object responsePayload, String requestId) {
+//   Log if data for response are incomplete - handle it as an error
+    if ((responseType == null || responseType.isEmpty()) || responsePayload == null) {
+      ErrorHandler.handleError(new Exception("Cannot wrap a response. Data set is incomplete"), this.getClass().getName());
+    }
+    return new Respond(responseType, responsePayload, requestId);
+  }
+}
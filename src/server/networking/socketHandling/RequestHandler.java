@@ -1,21 +1,18 @@
 package server.networking.socketHandling;
 
-import com.google.gson.JsonElement;
-import shared.Request;
+import java.util.List;
 
 /**
  * {@code RequestHandler} defines the contract for classes that handle specific types of requests.
- * Each handler is responsible for processing requests based on the provided action and payload.
+ * Each handler declares the actions it serves as {@link Route}s, which are collected into the
+ * {@link RoutingTable} once at startup.
  */
 public interface RequestHandler {
 
   /**
-   * Handles a request based on the provided action and payload.
+   * Returns the actions this handler serves.
    *
-   * @param action The action to be performed (e.g., "login", "register", "createHorse").
-   * @param payload The payload containing the necessary data for the action.
-   * @return The result of processing the request, which can be any object depending on the action.
-   * @throws IllegalArgumentException If the action or payload is invalid.
+   * @return one route per action, each bound to the method processing it
    */
-  Object handle(String action, JsonElement payload);
+  List<Route> routes();
 }
@@ -0,0 +1,28 @@
+package server.networking.socketHandling;
+
+import server.networking.ClientConnection;
+
+import java.util.function.BiFunction;
+
+/**
+ * {@code Route} is one entry of the {@link RoutingTable}: an action, the class its payload is decoded
+ * into and the invoker bound to the handler method serving it.
+ *
+ * @param action      the action name (e.g. "login", "getHorseList")
+ * @param payloadType the payload class, or {@link Void} if the action ignores its payload
+ * @param invoker     processes a payload sent by a connection and returns the response payload
+ */
+public record Route(String action, Class<?> payloadType, BiFunction<Object, ClientConnection, Object> invoker) {
+
+  /**
+   * Processes a request payload.
+   *
+   * @param payload    the decoded payload or the raw JSON payload
+   * @param connection the connection that sent the request
+   * @return the response payload
+   * @throws IllegalArgumentException if the payload is invalid
+   */
+  public Object invoke(Object payload, ClientConnection connection) {
+    return invoker.apply(payload, connection);
+  }
+}
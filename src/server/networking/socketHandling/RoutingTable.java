@@ -0,0 +1,80 @@
+package server.networking.socketHandling;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * {@code RoutingTable} maps a (handler, action) pair to its {@link Route}.
+ * <p>
+ * The table is built once from the {@link RequestHandler}s at startup and is immutable afterwards,
+ * so one table, and the handlers and services bound into it, is shared by every connection.
+ * </p>
+ */
+public final class RoutingTable {
+  private static volatile RoutingTable defaultTable;
+
+  private final Map<String, Map<String, Route>> routes;
+
+  /**
+   * Builds a table from the routes of the given handlers.
+   *
+   * @param handlers the handlers by the handler name clients use (e.g. "auth")
+   * @throws IllegalStateException if a handler declares the same action twice
+   */
+  public RoutingTable(Map<String, RequestHandler> handlers) {
+    Map<String, Map<String, Route>> table = new HashMap<>();
+    handlers.forEach((name, handler) -> {
+      Map<String, Route> actions = new HashMap<>();
+      for (Route route : handler.routes()) {
+        if (actions.put(route.action(), route) != null) {
+          throw new IllegalStateException("Duplicate route: " + name + "/" + route.action());
+        }
+      }
+      table.put(name, Map.copyOf(actions));
+    });
+    this.routes = Map.copyOf(table);
+  }
+
+  /**
+   * Returns the table with the server's request handlers, building it on first use.
+   * Uses double-checked locking, so the lock is only taken while the table is built.
+   *
+   * @return the shared default table
+   */
+  public static RoutingTable getDefault() {
+    if (defaultTable == null) {
+      synchronized (RoutingTable.class) {
+        if (defaultTable == null) {
+          defaultTable = new RoutingTable(Map.of(
+              "auth", new RegisterAndLoginHandler(),
+              "horse", new HorseHandler(),
+              "race", new RaceHandler(),
+              "bet", new BetHandler(),
+              "subscription", new SubscriptionHandler(),
+              "connection", new ConnectionHandler()));
+        }
+      }
+    }
+    return defaultTable;
+  }
+
+  /**
+   * Looks up a route.
+   *
+   * @param handler the handler name of the request
+   * @param action  the action of the request
+   * @return the route, or {@code null} if there is none
+   */
+  public Route find(String handler, String action) {
+    Map<String, Route> actions = routes.get(handler);
+    return actions == null ? null : actions.get(action);
+  }
+
+  /**
+   * @param handler a handler name
+   * @return {@code true} if the table has routes for this handler
+   */
+  public boolean hasHandler(String handler) {
+    return routes.containsKey(handler);
+  }
+}
@@ -0,0 +1,88 @@
+package server.networking.socketHandling;
+
+import server.model.Race;
+import server.model.RaceManager;
+import server.networking.ClientConnection;
+import server.networking.Server;
+import server.util.DTOMapper;
+import shared.DTO.RaceSnapshotDTO;
+import shared.subscription.SubscriptionRequest;
+import shared.subscription.SubscriptionResponse;
+import shared.subscription.Topics;
+
+import java.util.List;
+
+/**
+ * {@code SubscriptionHandler} processes requests to subscribe to and unsubscribe from topics
+ * (see {@link Topics}). Push messages about races are only sent to the connections subscribed
+ * to their topic.
+ * <p>
+ * Subscribing to a race answers with a snapshot of the race, so a client joining mid-race, or
+ * reconnecting, is brought up to date with one small message and then applies the updates that follow.
+ * </p>
+ */
+public class SubscriptionHandler extends BaseRequestHandler {
+
+  /**
+   * Declares the subscription actions.
+   *
+   * @return the routes for "subscribe" and "unsubscribe"
+   */
+  @Override
+  public List<Route> routes() {
+    return List.of(
+        route("subscribe", SubscriptionRequest.class, this::handleSubscribe),
+        route("unsubscribe", SubscriptionRequest.class, this::handleUnsubscribe));
+  }
+
+  /**
+   * Subscribes the requesting connection to a topic. The snapshot of a race is taken after subscribing,
+   * so no update is lost in between; updates the snapshot already contains are recognized by their
+   * sequence number.
+   *
+   * @param request the topic to subscribe to
+   * @param connection the requesting connection
+   * @return the response confirming the subscription, with the race's snapshot for a race topic
+   * @throws IllegalArgumentException if the topic is unknown or the connection has too many subscriptions
+   */
+  private SubscriptionResponse handleSubscribe(SubscriptionRequest request, ClientConnection connection) {
+    String topic = validTopic(request);
+    Server.getTopics().subscribe(topic, connection);
+    return new SubscriptionResponse(topic, true, snapshot(Topics.raceName(topic)));
+  }
+
+  /**
+   * @param raceName the name of a race, or null
+   * @return the current state of the race, or null if no unfinished race has that name
+   */
+  private RaceSnapshotDTO snapshot(String raceName) {
+    if (raceName == null) return null;
+    Race race = RaceManager.getInstance().getRace(raceName);
+    return race == null ? null : DTOMapper.snapshotToDTO(raceName, race.getSnapshot());
+  }
+
+  /**
+   * Unsubscribes the requesting connection from a topic.
+   *
+   * @param request the topic to unsubscribe from
+   * @param connection the requesting connection
+   * @return the response confirming the connection is no longer subscribed
+   */
+  private SubscriptionResponse handleUnsubscribe(SubscriptionRequest request, ClientConnection connection) {
+    String topic = validTopic(request);
+    Server.getTopics().unsubscribe(topic, connection);
+    return new SubscriptionResponse(topic, false);
+  }
+
+  /**
+   * @param request a subscription request
+   * @return the requested topic
+   * @throws IllegalArgumentException if the topic is not one the server publishes to
+   */
+  private String validTopic(SubscriptionRequest request) {
+    if (!Topics.isValid(request.topic())) {
+      throw new IllegalArgumentException("Unknown topic: " + request.topic());
+    }
+    return request.topic();
+  }
+}
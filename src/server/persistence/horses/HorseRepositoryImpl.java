@@ -12,7 +12,7 @@ import java.util.List;
  */
 public class HorseRepositoryImpl implements HorseRepository {
 
-  private static HorseRepositoryImpl instance;
+  private static volatile HorseRepositoryImpl instance;
 
   /**
    * Private constructor for initializing the repository. Registers the PostgreSQL driver.
@@ -28,12 +28,16 @@ public class HorseRepositoryImpl implements HorseRepository {
 
   /**
    * Returns the singleton instance of {@link HorseRepositoryImpl}.
+   * Uses double-checked locking, so the lock is only taken while the instance is created.
    * @return the singleton instance of the repository.
-   * @throws SQLException if an SQL error occurs during initialization.
    */
-  public static synchronized HorseRepositoryImpl getInstance() {
+  public static HorseRepositoryImpl getInstance() {
     if (instance == null) {
-      instance = new HorseRepositoryImpl();
+      synchronized (HorseRepositoryImpl.class) {
+        if (instance == null) {
+          instance = new HorseRepositoryImpl();
+        }
+      }
     }
     return instance;
   }
@@ -29,6 +29,15 @@ public interface RaceRepository {
     Race create(String name, Timestamp time, RaceTrack raceTrack) throws SQLException;
 
     Race save(Race race) throws SQLException;
+
+    /**
+     * Reads a finished race with the seed it ran with and its horses in lane order, so it can be run again.
+     *
+     * @param id the ID of the race
+     * @return the finished {@link Race}, or {@code null} if no race exists with the given ID
+     * @throws SQLException if there is an error during the database operation
+     */
+    Race readFinished(int id) throws SQLException;
     /**
      * Retrieves a race by its unique identifier.
      *
@@ -1,5 +1,7 @@
 package server.persistence.raceRepository;
 
+import server.model.Horse;
+import server.model.HorseList;
 import server.model.Race;
 import server.model.RaceTrack;
 import server.persistence.shared.ConnectionProviderImpl;
@@ -17,7 +19,7 @@ import java.util.List;
  * with the race data in the database. It includes creation, saving, reading, updating, and deletion of races.
  */
 public class RaceRepositoryImpl implements RaceRepository {
-    private static RaceRepositoryImpl instance;
+    private static volatile RaceRepositoryImpl instance;
     private final ConnectionProviderImpl connectionProvider;
     private int defaultCapacity = 7;
 
@@ -28,13 +30,18 @@ public class RaceRepositoryImpl implements RaceRepository {
 
     /**
      * Provides a singleton instance of the {@link RaceRepositoryImpl}.
+     * Uses double-checked locking, so the lock is only taken while the instance is created.
      *
      * @return singleton instance
      * @throws SQLException if connection cannot be established
      */
-    public static synchronized RaceRepositoryImpl getInstance() throws SQLException {
+    public static RaceRepositoryImpl getInstance() throws SQLException {
         if (instance == null) {
-            instance = new RaceRepositoryImpl(new ConnectionProviderImpl());
+            synchronized (RaceRepositoryImpl.class) {
+                if (instance == null) {
+                    instance = new RaceRepositoryImpl(new ConnectionProviderImpl());
+                }
+            }
         }
         return instance;
     }
@@ -97,8 +104,8 @@ public class RaceRepositoryImpl implements RaceRepository {
      * Saves a Race instance into the database.
      *
      * @param race the {@link Race} object to store
-     * @return the stored {@link Race}, or null if something goes wrong
-     * @throws SQLException on database error
+     * @return the stored {@link Race}
+     * @throws SQLException on database error, or if the race track is not in the database
      */
     @Override
     public Race save(Race race) throws SQLException
@@ -122,26 +129,88 @@ public class RaceRepositoryImpl implements RaceRepository {
                 throw new SQLException("RaceTrack not found in database.");
             }
 
-            // Insert race record
-            String insertQuery = "INSERT INTO race (name, startTime, racetrack_id) " +
-                    "VALUES (?, ?, ?)";
+            // Insert race record, with the seed its run can be generated again from
+            String insertQuery = "INSERT INTO race (name, startTime, racetrack_id, seed) " +
+                    "VALUES (?, ?, ?, ?)";
             PreparedStatement statement = connection.prepareStatement(insertQuery, PreparedStatement.RETURN_GENERATED_KEYS);
             statement.setString(1, race.getName());
             statement.setTimestamp(2, race.getDateTime());
             statement.setInt(3, raceTrackId);
-            if (resultSetTrack.next()) {
-                String name = resultSetTrack.getString("name");
-                Timestamp startTime = resultSetTrack.getTimestamp("startTime");
-                String trackName = resultSetTrack.getString("track_name");
-                int trackLength = resultSetTrack.getInt("raceLength");
-                String trackLocation = resultSetTrack.getString("location");
+            statement.setLong(4, race.getSeed());
+            statement.executeUpdate();
 
-                RaceTrack raceTrack_Result = new RaceTrack(trackName, trackLength, trackLocation);
+            ResultSet keys = statement.getGeneratedKeys();
+            if (!keys.next()) {
+                throw new SQLException("No keys generated");
+            }
+            int raceId = keys.getInt(1);
+
+            // Insert the horses by lane with their rank, so the race can be run again from its seed
+            String participantQuery = "INSERT INTO participant (race_id, horse_id, lane, rank) VALUES (?, ?, ?, ?)";
+            PreparedStatement participantStatement = connection.prepareStatement(participantQuery);
+            List<Horse> horses = race.getHorseList().getList();
+            List<Horse> finishOrder = race.getFinalPositionlist().getList();
+            for (int lane = 0; lane < horses.size(); lane++) {
+                participantStatement.setInt(1, raceId);
+                participantStatement.setInt(2, horses.get(lane).getId());
+                participantStatement.setInt(3, lane);
+                participantStatement.setInt(4, finishOrder.indexOf(horses.get(lane)) + 1);
+                participantStatement.addBatch();
+            }
+            participantStatement.executeBatch();
+            return race;
+        }
+    }
 
-                return new Race(name, raceTrack_Result, defaultCapacity);
-            } else {
+    /**
+     * Reads a finished race with its seed, its horses by lane and its finish order, so it can be run again.
+     *
+     * @param id the ID of the race to read
+     * @return the finished {@link Race}, or {@code null} if no race exists with the given ID
+     * @throws SQLException if a database access error occurs
+     */
+    @Override
+    public Race readFinished(int id) throws SQLException {
+        try (Connection connection = getConnection()) {
+            String query = "SELECT r.name, r.startTime, r.seed, rt.name AS track_name, rt.raceLength, rt.location " +
+                    "FROM race r " +
+                    "JOIN raceTrack rt ON r.racetrack_id = rt.id " +
+                    "WHERE r.id = ?";
+            PreparedStatement statement = connection.prepareStatement(query);
+            statement.setInt(1, id);
+            ResultSet resultSet = statement.executeQuery();
+            if (!resultSet.next()) {
                 return null;
             }
+            RaceTrack raceTrack = new RaceTrack(resultSet.getString("track_name"), resultSet.getInt("raceLength"),
+                    resultSet.getString("location"));
+
+            String horseQuery = "SELECT h.id, h.name, h.speedMin, h.speedMax, p.rank " +
+                    "FROM participant p " +
+                    "JOIN horse h ON h.id = p.horse_id " +
+                    "WHERE p.race_id = ? " +
+                    "ORDER BY p.lane";
+            PreparedStatement horseStatement = connection.prepareStatement(horseQuery);
+            horseStatement.setInt(1, id);
+            ResultSet horseResult = horseStatement.executeQuery();
+
+            List<Horse> lanes = new ArrayList<>();
+            List<Integer> ranks = new ArrayList<>();
+            while (horseResult.next()) {
+                lanes.add(new Horse(horseResult.getInt("id"), horseResult.getString("name"),
+                        horseResult.getInt("speedMin"), horseResult.getInt("speedMax")));
+                ranks.add(horseResult.getInt("rank"));
+            }
+
+            HorseList horses = new HorseList(lanes.size());
+            HorseList finalPositions = new HorseList(lanes.size());
+            for (Horse horse : lanes) horses.addToList(horse);
+            for (int rank = 1; rank <= lanes.size(); rank++) {
+                int lane = ranks.indexOf(rank);
+                if (lane >= 0) finalPositions.addToList(lanes.get(lane));
+            }
+            return new Race(resultSet.getString("name"), resultSet.getTimestamp("startTime"), horses, finalPositions,
+                    raceTrack, resultSet.getLong("seed"));
         }
     }
 
@@ -15,7 +15,7 @@
      */
     public class BetRepositoryImpl implements BetRepository
     {
-        private static BetRepositoryImpl instance;
+        private static volatile BetRepositoryImpl instance;
         private final ConnectionProviderImpl connectionProvider;
         private RaceTrackRepImpl raceTrackRepository;
         private UserRepositoryImpl userRepository;
@@ -38,13 +38,18 @@
 
         /**
          * Returns the singleton instance of BetRepositoryImpl.
+         * Uses double-checked locking, so the lock is only taken while the instance is created.
          *
          * @return the singleton instance
          */
-        public static synchronized BetRepositoryImpl getInstance()
+        public static BetRepositoryImpl getInstance()
         {
             if (instance == null){
-                instance = new BetRepositoryImpl(new ConnectionProviderImpl());
+                synchronized (BetRepositoryImpl.class) {
+                    if (instance == null) {
+                        instance = new BetRepositoryImpl(new ConnectionProviderImpl());
+                    }
+                }
             }
             return instance;
         }
@@ -9,7 +9,7 @@ import java.util.List;
  * Implementation of {@link RaceTrackRep} that manages {@code RaceTrack} entries using JDBC and PostgreSQL.
  */
 public class RaceTrackRepImpl implements RaceTrackRep {
-    private static RaceTrackRepImpl instance;
+    private static volatile RaceTrackRepImpl instance;
 
     /**
      * Private constructor to register the PostgreSQL driver.
@@ -22,13 +22,18 @@ public class RaceTrackRepImpl implements RaceTrackRep {
 
     /**
      * Retrieves the singleton instance of {@code RaceTrackRepImpl}.
+     * Uses double-checked locking, so the lock is only taken while the instance is created.
      *
      * @return the singleton instance
      * @throws SQLException if the instance creation fails
      */
-    public static synchronized RaceTrackRepImpl getInstance() throws SQLException {
+    public static RaceTrackRepImpl getInstance() throws SQLException {
         if (instance == null) {
-            instance = new RaceTrackRepImpl();
+            synchronized (RaceTrackRepImpl.class) {
+                if (instance == null) {
+                    instance = new RaceTrackRepImpl();
+                }
+            }
         }
         return instance;
     }
@@ -0,0 +1,136 @@
+package server.persistence.recording;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * {@code RaceRecorder} collects the positions of the horses of one race tick by tick, in the compact form
+ * the {@link RaceRecordingRepository} stores: for every tick, how far each horse moved since the previous
+ * tick, as a varint. A step fits in one byte for any horse slower than 128 per tick, so a race of seven
+ * horses takes seven bytes per tick.
+ * <p>
+ * A recording is laid out as follows, every number being an unsigned varint unless noted:
+ * </p>
+ * <pre>
+ *   version (1 byte)
+ *   name length, name (UTF-8)
+ *   track length, tick interval in milliseconds (0 for the scheduler's default)
+ *   lanes, then the id of each horse (zigzag varint)
+ *   ticks, then for every tick the step of each horse since the previous tick
+ * </pre>
+ * A recorder is used by the thread running the race's steps, one step at a time.
+ */
+public class RaceRecorder {
+  /** The version of the layout above. */
+  static final byte VERSION = 1;
+  /** Most ticks room is made for up front; longer races grow the buffer as they go. */
+  private static final int MAX_PRESIZED_TICKS = 2_048;
+
+  private final String raceName;
+  private final int[] horseIds;
+  private final int trackLength;
+  private final long tickIntervalMillis;
+  private final int[] previous;
+  private byte[] steps;
+  private int size = 0;
+  private int ticks = 0;
+
+  /**
+   * Creates a recorder for a race that has not moved yet.
+   *
+   * @param raceName           the name of the race
+   * @param horseIds           the ids of the horses, in lane order
+   * @param trackLength        the distance to the finish line
+   * @param tickIntervalMillis the time between two ticks the race runs with, in milliseconds
+   */
+  public RaceRecorder(String raceName, int[] horseIds, int trackLength, long tickIntervalMillis) {
+    this(raceName, horseIds, trackLength, tickIntervalMillis, 64);
+  }
+
+  /**
+   * Creates a recorder for a race that has not moved yet, with room for the expected number of ticks, so
+   * recording them does not allocate.
+   *
+   * @param raceName           the name of the race
+   * @param horseIds           the ids of the horses, in lane order
+   * @param trackLength        the distance to the finish line
+   * @param tickIntervalMillis the time between two ticks the race runs with, in milliseconds
+   * @param expectedTicks      the number of ticks the race is expected to take at most
+   */
+  public RaceRecorder(String raceName, int[] horseIds, int trackLength, long tickIntervalMillis, int expectedTicks) {
+    this.raceName = raceName;
+    this.horseIds = horseIds.clone();
+    this.trackLength = trackLength;
+    this.tickIntervalMillis = tickIntervalMillis;
+    this.previous = new int[horseIds.length];
+    int ticks = Math.min(Math.max(1, expectedTicks), MAX_PRESIZED_TICKS);
+    this.steps = new byte[Math.max(16, horseIds.length * ticks + horseIds.length * 5)];
+  }
+
+  /**
+   * Records the positions after one tick.
+   *
+   * @param positions the position of every horse, by lane
+   * @throws IllegalArgumentException if a horse moved backwards
+   */
+  public void record(int[] positions) {
+    ensureCapacity(positions.length * 5);
+    for (int lane = 0; lane < previous.length; lane++) {
+      int step = positions[lane] - previous[lane];
+      if (step < 0) throw new IllegalArgumentException("Horse in lane " + lane + " moved backwards");
+      size = writeVarint(steps, size, step);
+      previous[lane] = positions[lane];
+    }
+    ticks++;
+  }
+
+  /** @return the name of the race */
+  public String getRaceName() {
+    return raceName;
+  }
+
+  /** @return the number of ticks recorded */
+  public int getTicks() {
+    return ticks;
+  }
+
+  /**
+   * Encodes the recording.
+   *
+   * @return the recording in the layout described above
+   */
+  public byte[] toBytes() {
+    byte[] name = raceName.getBytes(StandardCharsets.UTF_8);
+    byte[] out = new byte[1 + 5 + name.length + 5 + 10 + 5 + horseIds.length * 5 + 5 + size];
+    int at = 0;
+    out[at++] = VERSION;
+    at = writeVarint(out, at, name.length);
+    System.arraycopy(name, 0, out, at, name.length);
+    at += name.length;
+    at = writeVarint(out, at, trackLength);
+    at = writeVarint(out, at, tickIntervalMillis);
+    at = writeVarint(out, at, horseIds.length);
+    for (int id : horseIds) at = writeVarint(out, at, (id << 1) ^ (id >> 31));
+    at = writeVarint(out, at, ticks);
+    System.arraycopy(steps, 0, out, at, size);
+    return Arrays.copyOf(out, at + size);
+  }
+
+  private void ensureCapacity(int extra) {
+    if (size + extra > steps.length) steps = Arrays.copyOf(steps, Math.max(steps.length * 2, size + extra));
+  }
+
+  /**
+   * Writes a non-negative number seven bits at a time, lowest bits first.
+   *
+   * @return the offset after the number
+   */
+  static int writeVarint(byte[] target, int at, long value) {
+    while ((value & ~0x7FL) != 0) {
+      target[at++] = (byte) ((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    target[at++] = (byte) value;
+    return at;
+  }
+}
@@ -0,0 +1,109 @@
+package server.persistence.recording;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * {@code RaceRecording} is a finished race read back from the {@link RaceRecordingRepository}: its horses
+ * and their positions after every tick. Horses are identified by their lane; ticks are counted from 1.
+ */
+public class RaceRecording {
+  private final String raceName;
+  private final int trackLength;
+  private final long tickIntervalMillis;
+  private final int[] horseIds;
+  private final int ticks;
+  private final int[] trace;
+
+  private RaceRecording(String raceName, int trackLength, long tickIntervalMillis, int[] horseIds, int ticks,
+                        int[] trace) {
+    this.raceName = raceName;
+    this.trackLength = trackLength;
+    this.tickIntervalMillis = tickIntervalMillis;
+    this.horseIds = horseIds;
+    this.ticks = ticks;
+    this.trace = trace;
+  }
+
+  /**
+   * Decodes a recording written by {@link RaceRecorder#toBytes()}.
+   *
+   * @param in the recording, from its first byte
+   * @return the decoded recording
+   * @throws IllegalArgumentException if the bytes are not a recording of a known version
+   */
+  public static RaceRecording decode(ByteBuffer in) {
+    byte version = in.get();
+    if (version != RaceRecorder.VERSION) throw new IllegalArgumentException("Unknown recording version " + version);
+    byte[] name = new byte[(int) readVarint(in)];
+    in.get(name);
+    int trackLength = (int) readVarint(in);
+    long tickIntervalMillis = readVarint(in);
+
+    int lanes = (int) readVarint(in);
+    int[] horseIds = new int[lanes];
+    for (int lane = 0; lane < lanes; lane++) {
+      int zigzag = (int) readVarint(in);
+      horseIds[lane] = (zigzag >>> 1) ^ -(zigzag & 1);
+    }
+
+    int ticks = (int) readVarint(in);
+    int[] trace = new int[ticks * lanes];
+    for (int tick = 0; tick < ticks; tick++) {
+      for (int lane = 0; lane < lanes; lane++) {
+        int before = tick == 0 ? 0 : trace[(tick - 1) * lanes + lane];
+        trace[tick * lanes + lane] = before + (int) readVarint(in);
+      }
+    }
+    return new RaceRecording(new String(name, StandardCharsets.UTF_8), trackLength, tickIntervalMillis, horseIds,
+        ticks, trace);
+  }
+
+  /**
+   * Reads a number written by {@link RaceRecorder#writeVarint(byte[], int, long)}.
+   */
+  private static long readVarint(ByteBuffer in) {
+    long value = 0;
+    for (int shift = 0; shift < 64; shift += 7) {
+      byte b = in.get();
+      value |= (long) (b & 0x7F) << shift;
+      if (b >= 0) return value;
+    }
+    throw new IllegalArgumentException("Malformed varint in recording");
+  }
+
+  /** @return the name of the race */
+  public String getRaceName() {
+    return raceName;
+  }
+
+  /** @return the distance to the finish line */
+  public int getTrackLength() {
+    return trackLength;
+  }
+
+  /** @return the time between two ticks the race ran with in milliseconds; 0 in older recordings, made at the scheduler's default */
+  public long getTickIntervalMillis() {
+    return tickIntervalMillis;
+  }
+
+  /** @return the ids of the horses, in lane order */
+  public int[] getHorseIds() {
+    return horseIds.clone();
+  }
+
+  /** @return the number of ticks recorded */
+  public int getTicks() {
+    return ticks;
+  }
+
+  /**
+   * @param tick the tick, from 1 to {@link #getTicks()}
+   * @return the positions of all horses after that tick, by lane
+   */
+  public int[] getPositions(int tick) {
+    if (tick < 1 || tick > ticks) throw new IndexOutOfBoundsException("No tick " + tick + " in " + ticks + " ticks");
+    return Arrays.copyOfRange(trace, (tick - 1) * horseIds.length, tick * horseIds.length);
+  }
+}
@@ -0,0 +1,30 @@
+package server.persistence.recording;
+
+import java.io.IOException;
+
+/**
+ * Interface for storing the tick-by-tick positions of finished races, so they can be replayed.
+ * Recordings are kept apart from the database and are never changed once stored.
+ */
+public interface RaceRecordingRepository {
+
+  /**
+   * Stores the recording of a finished race. A later recording of a race with the same name replaces it
+   * for {@link #read(String)}.
+   * @param recorder the recorder that followed the race.
+   * @throws IOException if the recording cannot be written.
+   */
+  void save(RaceRecorder recorder) throws IOException;
+
+  /**
+   * Reads the recording of a race.
+   * @param raceName the name of the race.
+   * @return the recording, or null if the race has not been recorded.
+   */
+  RaceRecording read(String raceName);
+
+  /**
+   * @return the number of bytes taken by all recordings.
+   */
+  long size();
+}
@@ -0,0 +1,135 @@
+package server.persistence.recording;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Implementation of the {@link RaceRecordingRepository} interface that appends recordings to a memory-mapped
+ * file. Every record is its length as a 4-byte int followed by the {@link RaceRecorder} bytes; the first zero
+ * length marks the end of the records. The file grows by doubling its mapping when a recording does not fit.
+ * <p>
+ * Which recording belongs to which race is kept in memory, and rebuilt by walking the records when the file
+ * is opened. Reading a recording decodes it straight from the mapping.
+ * </p>
+ */
+public class RaceRecordingRepositoryImpl implements RaceRecordingRepository {
+    /** The file used by {@link #getInstance()}, relative to the server's working directory. */
+    public static final Path DEFAULT_FILE = Path.of("recordings", "races.rec");
+    private static final int INITIAL_CAPACITY = 1 << 20;
+
+    private static volatile RaceRecordingRepositoryImpl instance;
+
+    private final FileChannel channel;
+    private final Map<String, Integer> offsets = new HashMap<>();
+    private MappedByteBuffer buffer;
+    private int end = 0;
+
+    /**
+     * Opens a recording file, creating it if needed.
+     *
+     * @param file            the file holding the recordings
+     * @param initialCapacity the size the file is mapped with if it is smaller
+     * @throws IOException if the file cannot be opened or mapped
+     */
+    public RaceRecordingRepositoryImpl(Path file, int initialCapacity) throws IOException {
+        if (file.getParent() != null) Files.createDirectories(file.getParent());
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(initialCapacity, channel.size()));
+        indexRecords();
+    }
+
+    /**
+     * Provides a singleton instance of the {@link RaceRecordingRepositoryImpl}, recording to
+     * {@link #DEFAULT_FILE}.
+     * Uses double-checked locking, so the lock is only taken while the instance is created.
+     *
+     * @return singleton instance
+     * @throws IOException if the file cannot be opened
+     */
+    public static RaceRecordingRepositoryImpl getInstance() throws IOException {
+        if (instance == null) {
+            synchronized (RaceRecordingRepositoryImpl.class) {
+                if (instance == null) {
+                    instance = new RaceRecordingRepositoryImpl(DEFAULT_FILE, INITIAL_CAPACITY);
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Finds the records already in the file and where they end.
+     */
+    private void indexRecords() {
+        while (end + Integer.BYTES <= buffer.capacity()) {
+            int length = buffer.getInt(end);
+            if (length <= 0 || end + Integer.BYTES + length > buffer.capacity()) break;
+            RaceRecording recording = RaceRecording.decode(buffer.slice(end + Integer.BYTES, length));
+            offsets.put(recording.getRaceName(), end);
+            end += Integer.BYTES + length;
+        }
+    }
+
+    /**
+     * Appends a recording and flushes it to the file.
+     *
+     * @param recorder the recorder that followed the race
+     * @throws IOException if the file cannot grow
+     */
+    @Override
+    public synchronized void save(RaceRecorder recorder) throws IOException {
+        byte[] bytes = recorder.toBytes();
+        int needed = end + Integer.BYTES + bytes.length + Integer.BYTES; // keep room for the end marker
+        if (needed > buffer.capacity()) {
+            long capacity = buffer.capacity();
+            while (capacity < needed) capacity *= 2;
+            if (capacity > Integer.MAX_VALUE) throw new IOException("Recording file is full");
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        }
+        buffer.put(end + Integer.BYTES, bytes);
+        buffer.putInt(end, bytes.length); // written last, so a torn write is never indexed
+        buffer.force(end, Integer.BYTES + bytes.length);
+        offsets.put(recorder.getRaceName(), end);
+        end += Integer.BYTES + bytes.length;
+    }
+
+    /**
+     * Reads the latest recording of a race.
+     *
+     * @param raceName the name of the race
+     * @return the recording, or null if the race has not been recorded
+     */
+    @Override
+    public synchronized RaceRecording read(String raceName) {
+        Integer offset = offsets.get(raceName);
+        if (offset == null) return null;
+        ByteBuffer record = buffer.slice(offset + Integer.BYTES, buffer.getInt(offset));
+        return RaceRecording.decode(record);
+    }
+
+    /**
+     * @return the number of bytes taken by all recordings, length prefixes included
+     */
+    @Override
+    public synchronized long size() {
+        return end;
+    }
+
+    /**
+     * Closes the file. The repository cannot be used afterwards.
+     *
+     * @throws IOException if the file cannot be closed
+     */
+    public synchronized void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+}
@@ -46,4 +46,15 @@ public interface UserRepository {
    */
   void updateBalance(String username, int newBalance)  throws SQLException;
 
+  /**
+   * Adds an amount to a user's balance in a single update, so changes made to the same balance at the
+   * same time are not lost. A withdrawal larger than the balance is not made.
+   *
+   * @param username - user whose balance has to be changed
+   * @param amount - amount to add, negative to withdraw
+   * @return the new balance, or -1 if the balance is too low for the withdrawal
+   * @throws SQLException - exception thrown, if the user does not exist or the operation is not successful
+   */
+  int addToBalance(String username, int amount) throws SQLException;
+
 }
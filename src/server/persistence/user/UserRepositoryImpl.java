@@ -17,7 +17,7 @@ import java.util.concurrent.locks.ReentrantLock;
  */
 public class UserRepositoryImpl implements UserRepository {
 
-  private static UserRepositoryImpl instance;
+  private static volatile UserRepositoryImpl instance;
 
   /**
    * Private constructor initializes the in-memory list of users.
@@ -177,6 +177,38 @@ public class UserRepositoryImpl implements UserRepository {
     }
   }
 
+  /**
+   * Adds an amount to a user's balance in a single update, so changes made to the same balance at the
+   * same time are not lost. A withdrawal larger than the balance is not made.
+   *
+   * @param username - user whose balance has to be changed
+   * @param amount - amount to add, negative to withdraw
+   * @return the new balance, or -1 if the balance is too low for the withdrawal
+   * @throws SQLException - exception thrown, if the user does not exist or the operation is not successful
+   */
+  @Override
+  public int addToBalance(String username, int amount) throws SQLException {
+    try (Connection connection = getConnection()) {
+      String query = "UPDATE game_user SET balance = balance + ? WHERE username = ? AND balance + ? >= 0 RETURNING balance";
+      PreparedStatement statement = connection.prepareStatement(query);
+      statement.setInt(1, amount);
+      statement.setString(2, username);
+      statement.setInt(3, amount);
+      ResultSet resultSet = statement.executeQuery();
+      if (resultSet.next()) {
+        return resultSet.getInt("balance");
+      }
+
+//      Nothing updated: either the balance is too low or there is no such user
+      PreparedStatement exists = connection.prepareStatement("SELECT 1 FROM game_user WHERE username = ?");
+      exists.setString(1, username);
+      if (!exists.executeQuery().next()) {
+        throw new SQLException("Update failed");
+      }
+      return -1;
+    }
+  }
+
   /**
    * Method that creates {@link User} object from the
    * ResultSet received from database after executing a query
@@ -14,7 +14,16 @@ public interface BetService {
     void saveBet(Bet bet);
 
 
-    Bet createBet(String username, HorseDTO horseDTO, int amount);
+    /**
+     * Place a new bet on a race that is open for betting.
+     *
+     * @param username the user placing the bet
+     * @param raceName the race to bet on, or null to use the open race the horse runs in
+     * @param horseDTO the horse to bet on
+     * @param amount   the amount wagered
+     * @return the placed bet
+     */
+    Bet createBet(String username, String raceName, HorseDTO horseDTO, int amount);
 
     /**
      * Fetch all bets ever placed by a given user. Wraps SQLExceptions similarly.
@@ -45,8 +45,9 @@ public class BetServiceImpl implements BetService {
     /**
      * Place a new bet. SQLExceptions from the repos are caught
      * and rethrown as RuntimeExceptions.
+     * Without a race name, the bet goes to the one race open for betting that the horse runs in.
      */
-    public Bet createBet(String username, HorseDTO horseDto, int amount) {
+    public Bet createBet(String username, String raceName, HorseDTO horseDto, int amount) {
         try {
             User user = userRepo.readByUsername(username);
             if (user == null) {
@@ -58,19 +59,38 @@ public class BetServiceImpl implements BetService {
                 throw new IllegalArgumentException("Unknown horse ID: " + horseDto.id());
             }
 
-            Race race = bettingManager.getCurrentRace();
+            Race race = raceName != null ? bettingManager.getOpenRace(raceName) : findOpenRace(horse);
             if (race == null) {
                 throw new IllegalStateException("No race currently open for betting");
             }
 
             // Delegate to the domain manager (which itself persists the Bet)
-            return bettingManager.placeBet(user, horse, amount);
+            return bettingManager.placeBet(race, user, horse, amount);
 
         } catch (SQLException e) {
             throw new RuntimeException("Database error while creating bet for user " + username, e);
         }
     }
 
+    /**
+     * Finds the race open for betting that a horse runs in.
+     *
+     * @param horse the horse
+     * @return the race, or null if the horse runs in no open race
+     * @throws IllegalStateException if the horse runs in more than one open race
+     */
+    private Race findOpenRace(Horse horse) {
+        Race found = null;
+        for (Race race : bettingManager.getOpenRaces()) {
+            if (!BettingManager.runsIn(race, horse)) continue;
+            if (found != null) {
+                throw new IllegalStateException("Horse " + horse.getName() + " runs in several open races; name the race");
+            }
+            found = race;
+        }
+        return found;
+    }
+
     /**
      * Fetch all bets ever placed by a given user. Wraps SQLExceptions similarly.
      */
@@ -1,6 +1,7 @@
 package server.services.horseList;
 
 import server.model.Horse;
+import server.model.HorseRoster;
 import server.persistence.horses.HorseRepository;
 import server.persistence.horses.HorseRepositoryImpl;
 import server.validation.baseValidation.BaseVal;
@@ -15,6 +16,7 @@ import java.util.stream.Collectors;
 /**
  * Implementation of {@link HorseListService} for managing horse entities.
  * Provides methods for creating, reading, updating, and deleting horses.
+ * Every change to a horse invalidates the {@link HorseRoster}, so new races are drawn from the changed catalogue.
  */
 public class HorseListServiceImpl implements HorseListService {
 
@@ -81,6 +83,7 @@ public class HorseListServiceImpl implements HorseListService {
 
     try {
       Horse horse = horseRepository.create(horseName, speedMin, speedMax);
+      HorseRoster.getInstance().invalidate();
       return toDTO(horse);
     } catch (SQLException e) {
       throw new RuntimeException("Failed to create horse", e);
@@ -102,6 +105,7 @@ public class HorseListServiceImpl implements HorseListService {
     try {
       HorseRepository horseRepository = HorseRepositoryImpl.getInstance();
       horseRepository.updateHorse(fromDTO(dto)); // update is void
+      HorseRoster.getInstance().invalidate();
       Horse updated = horseRepository.readByID(dto.id()); // fetch updated horse
       return toDTO(updated);
     } catch (SQLException e) {
@@ -124,6 +128,7 @@ public class HorseListServiceImpl implements HorseListService {
       throw new IllegalArgumentException("No horse to remove");
     try {
       horseRepository.delete(fromDTO(dto));
+      HorseRoster.getInstance().invalidate();
       return "success";
     } catch (SQLException e) {
       throw new RuntimeException("Failed to delete horse", e);
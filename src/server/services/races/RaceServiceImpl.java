@@ -5,21 +5,41 @@ import server.model.Race;
 import server.model.RaceManager;
 import server.model.RaceTrack;
 import server.persistence.raceRepository.raceTrack.RaceTrackRepImpl;
+import server.persistence.recording.RaceRecording;
+import server.persistence.recording.RaceRecordingRepositoryImpl;
 import server.validation.baseValidation.BaseVal;
 import shared.DTO.RaceDTO;
-import shared.DTO.RaceState;
 import shared.DTO.RaceTrackDTO;
 import shared.DTO.HorseDTO;
+import shared.race.ReplayRaceResponse;
+import shared.updates.HorsePositionsUpdate;
 
+import java.io.IOException;
 import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
 
 /**
  * Implementation of the {@link RacesService} interface.
  * Handles race creation, retrieval of race lists, and available race tracks.
  */
 public class RaceServiceImpl implements RacesService {
+  /** Sends the positions of all replays; a replay step only queues one message. */
+  private static final ScheduledExecutorService replays = Executors.newSingleThreadScheduledExecutor(runnable -> {
+    Thread thread = new Thread(runnable, "race-replays");
+    thread.setDaemon(true);
+    return thread;
+  });
+  /** The replay each viewer is watching. */
+  private static final Map<Object, Replay> currentReplays = new ConcurrentHashMap<>();
 
   /**
    * Creates a new race with the provided name, track, and capacity.
@@ -27,12 +47,16 @@ public class RaceServiceImpl implements RacesService {
    * @param name         the name of the race
    * @param raceTrackDTO the track where the race will take place
    * @param capacity     the number of horses allowed in the race
+   * @param startTime    when the race starts, or null to start it one betting window from now
+   * @param tickIntervalMillis the time between two moves of the horses, or null for the default
    * @return a {@link RaceDTO} representing the newly created race
-   * @throws IllegalArgumentException if name is empty or raceTrackDTO is null
+   * @throws IllegalArgumentException if name is empty, raceTrackDTO is null, the start time has passed,
+   *                                  the tick interval is not positive or another race has the name
    * @throws RuntimeException         if a database error occurs during creation
    */
   @Override
-  public RaceDTO createRace(String name, RaceTrackDTO raceTrackDTO, Integer capacity) {
+  public RaceDTO createRace(String name, RaceTrackDTO raceTrackDTO, Integer capacity, Timestamp startTime,
+                            Long tickIntervalMillis) {
     if (BaseVal.validate(name)) {
       throw new IllegalArgumentException("Cannot create new race. Name is empty.");
     }
@@ -41,9 +65,17 @@ public class RaceServiceImpl implements RacesService {
       throw new IllegalArgumentException("Race track cannot be null.");
     }
 
+    validateStartTime(startTime);
+
+    if (tickIntervalMillis != null && tickIntervalMillis <= 0) {
+      throw new IllegalArgumentException("Tick interval must be positive.");
+    }
+
     try {
       RaceTrack raceTrack = fromDTO(raceTrackDTO);
-      Race race = new Race(name, raceTrack, capacity);
+      Race race = new Race(name, raceTrack, capacity, RaceManager.getInstance().getHorseIdsInRaces());
+      if (tickIntervalMillis != null) race.setTickIntervalMillis(tickIntervalMillis);
+      race.setDateTime(startTime);
       RaceManager.getInstance().addRace(race);
       return toDTO(race);
     } catch (SQLException e) {
@@ -53,9 +85,144 @@ public class RaceServiceImpl implements RacesService {
   }
 
   /**
-   * Retrieves a list of all races currently managed.
+   * Moves the start of a race that has not started yet.
+   *
+   * @param name      the name of the race
+   * @param startTime the new start time
+   * @return a {@link RaceDTO} representing the rescheduled race
+   * @throws IllegalArgumentException if there is no such race or the start time is missing or has passed
+   * @throws IllegalStateException    if the race has already started
+   */
+  @Override
+  public RaceDTO rescheduleRace(String name, Timestamp startTime) {
+    if (startTime == null) {
+      throw new IllegalArgumentException("Start time cannot be null.");
+    }
+    validateStartTime(startTime);
+    return toDTO(RaceManager.getInstance().reschedule(name, startTime));
+  }
+
+  /**
+   * Removes a race from the calendar before betting opens for it.
+   *
+   * @param name the name of the race
+   * @return a {@link RaceDTO} representing the cancelled race
+   * @throws IllegalArgumentException if there is no such race
+   * @throws IllegalStateException    if betting is already open for the race
+   */
+  @Override
+  public RaceDTO cancelRace(String name) {
+    return toDTO(RaceManager.getInstance().cancel(name));
+  }
+
+  /**
+   * Replays a finished race from its recording, without touching the database.
+   *
+   * @param name  the name of the race
+   * @param speed  how many times faster than the race ran, or 0 for normal speed
+   * @param viewer who the replay is for; stops the replay this viewer was watching
+   * @param sink   receives the positions after every tick; returns false to stop the replay
+   * @return the recorded race's horses, ticks and replay interval
+   * @throws IllegalArgumentException if the speed is out of range or the race has not been recorded
+   * @throws RuntimeException         if the recordings cannot be opened
+   */
+  @Override
+  public ReplayRaceResponse replayRace(String name, double speed, Object viewer,
+                                       Predicate<HorsePositionsUpdate> sink) {
+    if (speed == 0) speed = 1;
+    if (!(speed >= 1 && speed <= ReplayRaceResponse.MAX_SPEED)) {
+      throw new IllegalArgumentException("Replay speed must be between 1 and " + ReplayRaceResponse.MAX_SPEED + ".");
+    }
+
+    RaceRecording recording;
+    try {
+      recording = RaceRecordingRepositoryImpl.getInstance().read(name);
+    } catch (IOException e) {
+      System.err.println("Could not open the race recordings: " + e.getMessage());
+      throw new RuntimeException("Failed to read race recordings", e);
+    }
+    if (recording == null) {
+      throw new IllegalArgumentException("No recording of race " + name + ".");
+    }
+
+    long raceInterval = recording.getTickIntervalMillis() > 0
+        ? recording.getTickIntervalMillis() : RaceManager.getInstance().getConfig().getTickIntervalMillis();
+    long interval = Math.max(1, Math.round(raceInterval / speed));
+    Replay replay = new Replay(recording, interval, viewer, sink);
+    currentReplays.put(viewer, replay);
+    replay.start();
+
+    List<Integer> horseIds = Arrays.stream(recording.getHorseIds()).boxed().toList();
+    return new ReplayRaceResponse(recording.getRaceName(), horseIds, recording.getTicks(), interval);
+  }
+
+  /**
+   * Sends the positions of one recorded tick per run. Each run schedules the next one, at a fixed rate,
+   * until the last tick was sent, the client no longer takes them or its viewer started another replay.
+   */
+  private static final class Replay implements Runnable {
+    private final RaceRecording recording;
+    private final long intervalMillis;
+    private final Object viewer;
+    private final Predicate<HorsePositionsUpdate> sink;
+    private long nextRunNanos; // only used by the replay thread once started
+    private int tick = 0;
+
+    Replay(RaceRecording recording, long intervalMillis, Object viewer, Predicate<HorsePositionsUpdate> sink) {
+      this.recording = recording;
+      this.intervalMillis = intervalMillis;
+      this.viewer = viewer;
+      this.sink = sink;
+    }
+
+    /** Schedules the first tick one interval from now. */
+    void start() {
+      nextRunNanos = System.nanoTime();
+      scheduleNext();
+    }
+
+    private void scheduleNext() {
+      nextRunNanos += TimeUnit.MILLISECONDS.toNanos(intervalMillis);
+      replays.schedule(this, Math.max(0, nextRunNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void run() {
+      if (currentReplays.get(viewer) != this) return; // replaced by a newer replay
+      tick++;
+      List<Integer> positions = Arrays.stream(recording.getPositions(tick)).boxed().toList();
+      boolean delivered;
+      try {
+        delivered = sink.test(new HorsePositionsUpdate(recording.getRaceName(), positions)
+            .timed(System.currentTimeMillis(), intervalMillis));
+      } catch (RuntimeException e) {
+        delivered = false;
+      }
+      if (delivered && tick < recording.getTicks()) {
+        scheduleNext();
+      } else {
+        currentReplays.remove(viewer, this);
+      }
+    }
+  }
+
+  /**
+   * Checks that a start time, if given, has not passed.
+   *
+   * @param startTime the start time, or null
+   * @throws IllegalArgumentException if the start time has passed
+   */
+  private void validateStartTime(Timestamp startTime) {
+    if (startTime != null && startTime.getTime() < System.currentTimeMillis()) {
+      throw new IllegalArgumentException("Start time has already passed.");
+    }
+  }
+
+  /**
+   * Retrieves a list of all races currently managed: races waiting to open, open for betting,
+   * running, and finishing.
    *
-   * @return a list of {@link RaceDTO} representing all active races
+   * @return a list of {@link RaceDTO} representing all unfinished races
    */
   @Override
   public List<RaceDTO> getRaceList() {
@@ -113,7 +280,7 @@ public class RaceServiceImpl implements RacesService {
             race.getDateTime(),
             horseDTOs,
             toDTO(race.getRaceTrack()),
-            RaceState.NOT_STARTED);
+            race.getStatus());
   }
 
   /**
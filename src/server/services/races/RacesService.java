@@ -4,9 +4,13 @@ import server.model.Race;
 import server.model.RaceTrack;
 import shared.DTO.RaceDTO;
 import shared.DTO.RaceTrackDTO;
+import shared.race.ReplayRaceResponse;
+import shared.updates.HorsePositionsUpdate;
 
 import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.util.List;
+import java.util.function.Predicate;
 
 /**
  * The {@code RacesService} interface defines the methods for managing races and race tracks.
@@ -19,9 +23,43 @@ public interface RacesService
    *
    * @param name The name of the race.
    * @param raceTrack The race track where the race will take place.
+   * @param capacity The number of horses in the race.
+   * @param startTime When the race starts, or null to start it one betting window from now.
+   * @param tickIntervalMillis The time between two moves of the horses, or null for the default.
    * @return The created {@link Race} object.
    */
-  RaceDTO createRace(String name, RaceTrackDTO raceTrack,Integer capacity);
+  RaceDTO createRace(String name, RaceTrackDTO raceTrack, Integer capacity, Timestamp startTime,
+                     Long tickIntervalMillis);
+
+  /**
+   * Moves the start of a race that has not started yet.
+   *
+   * @param name The name of the race.
+   * @param startTime The new start time.
+   * @return The rescheduled race.
+   */
+  RaceDTO rescheduleRace(String name, Timestamp startTime);
+
+  /**
+   * Removes a race from the calendar before betting opens for it.
+   *
+   * @param name The name of the race.
+   * @return The cancelled race.
+   */
+  RaceDTO cancelRace(String name);
+
+  /**
+   * Replays a finished race from its recording: the positions after every tick are passed to {@code sink}, one
+   * tick interval apart, divided by {@code speed}.
+   *
+   * @param name The name of the race.
+   * @param speed How many times faster than the race ran, from 1 to {@link ReplayRaceResponse#MAX_SPEED}, or 0 for 1.
+   * @param viewer Who the replay is for, e.g. its connection. A viewer watches one replay at a time: a new replay
+   *               stops the one it was watching.
+   * @param sink Receives the positions; returns false to stop the replay, e.g. once its client is gone.
+   * @return The recorded race's horses, ticks and replay interval; the positions follow.
+   */
+  ReplayRaceResponse replayRace(String name, double speed, Object viewer, Predicate<HorsePositionsUpdate> sink);
 
   /**
    * Retrieves the list of all races.
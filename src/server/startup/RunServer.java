@@ -1,7 +1,9 @@
 package server.startup;
 
 import server.model.RaceManager;
+import server.model.RaceSchedulerConfig;
 import server.networking.Server;
+import server.networking.ServerConfig;
 import java.io.IOException;
 
 /**
@@ -14,17 +16,19 @@ public class RunServer
   /**
    * The main method that initializes and starts the server.
    *
-   * @param args Command-line arguments passed to the program. Not used in this case.
+   * @param args Command-line options in the form {@code --name=value}, e.g. {@code --mode=nio}
+   *             to serve connections with the selector-based engine or {@code --mode=virtual}
+   *             to serve each client on a virtual thread. See {@link ServerConfig} and
+   *             {@link RaceSchedulerConfig} for all options.
    * @throws IOException If an I/O error occurs during the server startup.
    */
   public static void main(String[] args) throws IOException
   {
     // Create an instance of the server
-    Server server = new Server();
-    Thread managerThread = new Thread(RaceManager.getInstance());
+    Server server = new Server(ServerConfig.fromArgs(args));
 
-    // Start the server
-    managerThread.start();
+    // Start the race manager (it runs races on its own scheduler threads) and the server
+    RaceManager.getInstance().configure(RaceSchedulerConfig.fromArgs(args));
     server.start();
   }
 }
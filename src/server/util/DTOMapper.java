@@ -74,4 +74,24 @@ public class DTOMapper {
                 bet.getBetAmount()
         );
     }
+
+    /**
+     * Converts the {@link RaceSnapshot} of a race to a {@link RaceSnapshotDTO}.
+     *
+     * @param raceName the name of the race
+     * @param snapshot the race's state
+     * @return the corresponding RaceSnapshotDTO
+     */
+    public static RaceSnapshotDTO snapshotToDTO(String raceName, RaceSnapshot snapshot) {
+        List<Integer> positions = new ArrayList<>();
+        for (int position : snapshot.getPositions()) {
+            positions.add(position);
+        }
+        List<HorseDTO> finished = new ArrayList<>();
+        for (Horse horse : snapshot.getFinished()) {
+            finished.add(horseToDTO(horse));
+        }
+        return new RaceSnapshotDTO(raceName, snapshot.getSequence(), snapshot.getState(), snapshot.getTick(),
+                positions, finished);
+    }
 }
@@ -0,0 +1,11 @@
+package shared.DTO;
+
+/**
+ * The odds offered on one horse of a race.
+ *
+ * @param horseId        the horse's id
+ * @param winProbability the estimated chance that the horse wins, from 0 to 1
+ * @param odds           the decimal odds a winning bet is paid at, stake included
+ */
+public record HorseOddsDTO(int horseId, double winProbability, double odds) {
+}
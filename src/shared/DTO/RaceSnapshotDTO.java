@@ -0,0 +1,17 @@
+package shared.DTO;
+
+import java.util.List;
+
+/**
+ * The state of a race at one moment, sent to a client that subscribes to the race.
+ *
+ * @param raceName  the race's name
+ * @param sequence  the number of events published about the race so far; updates with a higher number follow
+ * @param state     the race's status
+ * @param tick      the number of ticks run so far
+ * @param positions the positions after the last tick, in the order of the race's horse list
+ * @param finished  the horses that have finished so far, winner first
+ */
+public record RaceSnapshotDTO(String raceName, long sequence, RaceState state, int tick, List<Integer> positions,
+                              List<HorseDTO> finished) {
+}
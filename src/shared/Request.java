@@ -4,7 +4,22 @@ import java.io.Serializable;
 
 import com.google.gson.JsonElement;
 
-public record Request(String handler, String action, JsonElement payload) implements  Serializable {}
+/**
+ * A request sent from the client to the server.
+ * <p>
+ * {@code requestId} is optional. Requests with an id may be executed concurrently and answered
+ * out of order; the response carries the same id. Requests without an id are answered in order.
+ * </p>
+ */
+public record Request(String handler, String action, JsonElement payload, String requestId) implements  Serializable {
+
+  /**
+   * Creates a request without a request id.
+   */
+  public Request(String handler, String action, JsonElement payload) {
+    this(handler, action, payload, null);
+  }
+}
 
 
 
@@ -2,8 +2,18 @@ package shared;
 
 import java.io.Serializable;
 
-public record Respond(String type, Object payload)implements Serializable
+/**
+ * A message sent from the server to the client: the response to a request or a broadcast.
+ * {@code requestId} echoes the id of the request being answered, and is {@code null} otherwise.
+ */
+public record Respond(String type, Object payload, String requestId)implements Serializable
 {
+  /**
+   * Creates a message that does not answer a request with an id.
+   */
+  public Respond(String type, Object payload) {
+    this(type, payload, null);
+  }
 }
 // type : login_respond, register_respond, broadcast, error
 // payload : LoginRespond,RegisterRespond, error
@@ -2,5 +2,24 @@ package shared.bet;
 
 import shared.DTO.HorseDTO;
 
-public record CreateBetRequest(String username, HorseDTO horseDTO, int amount) {
+/**
+ * Request to bet on a horse.
+ *
+ * @param username the user placing the bet
+ * @param horseDTO the horse to bet on
+ * @param amount   the amount wagered
+ * @param raceName the race to bet on; may be {@code null} if the horse runs in only one race open for betting
+ */
+public record CreateBetRequest(String username, HorseDTO horseDTO, int amount, String raceName) {
+
+  /**
+   * Creates a request that leaves it to the server to find the race the horse runs in.
+   *
+   * @param username the user placing the bet
+   * @param horseDTO the horse to bet on
+   * @param amount   the amount wagered
+   */
+  public CreateBetRequest(String username, HorseDTO horseDTO, int amount) {
+    this(username, horseDTO, amount, null);
+  }
 }
@@ -0,0 +1,362 @@
+package shared.protocol;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import shared.DTO.BetResponseDTO;
+import shared.DTO.HorseDTO;
+import shared.Respond;
+import shared.bet.CreateBetResponse;
+import shared.updates.HorsePositionsUpdate;
+import shared.updates.OnHorseFinished;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * {@code BinaryCodec} encodes the messages of the {@link WireFormat#BINARY} format.
+ * <p>
+ * A frame is a four-byte big-endian length followed by that many bytes: one byte naming the kind of
+ * message and its body. The messages sent most often have their own compact bodies: horse positions,
+ * finished horses and bet confirmations. Numbers in those bodies are variable-length (zigzag) integers
+ * and strings are UTF-8 prefixed with their length. A delta of horse positions names the horses that
+ * moved with a bitmask over the lanes, followed by one step per set bit. Both forms of horse positions end
+ * with the server time and the tick length. Every other message is sent as the UTF-8 JSON of
+ * its {@link Respond}, so anything the JSON format can carry can also be carried in a frame.
+ * </p>
+ */
+public final class BinaryCodec {
+  /** Number of bytes of the length prefix in front of every frame. */
+  public static final int HEADER_LENGTH = 4;
+  /** Largest frame body a reader accepts. */
+  public static final int MAX_FRAME_LENGTH = 16 * 1024 * 1024;
+
+  /** Bit set in the kind byte of a frame compressed by a {@link FrameDeflater}. */
+  public static final int COMPRESSED = 0x80;
+
+  static final byte KIND_JSON = 0;
+  static final byte KIND_HORSE_POSITIONS = 1;
+  static final byte KIND_HORSE_FINISHED = 2;
+  static final byte KIND_BET_CONFIRMATION = 3;
+  static final byte KIND_HORSE_POSITIONS_DELTA = 4;
+
+  private static final String HORSE_POSITIONS = "horseMoveUpdate";
+  private static final String HORSE_FINISHED = "onHorseFinished";
+  private static final String BET_CONFIRMATION = "createBet";
+
+  private static final Gson gson = new Gson();
+
+  private BinaryCodec() { }
+
+  /**
+   * Encodes a message into a complete frame, including the length prefix.
+   *
+   * @param respond the message to encode
+   * @return the frame bytes
+   */
+  public static byte[] encode(Respond respond) {
+    byte[] compact = encodeCompact(respond);
+    if (compact != null) return compact;
+    byte[] json = gson.toJson(respond).getBytes(StandardCharsets.UTF_8);
+    return wrapJson(json, 0, json.length);
+  }
+
+  /**
+   * Encodes a message into a frame with a compact body, if its type has one.
+   *
+   * @param respond the message to encode
+   * @return the frame bytes, or {@code null} if the message has to be sent as JSON
+   */
+  public static byte[] encodeCompact(Respond respond) {
+    Encoder out = new Encoder(64);
+    Object payload = respond.payload();
+    if (HORSE_POSITIONS.equals(respond.type()) && payload instanceof HorsePositionsUpdate update
+        && update.isDelta() && respond.requestId() == null) {
+      if (!out.writeDelta(update)) return null;
+    } else if (HORSE_POSITIONS.equals(respond.type()) && payload instanceof HorsePositionsUpdate update
+        && update.positions() != null && respond.requestId() == null) {
+      out.writeByte(KIND_HORSE_POSITIONS);
+      out.writeString(update.raceName());
+      out.writeVarInt(update.positions().size());
+      for (Integer position : update.positions()) out.writeSignedVarInt(position);
+      out.writeVarLong(update.sequence());
+      out.writeVarInt(update.tick());
+      out.writeTiming(update);
+    } else if (HORSE_FINISHED.equals(respond.type()) && payload instanceof OnHorseFinished finished
+        && finished.horseDTO() != null && respond.requestId() == null) {
+      out.writeByte(KIND_HORSE_FINISHED);
+      out.writeString(finished.raceName());
+      out.writeHorse(finished.horseDTO());
+      out.writeSignedVarInt(finished.position());
+      out.writeVarLong(finished.sequence());
+    } else if (BET_CONFIRMATION.equals(respond.type()) && payload instanceof CreateBetResponse confirmation
+        && confirmation.BetDTO() != null && confirmation.BetDTO().horseDTO() != null) {
+      BetResponseDTO bet = confirmation.BetDTO();
+      out.writeByte(KIND_BET_CONFIRMATION);
+      out.writeString(respond.requestId());
+      out.writeString(bet.raceName());
+      out.writeHorse(bet.horseDTO());
+      out.writeString(bet.username());
+      out.writeSignedVarInt(bet.betAmount());
+    } else {
+      return null;
+    }
+    return out.finishFrame();
+  }
+
+  /**
+   * Wraps the UTF-8 JSON of a {@link Respond} into a frame.
+   *
+   * @param json   the bytes holding the JSON document
+   * @param offset the start of the document
+   * @param length the length of the document
+   * @return the frame bytes
+   */
+  public static byte[] wrapJson(byte[] json, int offset, int length) {
+    Encoder out = new Encoder(length + 1);
+    out.writeByte(KIND_JSON);
+    out.writeBytes(json, offset, length);
+    return out.finishFrame();
+  }
+
+  /**
+   * Decodes the body of a frame (the bytes after the length prefix).
+   *
+   * @param body the frame body
+   * @return the decoded message; compact messages carry their typed payload
+   * @throws IOException if the body is not a well-formed frame
+   */
+  public static Respond decode(byte[] body) throws IOException {
+    if (body.length == 0) throw new IOException("Empty frame");
+    Decoder in = new Decoder(body, 1);
+    try {
+      Respond respond = switch (body[0]) {
+        case KIND_JSON -> gson.fromJson(new String(body, 1, body.length - 1, StandardCharsets.UTF_8), Respond.class);
+        case KIND_HORSE_POSITIONS -> {
+          String raceName = in.readString();
+          int count = in.readVarInt();
+          if (count > body.length) throw new IOException("Invalid number of positions: " + count);
+          List<Integer> positions = new ArrayList<>(count);
+          for (int i = 0; i < count; i++) positions.add(in.readSignedVarInt());
+          long sequence = in.readVarLong();
+          int tick = in.readVarInt();
+          yield new Respond(HORSE_POSITIONS, new HorsePositionsUpdate(raceName, positions, sequence, tick)
+              .timed(in.readVarLong(), in.readVarLong()));
+        }
+        case KIND_HORSE_POSITIONS_DELTA -> {
+          String raceName = in.readString();
+          long sequence = in.readVarLong();
+          int tick = in.readVarInt();
+          int lanes = in.readVarInt();
+          if (lanes > (body.length - 1) * 8) throw new IOException("Invalid number of lanes: " + lanes);
+          List<Integer> movedLanes = new ArrayList<>();
+          for (int first = 0; first < lanes; first += 8) {
+            int mask = in.readByte();
+            for (int bit = 0; bit < 8; bit++) {
+              if ((mask & (1 << bit)) != 0) movedLanes.add(first + bit);
+            }
+          }
+          List<Integer> steps = new ArrayList<>(movedLanes.size());
+          for (int i = 0; i < movedLanes.size(); i++) steps.add(in.readSignedVarInt());
+          yield new Respond(HORSE_POSITIONS, HorsePositionsUpdate.delta(raceName, sequence, tick, movedLanes, steps)
+              .timed(in.readVarLong(), in.readVarLong()));
+        }
+        case KIND_HORSE_FINISHED -> {
+          String raceName = in.readString();
+          HorseDTO horse = in.readHorse();
+          int position = in.readSignedVarInt();
+          yield new Respond(HORSE_FINISHED, new OnHorseFinished(raceName, horse, position, in.readVarLong()));
+        }
+        case KIND_BET_CONFIRMATION -> {
+          String requestId = in.readString();
+          String raceName = in.readString();
+          HorseDTO horse = in.readHorse();
+          String username = in.readString();
+          BetResponseDTO bet = new BetResponseDTO(raceName, horse, username, in.readSignedVarInt());
+          yield new Respond(BET_CONFIRMATION, new CreateBetResponse(bet), requestId);
+        }
+        default -> throw new IOException((body[0] & COMPRESSED) != 0
+            ? "Compressed frame was not inflated" : "Unknown frame kind: " + body[0]);
+      };
+      if (respond == null) throw new IOException("Empty message in frame");
+      return respond;
+    } catch (JsonParseException | ArrayIndexOutOfBoundsException e) {
+      throw new IOException("Malformed frame: " + e.getMessage(), e);
+    }
+  }
+
+  /** Appends to a growing byte array. */
+  private static final class Encoder {
+    private byte[] bytes;
+    private int size;
+
+    /** Starts with room for the length prefix, which {@link #finishFrame()} fills in. */
+    Encoder(int bodyCapacity) {
+      bytes = new byte[HEADER_LENGTH + bodyCapacity];
+      size = HEADER_LENGTH;
+    }
+
+    void writeByte(int value) {
+      ensure(1);
+      bytes[size++] = (byte) value;
+    }
+
+    void writeBytes(byte[] value, int offset, int length) {
+      ensure(length);
+      System.arraycopy(value, offset, bytes, size, length);
+      size += length;
+    }
+
+    void writeVarInt(int value) {
+      ensure(5);
+      while ((value & ~0x7F) != 0) {
+        bytes[size++] = (byte) ((value & 0x7F) | 0x80);
+        value >>>= 7;
+      }
+      bytes[size++] = (byte) value;
+    }
+
+    void writeSignedVarInt(int value) {
+      writeVarInt((value << 1) ^ (value >> 31));
+    }
+
+    void writeVarLong(long value) {
+      ensure(10);
+      while ((value & ~0x7FL) != 0) {
+        bytes[size++] = (byte) ((value & 0x7F) | 0x80);
+        value >>>= 7;
+      }
+      bytes[size++] = (byte) value;
+    }
+
+    /** Writes the length plus one, so that {@code 0} can stand for {@code null}. */
+    void writeString(String value) {
+      if (value == null) {
+        writeVarInt(0);
+        return;
+      }
+      byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+      writeVarInt(utf8.length + 1);
+      writeBytes(utf8, 0, utf8.length);
+    }
+
+    /**
+     * Writes a delta of horse positions.
+     *
+     * @return false if the moved lanes are not in ascending order, so the delta has to be sent as JSON
+     */
+    boolean writeDelta(HorsePositionsUpdate update) {
+      List<Integer> movedLanes = update.movedLanes();
+      List<Integer> steps = update.steps();
+      if (steps == null || steps.size() != movedLanes.size()) return false;
+      int lanes = 0;
+      for (int lane : movedLanes) {
+        if (lane < lanes) return false;
+        lanes = lane + 1;
+      }
+
+      writeByte(KIND_HORSE_POSITIONS_DELTA);
+      writeString(update.raceName());
+      writeVarLong(update.sequence());
+      writeVarInt(update.tick());
+      writeVarInt(lanes);
+      int next = 0;
+      for (int first = 0; first < lanes; first += 8) {
+        int mask = 0;
+        while (next < movedLanes.size() && movedLanes.get(next) < first + 8) {
+          mask |= 1 << (movedLanes.get(next++) - first);
+        }
+        writeByte(mask);
+      }
+      for (Integer step : steps) writeSignedVarInt(step);
+      writeTiming(update);
+      return true;
+    }
+
+    /** Writes the server time and the tick length of horse positions. */
+    void writeTiming(HorsePositionsUpdate update) {
+      writeVarLong(update.serverTime());
+      writeVarLong(update.tickMillis());
+    }
+
+    void writeHorse(HorseDTO horse) {
+      writeSignedVarInt(horse.id());
+      writeString(horse.name());
+      writeSignedVarInt(horse.speedMin());
+      writeSignedVarInt(horse.speedMax());
+    }
+
+    byte[] finishFrame() {
+      int length = size - HEADER_LENGTH;
+      bytes[0] = (byte) (length >>> 24);
+      bytes[1] = (byte) (length >>> 16);
+      bytes[2] = (byte) (length >>> 8);
+      bytes[3] = (byte) length;
+      return size == bytes.length ? bytes : Arrays.copyOf(bytes, size);
+    }
+
+    private void ensure(int extra) {
+      if (size + extra > bytes.length) {
+        bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + extra));
+      }
+    }
+  }
+
+  /** Reads from a frame body. */
+  private static final class Decoder {
+    private final byte[] bytes;
+    private int position;
+
+    Decoder(byte[] bytes, int position) {
+      this.bytes = bytes;
+      this.position = position;
+    }
+
+    int readByte() {
+      return bytes[position++] & 0xFF;
+    }
+
+    int readVarInt() throws IOException {
+      int value = 0;
+      for (int shift = 0; shift < 32; shift += 7) {
+        byte b = bytes[position++];
+        value |= (b & 0x7F) << shift;
+        if (b >= 0) return value;
+      }
+      throw new IOException("Variable-length integer is too long");
+    }
+
+    int readSignedVarInt() throws IOException {
+      int value = readVarInt();
+      return (value >>> 1) ^ -(value & 1);
+    }
+
+    long readVarLong() throws IOException {
+      long value = 0;
+      for (int shift = 0; shift < 64; shift += 7) {
+        byte b = bytes[position++];
+        value |= (long) (b & 0x7F) << shift;
+        if (b >= 0) return value;
+      }
+      throw new IOException("Variable-length integer is too long");
+    }
+
+    String readString() throws IOException {
+      int length = readVarInt() - 1;
+      if (length < 0) return null;
+      if (length > bytes.length - position) throw new IOException("String longer than the frame");
+      String value = new String(bytes, position, length, StandardCharsets.UTF_8);
+      position += length;
+      return value;
+    }
+
+    HorseDTO readHorse() throws IOException {
+      int id = readSignedVarInt();
+      String name = readString();
+      int speedMin = readSignedVarInt();
+      return new HorseDTO(id, name, speedMin, readSignedVarInt());
+    }
+  }
+}
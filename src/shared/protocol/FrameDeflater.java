@@ -0,0 +1,75 @@
+package shared.protocol;
+
+import java.util.zip.Deflater;
+
+/**
+ * {@code FrameDeflater} compresses binary frames for one connection. The {@link Deflater} and its output
+ * buffer are reused for every frame, so compressing allocates little more than the resulting frame.
+ * <p>
+ * A compressed frame has the {@link BinaryCodec#COMPRESSED} bit set in its kind byte, followed by the
+ * length of the uncompressed body as a variable-length integer and the raw deflate data of that body.
+ * Not thread-safe: a connection compresses on the thread that writes to it.
+ * </p>
+ */
+public class FrameDeflater {
+  /** The compression name used in the handshake. */
+  public static final String DEFLATE = "deflate";
+
+  private final Deflater deflater;
+  private byte[] output = new byte[8 * 1024];
+
+  /**
+   * @param level the deflate level, from {@link Deflater#BEST_SPEED} to {@link Deflater#BEST_COMPRESSION}
+   */
+  public FrameDeflater(int level) {
+    this.deflater = new Deflater(level, true);
+  }
+
+  /**
+   * Compresses a complete frame, including its length prefix.
+   *
+   * @param frame an uncompressed binary frame
+   * @return the compressed frame, or {@code frame} itself if compressing would not make it smaller
+   */
+  public byte[] deflate(byte[] frame) {
+    int bodyStart = BinaryCodec.HEADER_LENGTH + 1;
+    int bodyLength = frame.length - bodyStart;
+    if (output.length < bodyLength) output = new byte[bodyLength];
+
+    deflater.reset();
+    deflater.setInput(frame, bodyStart, bodyLength);
+    deflater.finish();
+    int size = 0;
+    while (!deflater.finished() && size < bodyLength) {
+      size += deflater.deflate(output, size, bodyLength - size);
+    }
+    // The length of the uncompressed body takes up to five more bytes
+    if (!deflater.finished() || size + 5 >= bodyLength) return frame;
+
+    int lengthBytes = 1;
+    for (int value = bodyLength >>> 7; value != 0; value >>>= 7) lengthBytes++;
+
+    byte[] compressed = new byte[bodyStart + lengthBytes + size];
+    int position = bodyStart;
+    int value = bodyLength;
+    while ((value & ~0x7F) != 0) {
+      compressed[position++] = (byte) ((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    compressed[position++] = (byte) value;
+    System.arraycopy(output, 0, compressed, position, size);
+
+    int length = compressed.length - BinaryCodec.HEADER_LENGTH;
+    compressed[0] = (byte) (length >>> 24);
+    compressed[1] = (byte) (length >>> 16);
+    compressed[2] = (byte) (length >>> 8);
+    compressed[3] = (byte) length;
+    compressed[4] = (byte) (frame[4] | BinaryCodec.COMPRESSED);
+    return compressed;
+  }
+
+  /** Releases the native memory of the deflater. */
+  public void end() {
+    deflater.end();
+  }
+}
@@ -0,0 +1,58 @@
+package shared.protocol;
+
+import java.io.IOException;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * {@code FrameInflater} restores frame bodies compressed by a {@link FrameDeflater}. One instance is
+ * reused for every frame read from a connection. Not thread-safe.
+ */
+public class FrameInflater {
+  private final Inflater inflater = new Inflater(true);
+
+  /**
+   * Decompresses a frame body if it is compressed.
+   *
+   * @param body a frame body, as returned by {@link FrameReader#readFrame()}
+   * @return the uncompressed body, or {@code body} itself if it was not compressed
+   * @throws IOException if the compressed data is corrupt
+   */
+  public byte[] inflate(byte[] body) throws IOException {
+    if (body.length == 0 || (body[0] & BinaryCodec.COMPRESSED) == 0) return body;
+
+    int position = 1;
+    int length = 0;
+    for (int shift = 0; ; shift += 7) {
+      if (position >= body.length || shift > 28) throw new IOException("Malformed compressed frame");
+      byte b = body[position++];
+      length |= (b & 0x7F) << shift;
+      if (b >= 0) break;
+    }
+    if (length < 0 || length > BinaryCodec.MAX_FRAME_LENGTH) {
+      throw new IOException("Invalid uncompressed frame length: " + length);
+    }
+
+    byte[] result = new byte[1 + length];
+    result[0] = (byte) (body[0] & ~BinaryCodec.COMPRESSED);
+    inflater.reset();
+    inflater.setInput(body, position, body.length - position);
+    try {
+      int size = 1;
+      while (size < result.length && !inflater.finished()) {
+        int inflated = inflater.inflate(result, size, result.length - size);
+        if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) break;
+        size += inflated;
+      }
+      if (size != result.length) throw new IOException("Compressed frame is shorter than announced");
+    } catch (DataFormatException e) {
+      throw new IOException("Corrupt compressed frame: " + e.getMessage(), e);
+    }
+    return result;
+  }
+
+  /** Releases the native memory of the inflater. */
+  public void end() {
+    inflater.end();
+  }
+}
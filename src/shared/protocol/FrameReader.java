@@ -0,0 +1,76 @@
+package shared.protocol;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * {@code FrameReader} reads server messages in either {@link WireFormat}: newline-terminated JSON lines
+ * or length-prefixed binary frames. It works on bytes, so a connection can switch from lines to frames
+ * after the handshake without losing data a character reader would already have buffered.
+ */
+public class FrameReader {
+  private final InputStream in;
+  private final ByteArrayOutputStream line = new ByteArrayOutputStream(256);
+
+  /**
+   * @param in the stream to read from; it is buffered by the reader
+   */
+  public FrameReader(InputStream in) {
+    this.in = new BufferedInputStream(in);
+  }
+
+  /**
+   * Reads the next line, without its line terminator.
+   *
+   * @return the line, or {@code null} if the stream ended
+   * @throws IOException if reading fails
+   */
+  public String readLine() throws IOException {
+    line.reset();
+    int b;
+    while ((b = in.read()) != '\n') {
+      if (b < 0) {
+        return line.size() == 0 ? null : line.toString(StandardCharsets.UTF_8);
+      }
+      line.write(b);
+    }
+    return line.toString(StandardCharsets.UTF_8).stripTrailing();
+  }
+
+  /**
+   * Reads the next binary frame.
+   *
+   * @return the frame body (the bytes after the length prefix), or {@code null} if the stream ended
+   * @throws IOException if reading fails, the stream ends inside a frame or the frame is too large
+   */
+  public byte[] readFrame() throws IOException {
+    int length = 0;
+    for (int i = 0; i < BinaryCodec.HEADER_LENGTH; i++) {
+      int b = in.read();
+      if (b < 0) {
+        if (i == 0) return null;
+        throw new EOFException("Stream ended inside a frame header");
+      }
+      length = (length << 8) | b;
+    }
+    if (length < 0 || length > BinaryCodec.MAX_FRAME_LENGTH) {
+      throw new IOException("Invalid frame length: " + length);
+    }
+    byte[] body = in.readNBytes(length);
+    if (body.length < length) throw new EOFException("Stream ended inside a frame");
+    return body;
+  }
+
+  /**
+   * Closes the underlying stream.
+   *
+   * @throws IOException if closing fails
+   */
+  public void close() throws IOException {
+    in.close();
+  }
+}
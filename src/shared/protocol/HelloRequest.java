@@ -0,0 +1,8 @@
+package shared.protocol;
+
+import java.util.List;
+
+// formats : the wire format names the client can read, most preferred first
+// compression : the compression names the client can read in binary frames (e.g. "deflate"), may be null
+public record HelloRequest(List<String> formats, List<String> compression) {
+}
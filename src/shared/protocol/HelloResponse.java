@@ -0,0 +1,6 @@
+package shared.protocol;
+
+// format : the wire format the server uses for every message after this one
+// compression : the compression the server may apply to large binary frames, or null for none
+public record HelloResponse(String format, String compression) {
+}
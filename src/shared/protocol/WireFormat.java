@@ -0,0 +1,36 @@
+package shared.protocol;
+
+/**
+ * The encodings a connection can use for messages sent from the server to the client.
+ * <p>
+ * Every connection starts with {@link #JSON}, one JSON document per line. A client that sends a
+ * {@link HelloRequest} listing {@link #BINARY} is switched to length-prefixed frames encoded by
+ * {@link BinaryCodec} right after the {@link HelloResponse}.
+ * </p>
+ */
+public enum WireFormat {
+  JSON("json"),
+  BINARY("binary");
+
+  private final String wireName;
+
+  WireFormat(String wireName) {
+    this.wireName = wireName;
+  }
+
+  /** @return the name of the format used in the handshake */
+  public String wireName() {
+    return wireName;
+  }
+
+  /**
+   * @param name a format name sent in the handshake
+   * @return the matching format, or {@code null} if the name is unknown
+   */
+  public static WireFormat fromName(String name) {
+    for (WireFormat format : values()) {
+      if (format.wireName.equals(name)) return format;
+    }
+    return null;
+  }
+}
@@ -0,0 +1,10 @@
+package shared.race;
+
+/**
+ * Request to remove a race from the calendar before betting opens for it.
+ *
+ * @param name the name of the race
+ */
+public record CancelRaceRequest(String name)
+{
+}
@@ -2,7 +2,31 @@ package shared.race;
 
 import shared.DTO.RaceTrackDTO;
 
-public record CreateRaceRequest(String name, RaceTrackDTO raceTrack, Integer capacity)
+import java.sql.Timestamp;
+
+/**
+ * Request to create a race.
+ *
+ * @param name               the name of the race
+ * @param raceTrack          the track the race is run on
+ * @param capacity           the number of horses in the race
+ * @param startTime          when the race starts, or {@code null} to start it one betting window from now
+ * @param tickIntervalMillis the time between two moves of the horses in milliseconds,
+ *                           or {@code null} for the server's default
+ */
+public record CreateRaceRequest(String name, RaceTrackDTO raceTrack, Integer capacity, Timestamp startTime,
+                                Long tickIntervalMillis)
 {
+  /**
+   * Creates a request for a race starting one betting window from now, moving at the server's default
+   * tick interval.
+   *
+   * @param name      the name of the race
+   * @param raceTrack the track the race is run on
+   * @param capacity  the number of horses in the race
+   */
+  public CreateRaceRequest(String name, RaceTrackDTO raceTrack, Integer capacity)
+  {
+    this(name, raceTrack, capacity, null, null);
+  }
 }
-
@@ -0,0 +1,12 @@
+package shared.race;
+
+/**
+ * Request to replay a finished race.
+ *
+ * @param name  the name of the race
+ * @param speed how many times faster than the race ran, from 1 to {@link ReplayRaceResponse#MAX_SPEED};
+ *              0 (or left out) replays at normal speed
+ */
+public record ReplayRaceRequest(String name, double speed)
+{
+}
@@ -0,0 +1,18 @@
+package shared.race;
+
+import java.util.List;
+
+/**
+ * Answer to a {@link ReplayRaceRequest}. The positions after every tick follow as "horseMoveUpdate" messages
+ * for the race, {@code tickIntervalMillis} apart.
+ *
+ * @param raceName           the name of the race
+ * @param horseIds           the ids of the horses, in the order of the positions
+ * @param ticks              the number of position updates that follow
+ * @param tickIntervalMillis the time between two position updates in the replay
+ */
+public record ReplayRaceResponse(String raceName, List<Integer> horseIds, int ticks, long tickIntervalMillis)
+{
+  /** The fastest replay speed. */
+  public static final double MAX_SPEED = 64;
+}
@@ -0,0 +1,13 @@
+package shared.race;
+
+import java.sql.Timestamp;
+
+/**
+ * Request to move the start of a race that has not started yet.
+ *
+ * @param name      the name of the race
+ * @param startTime the new start time
+ */
+public record RescheduleRaceRequest(String name, Timestamp startTime)
+{
+}
@@ -0,0 +1,4 @@
+package shared.subscription;
+
+public record SubscriptionRequest(String topic) {
+}
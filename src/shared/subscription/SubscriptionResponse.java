@@ -0,0 +1,20 @@
+package shared.subscription;
+
+import shared.DTO.RaceSnapshotDTO;
+
+/**
+ * Answer to a {@link SubscriptionRequest}.
+ *
+ * @param topic      the topic
+ * @param subscribed whether the connection is now subscribed to it
+ * @param snapshot   for a race topic, the current state of the race, or null if the race is not scheduled
+ */
+public record SubscriptionResponse(String topic, boolean subscribed, RaceSnapshotDTO snapshot) {
+
+  /**
+   * Creates an answer without a snapshot.
+   */
+  public SubscriptionResponse(String topic, boolean subscribed) {
+    this(topic, subscribed, null);
+  }
+}
@@ -0,0 +1,41 @@
+package shared.subscription;
+
+/**
+ * Names of the topics a client can subscribe to for server push messages.
+ * <p>
+ * {@link #RACE_LIST} delivers changes of any race's state (betting open, started, finished);
+ * {@link #race(String)} delivers everything about one race, including position updates.
+ * </p>
+ */
+public final class Topics {
+  public static final String RACE_LIST = "raceList";
+  private static final String RACE_PREFIX = "race:";
+  private static final int MAX_LENGTH = 128;
+
+  private Topics() { }
+
+  /**
+   * @param raceName the name of a race
+   * @return the topic of that race
+   */
+  public static String race(String raceName) {
+    return RACE_PREFIX + raceName;
+  }
+
+  /**
+   * @param topic a topic name
+   * @return the name of the race the topic is about, or null if it is not a race topic
+   */
+  public static String raceName(String topic) {
+    return topic != null && topic.startsWith(RACE_PREFIX) ? topic.substring(RACE_PREFIX.length()) : null;
+  }
+
+  /**
+   * @param topic a topic name sent by a client
+   * @return {@code true} if the server publishes to such a topic
+   */
+  public static boolean isValid(String topic) {
+    if (topic == null || topic.length() > MAX_LENGTH) return false;
+    return topic.equals(RACE_LIST) || (topic.startsWith(RACE_PREFIX) && topic.length() > RACE_PREFIX.length());
+  }
+}
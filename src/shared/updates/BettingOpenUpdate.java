@@ -1,4 +1,14 @@
 package shared.updates;
 
-public record BettingOpenUpdate (String raceName){
+import shared.DTO.HorseOddsDTO;
+
+import java.util.List;
+
+/**
+ * Sent when betting opens for a race.
+ *
+ * @param raceName the race's name
+ * @param odds     the odds offered on its horses, in lane order; empty if the race was not priced
+ */
+public record BettingOpenUpdate (String raceName, List<HorseOddsDTO> odds){
 }
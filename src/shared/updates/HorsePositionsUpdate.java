@@ -2,5 +2,79 @@ package shared.updates;
 
 import java.util.List;
 
-public record HorsePositionsUpdate(String raceName, List<Integer> positions) {
+/**
+ * The positions of the horses of a race after one tick.
+ * <p>
+ * An update is either a keyframe, holding the position of every horse, or a delta, holding only how far
+ * the horses that moved went since the previous tick. A race sends a keyframe every few ticks and deltas
+ * in between; a delta can only be applied to the positions of the tick right before it.
+ * </p>
+ * <p>
+ * Updates also carry when the server took the positions and how long a tick of the race lasts, so a client
+ * can move the horses smoothly from one update to the next instead of jumping once per tick.
+ * </p>
+ *
+ * @param raceName   the race's name
+ * @param positions  the position of every horse, in the order of the race's horse list; null in a delta
+ * @param sequence   the sequence number of the last event about the race before these positions
+ * @param tick       the tick the positions are from, counted from 1
+ * @param movedLanes in a delta, the lanes of the horses that moved, in ascending order; null in a keyframe
+ * @param steps      in a delta, how far each of those horses moved; null in a keyframe
+ * @param serverTime when the server took the positions, in milliseconds since the epoch; 0 if unknown
+ * @param tickMillis the time between two ticks of the race in milliseconds; 0 if unknown
+ */
+public record HorsePositionsUpdate(String raceName, List<Integer> positions, long sequence, int tick,
+                                   List<Integer> movedLanes, List<Integer> steps, long serverTime,
+                                   long tickMillis) {
+
+  /**
+   * Creates a keyframe or a delta without timing.
+   */
+  public HorsePositionsUpdate(String raceName, List<Integer> positions, long sequence, int tick,
+                              List<Integer> movedLanes, List<Integer> steps) {
+    this(raceName, positions, sequence, tick, movedLanes, steps, 0, 0);
+  }
+
+  /**
+   * Creates a keyframe without timing.
+   */
+  public HorsePositionsUpdate(String raceName, List<Integer> positions, long sequence, int tick) {
+    this(raceName, positions, sequence, tick, null, null);
+  }
+
+  /**
+   * Creates a keyframe outside of any sequence, e.g. for a replay.
+   */
+  public HorsePositionsUpdate(String raceName, List<Integer> positions) {
+    this(raceName, positions, 0, 0);
+  }
+
+  /**
+   * Creates a delta.
+   *
+   * @param raceName   the race's name
+   * @param sequence   the sequence number of the last event about the race before these positions
+   * @param tick       the tick the positions are from; the delta applies to the positions of the tick before
+   * @param movedLanes the lanes of the horses that moved, in ascending order
+   * @param steps      how far each of those horses moved
+   * @return the delta
+   */
+  public static HorsePositionsUpdate delta(String raceName, long sequence, int tick, List<Integer> movedLanes,
+                                           List<Integer> steps) {
+    return new HorsePositionsUpdate(raceName, null, sequence, tick, movedLanes, steps);
+  }
+
+  /**
+   * @param serverTime when the server took the positions, in milliseconds since the epoch
+   * @param tickMillis the time between two ticks of the race in milliseconds
+   * @return this update with the given timing
+   */
+  public HorsePositionsUpdate timed(long serverTime, long tickMillis) {
+    return new HorsePositionsUpdate(raceName, positions, sequence, tick, movedLanes, steps, serverTime, tickMillis);
+  }
+
+  /** @return true if this update only holds the steps of the horses that moved */
+  public boolean isDelta() {
+    return positions == null && movedLanes != null;
+  }
 }
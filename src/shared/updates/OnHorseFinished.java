@@ -2,5 +2,20 @@ package shared.updates;
 
 import shared.DTO.HorseDTO;
 
-public record OnHorseFinished(HorseDTO horseDTO, int position) {
+/**
+ * Sent when a horse crosses the finish line.
+ *
+ * @param raceName the race's name
+ * @param horseDTO the horse
+ * @param position the place it finished in, from 1
+ * @param sequence the sequence number of this event in the race
+ */
+public record OnHorseFinished(String raceName, HorseDTO horseDTO, int position, long sequence) {
+
+  /**
+   * Creates an update outside of any sequence.
+   */
+  public OnHorseFinished(String raceName, HorseDTO horseDTO, int position) {
+    this(raceName, horseDTO, position, 0);
+  }
 }
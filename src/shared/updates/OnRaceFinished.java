@@ -4,5 +4,19 @@ import shared.DTO.HorseDTO;
 
 import java.util.List;
 
-public record OnRaceFinished(String raceName, List<HorseDTO> finalPositionsDTO) {
+/**
+ * Sent when the last horse of a race has finished.
+ *
+ * @param raceName          the race's name
+ * @param finalPositionsDTO the horses in their finishing order
+ * @param sequence          the sequence number of this event in the race
+ */
+public record OnRaceFinished(String raceName, List<HorseDTO> finalPositionsDTO, long sequence) {
+
+  /**
+   * Creates an update outside of any sequence.
+   */
+  public OnRaceFinished(String raceName, List<HorseDTO> finalPositionsDTO) {
+    this(raceName, finalPositionsDTO, 0);
+  }
 }
@@ -1,4 +1,17 @@
 package shared.updates;
 
-public record OnRaceStarted(String raceName) {
+/**
+ * Sent when a race starts.
+ *
+ * @param raceName the race's name
+ * @param sequence the sequence number of this event in the race
+ */
+public record OnRaceStarted(String raceName, long sequence) {
+
+  /**
+   * Creates an update outside of any sequence.
+   */
+  public OnRaceStarted(String raceName) {
+    this(raceName, 0);
+  }
 }